@@ -0,0 +1,55 @@
+
+/**
+ * The AdaptiveDifficulty Class follows how a player is doing and moves the range of word scores (see the
+ * WordScores Class) their next word is drawn from: a win moves it up, towards harder words, and a loss
+ * moves it down. The range keeps the same width and never leaves [0, 1].
+ * @author Cristobal Padilla
+ *
+ */
+public class AdaptiveDifficulty {
+
+	// Static constants.
+	public static final double START_CENTER = 0.5;
+	public static final double WIDTH = 0.2;
+	public static final double STEP = 0.05;
+
+	// Instance fields.
+	private double center;
+
+	/**
+	 * No-args constructor. The player starts in the middle of the scores.
+	 */
+	public AdaptiveDifficulty() {
+		center = START_CENTER;
+
+	}
+
+	/**
+	 * Method used to move the range after a game.
+	 * @param won True if the player guessed the word.
+	 */
+	public void recordGame(boolean won) {
+
+		center += won ? STEP : -STEP;
+		center = Math.max(WIDTH / 2, Math.min(1.0 - WIDTH / 2, center));
+
+	}
+
+	/**
+	 * Method used to get the lowest score of the range.
+	 * @return lowScore, included.
+	 */
+	public double getLow() {
+		return center - WIDTH / 2;
+
+	}
+
+	/**
+	 * Method used to get the highest score of the range.
+	 * @return highScore, excluded.
+	 */
+	public double getHigh() {
+		return center + WIDTH / 2;
+
+	}
+}
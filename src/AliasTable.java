@@ -0,0 +1,121 @@
+
+import java.util.*;
+
+/**
+ * The AliasTable Class implements Vose's version of Walker's alias method. Once the table is
+ * built from a list of weights, each weighted draw costs one random int, one random double
+ * and two array reads, no matter how many entries the table holds.
+ * @author Cristobal Padilla
+ *
+ */
+public class AliasTable {
+
+	// Instance fields.
+	private final double[] probability;
+	private final int[] alias;
+
+	/**
+	 * Constructor builds the probability and alias columns from the given weights. Weights
+	 * don't need to add up to anything in particular, but they must be positive.
+	 * @param weights relative weight of every entry.
+	 * @throws IllegalArgumentException the list is empty, or a weight is not positive.
+	 */
+	public AliasTable(List<Double> weights) {
+
+		int size = weights.size();
+
+		if (size == 0)
+			throw new IllegalArgumentException("Alias table needs at least one weight.");
+
+		probability = new double[size];
+		alias = new int[size];
+
+		double total = 0;
+
+		for (int index = 0; index < size; index++) {
+			double weight = weights.get(index);
+
+			if (!(weight > 0) || Double.isInfinite(weight))
+				throw new IllegalArgumentException("Invalid weight " + weight + " at entry " + index + ".");
+
+			total += weight;
+
+		}
+
+		double[] scaled = new double[size];
+		int[] small = new int[size];																	// Work lists, used as stacks.
+		int[] large = new int[size];
+		int numSmall = 0;
+		int numLarge = 0;
+
+		for (int index = 0; index < size; index++) {
+			scaled[index] = weights.get(index) * size / total;											// Average entry is scaled to exactly 1.
+
+			if (scaled[index] < 1.0)
+				small[numSmall++] = index;
+			else
+				large[numLarge++] = index;
+
+		}
+
+		while (numSmall > 0 && numLarge > 0) {
+			int less = small[--numSmall];
+			int more = large[--numLarge];
+
+			probability[less] = scaled[less];
+			alias[less] = more;
+			scaled[more] = (scaled[more] + scaled[less]) - 1.0;											// Give away what "less" was missing.
+
+			if (scaled[more] < 1.0)
+				small[numSmall++] = more;
+			else
+				large[numLarge++] = more;
+
+		}
+
+		while (numLarge > 0) {																			// Whatever is left is 1 up to rounding error.
+			probability[large[--numLarge]] = 1.0;
+
+		}
+
+		while (numSmall > 0) {
+			probability[small[--numSmall]] = 1.0;
+
+		}
+	}
+
+	/**
+	 * Method used to draw one entry index, with a chance proportional to its weight.
+	 * @param generator source of randomness.
+	 * @return index of the entry drawn.
+	 */
+	public int next(Random generator) {
+
+		int column = generator.nextInt(probability.length);
+
+		if (generator.nextDouble() < probability[column])
+			return column;
+		else
+			return alias[column];
+
+	}
+
+	/**
+	 * Method used to get the number of entries in the table.
+	 * @return size
+	 */
+	public int size() {
+		return probability.length;
+
+	}
+
+	/**
+	 * Method used to get an estimate of the memory taken by the table, in bytes. Only the two
+	 * columns are counted, since they're all the table keeps after it's built.
+	 * @return bytes
+	 */
+	public long memoryFootprint() {
+		return (long) probability.length * Double.BYTES + (long) alias.length * Integer.BYTES;
+
+	}
+}
@@ -0,0 +1,233 @@
+
+import java.util.*;
+
+/**
+ * The Alphabet Class holds the letters a dictionary is written in, and maps each letter (a code point)
+ * to a dense index, starting at 0. The map is built once, when the dictionary is loaded, so that looking
+ * up a letter is one array read for Latin scripts. Since an alphabet has at most MAX_SIZE letters, any set
+ * of letters fits in one long, used as a bitset: bit i is set if the letter at index i is in the set.
+ * @author Cristobal Padilla
+ *
+ */
+public class Alphabet {
+
+	// Static constants.
+	public static final int MAX_SIZE = Long.SIZE;
+	public static final int TABLE_SIZE = 0x250;															// Basic Latin up to the end of Latin Extended-B.
+	public static final Alphabet ENGLISH = new Alphabet(range('a', 'z'));
+
+	// Instance fields.
+	private final int[] codePoints;
+	private final byte[] table;																		// Index + 1 for code points below TABLE_SIZE, 0 if absent.
+	private final HashMap<Integer, Integer> otherCodePoints;
+
+	/**
+	 * Constructor takes the letters of the alphabet, in display order.
+	 * @param codePoints lowercase letters, without repeats.
+	 * @throws IllegalArgumentException there are more than MAX_SIZE letters, or a letter repeats.
+	 */
+	public Alphabet(int[] codePoints) {
+
+		if (codePoints.length > MAX_SIZE)
+			throw new IllegalArgumentException("An alphabet can't have more than " + MAX_SIZE + " letters, this one has " +
+											   codePoints.length + ".");
+
+		this.codePoints = codePoints.clone();
+		table = new byte[TABLE_SIZE];
+		otherCodePoints = new HashMap<Integer, Integer>();
+
+		for (int index = 0; index < codePoints.length; index++) {
+
+			if (indexOf(codePoints[index]) >= 0)
+				throw new IllegalArgumentException("Letter " + new String(Character.toChars(codePoints[index])) + " repeats.");
+
+			if (codePoints[index] < TABLE_SIZE)
+				table[codePoints[index]] = (byte) (index + 1);
+			else
+				otherCodePoints.put(codePoints[index], index);
+
+		}
+	}
+
+	/**
+	 * Method used to build the alphabet of a list of words: the English letters, followed by any other letter
+	 * that appears in the words, in code point order.
+	 * @param foldedWords words, already case-folded with fold().
+	 * @return alphabet
+	 * @throws IllegalArgumentException the words use more than MAX_SIZE letters.
+	 */
+	public static Alphabet forWords(Collection<String> foldedWords) {
+
+		boolean[] seen = new boolean[TABLE_SIZE];
+		TreeSet<Integer> others = new TreeSet<Integer>();
+		int numLetters = 0;
+
+		for (int codePoint = 'a'; codePoint <= 'z'; codePoint++) {
+			seen[codePoint] = true;
+			numLetters++;
+
+		}
+
+		for (String word : foldedWords) {
+
+			for (int index = 0; index < word.length(); ) {
+				int codePoint = word.codePointAt(index);
+				index += Character.charCount(codePoint);
+
+				if (!Character.isLetter(codePoint))
+					continue;
+
+				if (codePoint < TABLE_SIZE) {
+
+					if (!seen[codePoint]) {
+						seen[codePoint] = true;
+						numLetters++;
+
+					}
+
+				} else if (others.add(codePoint)) {
+					numLetters++;
+
+				}
+			}
+		}
+
+		if (numLetters == ENGLISH.size())
+			return ENGLISH;
+
+		int[] codePoints = new int[numLetters];
+		int count = 0;
+
+		for (int index = 'a'; index <= 'z'; index++) {
+			codePoints[count++] = index;
+
+		}
+
+		for (int codePoint = 0; codePoint < TABLE_SIZE; codePoint++) {
+
+			if (seen[codePoint] && (codePoint < 'a' || codePoint > 'z'))
+				codePoints[count++] = codePoint;
+
+		}
+
+		for (int codePoint : others) {
+			codePoints[count++] = codePoint;
+
+		}
+		return new Alphabet(codePoints);
+
+	}
+
+	/**
+	 * Method used to case-fold a word, one code point at a time, so that the folded word has exactly the
+	 * same length as the original and positions line up. Note that String.toLowerCase() doesn't promise that.
+	 * @param word word as it appears in the dictionary.
+	 * @return folded word.
+	 */
+	public static String fold(String word) {
+
+		StringBuilder folded = null;
+
+		for (int index = 0; index < word.length(); ) {
+			int codePoint = word.codePointAt(index);
+			int lower = Character.toLowerCase(codePoint);
+
+			if (Character.charCount(lower) != Character.charCount(codePoint))
+				lower = codePoint;
+
+			if (folded == null && lower != codePoint)												// First change: copy what came before it.
+				folded = new StringBuilder(word.length()).append(word, 0, index);
+
+			if (folded != null)
+				folded.appendCodePoint(lower);
+
+			index += Character.charCount(codePoint);
+
+		}
+		return (folded == null) ? word : folded.toString();
+
+	}
+
+	/**
+	 * Method used to get the index of a letter.
+	 * @param codePoint lowercase letter.
+	 * @return index, or -1 if the letter is not in the alphabet.
+	 */
+	public int indexOf(int codePoint) {
+
+		if (codePoint >= 0 && codePoint < TABLE_SIZE)
+			return table[codePoint] - 1;
+
+		Integer index = otherCodePoints.get(codePoint);
+		return (index == null) ? -1 : index;
+
+	}
+
+	/**
+	 * Method used to get the bit of a letter.
+	 * @param codePoint lowercase letter.
+	 * @return bit, or 0 if the letter is not in the alphabet.
+	 */
+	public long bit(int codePoint) {
+
+		int index = indexOf(codePoint);
+		return (index < 0) ? 0 : 1L << index;
+
+	}
+
+	/**
+	 * Method used to get the set of letters a folded word is made of.
+	 * @param foldedWord word, already case-folded with fold().
+	 * @return bitset of letters.
+	 */
+	public long letterMask(String foldedWord) {
+
+		long mask = 0;
+
+		for (int index = 0; index < foldedWord.length(); ) {
+			int codePoint = foldedWord.codePointAt(index);
+			mask |= bit(codePoint);
+			index += Character.charCount(codePoint);
+
+		}
+		return mask;
+
+	}
+
+	/**
+	 * Method used to get the letter at an index.
+	 * @param index index of the letter.
+	 * @return codePoint
+	 */
+	public int codePointAt(int index) {
+		return codePoints[index];
+
+	}
+
+	/**
+	 * Method used to get the number of letters in the alphabet.
+	 * @return size
+	 */
+	public int size() {
+		return codePoints.length;
+
+	}
+
+	/**
+	 * Method used to build the code points of a range of letters.
+	 * @param first first letter.
+	 * @param last last letter.
+	 * @return codePoints
+	 */
+	private static int[] range(char first, char last) {
+
+		int[] codePoints = new int[last - first + 1];
+
+		for (int index = 0; index < codePoints.length; index++) {
+			codePoints[index] = first + index;
+
+		}
+		return codePoints;
+
+	}
+}
@@ -0,0 +1,211 @@
+
+import java.util.List;
+
+/**
+ * The BatchGuessEvaluator Class plays one guessed letter against many secret words at once, e.g. every game
+ * of a simulation or of a server's loop. The words of a partition are packed one byte per char, the
+ * alphabet index of the char plus one (0 pads the last long of a word, 0xFF stands for a char outside the
+ * alphabet), eight chars to a long, in one long array. Looking for a letter in eight chars is then a few
+ * arithmetic operations on a long (SWAR, SIMD within a register): XOR with the letter in every byte, find
+ * the zero bytes, and gather their high bits into eight bits of the positions found. A game's revealed
+ * positions are a long bitset, bit i for the char at index i, so a whole batch is updated with an OR per
+ * game. evaluateScalar() does the same over the same layout one byte at a time, as the reference.
+ * Words may have at most MAX_WORD_LENGTH chars. It's never changed once built, so it can be shared by
+ * any number of threads.
+ * It's a prototype measured by HangmanBenchmark, not a feature of the game: HangmanServer still plays
+ * each guess on its own, through Hangman, and nothing else uses this evaluator.
+ * @author Cristobal Padilla
+ *
+ */
+public class BatchGuessEvaluator {
+
+	// Longest word: one bit per position in a long.
+	public static final int MAX_WORD_LENGTH = Long.SIZE;
+
+	// Byte of a char outside the alphabet: no letter matches it.
+	public static final int NOT_ALPHABET = 0xFF;
+
+	// SWAR masks.
+	private static final long ONES = 0x0101010101010101L;
+	private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+	private static final long GATHER = 0x0102040810204080L;
+
+	// Instance fields.
+	private final Alphabet alphabet;
+	private final long[] packed;
+	private final int[] starts;
+	private final byte[] lengths;
+
+	/**
+	 * Constructor packs the words of a partition.
+	 * @param partition words to play with.
+	 * @throws IllegalArgumentException a word is longer than MAX_WORD_LENGTH chars.
+	 */
+	public BatchGuessEvaluator(DictionaryIndex.Partition partition) {
+
+		List<String> words = partition.getWords();
+		alphabet = partition.getAlphabet();
+		starts = new int[words.size() + 1];
+		lengths = new byte[words.size()];
+		int numLongs = 0;
+
+		for (int wordId = 0; wordId < words.size(); wordId++) {
+			int length = words.get(wordId).length();
+
+			if (length > MAX_WORD_LENGTH)
+				throw new IllegalArgumentException("\"" + words.get(wordId) + "\" is longer than " + MAX_WORD_LENGTH + " chars.");
+
+			starts[wordId] = numLongs;
+			lengths[wordId] = (byte) length;
+			numLongs += (length + 7) >>> 3;
+
+		}
+
+		starts[words.size()] = numLongs;
+		packed = new long[numLongs];
+
+		for (int wordId = 0; wordId < words.size(); wordId++) {
+			String foldedWord = Alphabet.fold(words.get(wordId));
+
+			for (int index = 0; index < foldedWord.length(); index++) {
+				int letter = alphabet.indexOf(foldedWord.charAt(index));
+				long code = (letter < 0) ? NOT_ALPHABET : letter + 1;
+				packed[starts[wordId] + (index >>> 3)] |= code << ((index & 7) << 3);
+
+			}
+		}
+	}
+
+	/**
+	 * Method used to play a letter against a batch of games: the positions of the letter in each game's word
+	 * are added to its revealed positions.
+	 * @param validUserGuess lowercase char guessed.
+	 * @param wordIds index of each game's word in the partition.
+	 * @param revealed revealed positions of each game, updated.
+	 * @param count number of games, from index 0.
+	 * @return number of games whose word has the letter.
+	 */
+	public int evaluate(char validUserGuess, int[] wordIds, long[] revealed, int count) {
+
+		int letter = alphabet.indexOf(validUserGuess);
+
+		if (letter < 0)
+			return 0;
+
+		long pattern = (letter + 1) * ONES;																		// The letter in every byte.
+		int numHits = 0;
+
+		for (int game = 0; game < count; game++) {
+			long positions = positions(wordIds[game], pattern);
+			revealed[game] |= positions;
+			numHits += (positions != 0) ? 1 : 0;
+
+		}
+		return numHits;
+
+	}
+
+	/**
+	 * Method used to play a letter against a batch of games one char at a time. It gives the same results
+	 * as evaluate().
+	 * @param validUserGuess lowercase char guessed.
+	 * @param wordIds index of each game's word in the partition.
+	 * @param revealed revealed positions of each game, updated.
+	 * @param count number of games, from index 0.
+	 * @return number of games whose word has the letter.
+	 */
+	public int evaluateScalar(char validUserGuess, int[] wordIds, long[] revealed, int count) {
+
+		int letter = alphabet.indexOf(validUserGuess);
+
+		if (letter < 0)
+			return 0;
+
+		int numHits = 0;
+
+		for (int game = 0; game < count; game++) {
+			int wordId = wordIds[game];
+			int start = starts[wordId];
+			long positions = 0;
+
+			for (int index = 0; index < lengths[wordId]; index++) {
+
+				if ((int) (packed[start + (index >>> 3)] >>> ((index & 7) << 3) & 0xFF) == letter + 1)
+					positions |= 1L << index;
+
+			}
+			revealed[game] |= positions;
+			numHits += (positions != 0) ? 1 : 0;
+
+		}
+		return numHits;
+
+	}
+
+	/**
+	 * Method used to find the positions of a letter in a word.
+	 * @param wordId index of the word in the partition.
+	 * @param validUserGuess lowercase char guessed.
+	 * @return bitset of positions, 0 if the letter is not in the word or not in the alphabet.
+	 */
+	public long positions(int wordId, char validUserGuess) {
+
+		int letter = alphabet.indexOf(validUserGuess);
+		return (letter < 0) ? 0 : positions(wordId, (letter + 1) * ONES);
+
+	}
+
+	/**
+	 * Method used to find the positions of a letter in a word, eight chars at a time. A byte of x is zero
+	 * where the word has the letter; adding LOW_BITS to the low seven bits carries into the high bit of every
+	 * byte but the zero ones, which the final OR and NOT leave as the only high bits set. Each high bit is
+	 * then moved to bit 56 + i by one multiplication, with no carries between them.
+	 * @param wordId index of the word in the partition.
+	 * @param pattern letter code in every byte.
+	 * @return bitset of positions.
+	 */
+	private long positions(int wordId, long pattern) {
+
+		long positions = 0;
+		int end = starts[wordId + 1];
+
+		for (int chunk = starts[wordId], shift = 0; chunk < end; chunk++, shift += 8) {
+			long x = packed[chunk] ^ pattern;
+			long zeros = ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+			positions |= (((zeros >>> 7) * GATHER) >>> 56) << shift;
+
+		}
+		return positions;
+
+	}
+
+	/**
+	 * Method used to get the positions a game must reveal to win: every char of the word, so a word with a
+	 * char outside the alphabet can't be won, like in Hangman.
+	 * @param wordId index of the word in the partition.
+	 * @return bitset of positions.
+	 */
+	public long allPositions(int wordId) {
+		return (lengths[wordId] == Long.SIZE) ? -1L : (1L << lengths[wordId]) - 1;
+
+	}
+
+	/**
+	 * Method used to get the number of chars of a word.
+	 * @param wordId index of the word in the partition.
+	 * @return length
+	 */
+	public int getLength(int wordId) {
+		return lengths[wordId];
+
+	}
+
+	/**
+	 * Method used to estimate the memory the packed words take, in bytes.
+	 * @return bytes
+	 */
+	public long memoryFootprint() {
+		return (long) packed.length * Long.BYTES + (long) starts.length * Integer.BYTES + lengths.length;
+
+	}
+}
@@ -0,0 +1,117 @@
+
+import java.util.*;
+
+/**
+ * This strategy plays the way a careful person would. It keeps only the dictionary words that still fit:
+ * same length, same revealed chars in the same places, and no letter that has already been guessed in a
+ * hidden place. Then it guesses the unused letter that appears in the most of those words. When nothing
+ * fits (the word isn't in the dictionary the strategy was given), it falls back to letter frequency.
+ * @author Cristobal Padilla
+ *
+ */
+public class CandidateFilterStrategy implements GuessingStrategy {
+
+	// Static constants.
+	public static final String NAME = "candidates";
+
+	// Instance fields.
+	private final HashMap<Integer, String[]> foldedWordsByLength;
+	private final LetterFrequencyStrategy fallback;
+
+	/**
+	 * Constructor groups the words of the dictionary by length, case-folded, once.
+	 * @param dictionary dictionary array the games are played with.
+	 */
+	public CandidateFilterStrategy(List<String> dictionary) {
+
+		HashMap<Integer, ArrayList<String>> groups = new HashMap<Integer, ArrayList<String>>();
+
+		for (String word : dictionary) {
+			groups.computeIfAbsent(word.length(), key -> new ArrayList<String>()).add(Alphabet.fold(word));
+
+		}
+
+		foldedWordsByLength = new HashMap<Integer, String[]>();
+
+		for (Map.Entry<Integer, ArrayList<String>> group : groups.entrySet()) {
+			foldedWordsByLength.put(group.getKey(), group.getValue().toArray(new String[0]));
+
+		}
+		fallback = new LetterFrequencyStrategy();
+
+	}
+
+	@Override
+	public char nextGuess(char[] revealedChars, long lettersUsed, Alphabet alphabet) {
+
+		String[] words = foldedWordsByLength.get(revealedChars.length);
+		int[] counts = new int[alphabet.size()];
+
+		if (words != null) {
+
+			for (String word : words) {
+				long unusedLetters = candidateLetters(word, revealedChars, lettersUsed, alphabet);
+
+				for (long letters = unusedLetters; letters != 0; letters &= letters - 1) {
+					counts[Long.numberOfTrailingZeros(letters)]++;
+
+				}
+			}
+		}
+
+		int best = -1;
+
+		for (int index = 0; index < counts.length; index++) {
+
+			if (counts[index] > 0 && (best < 0 || counts[index] > counts[best]))
+				best = index;
+
+		}
+
+		if (best < 0)																					// Nothing fits.
+			return fallback.nextGuess(revealedChars, lettersUsed, alphabet);
+
+		return (char) alphabet.codePointAt(best);
+
+	}
+
+	/**
+	 * Method used to check one word against what is known, and collect its unused letters.
+	 * @param word case-folded word of the right length.
+	 * @param revealedChars the word so far, with '_' for hidden chars.
+	 * @param lettersUsed bitset of the alphabet indices guessed so far.
+	 * @param alphabet alphabet of the game.
+	 * @return bitset of the word's unused letters, or 0 if the word doesn't fit.
+	 */
+	private static long candidateLetters(String word, char[] revealedChars, long lettersUsed, Alphabet alphabet) {
+
+		long unusedLetters = 0;
+
+		for (int index = 0; index < revealedChars.length; index++) {
+			char letter = word.charAt(index);
+
+			if (revealedChars[index] != '_') {
+
+				if (letter != revealedChars[index])
+					return 0;
+
+			} else {
+				long bit = alphabet.bit(letter);
+
+				if ((lettersUsed & bit) != 0)														// It would have been revealed.
+					return 0;
+
+				unusedLetters |= bit;
+
+			}
+		}
+		return unusedLetters;
+
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+
+	}
+}
@@ -0,0 +1,47 @@
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The ClasspathWordSource Class reads a dictionary bundled with the classes, e.g. in the game's jar, so
+ * that it's found wherever the game is run from. Resources are UTF-8 text, or gzip if their name ends in
+ * ".gz".
+ * @author Cristobal Padilla
+ *
+ */
+public class ClasspathWordSource implements WordSource {
+
+	// Instance fields.
+	private final String resource;
+
+	/**
+	 * Constructor takes the name of the resource.
+	 * @param resource name of the resource, relative to the root of the classpath.
+	 */
+	public ClasspathWordSource(String resource) {
+		this.resource = resource;
+
+	}
+
+	@Override
+	public BufferedReader open() throws IOException {
+
+		InputStream in = ClasspathWordSource.class.getClassLoader().getResourceAsStream(resource);
+
+		if (in == null)
+			throw new FileNotFoundException(resource + " is not on the classpath.");
+
+		if (resource.endsWith(".gz"))
+			in = new GZIPInputStream(in, 64 * 1024);
+
+		return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+	}
+
+	@Override
+	public String getName() {
+		return "classpath:" + resource;
+
+	}
+}
@@ -0,0 +1,250 @@
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The DictionaryGenerator Class writes synthetic dictionaries, of any size, to see how the dictionary path
+ * scales beyond words.txt. Word lengths follow a uniform or a normal distribution, and letters are drawn
+ * from any alphabet of up to Alphabet.MAX_SIZE letters, uniformly or, for the English alphabet, with the
+ * frequencies of English text. Words may come with a Zipf-like frequency column, so that weighted picks
+ * are exercised too. Words are random, so a big dictionary has some duplicates, like real ones. The same
+ * settings and seed always write the same file.
+ * Usage: java DictionaryGenerator numWords outputFile [--length uniform:min-max|normal:mean,deviation]
+ *        [--alphabet english|letters] [--frequencies] [--seed seed]
+ * @author Cristobal Padilla
+ *
+ */
+public class DictionaryGenerator {
+
+	// Length distributions.
+	public static final int UNIFORM = 0;
+	public static final int NORMAL = 1;
+
+	// Limits: a word is at most as long as a position bitset.
+	public static final int MAX_LENGTH = Long.SIZE;
+	public static final long MAX_WORDS = 100_000_000;
+
+	// Frequency of each English letter in running text, in percent, from 'a' to 'z'.
+	public static final double[] ENGLISH_WEIGHTS = {8.2, 1.5, 2.8, 4.3, 12.7, 2.2, 2.0, 6.1, 7.0, 0.15, 0.77, 4.0, 2.4,
+													6.7, 7.5, 1.9, 0.095, 6.0, 6.3, 9.1, 2.8, 0.98, 2.4, 0.15, 2.0, 0.074};
+
+	// Instance fields.
+	private final int[] letters;
+	private final Random generator;
+	private AliasTable letterTable;
+	private int lengthDistribution;
+	private double lengthA;
+	private double lengthB;
+	private boolean withFrequencies;
+
+	public static void main(String[] args) {
+
+		if (args.length < 2) {
+			System.out.println("Usage: java DictionaryGenerator numWords outputFile [--length uniform:min-max|normal:mean,deviation] " +
+							   "[--alphabet english|letters] [--frequencies] [--seed seed]");
+			return;
+
+		}
+
+		try {
+			long numWords = Long.parseLong(args[0]);
+			String alphabet = "english";
+			String lengths = "uniform:3-10";
+			boolean frequencies = false;
+			long seed = 42;
+
+			for (int index = 2; index < args.length; index++) {
+
+				if (args[index].equals("--length") && index + 1 < args.length)
+					lengths = args[++index];
+				else if (args[index].equals("--alphabet") && index + 1 < args.length)
+					alphabet = args[++index];
+				else if (args[index].equals("--frequencies"))
+					frequencies = true;
+				else if (args[index].equals("--seed") && index + 1 < args.length)
+					seed = Long.parseLong(args[++index]);
+				else
+					throw new IllegalArgumentException("Unknown option: " + args[index]);
+
+			}
+
+			DictionaryGenerator dictionaryGenerator = alphabet.equals("english") ? english(seed) : new DictionaryGenerator(alphabet, seed);
+			dictionaryGenerator.setLengths(lengths);
+			dictionaryGenerator.setFrequencies(frequencies);
+			long start = System.nanoTime();
+			dictionaryGenerator.write(numWords, new File(args[1]));
+			System.out.println("Wrote " + numWords + " words to " + args[1] + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+
+		} catch (IOException | IllegalArgumentException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * Constructor takes the letters to draw from, all equally likely, and the seed. Words are 3 to 10
+	 * letters long, uniformly, with no frequency column, until set otherwise.
+	 * @param letters letters of the alphabet, each once, lowercase.
+	 * @param seed seed of the words.
+	 * @throws IllegalArgumentException there are no letters, or more than Alphabet.MAX_SIZE.
+	 */
+	public DictionaryGenerator(String letters, long seed) {
+
+		this.letters = letters.codePoints().distinct().toArray();
+
+		if (this.letters.length == 0 || this.letters.length > Alphabet.MAX_SIZE)
+			throw new IllegalArgumentException("An alphabet has 1 to " + Alphabet.MAX_SIZE + " letters.");
+
+		generator = new Random(seed);
+		lengthDistribution = UNIFORM;
+		lengthA = 3;
+		lengthB = 10;
+
+	}
+
+	/**
+	 * Method used to build a generator of English-looking words: the letters 'a' to 'z', drawn with the
+	 * frequencies of English text.
+	 * @param seed seed of the words.
+	 * @return generator
+	 */
+	public static DictionaryGenerator english(long seed) {
+
+		DictionaryGenerator dictionaryGenerator = new DictionaryGenerator("abcdefghijklmnopqrstuvwxyz", seed);
+		ArrayList<Double> weights = new ArrayList<Double>(ENGLISH_WEIGHTS.length);
+
+		for (double weight : ENGLISH_WEIGHTS) {
+			weights.add(weight);
+
+		}
+		dictionaryGenerator.letterTable = new AliasTable(weights);
+		return dictionaryGenerator;
+
+	}
+
+	/**
+	 * Method used to set the length distribution from its description: "uniform:min-max" or
+	 * "normal:mean,deviation". Lengths are kept between 1 and MAX_LENGTH.
+	 * @param description distribution.
+	 * @throws IllegalArgumentException the description can't be read.
+	 */
+	public void setLengths(String description) {
+
+		try {
+
+			if (description.startsWith("uniform:")) {
+				String[] range = description.substring(8).split("-");
+				setUniformLengths(Integer.parseInt(range[0].trim()), Integer.parseInt(range[1].trim()));
+
+			} else if (description.startsWith("normal:")) {
+				String[] parameters = description.substring(7).split(",");
+				setNormalLengths(Double.parseDouble(parameters[0].trim()), Double.parseDouble(parameters[1].trim()));
+
+			} else {
+				throw new IllegalArgumentException("Unknown length distribution: " + description);
+
+			}
+
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException exception) {
+			throw new IllegalArgumentException("Unknown length distribution: " + description);
+
+		}
+	}
+
+	/**
+	 * Method used to draw lengths uniformly from a range.
+	 * @param minLength shortest word.
+	 * @param maxLength longest word.
+	 */
+	public void setUniformLengths(int minLength, int maxLength) {
+
+		if (minLength < 1 || maxLength < minLength || maxLength > MAX_LENGTH)
+			throw new IllegalArgumentException("Lengths go from 1 to " + MAX_LENGTH + ".");
+
+		lengthDistribution = UNIFORM;
+		lengthA = minLength;
+		lengthB = maxLength;
+
+	}
+
+	/**
+	 * Method used to draw lengths from a normal distribution, rounded.
+	 * @param mean mean length.
+	 * @param deviation standard deviation.
+	 */
+	public void setNormalLengths(double mean, double deviation) {
+
+		if (!(mean >= 1 && mean <= MAX_LENGTH && deviation >= 0))
+			throw new IllegalArgumentException("The mean length goes from 1 to " + MAX_LENGTH + ", and the deviation can't be negative.");
+
+		lengthDistribution = NORMAL;
+		lengthA = mean;
+		lengthB = deviation;
+
+	}
+
+	/**
+	 * Method used to choose whether words get a frequency column. Frequencies follow Zipf's law over the
+	 * order the words are written in, so the first words are the most common.
+	 * @param withFrequencies True for a frequency column.
+	 */
+	public void setFrequencies(boolean withFrequencies) {
+		this.withFrequencies = withFrequencies;
+
+	}
+
+	/**
+	 * Method used to draw a word.
+	 * @param word builder the word is appended to.
+	 */
+	public void nextWord(StringBuilder word) {
+
+		int length;
+
+		if (lengthDistribution == UNIFORM)
+			length = (int) lengthA + generator.nextInt((int) (lengthB - lengthA) + 1);
+		else
+			length = (int) Math.max(1, Math.min(MAX_LENGTH, Math.round(lengthA + lengthB * generator.nextGaussian())));
+
+		for (int index = 0; index < length; index++) {
+			word.appendCodePoint(letters[(letterTable != null) ? letterTable.next(generator) : generator.nextInt(letters.length)]);
+
+		}
+	}
+
+	/**
+	 * Method used to write a dictionary, one word per line, as UTF-8. Files whose name ends in ".gz" are
+	 * compressed.
+	 * @param numWords number of words, up to MAX_WORDS.
+	 * @param file dictionary file.
+	 * @throws IOException file could not be written.
+	 */
+	public void write(long numWords, File file) throws IOException {
+
+		if (numWords < 0 || numWords > MAX_WORDS)
+			throw new IllegalArgumentException("A dictionary has 0 to " + MAX_WORDS + " words.");
+
+		OutputStream stream = new FileOutputStream(file);
+
+		if (file.getName().endsWith(".gz"))
+			stream = new GZIPOutputStream(stream, 64 * 1024);
+
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16)) {
+			StringBuilder line = new StringBuilder(MAX_LENGTH + 24);
+
+			for (long count = 1; count <= numWords; count++) {
+				line.setLength(0);
+				nextWord(line);
+
+				if (withFrequencies)
+					line.append(' ').append(Math.max(1, 1_000_000_000L / count));								// Zipf: frequency falls as 1/rank.
+
+				line.append('\n');
+				out.append(line);
+
+			}
+		}
+	}
+}
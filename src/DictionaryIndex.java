@@ -0,0 +1,719 @@
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * The DictionaryIndex Class holds a fully loaded dictionary, already split by difficulty level. Every
+ * line of the file is read once, and each difficulty level gets a Partition with its own words, frequencies,
+ * alias table, alphabet and fingerprint. Choosing a difficulty level afterwards costs nothing, which is
+ * what lets the Hangman Class load the index in the background while the user is still answering prompts.
+ * When the dictionary has precomputed WordScores, the words are also kept sorted by score: difficulty
+ * levels split the scores at the median instead of going by length, and any range of scores can be
+ * selected with two binary searches. A range copies nothing: it's a view of the sorted words, drawn from
+ * with prefix sums of their frequencies built once, and fingerprinted from the whole dictionary's
+ * fingerprint and its bounds, so moving it after every game costs the same with any dictionary.
+ * @author Cristobal Padilla
+ *
+ */
+public class DictionaryIndex {
+
+	// Rough sizes used by memoryFootprint(), in bytes.
+	public static final int STRING_OVERHEAD = 40;
+	public static final int DOUBLE_SIZE = 16;
+	public static final int REFERENCE_SIZE = 4;
+
+	// Instance fields.
+	private final Partition[] partitions;
+	private final ArrayList<String> wordsByScore;
+	private final ArrayList<Double> frequenciesByScore;
+	private final double[] scores;
+	private final double[] cumulativeWeights;
+	private final long scoreFingerprint;
+	private final boolean weighted;
+	private final Alphabet alphabet;
+
+	/**
+	 * The Partition Class holds the words of one difficulty level. It's never changed once built, so it
+	 * can be shared by any number of games and threads.
+	 */
+	public static final class Partition {
+
+		// Instance fields.
+		private final List<String> words;
+		private final List<Double> frequencies;
+		private final AliasTable frequencyTable;
+		private final double[] cumulativeWeights;
+		private final int offset;
+		private final boolean range;
+		private final Alphabet alphabet;
+		private final long fingerprint;
+
+		/**
+		 * Constructor builds the alias table, alphabet and fingerprint of a list of words.
+		 * @param words words of this difficulty level.
+		 * @param frequencies frequency of each word.
+		 * @param weighted True if the dictionary has a frequency column.
+		 * @throws IOException the words use more than Alphabet.MAX_SIZE letters.
+		 */
+		Partition(ArrayList<String> words, ArrayList<Double> frequencies, boolean weighted) throws IOException {
+
+			ArrayList<String> foldedWords = new ArrayList<String>(words.size());
+
+			for (String word : words) {
+				foldedWords.add(Alphabet.fold(word));
+
+			}
+
+			try {
+				alphabet = Alphabet.forWords(foldedWords);
+
+			} catch (IllegalArgumentException exception) {
+				throw new IOException(exception.getMessage());
+
+			}
+
+			this.words = words;
+			this.frequencies = frequencies;
+			frequencyTable = (weighted && !words.isEmpty()) ? new AliasTable(frequencies) : null;
+			cumulativeWeights = null;
+			offset = 0;
+			range = false;
+			fingerprint = fingerprint(words, frequencies);
+
+		}
+
+		/**
+		 * Constructor used for a difficulty level of a scored dictionary, which shares the alphabet of the
+		 * whole dictionary instead of building its own.
+		 * @param words words of the level.
+		 * @param frequencies frequency of each word.
+		 * @param weighted True if the dictionary has a frequency column.
+		 * @param alphabet alphabet of the whole dictionary.
+		 */
+		Partition(ArrayList<String> words, ArrayList<Double> frequencies, boolean weighted, Alphabet alphabet) {
+
+			this.words = words;
+			this.frequencies = frequencies;
+			this.alphabet = alphabet;
+			fingerprint = fingerprint(words, frequencies);
+			frequencyTable = (weighted && !words.isEmpty()) ? new AliasTable(frequencies) : null;
+			cumulativeWeights = null;
+			offset = 0;
+			range = false;
+
+		}
+
+		/**
+		 * Constructor used for a range of scores: views of the sorted words and frequencies, drawn from with
+		 * the prefix sums of the whole dictionary. Nothing is copied or built.
+		 * @param words view of the words of the range.
+		 * @param frequencies view of their frequencies.
+		 * @param cumulativeWeights prefix sums of the frequencies of every sorted word, or null to draw uniformly.
+		 * @param offset index of the first word of the range among the sorted words.
+		 * @param alphabet alphabet of the whole dictionary.
+		 * @param fingerprint fingerprint of the range.
+		 */
+		Partition(List<String> words, List<Double> frequencies, double[] cumulativeWeights, int offset, Alphabet alphabet,
+				  long fingerprint) {
+
+			this.words = words;
+			this.frequencies = frequencies;
+			this.cumulativeWeights = cumulativeWeights;
+			this.offset = offset;
+			this.alphabet = alphabet;
+			this.fingerprint = fingerprint;
+			frequencyTable = null;
+			range = true;
+
+		}
+
+		/**
+		 * Method used to draw the index of a word, weighted by frequency if the dictionary has a frequency
+		 * column, uniformly otherwise. A difficulty level draws from its alias table; a range of scores
+		 * with a binary search over the prefix sums of its frequencies.
+		 * @param generator source of randomness.
+		 * @return index of the word in getWords().
+		 */
+		public int nextWordId(Random generator) {
+
+			if (frequencyTable != null)
+				return frequencyTable.next(generator);
+
+			if (cumulativeWeights == null)
+				return generator.nextInt(words.size());
+
+			double low = cumulativeWeights[offset];
+			double target = low + generator.nextDouble() * (cumulativeWeights[offset + words.size()] - low);
+			int first = offset;
+			int last = offset + words.size() - 1;
+
+			while (first < last) {																		// Last word that starts at or before the target.
+				int middle = (first + last + 1) >>> 1;
+
+				if (cumulativeWeights[middle] <= target)
+					first = middle;
+				else
+					last = middle - 1;
+
+			}
+			return first - offset;
+
+		}
+
+		/**
+		 * Method used to get the words of this partition.
+		 * @return words
+		 */
+		public List<String> getWords() {
+			return words;
+
+		}
+
+		/**
+		 * Method used to get the frequency of each word.
+		 * @return frequencies
+		 */
+		public List<Double> getFrequencies() {
+			return frequencies;
+
+		}
+
+		/**
+		 * Method used to get the alias table for weighted picks.
+		 * @return frequencyTable, or null if the dictionary has no frequency column, or this is a range of scores.
+		 */
+		public AliasTable getFrequencyTable() {
+			return frequencyTable;
+
+		}
+
+		/**
+		 * Method used to get the alphabet of the words.
+		 * @return alphabet
+		 */
+		public Alphabet getAlphabet() {
+			return alphabet;
+
+		}
+
+		/**
+		 * Method used to get the fingerprint of the words and frequencies.
+		 * @return fingerprint
+		 */
+		public long getFingerprint() {
+			return fingerprint;
+
+		}
+
+		/**
+		 * Method used to estimate the memory this partition adds, in bytes: its two lists and its alias
+		 * table. The words and frequencies themselves are counted by DictionaryIndex.memoryFootprint(),
+		 * since partitions may share them. A range of scores adds nothing.
+		 * @return bytes
+		 */
+		public long memoryFootprint() {
+
+			if (range)
+				return 0;
+
+			return 2L * REFERENCE_SIZE * words.size() + ((frequencyTable != null) ? frequencyTable.memoryFootprint() : 0);
+
+		}
+	}
+
+	/**
+	 * Constructor takes the partitions, one per difficulty level, and, if the dictionary has scores, every
+	 * word sorted by score.
+	 * @param partitions partitions, indexed by difficulty level.
+	 * @param wordsByScore words sorted by score, or null.
+	 * @param frequenciesByScore frequency of each word, or null.
+	 * @param scores score of each word, or null.
+	 * @param weighted True if the dictionary has a frequency column.
+	 * @param alphabet alphabet of the whole dictionary, or null.
+	 */
+	private DictionaryIndex(Partition[] partitions, ArrayList<String> wordsByScore, ArrayList<Double> frequenciesByScore,
+							double[] scores, boolean weighted, Alphabet alphabet) {
+
+		this.partitions = partitions;
+		this.wordsByScore = wordsByScore;
+		this.frequenciesByScore = frequenciesByScore;
+		this.scores = scores;
+		this.weighted = weighted;
+		this.alphabet = alphabet;
+		scoreFingerprint = (wordsByScore != null) ? fingerprint(wordsByScore, frequenciesByScore) : 0;
+		cumulativeWeights = (wordsByScore != null && weighted) ? prefixSums(frequenciesByScore) : null;
+
+	}
+
+	/**
+	 * Method used to read a whole dictionary from a source and split it by difficulty level. If the source
+	 * is one file with up-to-date WordScores, levels go by score; otherwise, by word length. A source made
+	 * of several others has them read in parallel and merged straight into the index (see load(List)).
+	 * @param source dictionary source.
+	 * @return index
+	 * @throws IOException dictionary could not be read, or uses more than Alphabet.MAX_SIZE letters.
+	 */
+	public static DictionaryIndex load(WordSource source) throws IOException {
+
+		List<WordSource> parts = source.expand();
+
+		if (parts.size() > 1)
+			return load(MergedWordSource.readParts(parts));
+
+		WordScores wordScores = (source.getFile() != null) ? WordScores.loadCached(source.getFile()) : null;
+		return load(source.open(), wordScores);
+
+	}
+
+	/**
+	 * Method used to read a whole dictionary and split it by difficulty level, going by word length.
+	 * @param words dictionary reader.
+	 * @return index
+	 * @throws IOException dictionary could not be read, or uses more than Alphabet.MAX_SIZE letters.
+	 */
+	public static DictionaryIndex load(BufferedReader words) throws IOException {
+		return load(words, null);
+
+	}
+
+	/**
+	 * Method used to read a whole dictionary and split it by difficulty level. Each line holds a word and,
+	 * optionally, a frequency column after it (e.g. "apple 1520"). If scores are given, difficulty levels go
+	 * by score; words without a score are treated as the hardest. Words that aren't made of letters only are
+	 * skipped (see DictionaryNormalizer to clean a dictionary up). The reader is closed at the end.
+	 * @param words dictionary reader.
+	 * @param wordScores precomputed scores of the dictionary, or null to go by word length.
+	 * @return index
+	 * @throws IOException dictionary could not be read, or uses more than Alphabet.MAX_SIZE letters.
+	 */
+	public static DictionaryIndex load(BufferedReader words, WordScores wordScores) throws IOException {
+
+		ArrayList<String> allWords = new ArrayList<String>();
+		ArrayList<Double> allFrequencies = new ArrayList<Double>();
+		boolean weighted = false;
+		String str;
+
+		try {
+
+			while ( (str = words.readLine()) != null) {
+				weighted |= addLine(str, allWords, allFrequencies);
+
+			}
+
+		} finally {
+			words.close();
+
+		}
+
+		if (wordScores == null)
+			return byLength(allWords, allFrequencies, weighted);
+		else
+			return byScore(allWords, allFrequencies, weighted, wordScores);
+
+	}
+
+	/**
+	 * Method used to merge the lines of several sources, in the order given, and split them by word length.
+	 * A word already merged, ignoring case, is dropped with the rest of its line, so the first source that
+	 * has a word decides its frequency column. Lines are parsed as they are merged, so the merged dictionary
+	 * is never built as one more list of lines, or as text to be read again.
+	 * @param parts lines of each source.
+	 * @return index
+	 * @throws IOException words use more than Alphabet.MAX_SIZE letters.
+	 */
+	public static DictionaryIndex load(List<? extends List<String>> parts) throws IOException {
+
+		ArrayList<String> allWords = new ArrayList<String>();
+		ArrayList<Double> allFrequencies = new ArrayList<Double>();
+		HashSet<String> seen = new HashSet<String>();
+		boolean weighted = false;
+
+		for (List<String> lines : parts) {
+
+			for (String line : lines) {
+
+				if (seen.add(Alphabet.fold(wordOf(line))))
+					weighted |= addLine(line, allWords, allFrequencies);
+
+			}
+		}
+		return byLength(allWords, allFrequencies, weighted);
+
+	}
+
+	/**
+	 * Method used to parse a dictionary line, and add its word and frequency if the word can be played.
+	 * @param str dictionary line.
+	 * @param allWords words so far.
+	 * @param allFrequencies frequencies so far.
+	 * @return True if the line has a frequency column.
+	 */
+	private static boolean addLine(String str, ArrayList<String> allWords, ArrayList<Double> allFrequencies) {
+
+		String word = str;
+		double frequency = Hangman.DEFAULT_FREQUENCY;
+		boolean weighted = false;
+		int split = indexOfWhitespace(str);
+
+		if (split > 0) {																				// Optional frequency column.
+			word = str.substring(0, split);
+
+			try {
+				frequency = Double.parseDouble(str.substring(split).trim());
+				weighted = true;
+
+			} catch (NumberFormatException exception) {
+				frequency = Hangman.DEFAULT_FREQUENCY;
+
+			}
+
+			if (!(frequency > 0))																		// Zero, negative or NaN: treat it as missing.
+				frequency = Hangman.DEFAULT_FREQUENCY;
+
+		}
+
+		if (DictionaryNormalizer.isAlphabetic(word)) {													// Blank lines and words like "don't" can't be played.
+			allWords.add(word);
+			allFrequencies.add(frequency);
+
+		}
+		return weighted;
+
+	}
+
+	/**
+	 * Method used to split the words by length.
+	 */
+	private static DictionaryIndex byLength(ArrayList<String> allWords, ArrayList<Double> allFrequencies, boolean weighted) throws IOException {
+
+		ArrayList<ArrayList<String>> partitionWords = new ArrayList<ArrayList<String>>();
+		ArrayList<ArrayList<Double>> partitionFrequencies = new ArrayList<ArrayList<Double>>();
+
+		for (int level = Hangman.EASY; level <= Hangman.HARD; level++) {
+			partitionWords.add(new ArrayList<String>());
+			partitionFrequencies.add(new ArrayList<Double>());
+
+		}
+
+		for (int index = 0; index < allWords.size(); index++) {
+			int level = difficultyOf(allWords.get(index));
+			partitionWords.get(level).add(allWords.get(index));
+			partitionFrequencies.get(level).add(allFrequencies.get(index));
+
+		}
+
+		Partition[] partitions = new Partition[Hangman.HARD + 1];
+
+		for (int level = Hangman.EASY; level <= Hangman.HARD; level++) {
+			partitions[level] = new Partition(partitionWords.get(level), partitionFrequencies.get(level), weighted);
+
+		}
+		return new DictionaryIndex(partitions, null, null, null, weighted, null);
+
+	}
+
+	/**
+	 * Method used to sort the words by score. Easy is the lower half of the scores, up to the median score
+	 * included, and hard the upper half, so words with the same score always get the same level.
+	 */
+	private static DictionaryIndex byScore(ArrayList<String> allWords, ArrayList<Double> allFrequencies, boolean weighted,
+										   WordScores wordScores) throws IOException {
+
+		int numWords = allWords.size();
+		double[] wordScoreArray = new double[numWords];
+		Integer[] order = new Integer[numWords];
+
+		for (int index = 0; index < numWords; index++) {
+			double score = wordScores.scoreOf(allWords.get(index));
+			wordScoreArray[index] = Double.isNaN(score) ? 1.0 : score;
+			order[index] = index;
+
+		}
+		Arrays.sort(order, (left, right) -> Double.compare(wordScoreArray[left], wordScoreArray[right]));
+
+		ArrayList<String> wordsByScore = new ArrayList<String>(numWords);
+		ArrayList<Double> frequenciesByScore = new ArrayList<Double>(numWords);
+		ArrayList<String> foldedWords = new ArrayList<String>(numWords);
+		double[] scores = new double[numWords];
+
+		for (int index = 0; index < numWords; index++) {
+			wordsByScore.add(allWords.get(order[index]));
+			frequenciesByScore.add(allFrequencies.get(order[index]));
+			foldedWords.add(Alphabet.fold(wordsByScore.get(index)));
+			scores[index] = wordScoreArray[order[index]];
+
+		}
+
+		Alphabet alphabet;
+
+		try {
+			alphabet = Alphabet.forWords(foldedWords);
+
+		} catch (IllegalArgumentException exception) {
+			throw new IOException(exception.getMessage());
+
+		}
+
+		DictionaryIndex index = new DictionaryIndex(new Partition[Hangman.HARD + 1], wordsByScore, frequenciesByScore,
+													scores, weighted, alphabet);
+		int split = (numWords == 0) ? 0 : index.lowerBound(Math.nextUp(scores[numWords / 2]));				// First score above the median.
+		index.partitions[Hangman.EASY] = index.copyRange(0, split);
+		index.partitions[Hangman.HARD] = index.copyRange(split, numWords);
+		return index;
+
+	}
+
+	/**
+	 * Method used to select the words whose score is in a range. Finding the range takes two binary
+	 * searches, and the partition only points into the sorted words, so it costs the same for any range.
+	 * If no word falls in the range, the word with the nearest score is used, so that a game can always
+	 * be played.
+	 * @param lowScore lowest score, included.
+	 * @param highScore highest score, excluded.
+	 * @return partition of the words in the range.
+	 * @throws IllegalStateException the dictionary has no scores.
+	 */
+	public Partition selectRange(double lowScore, double highScore) {
+
+		int[] range = rangeOf(lowScore, highScore);
+		return new Partition(wordsByScore.subList(range[0], range[1]), frequenciesByScore.subList(range[0], range[1]),
+							 cumulativeWeights, range[0], alphabet, rangeFingerprint(range[0], range[1]));
+
+	}
+
+	/**
+	 * Method used to build a difficulty level from a range of the sorted words, with its own copy of them, its
+	 * alias table and its fingerprint, as a level of a dictionary without scores has. It's only done once,
+	 * when the index is loaded.
+	 * @param from index of the first sorted word.
+	 * @param to index of the sorted word after the last.
+	 * @return partition of the words in the range.
+	 */
+	private Partition copyRange(int from, int to) {
+
+		return new Partition(new ArrayList<String>(wordsByScore.subList(from, to)),
+							 new ArrayList<Double>(frequenciesByScore.subList(from, to)), weighted, alphabet);
+
+	}
+
+	/**
+	 * Method used to find the sorted words whose score is in a range, or the word with the nearest score
+	 * if there are none.
+	 * @param lowScore lowest score, included.
+	 * @param highScore highest score, excluded.
+	 * @return index of the first word and of the word after the last.
+	 * @throws IllegalStateException the dictionary has no scores.
+	 */
+	private int[] rangeOf(double lowScore, double highScore) {
+
+		if (scores == null)
+			throw new IllegalStateException("The dictionary has no word scores.");
+
+		int from = lowerBound(lowScore);
+		int to = lowerBound(highScore);
+
+		if (from == to && scores.length > 0) {														// Empty range: take the nearest word.
+			from = Math.min(from, scores.length - 1);
+			to = from + 1;
+
+		}
+		return new int[] {from, to};
+
+	}
+
+	/**
+	 * Method used to get the fingerprint of a range of the sorted words: the fingerprint of every sorted
+	 * word, and the bounds of the range. The same range of the same dictionary always gets the same one.
+	 * @param from index of the first word.
+	 * @param to index of the word after the last.
+	 * @return fingerprint
+	 */
+	private long rangeFingerprint(int from, int to) {
+
+		CRC32 crc = new CRC32();
+
+		for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+			crc.update((int) (scoreFingerprint >>> shift));
+
+		}
+
+		for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+			crc.update(from >>> shift);
+			crc.update(to >>> shift);
+
+		}
+		return crc.getValue();
+
+	}
+
+	/**
+	 * Method used to add up the frequencies of the sorted words, so that any range of them can be drawn
+	 * from by frequency: word i takes up [sums[i], sums[i + 1]).
+	 * @param frequencies frequency of each word.
+	 * @return prefix sums, one more than the words.
+	 */
+	private static double[] prefixSums(List<Double> frequencies) {
+
+		double[] sums = new double[frequencies.size() + 1];
+
+		for (int index = 0; index < frequencies.size(); index++) {
+			sums[index + 1] = sums[index] + frequencies.get(index);
+
+		}
+		return sums;
+
+	}
+
+	/**
+	 * Method used to find the first word whose score is at least the given score.
+	 * @param score score.
+	 * @return index in the sorted words.
+	 */
+	private int lowerBound(double score) {
+
+		int low = 0;
+		int high = scores.length;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+
+			if (scores[middle] < score)
+				low = middle + 1;
+			else
+				high = middle;
+
+		}
+		return low;
+
+	}
+
+	/**
+	 * Method used to know whether the words are sorted by score.
+	 * @return True if the dictionary has scores.
+	 */
+	public boolean hasScores() {
+		return scores != null;
+
+	}
+
+	/**
+	 * Method used to estimate the memory the index takes, in bytes: every word and frequency once, plus
+	 * the lists, scores and alias tables that point at them.
+	 * @return bytes
+	 */
+	public long memoryFootprint() {
+
+		long bytes = 0;
+
+		for (Partition partition : partitions) {
+			bytes += partition.memoryFootprint();
+
+			if (wordsByScore == null)
+				bytes += wordBytes(partition.getWords());
+
+		}
+
+		if (wordsByScore != null)
+			bytes += wordBytes(wordsByScore) + (2L * REFERENCE_SIZE + Double.BYTES) * wordsByScore.size();
+
+		if (cumulativeWeights != null)
+			bytes += (long) Double.BYTES * cumulativeWeights.length;
+
+		return bytes;
+
+	}
+
+	/**
+	 * Method used to estimate the memory of a list's words and their frequencies.
+	 * @param words list of words.
+	 * @return bytes
+	 */
+	private static long wordBytes(List<String> words) {
+
+		long bytes = 0;
+
+		for (String word : words) {
+			bytes += STRING_OVERHEAD + 2L * word.length() + DOUBLE_SIZE;
+
+		}
+		return bytes;
+
+	}
+
+	/**
+	 * Method used to decide which difficulty level a word belongs to. Words that are 5 characters
+	 * long or more are easy, and words that are 4 characters long or less are hard.
+	 * @param word dictionary word.
+	 * @return Hangman.EASY or Hangman.HARD.
+	 */
+	public static int difficultyOf(String word) {
+		return (word.length() >= 5) ? Hangman.EASY : Hangman.HARD;
+
+	}
+
+	/**
+	 * Method used to get the partition of a difficulty level.
+	 * @param difficultyLevel Hangman.EASY or Hangman.HARD.
+	 * @return partition
+	 */
+	public Partition getPartition(int difficultyLevel) {
+		return partitions[difficultyLevel];
+
+	}
+
+	/**
+	 * Method used to get the word of a dictionary line, without its frequency column.
+	 * @param str dictionary line.
+	 * @return word
+	 */
+	static String wordOf(String str) {
+
+		int split = indexOfWhitespace(str);
+		return (split > 0) ? str.substring(0, split) : str;
+
+	}
+
+	/**
+	 * Method used to find the first whitespace character in a dictionary line.
+	 * @param str dictionary line.
+	 * @return index of the whitespace, or -1 if there is none.
+	 */
+	private static int indexOfWhitespace(String str) {
+
+		for (int index = 0; index < str.length(); index++) {
+			if (Character.isWhitespace(str.charAt(index)))
+				return index;
+
+		}
+		return -1;
+
+	}
+
+	/**
+	 * Method used to compute a CRC-32 fingerprint of a list of words: every word, in order, with its
+	 * frequency. Two games with the same fingerprint and the same round seed pick the same word.
+	 * @param words list of words.
+	 * @param weights frequency of each word.
+	 * @return fingerprint
+	 */
+	private static long fingerprint(List<String> words, List<Double> weights) {
+
+		CRC32 crc = new CRC32();
+
+		for (int index = 0; index < words.size(); index++) {
+			crc.update(words.get(index).getBytes(StandardCharsets.UTF_8));
+			crc.update('\n');
+
+			long bits = Double.doubleToLongBits(weights.get(index));
+
+			for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+				crc.update((int) (bits >>> shift));
+
+			}
+		}
+		return crc.getValue();
+
+	}
+}
@@ -0,0 +1,440 @@
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * The DictionaryNormalizer Class cleans up a dictionary file, one line at a time: each line is trimmed, its
+ * word is case-folded, and the line is dropped if it's blank, if its word has anything but letters (e.g.
+ * "don't", which could never be guessed), or if its word already appeared. An optional frequency column is
+ * kept as it is. Every dropped line goes to a rejection report, with its line number and the reason.
+ *
+ * Words already seen are kept in a PackedWordSet. While the set fits in the memory budget, the clean
+ * dictionary keeps the order of the input. If it doesn't, the set is written to disk as a sorted run and
+ * emptied, as many times as needed, and the runs are merged at the end, at most MAX_MERGE_WIDTH at a time;
+ * the clean dictionary then comes out sorted, and a word keeps its first line.
+ * Usage: java DictionaryNormalizer input output [report] [--charset name] [--budget bytes]
+ * @author Cristobal Padilla
+ *
+ */
+public class DictionaryNormalizer {
+
+	// Reasons a line is rejected.
+	public static final int BLANK = 0;
+	public static final int NOT_ALPHABETIC = 1;
+	public static final int DUPLICATE = 2;
+	public static final String[] REJECTION_NAMES = {"blank", "not alphabetic", "duplicate"};
+
+	// Most runs merged at once, to stay well under the limit of open files.
+	public static final int MAX_MERGE_WIDTH = 64;
+
+	// Instance fields.
+	private final long memoryBudget;
+	private final PackedWordSet seen;
+	private final ArrayList<File> runs;
+	private final int[] numRejected;
+	private int numAccepted;
+	private int numRuns;
+	private PrintWriter report;
+
+	public static void main(String[] args) {
+
+		ArrayList<String> files = new ArrayList<String>();
+		Charset charset = StandardCharsets.UTF_8;
+		long memoryBudget = Runtime.getRuntime().maxMemory() / 4;
+
+		for (int index = 0; index < args.length; index++) {
+
+			if (args[index].equals("--charset") && index + 1 < args.length)
+				charset = Charset.forName(args[++index]);
+			else if (args[index].equals("--budget") && index + 1 < args.length)
+				memoryBudget = Long.parseLong(args[++index]);
+			else
+				files.add(args[index]);
+
+		}
+
+		if (files.size() < 2 || files.size() > 3) {
+			System.out.println("Usage: java DictionaryNormalizer input output [report] [--charset name] [--budget bytes]");
+			return;
+
+		}
+
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(files.get(0)), charset));
+			 OutputStream out = new BufferedOutputStream(new FileOutputStream(files.get(1)));
+			 PrintWriter report = (files.size() > 2) ? new PrintWriter(new OutputStreamWriter(
+					 new FileOutputStream(files.get(2)), StandardCharsets.UTF_8)) : null) {
+
+			DictionaryNormalizer normalizer = new DictionaryNormalizer(memoryBudget);
+			normalizer.normalize(in, out, report);
+			System.out.println(normalizer.summary());
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * Constructor takes the memory the set of words seen may use before it's spilled to disk.
+	 * @param memoryBudget bytes.
+	 */
+	public DictionaryNormalizer(long memoryBudget) {
+
+		this.memoryBudget = memoryBudget;
+		seen = new PackedWordSet(0);
+		runs = new ArrayList<File>();
+		numRejected = new int[REJECTION_NAMES.length];
+
+	}
+
+	/**
+	 * Method used to normalize a whole dictionary. It's meant to be used once per normalizer.
+	 * @param in dictionary reader.
+	 * @param out stream the clean dictionary is written to, in UTF-8.
+	 * @param report where rejected lines are listed, or null.
+	 * @throws IOException dictionary could not be read or written.
+	 */
+	public void normalize(BufferedReader in, OutputStream out, PrintWriter report) throws IOException {
+
+		this.report = report;
+		String str;
+		int lineNumber = 0;
+
+		try {
+
+			while ( (str = in.readLine()) != null) {
+				lineNumber++;
+				String line = str.trim();
+
+				if (line.isEmpty()) {
+					reject(lineNumber, BLANK, str);
+					continue;
+
+				}
+
+				int split = indexOfWhitespace(line);
+				String word = Alphabet.fold((split > 0) ? line.substring(0, split) : line);
+
+				if (!isAlphabetic(word)) {
+					reject(lineNumber, NOT_ALPHABETIC, str);
+					continue;
+
+				}
+
+				byte[] key = word.getBytes(StandardCharsets.UTF_8);
+				byte[] entry = (split > 0) ? (word + " " + line.substring(split).trim()).getBytes(StandardCharsets.UTF_8) : key;
+				int firstLine = seen.add(entry, key.length, lineNumber);
+
+				if (firstLine >= 0) {
+					reject(lineNumber, DUPLICATE, word + " (first on line " + firstLine + ")");
+					continue;
+
+				}
+				numAccepted++;
+
+				if (seen.memoryUsed() > memoryBudget)
+					spill();
+
+			}
+
+			if (runs.isEmpty()) {
+				seen.writeLines(out);
+
+			} else {
+				spill();
+				merge(out);
+
+			}
+			out.flush();
+
+			if (report != null)
+				report.println("# " + summary());
+
+		} finally {
+
+			for (File run : runs) {
+				run.delete();
+
+			}
+		}
+	}
+
+	/**
+	 * Method used to write the words seen so far to a sorted run on disk, and empty the set.
+	 * @throws IOException run could not be written.
+	 */
+	private void spill() throws IOException {
+
+		if (seen.size() == 0)
+			return;
+
+		File run = Files.createTempFile("hangman-run-", ".tmp").toFile();
+		run.deleteOnExit();
+		runs.add(run);
+		numRuns++;
+
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(run))) {
+			seen.writeSortedRun(out);
+
+		}
+		seen.clear();
+
+	}
+
+	/**
+	 * Method used to merge the sorted runs into the clean dictionary. While there are too many runs to open
+	 * at once, groups of them are merged into bigger runs first.
+	 * @param out stream the clean dictionary is written to.
+	 * @throws IOException runs could not be read, or the dictionary written.
+	 */
+	private void merge(OutputStream out) throws IOException {
+
+		while (runs.size() > MAX_MERGE_WIDTH) {
+			List<File> group = runs.subList(0, MAX_MERGE_WIDTH);
+			File run = Files.createTempFile("hangman-run-", ".tmp").toFile();
+			run.deleteOnExit();
+
+			try (DataOutputStream runOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run)))) {
+				mergeGroup(group, runOut, true);
+
+			}
+
+			for (File merged : group) {
+				merged.delete();
+
+			}
+			group.clear();
+			runs.add(run);
+
+		}
+		mergeGroup(runs, out, false);
+
+	}
+
+	/**
+	 * Method used to merge a group of sorted runs. When several runs have the same word, the one from the
+	 * earliest line is kept and the others are duplicates.
+	 * @param group runs to merge.
+	 * @param out stream to write to.
+	 * @param asRun True to write entries in run format, False to write the clean dictionary's lines.
+	 * @throws IOException runs could not be read, or the output written.
+	 */
+	private void mergeGroup(List<File> group, OutputStream out, boolean asRun) throws IOException {
+
+		PriorityQueue<RunReader> heads = new PriorityQueue<RunReader>();
+
+		try {
+
+			for (File run : group) {
+				RunReader reader = new RunReader(run);
+
+				if (reader.next())
+					heads.add(reader);
+				else
+					reader.close();
+
+			}
+
+			byte[] lastKey = null;
+			int lastLineNumber = 0;
+
+			while (!heads.isEmpty()) {
+				RunReader head = heads.poll();
+
+				if (lastKey != null && Arrays.equals(lastKey, head.key())) {
+					numAccepted--;
+					reject(head.lineNumber, DUPLICATE, new String(head.key(), StandardCharsets.UTF_8) +
+						   " (first on line " + lastLineNumber + ")");
+
+				} else {
+					lastKey = head.key();
+					lastLineNumber = head.lineNumber;
+					head.writeTo(out, asRun);
+
+				}
+
+				if (head.next())
+					heads.add(head);
+				else
+					head.close();
+
+			}
+
+		} finally {
+
+			for (RunReader reader : heads) {
+				reader.close();
+
+			}
+		}
+	}
+
+	/**
+	 * Method used to count a rejected line and add it to the report.
+	 * @param lineNumber line number.
+	 * @param reason BLANK, NOT_ALPHABETIC or DUPLICATE.
+	 * @param text what to show for the line.
+	 */
+	private void reject(int lineNumber, int reason, String text) {
+
+		numRejected[reason]++;
+
+		if (report != null)
+			report.println(lineNumber + "\t" + REJECTION_NAMES[reason] + "\t" + text);
+
+	}
+
+	/**
+	 * Method used to check that a word is made of letters only. An empty word is not.
+	 * @param word dictionary word.
+	 * @return True if every character of the word is a letter.
+	 */
+	public static boolean isAlphabetic(String word) {
+
+		if (word.isEmpty())
+			return false;
+
+		for (int index = 0; index < word.length(); ) {
+			int codePoint = word.codePointAt(index);
+
+			if (!Character.isLetter(codePoint))
+				return false;
+
+			index += Character.charCount(codePoint);
+
+		}
+		return true;
+
+	}
+
+	/**
+	 * Method used to find the first whitespace character in a trimmed line.
+	 * @param str line.
+	 * @return index of the whitespace, or -1 if there is none.
+	 */
+	private static int indexOfWhitespace(String str) {
+
+		for (int index = 0; index < str.length(); index++) {
+			if (Character.isWhitespace(str.charAt(index)))
+				return index;
+
+		}
+		return -1;
+
+	}
+
+	/**
+	 * Method used to get the number of lines rejected for a reason.
+	 * @param reason BLANK, NOT_ALPHABETIC or DUPLICATE.
+	 * @return count
+	 */
+	public int getNumRejected(int reason) {
+		return numRejected[reason];
+
+	}
+
+	/**
+	 * Method used to get the number of words in the clean dictionary.
+	 * @return count
+	 */
+	public int getNumAccepted() {
+		return numAccepted;
+
+	}
+
+	/**
+	 * Method used to describe the result in one line.
+	 * @return summary
+	 */
+	public String summary() {
+
+		StringBuilder summary = new StringBuilder(numAccepted + " words kept");
+
+		for (int reason = 0; reason < REJECTION_NAMES.length; reason++) {
+			summary.append(", ").append(numRejected[reason]).append(' ').append(REJECTION_NAMES[reason]);
+
+		}
+		return summary.append(" (").append((numRuns == 0) ? "in memory" : numRuns + " sorted runs").append(')').toString();
+
+	}
+
+	/**
+	 * The RunReader Class reads the entries of a sorted run back, one at a time, in the format written by
+	 * PackedWordSet.writeSortedRun(). Readers order themselves by key, then by line number.
+	 */
+	private static final class RunReader implements Comparable<RunReader>, Closeable {
+
+		// Instance fields.
+		private final DataInputStream in;
+		private int lineNumber;
+		private int keyLength;
+		private byte[] line;
+
+		RunReader(File run) throws IOException {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(run)));
+
+		}
+
+		/**
+		 * Method used to read the next entry.
+		 * @return False at the end of the run.
+		 */
+		boolean next() throws IOException {
+
+			try {
+				lineNumber = in.readInt();
+
+			} catch (EOFException exception) {
+				return false;
+
+			}
+
+			line = new byte[in.readInt()];
+			keyLength = in.readInt();
+			in.readFully(line);
+			return true;
+
+		}
+
+		byte[] key() {
+			return Arrays.copyOf(line, keyLength);
+
+		}
+
+		/**
+		 * Method used to write the current entry, either as it was read or as a dictionary line.
+		 */
+		void writeTo(OutputStream out, boolean asRun) throws IOException {
+
+			if (asRun) {
+				DataOutputStream data = (DataOutputStream) out;
+				data.writeInt(lineNumber);
+				data.writeInt(line.length);
+				data.writeInt(keyLength);
+
+			}
+			out.write(line);
+
+			if (!asRun)
+				out.write('\n');
+
+		}
+
+		@Override
+		public int compareTo(RunReader other) {
+
+			int order = Arrays.compareUnsigned(line, 0, keyLength, other.line, 0, other.keyLength);
+			return (order != 0) ? order : Integer.compare(lineNumber, other.lineNumber);
+
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+
+		}
+	}
+}
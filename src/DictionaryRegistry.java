@@ -0,0 +1,328 @@
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The DictionaryRegistry Class holds several dictionary packs (e.g. animals, countries, tech) for one game.
+ * A pack is only loaded the first time a word is drawn from it, and loaded packs share one memory budget:
+ * when loading a pack goes over it, the packs used least recently are evicted until it fits again (the
+ * pack just loaded is always kept). Games draw from one pack, or from a weighted mix of all of them with
+ * nextPack(). Every pack keeps its own metrics: hits, loads, evictions, picks and estimated size.
+ * All methods are synchronized, so one registry can serve many games; a pack is loaded by the first
+ * thread that needs it, while the others wait.
+ * Usage: java DictionaryRegistry budgetMegabytes numPicks name=file[,weight] [name=file[,weight]...]
+ * @author Cristobal Padilla
+ *
+ */
+public class DictionaryRegistry {
+
+	// Instance fields.
+	private final long memoryBudget;
+	private final LinkedHashMap<String, Pack> packs;
+	private final LinkedHashMap<String, DictionaryIndex> loaded;
+	private final Random generator;
+	private long loadedBytes;
+	private AliasTable mix;
+	private Pack[] mixPacks;
+
+	/**
+	 * The Pack Class describes one registered pack and keeps its metrics.
+	 */
+	public static final class Pack {
+
+		// Instance fields.
+		private final String name;
+		private final File file;
+		private final double weight;
+		private long hits;
+		private long loads;
+		private long evictions;
+		private long picks;
+		private long bytes;
+
+		Pack(String name, File file, double weight) {
+
+			this.name = name;
+			this.file = file;
+			this.weight = weight;
+
+		}
+
+		/**
+		 * Method used to get the name the pack was registered with.
+		 * @return name
+		 */
+		public String getName() {
+			return name;
+
+		}
+
+		/**
+		 * Method used to get the dictionary file of the pack.
+		 * @return file
+		 */
+		public File getFile() {
+			return file;
+
+		}
+
+		/**
+		 * Method used to get the weight of the pack in a mix of all of them.
+		 * @return weight
+		 */
+		public double getWeight() {
+			return weight;
+
+		}
+
+		/**
+		 * Method used to get the number of times the pack was asked for while it was loaded.
+		 * @return hits
+		 */
+		public long getHits() {
+			return hits;
+
+		}
+
+		/**
+		 * Method used to get the number of times the pack was read from its file.
+		 * @return loads
+		 */
+		public long getLoads() {
+			return loads;
+
+		}
+
+		/**
+		 * Method used to get the number of times the pack was dropped to stay within the memory budget.
+		 * @return evictions
+		 */
+		public long getEvictions() {
+			return evictions;
+
+		}
+
+		/**
+		 * Method used to get the number of times nextPack() chose this pack.
+		 * @return picks
+		 */
+		public long getPicks() {
+			return picks;
+
+		}
+
+		/**
+		 * Method used to get the estimated size of the pack when loaded.
+		 * @return bytes, or 0 if it was never loaded.
+		 */
+		public long getBytes() {
+			return bytes;
+
+		}
+	}
+
+	public static void main(String[] args) {
+
+		if (args.length < 3) {
+			System.out.println("Usage: java DictionaryRegistry budgetMegabytes numPicks name=file[,weight] [name=file[,weight]...]");
+			return;
+
+		}
+
+		try {
+			DictionaryRegistry registry = new DictionaryRegistry(Long.parseLong(args[0]) << 20);
+
+			for (int index = 2; index < args.length; index++) {
+				registry.registerPack(args[index]);
+
+			}
+
+			long numPicks = Long.parseLong(args[1]);
+			long start = System.nanoTime();
+
+			for (long pick = 0; pick < numPicks; pick++) {
+				registry.getPartition(registry.nextPack(), Hangman.EASY);
+
+			}
+			System.out.println(numPicks + " picks in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+			registry.printMetrics(System.out);
+
+		} catch (IOException | IllegalArgumentException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * Constructor takes the memory all loaded packs may share.
+	 * @param memoryBudget bytes, as estimated by DictionaryIndex.memoryFootprint().
+	 */
+	public DictionaryRegistry(long memoryBudget) {
+
+		this.memoryBudget = memoryBudget;
+		packs = new LinkedHashMap<String, Pack>();
+		loaded = new LinkedHashMap<String, DictionaryIndex>(16, 0.75f, true);							// Access order: the eldest is the least recently used.
+		generator = new Random();
+
+	}
+
+	/**
+	 * Method used to register a pack from a command line spec, "name=file" or "name=file,weight".
+	 * @param spec pack spec.
+	 * @throws IllegalArgumentException the spec is malformed, or the name is taken.
+	 */
+	public void registerPack(String spec) {
+
+		int equals = spec.indexOf('=');
+
+		if (equals <= 0)
+			throw new IllegalArgumentException("Pack must be name=file[,weight]: " + spec);
+
+		String file = spec.substring(equals + 1);
+		double weight = 1.0;
+		int comma = file.lastIndexOf(',');
+
+		if (comma >= 0) {
+			weight = Double.parseDouble(file.substring(comma + 1));
+			file = file.substring(0, comma);
+
+		}
+		registerPack(spec.substring(0, equals), new File(file), weight);
+
+	}
+
+	/**
+	 * Method used to register a pack. Nothing is read until a word is drawn from it.
+	 * @param name name of the pack.
+	 * @param file dictionary file (plain or .gz).
+	 * @param weight weight of the pack in nextPack()'s mix.
+	 * @throws IllegalArgumentException the name is taken, or the weight is not positive.
+	 */
+	public synchronized void registerPack(String name, File file, double weight) {
+
+		if (packs.containsKey(name))
+			throw new IllegalArgumentException("Pack " + name + " is already registered.");
+
+		if (!(weight > 0) || Double.isInfinite(weight))
+			throw new IllegalArgumentException("Invalid weight " + weight + " for pack " + name + ".");
+
+		packs.put(name, new Pack(name, file, weight));
+		mix = null;																						// Rebuilt on the next pick.
+
+	}
+
+	/**
+	 * Method used to choose a pack from the weighted mix of all registered packs.
+	 * @return name of the pack.
+	 * @throws IllegalStateException no pack is registered.
+	 */
+	public synchronized String nextPack() {
+
+		if (packs.isEmpty())
+			throw new IllegalStateException("No dictionary pack is registered.");
+
+		if (mix == null) {
+			mixPacks = packs.values().toArray(new Pack[0]);
+			ArrayList<Double> weights = new ArrayList<Double>(mixPacks.length);
+
+			for (Pack pack : mixPacks) {
+				weights.add(pack.weight);
+
+			}
+			mix = new AliasTable(weights);
+
+		}
+
+		Pack pack = mixPacks[mix.next(generator)];
+		pack.picks++;
+		return pack.name;
+
+	}
+
+	/**
+	 * Method used to get the words of one difficulty level of a pack, loading the pack if needed.
+	 * @param name name of the pack.
+	 * @param difficultyLevel Hangman.EASY or Hangman.HARD.
+	 * @return partition
+	 * @throws IOException pack could not be loaded.
+	 */
+	public DictionaryIndex.Partition getPartition(String name, int difficultyLevel) throws IOException {
+		return getIndex(name).getPartition(difficultyLevel);
+
+	}
+
+	/**
+	 * Method used to get the index of a pack, loading it, and evicting others, if needed.
+	 * @param name name of the pack.
+	 * @return index
+	 * @throws IOException pack could not be loaded.
+	 * @throws IllegalArgumentException no pack has that name.
+	 */
+	public synchronized DictionaryIndex getIndex(String name) throws IOException {
+
+		Pack pack = packs.get(name);
+
+		if (pack == null)
+			throw new IllegalArgumentException("Unknown pack: " + name);
+
+		DictionaryIndex index = loaded.get(name);
+
+		if (index != null) {
+			pack.hits++;
+			return index;
+
+		}
+
+		index = DictionaryIndex.load(ParallelGzipInputStream.openReader(pack.file), WordScores.loadCached(pack.file));
+		pack.loads++;
+		pack.bytes = index.memoryFootprint();
+		loaded.put(name, index);
+		loadedBytes += pack.bytes;
+
+		Iterator<String> eldest = loaded.keySet().iterator();
+
+		while (loadedBytes > memoryBudget && loaded.size() > 1) {
+			Pack evicted = packs.get(eldest.next());
+			eldest.remove();
+			loadedBytes -= evicted.bytes;
+			evicted.evictions++;
+
+		}
+		return index;
+
+	}
+
+	/**
+	 * Method used to get the registered packs, with their metrics.
+	 * @return packs, in the order they were registered.
+	 */
+	public synchronized List<Pack> getPacks() {
+		return new ArrayList<Pack>(packs.values());
+
+	}
+
+	/**
+	 * Method used to get the estimated memory taken by the loaded packs.
+	 * @return bytes
+	 */
+	public synchronized long getLoadedBytes() {
+		return loadedBytes;
+
+	}
+
+	/**
+	 * Method used to print the metrics of every pack, one line each.
+	 * @param out stream to print to.
+	 */
+	public synchronized void printMetrics(PrintStream out) {
+
+		out.println("Loaded: " + (loadedBytes >> 10) + " KB of " + (memoryBudget >> 10) + " KB budget.");
+
+		for (Pack pack : packs.values()) {
+			out.println("\t" + pack.name + (loaded.containsKey(pack.name) ? " (loaded)" : "") + ": " + (pack.bytes >> 10) +
+						" KB, " + pack.picks + " picks, " + pack.hits + " hits, " + pack.loads + " loads, " +
+						pack.evictions + " evictions");
+
+		}
+	}
+}
@@ -0,0 +1,57 @@
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The DirectoryWordSource Class reads every dictionary file of a directory, e.g. one file per topic or
+ * language, as one dictionary. Files are taken in name order; hidden files and WordScores caches are
+ * skipped, and so are subdirectories.
+ * @author Cristobal Padilla
+ *
+ */
+public class DirectoryWordSource implements WordSource {
+
+	// Instance fields.
+	private final File directory;
+
+	/**
+	 * Constructor takes the directory.
+	 * @param directory directory of dictionary files.
+	 */
+	public DirectoryWordSource(File directory) {
+		this.directory = directory;
+
+	}
+
+	@Override
+	public BufferedReader open() throws IOException {
+		return new MergedWordSource(expand()).open();
+
+	}
+
+	@Override
+	public List<WordSource> expand() throws IOException {
+
+		File[] files = directory.listFiles(file -> file.isFile() && !file.isHidden() &&
+											!file.getName().endsWith(WordScores.CACHE_SUFFIX));
+
+		if (files == null)
+			throw new FileNotFoundException(directory + " is not a directory.");
+
+		Arrays.sort(files);
+		ArrayList<WordSource> sources = new ArrayList<WordSource>(files.length);
+
+		for (File file : files) {
+			sources.add(new FileWordSource(file));
+
+		}
+		return sources;
+
+	}
+
+	@Override
+	public String getName() {
+		return directory.getPath() + File.separator;
+
+	}
+}
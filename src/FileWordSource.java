@@ -0,0 +1,41 @@
+
+import java.io.*;
+
+/**
+ * The FileWordSource Class reads a dictionary file, inflating it on the fly if its name ends in ".gz"
+ * (see ParallelGzipInputStream).
+ * @author Cristobal Padilla
+ *
+ */
+public class FileWordSource implements WordSource {
+
+	// Instance fields.
+	private final File file;
+
+	/**
+	 * Constructor takes the dictionary file.
+	 * @param file dictionary file.
+	 */
+	public FileWordSource(File file) {
+		this.file = file;
+
+	}
+
+	@Override
+	public BufferedReader open() throws IOException {
+		return ParallelGzipInputStream.openReader(file);
+
+	}
+
+	@Override
+	public String getName() {
+		return file.getPath();
+
+	}
+
+	@Override
+	public File getFile() {
+		return file;
+
+	}
+}
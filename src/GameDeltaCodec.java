@@ -0,0 +1,460 @@
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The GameDeltaCodec Class is a compact binary protocol for remote clients of a game, e.g. spectators,
+ * as an alternative to the console frames (about 2 KB of text each, sent again after every guess). A round
+ * is sent as one header, then one small delta per guess, then its end; the client keeps the board itself
+ * (see Board) and draws it however it likes. Messages, each starting with its type byte:
+ *   HEADER  word length (varint), max guesses, difficulty level, games, wins, losses (varints)
+ *   GUESS   letter (2 bytes, UTF-16), wrong guesses, positions revealed (one bit per char, word length / 8 bytes rounded up)
+ *   END     outcome (GameState.WON or LOST), secret word (varint length, UTF-8)
+ * Bit i of the positions, in byte i / 8, is the char at index i, so a guess of a 7 letter word takes 5
+ * bytes, and a whole round a few dozen. A message carries no length: a GUESS is as long as the header
+ * says, so a stream must be read from a HEADER on.
+ * Usage: java GameDeltaCodec host port           (watches a game started with --spectate-delta port)
+ * @author Cristobal Padilla
+ *
+ */
+public class GameDeltaCodec {
+
+	// Message types.
+	public static final int NONE = 0;
+	public static final int HEADER = 1;
+	public static final int GUESS = 2;
+	public static final int END = 3;
+
+	// Longest word a Board takes, in chars.
+	public static final int MAX_WORD_LENGTH = 1024;
+
+	public static void main(String[] args) {
+
+		if (args.length < 2) {
+			System.out.println("Usage: java GameDeltaCodec host port");
+			return;
+
+		}
+
+		try (SocketChannel socket = SocketChannel.open(new InetSocketAddress(args[0], Integer.parseInt(args[1])))) {
+			ByteBuffer in = ByteBuffer.allocate(4 * MAX_WORD_LENGTH);
+			Board board = new Board();
+
+			while (socket.read(in) >= 0) {
+				in.flip();
+
+				while (board.apply(in) != NONE) {
+					System.out.println(board);
+
+				}
+				in.compact();
+
+			}
+
+		} catch (IOException | IllegalArgumentException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * Private constructor: the class only has static methods and the Board.
+	 */
+	private GameDeltaCodec() {
+	}
+
+	/**
+	 * Method used to encode the header of a round, from a snapshot taken before its first guess.
+	 * @param state snapshot of the game.
+	 * @param out buffer the message is put in.
+	 * @return buffer
+	 */
+	public static ByteBuffer encodeHeader(GameState state, ByteBuffer out) {
+
+		out.put((byte) HEADER);
+		putVarint(out, state.getWordLength());
+		out.put((byte) Hangman.MAX_GUESSES);
+		out.put((byte) state.getDifficultyLevel());
+		putVarint(out, state.getNumGames());
+		putVarint(out, state.getNumWins());
+		putVarint(out, state.getNumLosses());
+		return out;
+
+	}
+
+	/**
+	 * Method used to encode a guess, from a snapshot taken right after it. The positions sent are those of
+	 * the letter in the word, which are the ones it revealed, as a letter is never guessed twice.
+	 * @param state snapshot of the game.
+	 * @param validUserGuess lowercase char guessed.
+	 * @param out buffer the message is put in.
+	 * @return buffer
+	 */
+	public static ByteBuffer encodeGuess(GameState state, char validUserGuess, ByteBuffer out) {
+
+		out.put((byte) GUESS);
+		out.putChar(validUserGuess);
+		out.put((byte) state.getNumWrongGuesses());
+		int bits = 0;
+
+		for (int index = 0; index < state.getWordLength(); index++) {
+
+			if (state.maskedCharAt(index) == validUserGuess)
+				bits |= 1 << (index & 7);
+
+			if ((index & 7) == 7 || index == state.getWordLength() - 1) {
+				out.put((byte) bits);
+				bits = 0;
+
+			}
+		}
+		return out;
+
+	}
+
+	/**
+	 * Method used to encode the end of a round, from a snapshot taken once it's over.
+	 * @param state snapshot of the game.
+	 * @param out buffer the message is put in.
+	 * @return buffer
+	 * @throws IllegalArgumentException the round is not over.
+	 */
+	public static ByteBuffer encodeEnd(GameState state, ByteBuffer out) {
+
+		if (!state.isOver())
+			throw new IllegalArgumentException("The round is not over.");
+
+		byte[] word = state.getSecretWord().getBytes(StandardCharsets.UTF_8);
+		out.put((byte) END);
+		out.put((byte) state.getOutcome());
+		putVarint(out, word.length);
+		out.put(word);
+		return out;
+
+	}
+
+	/**
+	 * Method used to get the most bytes a message about a word may take, to size buffers.
+	 * @param wordLength chars of the word.
+	 * @return bytes
+	 */
+	public static int maxMessageSize(int wordLength) {
+		return 23 + 3 * wordLength;																				// A HEADER of five long varints, or an END of a UTF-8 word.
+
+	}
+
+	/**
+	 * Method used to put an int as a varint: seven bits per byte, low bits first, the high bit set on every
+	 * byte but the last.
+	 * @param out buffer.
+	 * @param value value, not negative.
+	 */
+	private static void putVarint(ByteBuffer out, int value) {
+
+		while ((value & ~0x7F) != 0) {
+			out.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+
+		}
+		out.put((byte) value);
+
+	}
+
+	/**
+	 * The Board Class is what a client knows of a round, rebuilt from the messages: the word so far, the
+	 * letters guessed, the wrong guesses and, once it's over, the outcome and the word.
+	 */
+	public static final class Board {
+
+		// Instance fields.
+		private char[] maskedWord;
+		private final StringBuilder lettersUsed;
+		private int maxGuesses;
+		private int numWrongGuesses;
+		private int difficultyLevel;
+		private int numGames;
+		private int numWins;
+		private int numLosses;
+		private int outcome;
+		private String secretWord;
+		private int position;
+
+		/**
+		 * No-args constructor: the board is empty until a HEADER comes.
+		 */
+		public Board() {
+
+			maskedWord = new char[0];
+			lettersUsed = new StringBuilder();
+
+		}
+
+		/**
+		 * Method used to apply the next message of a buffer to the board. A message that is not whole yet is
+		 * left in the buffer, untouched, so that a client can read more and call it again.
+		 * @param in buffer, positioned at a message.
+		 * @return type of the message applied, or NONE if there is no whole message.
+		 * @throws IllegalArgumentException the message is malformed.
+		 */
+		public int apply(ByteBuffer in) {
+
+			position = in.position();
+
+			if (position >= in.limit())
+				return NONE;
+
+			int type = in.get(position++);
+
+			switch (type) {
+				case HEADER:
+					return applyHeader(in);
+
+				case GUESS:
+					return applyGuess(in);
+
+				case END:
+					return applyEnd(in);
+
+				default:
+					throw new IllegalArgumentException("Unknown message type: " + type);
+
+			}
+		}
+
+		/**
+		 * Method used to start a new round from a HEADER.
+		 * @param in buffer.
+		 * @return HEADER, or NONE if it's not whole.
+		 */
+		private int applyHeader(ByteBuffer in) {
+
+			int wordLength = getVarint(in);
+
+			if (wordLength < 0 || position + 2 > in.limit())
+				return NONE;
+
+			int maxGuesses = in.get(position++);
+			int difficultyLevel = in.get(position++);
+			int numGames = getVarint(in);
+			int numWins = (numGames < 0) ? -1 : getVarint(in);
+			int numLosses = (numWins < 0) ? -1 : getVarint(in);
+
+			if (numLosses < 0)
+				return NONE;
+
+			if (wordLength > MAX_WORD_LENGTH)
+				throw new IllegalArgumentException("A word can't be " + wordLength + " chars long.");
+
+			maskedWord = new char[wordLength];
+			Arrays.fill(maskedWord, '_');
+			lettersUsed.setLength(0);
+			this.maxGuesses = maxGuesses;
+			this.difficultyLevel = difficultyLevel;
+			this.numGames = numGames;
+			this.numWins = numWins;
+			this.numLosses = numLosses;
+			numWrongGuesses = 0;
+			outcome = GameState.PLAYING;
+			secretWord = null;
+			in.position(position);
+			return HEADER;
+
+		}
+
+		/**
+		 * Method used to reveal the positions of a GUESS.
+		 * @param in buffer.
+		 * @return GUESS, or NONE if it's not whole.
+		 */
+		private int applyGuess(ByteBuffer in) {
+
+			int maskBytes = (maskedWord.length + 7) >>> 3;
+
+			if (position + 3 + maskBytes > in.limit())
+				return NONE;
+
+			char letter = in.getChar(position);
+			numWrongGuesses = in.get(position + 2);
+			position += 3;
+
+			for (int index = 0; index < maskedWord.length; index++) {
+
+				if ((in.get(position + (index >>> 3)) & (1 << (index & 7))) != 0)
+					maskedWord[index] = letter;
+
+			}
+
+			lettersUsed.append(letter);
+			in.position(position + maskBytes);
+			return GUESS;
+
+		}
+
+		/**
+		 * Method used to end the round from an END.
+		 * @param in buffer.
+		 * @return END, or NONE if it's not whole.
+		 */
+		private int applyEnd(ByteBuffer in) {
+
+			if (position + 1 > in.limit())
+				return NONE;
+
+			int outcome = in.get(position++);
+			int length = getVarint(in);
+
+			if (length < 0 || position + length > in.limit())
+				return NONE;
+
+			if (outcome != GameState.WON && outcome != GameState.LOST)
+				throw new IllegalArgumentException("Unknown outcome: " + outcome);
+
+			byte[] word = new byte[length];
+			in.get(position, word);
+			secretWord = new String(word, StandardCharsets.UTF_8);
+			this.outcome = outcome;
+			in.position(position + length);
+			return END;
+
+		}
+
+		/**
+		 * Method used to read a varint at the board's read position, and move past it.
+		 * @param in buffer.
+		 * @return value, or -1 if it's not whole.
+		 * @throws IllegalArgumentException the varint is longer than an int.
+		 */
+		private int getVarint(ByteBuffer in) {
+
+			int value = 0;
+
+			for (int shift = 0; position < in.limit(); shift += 7) {
+
+				if (shift > 28)
+					throw new IllegalArgumentException("Malformed varint.");
+
+				int b = in.get(position++);
+				value |= (b & 0x7F) << shift;
+
+				if ((b & 0x80) == 0)
+					return value;
+
+			}
+			return -1;
+
+		}
+
+		/**
+		 * Method used to get the word so far, with '_' for hidden chars.
+		 * @return new array.
+		 */
+		public char[] getMaskedWord() {
+			return maskedWord.clone();
+
+		}
+
+		/**
+		 * Method used to get the letters guessed in the round, in the order they were guessed.
+		 * @return letters
+		 */
+		public String getLettersUsed() {
+			return lettersUsed.toString();
+
+		}
+
+		/**
+		 * Method used to get the number of wrong guesses made in the round.
+		 * @return numWrongGuesses
+		 */
+		public int getNumWrongGuesses() {
+			return numWrongGuesses;
+
+		}
+
+		/**
+		 * Method used to get the number of wrong guesses the player can still make.
+		 * @return guesses
+		 */
+		public int getNumGuessesLeft() {
+			return Math.max(0, maxGuesses - numWrongGuesses);
+
+		}
+
+		/**
+		 * Method used to get the difficulty level of the round, as sent in its HEADER.
+		 * @return Hangman.EASY or Hangman.HARD.
+		 */
+		public int getDifficultyLevel() {
+			return difficultyLevel;
+
+		}
+
+		/**
+		 * Method used to get the number of games played before the round.
+		 * @return numGames
+		 */
+		public int getNumGames() {
+			return numGames;
+
+		}
+
+		/**
+		 * Method used to get the number of wins before the round.
+		 * @return numWins
+		 */
+		public int getNumWins() {
+			return numWins;
+
+		}
+
+		/**
+		 * Method used to get the number of losses before the round.
+		 * @return numLosses
+		 */
+		public int getNumLosses() {
+			return numLosses;
+
+		}
+
+		/**
+		 * Method used to get how the round stands.
+		 * @return GameState.PLAYING, WON or LOST.
+		 */
+		public int getOutcome() {
+			return outcome;
+
+		}
+
+		/**
+		 * Method used to get the secret word, once the round is over.
+		 * @return word, or null while the round is being played.
+		 */
+		public String getSecretWord() {
+			return secretWord;
+
+		}
+
+		@Override
+		public String toString() {
+
+			StringBuilder str = new StringBuilder();
+
+			for (char letter : maskedWord) {
+				str.append(letter).append(' ');
+
+			}
+
+			if (outcome == GameState.PLAYING)
+				str.append(" ").append(getNumGuessesLeft()).append(" guesses left, used: ").append(lettersUsed);
+			else
+				str.append(" ").append((outcome == GameState.WON) ? "WON " : "LOST ").append(secretWord);
+
+			return str.toString();
+
+		}
+	}
+}
@@ -0,0 +1,285 @@
+
+/**
+ * The GameEvent Class is something that happened in a game, as published on a GameEventBus: a round
+ * started, a guess was made, a game ended, or a dictionary was loaded again. Each kind is a subclass, and
+ * also has a type constant, for subscribers that would rather switch on it. Events are immutable, and the
+ * ones about a game carry a GameState snapshot taken when it happened, so subscribers on other threads see
+ * the game as it was, whatever it has become since.
+ * @author Cristobal Padilla
+ *
+ */
+public abstract class GameEvent {
+
+	// Types of events.
+	public static final int ROUND_STARTED = 0;
+	public static final int GUESS_MADE = 1;
+	public static final int GAME_ENDED = 2;
+	public static final int DICTIONARY_RELOADED = 3;
+
+	// Instance fields.
+	private final int type;
+	private final int sessionId;
+	private final long timeNanos;
+
+	/**
+	 * Constructor takes the type of the event and the session it happened in. The time is taken now.
+	 * @param type type of the event.
+	 * @param sessionId session the game is played in, 0 for the console game.
+	 */
+	GameEvent(int type, int sessionId) {
+
+		this.type = type;
+		this.sessionId = sessionId;
+		timeNanos = System.nanoTime();
+
+	}
+
+	/**
+	 * Method used to get the kind of event.
+	 * @return ROUND_STARTED, GUESS_MADE, GAME_ENDED or DICTIONARY_RELOADED.
+	 */
+	public int getType() {
+		return type;
+
+	}
+
+	/**
+	 * Method used to get the session the event happened in.
+	 * @return sessionId, 0 for the console game.
+	 */
+	public int getSessionId() {
+		return sessionId;
+
+	}
+
+	/**
+	 * Method used to get when the event happened.
+	 * @return System.nanoTime() value.
+	 */
+	public long getTimeNanos() {
+		return timeNanos;
+
+	}
+
+	/**
+	 * The RoundStarted Class is a new secret word being picked.
+	 */
+	public static final class RoundStarted extends GameEvent {
+
+		// Instance fields.
+		private final GameState state;
+
+		/**
+		 * Constructor takes the game once its secret word is picked.
+		 * @param sessionId session the game is played in.
+		 * @param state snapshot taken before the first guess.
+		 */
+		public RoundStarted(int sessionId, GameState state) {
+
+			super(ROUND_STARTED, sessionId);
+			this.state = state;
+
+		}
+
+		/**
+		 * Method used to get the game as it was when the round started.
+		 * @return snapshot
+		 */
+		public GameState getState() {
+			return state;
+
+		}
+
+		@Override
+		public String toString() {
+			return "ROUND_STARTED " + getSessionId() + " " + state.getWordLength();
+
+		}
+	}
+
+	/**
+	 * The GuessMade Class is a valid guess, and what it revealed.
+	 */
+	public static final class GuessMade extends GameEvent {
+
+		// Instance fields.
+		private final GameState state;
+		private final char letter;
+		private final int numRevealed;
+
+		/**
+		 * Constructor takes the guess and the game right after it.
+		 * @param sessionId session the game is played in.
+		 * @param state snapshot taken after the guess.
+		 * @param letter lowercase char guessed.
+		 * @param numRevealed chars of the word it revealed.
+		 */
+		public GuessMade(int sessionId, GameState state, char letter, int numRevealed) {
+
+			super(GUESS_MADE, sessionId);
+			this.state = state;
+			this.letter = letter;
+			this.numRevealed = numRevealed;
+
+		}
+
+		/**
+		 * Method used to get the game as it was right after the guess.
+		 * @return snapshot
+		 */
+		public GameState getState() {
+			return state;
+
+		}
+
+		/**
+		 * Method used to get the letter guessed.
+		 * @return lowercase char.
+		 */
+		public char getLetter() {
+			return letter;
+
+		}
+
+		/**
+		 * Method used to get the number of chars of the word the guess revealed.
+		 * @return chars, 0 for a miss.
+		 */
+		public int getNumRevealed() {
+			return numRevealed;
+
+		}
+
+		/**
+		 * Method used to know whether the letter is in the word.
+		 * @return True if the guess revealed something.
+		 */
+		public boolean isHit() {
+			return numRevealed > 0;
+
+		}
+
+		@Override
+		public String toString() {
+			return "GUESS_MADE " + getSessionId() + " " + letter + " " + numRevealed + " " + state.getNumWrongGuesses();
+
+		}
+	}
+
+	/**
+	 * The GameEnded Class is a round won or lost, once the stats have been updated.
+	 */
+	public static final class GameEnded extends GameEvent {
+
+		// Instance fields.
+		private final GameState state;
+		private final int numGuesses;
+
+		/**
+		 * Constructor takes the game once it's over.
+		 * @param sessionId session the game is played in.
+		 * @param state snapshot taken at the end of the round.
+		 * @param numGuesses valid guesses made in the round.
+		 */
+		public GameEnded(int sessionId, GameState state, int numGuesses) {
+
+			super(GAME_ENDED, sessionId);
+			this.state = state;
+			this.numGuesses = numGuesses;
+
+		}
+
+		/**
+		 * Method used to get the game as it was at the end of the round.
+		 * @return snapshot
+		 */
+		public GameState getState() {
+			return state;
+
+		}
+
+		/**
+		 * Method used to get the number of valid guesses made in the round.
+		 * @return numGuesses
+		 */
+		public int getNumGuesses() {
+			return numGuesses;
+
+		}
+
+		/**
+		 * Method used to know whether the round was won.
+		 * @return True if won, False if lost.
+		 */
+		public boolean isWon() {
+			return state.getOutcome() == GameState.WON;
+
+		}
+
+		@Override
+		public String toString() {
+			return "GAME_ENDED " + getSessionId() + " " + (isWon() ? "WON " : "LOST ") + state.getSecretWord() + " " + numGuesses;
+
+		}
+	}
+
+	/**
+	 * The DictionaryReloaded Class is the words of a difficulty level being loaded, from a dictionary or a pack.
+	 */
+	public static final class DictionaryReloaded extends GameEvent {
+
+		// Instance fields.
+		private final String name;
+		private final int difficultyLevel;
+		private final int numWords;
+
+		/**
+		 * Constructor takes the dictionary loaded.
+		 * @param sessionId session it was loaded for.
+		 * @param name name of the dictionary or pack.
+		 * @param difficultyLevel Hangman.EASY or Hangman.HARD.
+		 * @param numWords words of the difficulty level.
+		 */
+		public DictionaryReloaded(int sessionId, String name, int difficultyLevel, int numWords) {
+
+			super(DICTIONARY_RELOADED, sessionId);
+			this.name = name;
+			this.difficultyLevel = difficultyLevel;
+			this.numWords = numWords;
+
+		}
+
+		/**
+		 * Method used to get the name of the dictionary or pack loaded.
+		 * @return name
+		 */
+		public String getName() {
+			return name;
+
+		}
+
+		/**
+		 * Method used to get the difficulty level whose words were loaded.
+		 * @return Hangman.EASY or Hangman.HARD.
+		 */
+		public int getDifficultyLevel() {
+			return difficultyLevel;
+
+		}
+
+		/**
+		 * Method used to get the number of words of the difficulty level.
+		 * @return words
+		 */
+		public int getNumWords() {
+			return numWords;
+
+		}
+
+		@Override
+		public String toString() {
+			return "DICTIONARY_RELOADED " + getSessionId() + " " + name + " " + difficultyLevel + " " + numWords;
+
+		}
+	}
+}
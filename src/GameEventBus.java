@@ -0,0 +1,287 @@
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The GameEventBus Class hands the events of a game (see GameEvent) to whoever wants them, e.g. stats,
+ * journals, metrics, spectators or achievements, so that the game loop publishes an event once instead of
+ * calling every one of them. Every subscriber gets its own SubmissionPublisher, so its own bounded buffer,
+ * and its own policy for when that buffer is full: DROP loses the event for that subscriber only, and
+ * DISCONNECT cuts the subscriber off (onError) and forgets it. Either way publish() never blocks and never
+ * waits for a subscriber: it only offers the event to each buffer. Subscribers run on the bus's own
+ * daemon threads, never on the game's, and a slow one doesn't hold up the others either. A game with
+ * nothing subscribed pays one check, see hasSubscribers().
+ * @author Cristobal Padilla
+ *
+ */
+public class GameEventBus implements Closeable {
+
+	// Policies for a full buffer.
+	public static final int DROP = 0;
+	public static final int DISCONNECT = 1;
+
+	// Default buffer of a subscriber, in events.
+	public static final int DEFAULT_BUFFER_CAPACITY = 1024;
+
+	// Instance fields.
+	private final CopyOnWriteArrayList<Feed> feeds;
+	private final ExecutorService executor;
+	private final LongAdder published;
+	private volatile boolean closed;
+
+	/**
+	 * The Feed Class is one subscriber's side of the bus: its publisher, its policy and what it missed.
+	 */
+	public final class Feed {
+
+		// Instance fields.
+		private final String name;
+		private final SubmissionPublisher<GameEvent> publisher;
+		private final int policy;
+		private final LongAdder dropped;
+		private volatile boolean disconnected;
+
+		private Feed(String name, int bufferCapacity, int policy) {
+
+			this.name = name;
+			this.policy = policy;
+			publisher = new SubmissionPublisher<GameEvent>(executor, bufferCapacity);
+			dropped = new LongAdder();
+
+		}
+
+		/**
+		 * Method used to offer an event to the subscriber, and apply the policy if its buffer is full.
+		 * @param event event.
+		 */
+		private void offer(GameEvent event) {
+
+			try {
+
+				if (publisher.offer(event, null) >= 0)													// Never waits: a full buffer just refuses it.
+					return;
+
+			} catch (IllegalStateException exception) {
+				return;																					// Closed while the event was on its way.
+
+			}
+
+			dropped.increment();
+
+			if (policy == DISCONNECT) {
+				disconnected = true;
+				feeds.remove(this);
+				publisher.closeExceptionally(new IllegalStateException("Subscriber " + name + " fell " + getBufferCapacity() +
+																	   " events behind, and was disconnected."));
+
+			}
+		}
+
+		/**
+		 * Method used to stop sending events to the subscriber. It gets onComplete once it has taken the
+		 * events already in its buffer.
+		 */
+		public void close() {
+
+			feeds.remove(this);
+			publisher.close();
+
+		}
+
+		/**
+		 * Method used to get the name the subscriber was added with.
+		 * @return name
+		 */
+		public String getName() {
+			return name;
+
+		}
+
+		/**
+		 * Method used to get what happens when the subscriber's buffer is full.
+		 * @return DROP or DISCONNECT.
+		 */
+		public int getPolicy() {
+			return policy;
+
+		}
+
+		/**
+		 * Method used to get the size of the subscriber's buffer: the capacity asked for, rounded up to a
+		 * power of two by SubmissionPublisher.
+		 * @return events
+		 */
+		public int getBufferCapacity() {
+			return publisher.getMaxBufferCapacity();
+
+		}
+
+		/**
+		 * Method used to get the number of events the subscriber missed because its buffer was full.
+		 * @return events
+		 */
+		public long getNumDropped() {
+			return dropped.sum();
+
+		}
+
+		/**
+		 * Method used to get how many events the subscriber has yet to take, roughly.
+		 * @return events
+		 */
+		public int getLag() {
+			return publisher.estimateMaximumLag();
+
+		}
+
+		/**
+		 * Method used to know whether the subscriber was cut off for falling behind.
+		 * @return True if disconnected.
+		 */
+		public boolean isDisconnected() {
+			return disconnected;
+
+		}
+	}
+
+	/**
+	 * No-args constructor. Threads are only started for subscribers, when they have events to take.
+	 */
+	public GameEventBus() {
+
+		feeds = new CopyOnWriteArrayList<Feed>();
+		published = new LongAdder();
+		executor = Executors.newCachedThreadPool(runnable -> {											// Grows: a blocked subscriber only holds its own thread.
+			Thread thread = new Thread(runnable, "game-event-subscriber");
+			thread.setDaemon(true);
+			return thread;
+
+		});
+	}
+
+	/**
+	 * Method used to add a subscriber. It gets the events published from now on.
+	 * @param name name of the subscriber, for errors and metrics.
+	 * @param subscriber subscriber; it asks for events itself, through its Subscription.
+	 * @param bufferCapacity events it may fall behind by.
+	 * @param policy DROP or DISCONNECT.
+	 * @return feed of the subscriber.
+	 * @throws IllegalStateException the bus is closed.
+	 */
+	public Feed subscribe(String name, Flow.Subscriber<? super GameEvent> subscriber, int bufferCapacity, int policy) {
+
+		if (policy != DROP && policy != DISCONNECT)
+			throw new IllegalArgumentException("Unknown policy: " + policy);
+
+		if (closed)
+			throw new IllegalStateException("The event bus is closed.");
+
+		Feed feed = new Feed(name, bufferCapacity, policy);
+		feed.publisher.subscribe(subscriber);
+		feeds.add(feed);
+		return feed;
+
+	}
+
+	/**
+	 * Method used to add a subscriber that takes every event, as it comes, with a Consumer.
+	 * @param name name of the subscriber, for errors and metrics.
+	 * @param consumer code run for every event, on a thread of the bus.
+	 * @param bufferCapacity events it may fall behind by.
+	 * @param policy DROP or DISCONNECT.
+	 * @return feed of the subscriber.
+	 */
+	public Feed subscribe(String name, Consumer<? super GameEvent> consumer, int bufferCapacity, int policy) {
+
+		return subscribe(name, new Flow.Subscriber<GameEvent>() {
+
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);															// The buffer bounds it, not the demand.
+
+			}
+
+			@Override
+			public void onNext(GameEvent event) {
+				consumer.accept(event);
+
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				// Disconnected: the feed says so.
+
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		}, bufferCapacity, policy);
+
+	}
+
+	/**
+	 * Method used to know whether anyone would get an event, so that a game can skip building it.
+	 * @return True if there are subscribers.
+	 */
+	public boolean hasSubscribers() {
+		return !feeds.isEmpty();
+
+	}
+
+	/**
+	 * Method used to publish an event to every subscriber. It doesn't block.
+	 * @param event event.
+	 */
+	public void publish(GameEvent event) {
+
+		for (Feed feed : feeds) {
+			feed.offer(event);
+
+		}
+		published.increment();
+
+	}
+
+	/**
+	 * Method used to get the number of events published.
+	 * @return events
+	 */
+	public long getNumPublished() {
+		return published.sum();
+
+	}
+
+	/**
+	 * Method used to get the feeds of the subscribers still connected.
+	 * @return feeds
+	 */
+	public List<Feed> getFeeds() {
+		return new ArrayList<Feed>(feeds);
+
+	}
+
+	/**
+	 * Method used to close the bus: every subscriber gets onComplete once it has taken its buffer.
+	 */
+	@Override
+	public void close() {
+
+		closed = true;
+
+		for (Feed feed : feeds) {
+			feed.close();
+
+		}
+		executor.shutdown();
+
+	}
+}
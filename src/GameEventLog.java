@@ -0,0 +1,138 @@
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GameEventLog Class is a GameEventBus subscriber that writes every event it gets to a text file, one
+ * line each (see the toString() of each GameEvent), e.g. to see what a session did. It asks for events in
+ * batches of BATCH_SIZE, so that its buffer on the bus, and not its demand, decides what is dropped when the
+ * disk is slow. The file is flushed at the end of every game, and closed when the bus completes the feed.
+ * @author Cristobal Padilla
+ *
+ */
+public class GameEventLog implements Flow.Subscriber<GameEvent> {
+
+	// Events asked for at a time.
+	public static final int BATCH_SIZE = 64;
+
+	// Instance fields.
+	private final File file;
+	private final Writer out;
+	private final CountDownLatch closed;
+	private Flow.Subscription subscription;
+	private int pending;
+	private IOException writeFailure;
+
+	/**
+	 * Constructor opens the file, appending to it.
+	 * @param file log file.
+	 * @throws IOException file could not be opened.
+	 */
+	public GameEventLog(File file) throws IOException {
+
+		this.file = file;
+		out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+		closed = new CountDownLatch(1);
+
+	}
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+
+		this.subscription = subscription;
+		pending = BATCH_SIZE;
+		subscription.request(BATCH_SIZE);
+
+	}
+
+	@Override
+	public void onNext(GameEvent event) {
+
+		try {
+			out.write(event.toString());
+			out.write('\n');
+
+			if (event.getType() == GameEvent.GAME_ENDED)
+				out.flush();
+
+		} catch (IOException exception) {
+			writeFailure = exception;
+			subscription.cancel();
+			close();
+			return;
+
+		}
+
+		if (--pending == 0) {
+			pending = BATCH_SIZE;
+			subscription.request(BATCH_SIZE);
+
+		}
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+
+		try {
+			out.write("DISCONNECTED " + throwable.getMessage() + "\n");
+
+		} catch (IOException exception) {
+			writeFailure = exception;
+
+		}
+		close();
+
+	}
+
+	@Override
+	public void onComplete() {
+		close();
+
+	}
+
+	/**
+	 * Method used to close the file, once.
+	 */
+	private void close() {
+
+		if (closed.getCount() == 0)
+			return;
+
+		try {
+			out.close();
+
+		} catch (IOException exception) {
+			writeFailure = (writeFailure != null) ? writeFailure : exception;
+
+		}
+		closed.countDown();
+
+	}
+
+	/**
+	 * Method used to wait for the log to take its last events and close its file, after the bus or its feed
+	 * is closed.
+	 * @param timeoutMillis longest wait.
+	 * @throws IOException the file could not be written, or the wait timed out or was interrupted.
+	 */
+	public void awaitClose(long timeoutMillis) throws IOException {
+
+		try {
+
+			if (!closed.await(timeoutMillis, TimeUnit.MILLISECONDS))
+				throw new IOException("The event log " + file + " was not closed in time.");
+
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while closing the event log " + file + ".");
+
+		}
+
+		if (writeFailure != null)
+			throw new IOException("Could not write the event log " + file + ": " + writeFailure.getMessage());
+
+	}
+}
@@ -0,0 +1,31 @@
+import java.util.NoSuchElementException;
+
+/**
+ * This interface is where the console game reads the user's lines from: the keyboard, through a Scanner,
+ * or a script piped to standard input. A line is read first, then looked at; looking at its length and first
+ * char doesn't need a String, so scripted guesses can be validated without making one per line.
+ * @author Cristobal Padilla
+ *
+ */
+public interface GameInput {
+
+	/**
+	 * Method used to read the next line, without its line terminator.
+	 * @return length of the line, in chars.
+	 * @throws NoSuchElementException there is no more input.
+	 */
+	int readLine();
+
+	/**
+	 * Method used to get the first char of the last line read.
+	 * @return char, or 0 if the line is empty.
+	 */
+	char getFirstChar();
+
+	/**
+	 * Method used to get the last line read as a String.
+	 * @return line
+	 */
+	String getLine();
+
+}
@@ -0,0 +1,326 @@
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The GameJournal Class keeps an append-only binary journal of every guess and every game outcome.
+ * Each event is one fixed-size record of RECORD_SIZE bytes:
+ *
+ *   byte 0    record type (GUESS_RECORD or OUTCOME_RECORD)
+ *   byte 1    length of the secret word
+ *   bytes 2-3 letter guessed (GUESS_RECORD only)
+ *   byte 4    guess number in the game, starting at 1 (GUESS_RECORD), or number of guesses made (OUTCOME_RECORD)
+ *   byte 5    1 if the guess was in the word (GUESS_RECORD), or 1 if the game was won (OUTCOME_RECORD)
+ *   byte 6    number of wrong guesses so far
+ *   byte 7    reserved
+ *
+ * Records from every session go into one shared buffer. A single writer thread commits them as a group:
+ * it swaps the buffer for an empty one and writes everything it took with one call, so many records share
+ * one write (and one force, if asked for). The journal is split into segment files of at most SEGMENT_SIZE
+ * bytes, which the JournalScan Class reads in parallel.
+ * @author Cristobal Padilla
+ *
+ */
+public class GameJournal implements Closeable {
+
+	// Record layout constants.
+	public static final int RECORD_SIZE = 8;
+	public static final byte GUESS_RECORD = 1;
+	public static final byte OUTCOME_RECORD = 2;
+
+	// Constants used to size the buffers and the segment files.
+	public static final int BATCH_CAPACITY = 4096;
+	public static final long SEGMENT_SIZE = 64L * 1024 * 1024;
+	public static final String SEGMENT_PREFIX = "journal-";
+	public static final String SEGMENT_SUFFIX = ".hgj";
+
+	// Instance fields.
+	private final File journalDirectory;
+	private final boolean forceOnCommit;
+	private final Object lock;
+	private ByteBuffer activeBuffer;
+	private ByteBuffer commitBuffer;
+	private boolean closed;
+	private IOException writeFailure;
+	private FileChannel segment;
+	private int segmentNumber;
+	private volatile long numCommits;
+	private final Thread writer;
+
+	/**
+	 * Constructor opens a new segment in the given directory and starts the writer thread. Existing segments
+	 * are left alone; numbering continues after the highest one.
+	 * @param journalDirectory directory that holds the segment files.
+	 * @param forceOnCommit True to force every group commit to the storage device.
+	 * @throws IOException directory could not be created, or the segment could not be opened.
+	 */
+	public GameJournal(File journalDirectory, boolean forceOnCommit) throws IOException {
+
+		if (!journalDirectory.isDirectory() && !journalDirectory.mkdirs())
+			throw new IOException("Could not create journal directory " + journalDirectory);
+
+		this.journalDirectory = journalDirectory;
+		this.forceOnCommit = forceOnCommit;
+		lock = new Object();
+		activeBuffer = ByteBuffer.allocateDirect(BATCH_CAPACITY * RECORD_SIZE);
+		commitBuffer = ByteBuffer.allocateDirect(BATCH_CAPACITY * RECORD_SIZE);
+
+		for (File file : listSegments(journalDirectory)) {
+			segmentNumber = Math.max(segmentNumber, segmentNumber(file));
+
+		}
+		openNextSegment();
+
+		writer = new Thread(this::writeLoop, "game-journal-writer");
+		writer.setDaemon(true);
+		writer.start();
+
+	}
+
+	/**
+	 * Method used to log one guess.
+	 * @param wordLength length of the secret word.
+	 * @param validUserGuess letter guessed.
+	 * @param guessNumber number of this guess in the game, starting at 1.
+	 * @param hit True if the letter is in the word.
+	 * @param numWrongGuesses wrong guesses after this one.
+	 * @throws IOException the writer thread has failed, or the wait for room in a full buffer was interrupted.
+	 */
+	public void logGuess(int wordLength, char validUserGuess, int guessNumber, boolean hit, int numWrongGuesses) throws IOException {
+		append(GUESS_RECORD, wordLength, validUserGuess, guessNumber, hit, numWrongGuesses);
+
+	}
+
+	/**
+	 * Method used to log the end of a game.
+	 * @param wordLength length of the secret word.
+	 * @param numGuesses number of valid guesses made.
+	 * @param won True if the word was guessed.
+	 * @param numWrongGuesses wrong guesses made.
+	 * @throws IOException the writer thread has failed, or the wait for room in a full buffer was interrupted.
+	 */
+	public void logOutcome(int wordLength, int numGuesses, boolean won, int numWrongGuesses) throws IOException {
+		append(OUTCOME_RECORD, wordLength, (char) 0, numGuesses, won, numWrongGuesses);
+
+	}
+
+	/**
+	 * Method used to add one record to the active buffer. It only waits if the buffer is full and the
+	 * writer hasn't taken it yet.
+	 */
+	private void append(byte type, int wordLength, char letter, int count, boolean flag, int numWrongGuesses) throws IOException {
+
+		synchronized (lock) {
+
+			while (!activeBuffer.hasRemaining() && !closed && writeFailure == null) {
+				waitForWriter();
+
+			}
+
+			if (writeFailure != null)
+				throw writeFailure;
+
+			if (closed)
+				throw new IOException("Journal is closed.");
+
+			activeBuffer.put(type)
+						.put(clamp(wordLength))
+						.putChar(letter)
+						.put(clamp(count))
+						.put((byte) (flag ? 1 : 0))
+						.put(clamp(numWrongGuesses))
+						.put((byte) 0);
+
+			if (activeBuffer.position() == RECORD_SIZE)												// First record of a new group: wake the writer.
+				lock.notifyAll();
+
+		}
+	}
+
+	/**
+	 * Method run by the writer thread. It takes whatever records have piled up, writes them in one go,
+	 * and goes back to sleep until more arrive.
+	 */
+	private void writeLoop() {
+
+		while (true) {
+
+			try {
+
+				synchronized (lock) {
+
+					while (activeBuffer.position() == 0 && !closed) {
+						waitForWriter();
+
+					}
+
+					if (activeBuffer.position() == 0)														// Closed, and nothing left to write.
+						return;
+
+					ByteBuffer full = activeBuffer;
+					activeBuffer = commitBuffer;
+					commitBuffer = full;
+					lock.notifyAll();																	// Producers waiting on a full buffer can go on.
+
+				}
+				commit(commitBuffer);
+
+			} catch (IOException exception) {															// Also an interrupt: producers get it instead of waiting.
+
+				synchronized (lock) {
+					writeFailure = exception;
+					lock.notifyAll();
+
+				}
+				return;
+
+			}
+		}
+	}
+
+	/**
+	 * Method used to write one group of records, rolling over to a new segment when the current one is full.
+	 * @param group records to write.
+	 * @throws IOException records could not be written.
+	 */
+	private void commit(ByteBuffer group) throws IOException {
+
+		group.flip();
+
+		if (segment.position() + group.remaining() > SEGMENT_SIZE) {
+			segment.close();
+			openNextSegment();
+
+		}
+
+		while (group.hasRemaining()) {
+			segment.write(group);
+
+		}
+
+		if (forceOnCommit)
+			segment.force(false);
+
+		group.clear();
+		numCommits++;
+
+	}
+
+	/**
+	 * Method used to open the next segment file.
+	 * @throws IOException segment could not be opened.
+	 */
+	private void openNextSegment() throws IOException {
+
+		segmentNumber++;
+		File file = new File(journalDirectory, String.format("%s%06d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX));
+		segment = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+	}
+
+	/**
+	 * Method used to wait on the lock. An interrupt ends the wait for good, instead of going back into the
+	 * caller's loop, where the next wait would throw at once.
+	 * @throws InterruptedIOException the wait was interrupted; the interrupt status is kept.
+	 */
+	private void waitForWriter() throws InterruptedIOException {
+
+		try {
+			lock.wait();
+
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the journal writer.");
+
+		}
+	}
+
+	/**
+	 * Method used to fit a count into one unsigned byte.
+	 * @param value count.
+	 * @return byte
+	 */
+	private static byte clamp(int value) {
+		return (byte) Math.max(0, Math.min(value, 255));
+
+	}
+
+	/**
+	 * Method used to list the segment files of a journal directory, in order.
+	 * @param journalDirectory directory that holds the segment files.
+	 * @return segment files.
+	 */
+	public static File[] listSegments(File journalDirectory) {
+
+		File[] segments = journalDirectory.listFiles((directory, name) ->
+				name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+
+		if (segments == null)
+			return new File[0];
+
+		Arrays.sort(segments);
+		return segments;
+
+	}
+
+	/**
+	 * Method used to read the number out of a segment file name.
+	 * @param segmentFile segment file.
+	 * @return segment number, or 0 if the name is not a segment name.
+	 */
+	private static int segmentNumber(File segmentFile) {
+
+		String name = segmentFile.getName();
+
+		try {
+			return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+
+		} catch (NumberFormatException exception) {
+			return 0;
+
+		}
+	}
+
+	/**
+	 * Method used to get the number of group commits written so far.
+	 * @return numCommits
+	 */
+	public long getNumCommits() {
+		return numCommits;
+
+	}
+
+	/**
+	 * Method used to close the journal. Every record logged before this call is written first.
+	 * @throws IOException records could not be written, or the segment could not be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+
+		synchronized (lock) {
+
+			if (closed)
+				return;
+
+			closed = true;
+			lock.notifyAll();
+
+		}
+
+		try {
+			writer.join();
+
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+
+		}
+		segment.close();
+
+		if (writeFailure != null)
+			throw writeFailure;
+
+	}
+}
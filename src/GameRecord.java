@@ -0,0 +1,259 @@
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The GameRecord Class holds everything needed to replay one game of Hangman exactly: the round seed,
+ * the fingerprint of the dictionary it was picked from, the difficulty level, or the range of word scores
+ * if the game was played with adaptive difficulty, and every raw line the user typed as a guess (valid or not). It also keeps what happened, the outcome and the reveal trace,
+ * so that a replay can be checked against it.
+ * @author Cristobal Padilla
+ *
+ */
+public class GameRecord {
+
+	// Set in the difficulty level byte when a range of scores follows it.
+	public static final int SCORE_RANGE = 0x80;
+
+	// Instance fields.
+	private long seed;
+	private long dictionaryFingerprint;
+	private int difficultyLevel;
+	private double lowScore;
+	private double highScore;
+	private ArrayList<String> rawGuesses;
+	private StringBuilder revealTrace;
+	private boolean won;
+	private int numWrongGuesses;
+
+	/**
+	 * Constructor used to start a new record, before any guess has been made.
+	 * @param seed round seed.
+	 * @param dictionaryFingerprint fingerprint of the populated dictionary.
+	 * @param difficultyLevel Hangman.EASY or Hangman.HARD.
+	 */
+	public GameRecord(long seed, long dictionaryFingerprint, int difficultyLevel) {
+
+		this.seed = seed;
+		this.dictionaryFingerprint = dictionaryFingerprint;
+		this.difficultyLevel = difficultyLevel;
+		lowScore = Double.NaN;
+		highScore = Double.NaN;
+		rawGuesses = new ArrayList<String>();
+		revealTrace = new StringBuilder();
+
+	}
+
+	/**
+	 * Method used to write this record to a stream.
+	 * @param out stream to write to.
+	 * @throws IOException stream could not be written.
+	 */
+	public void writeTo(DataOutputStream out) throws IOException {
+
+		out.writeLong(seed);
+		out.writeLong(dictionaryFingerprint);
+
+		if (hasScoreRange()) {
+			out.writeByte(difficultyLevel | SCORE_RANGE);
+			out.writeDouble(lowScore);
+			out.writeDouble(highScore);
+
+		} else {
+			out.writeByte(difficultyLevel);
+
+		}
+		out.writeInt(rawGuesses.size());
+
+		for (String rawGuess : rawGuesses) {
+			out.writeUTF(rawGuess);
+
+		}
+		out.writeUTF(revealTrace.toString());
+		out.writeBoolean(won);
+		out.writeByte(numWrongGuesses);
+
+	}
+
+	/**
+	 * Method used to read the next record from a stream.
+	 * @param in stream to read from.
+	 * @return record, or null at the end of the stream.
+	 * @throws IOException stream could not be read, or ends in the middle of a record.
+	 */
+	public static GameRecord readFrom(DataInputStream in) throws IOException {
+
+		long seed;
+
+		try {
+			seed = in.readLong();
+
+		} catch (EOFException exception) {
+			return null;
+
+		}
+
+		long dictionaryFingerprint = in.readLong();
+		int difficultyLevel = in.readUnsignedByte();
+		GameRecord record = new GameRecord(seed, dictionaryFingerprint, difficultyLevel & ~SCORE_RANGE);
+
+		if ((difficultyLevel & SCORE_RANGE) != 0)
+			record.setScoreRange(in.readDouble(), in.readDouble());
+
+		int numGuesses = in.readInt();
+
+		for (int index = 0; index < numGuesses; index++) {
+			record.rawGuesses.add(in.readUTF());
+
+		}
+		record.revealTrace.append(in.readUTF());
+		record.won = in.readBoolean();
+		record.numWrongGuesses = in.readByte();
+		return record;
+
+	}
+
+	/**
+	 * Method used to build one step of a reveal trace.
+	 * @param validUserGuess char guessed.
+	 * @param numRevealed number of positions it revealed.
+	 * @return step
+	 */
+	public static String traceStep(char validUserGuess, int numRevealed) {
+		return validUserGuess + Integer.toString(numRevealed) + " ";
+
+	}
+
+	/**
+	 * Method used to add a raw line, exactly as the user typed it.
+	 * @param rawGuess raw input.
+	 */
+	public void addRawGuess(String rawGuess) {
+		rawGuesses.add(rawGuess);
+
+	}
+
+	/**
+	 * Method used to add a step to the reveal trace, in the format of traceStep(), without building it as
+	 * a String first.
+	 * @param validUserGuess char guessed.
+	 * @param numRevealed number of positions it revealed.
+	 */
+	public void addReveal(char validUserGuess, int numRevealed) {
+		revealTrace.append(validUserGuess).append(numRevealed).append(' ');
+
+	}
+
+	/**
+	 * Method used to record the range of word scores the word was drawn from, for a game played with
+	 * adaptive difficulty.
+	 * @param lowScore lowest score, included.
+	 * @param highScore highest score, excluded.
+	 */
+	public void setScoreRange(double lowScore, double highScore) {
+		this.lowScore = lowScore;
+		this.highScore = highScore;
+
+	}
+
+	/**
+	 * Method used to record how the game ended.
+	 * @param won True if the user guessed the word.
+	 * @param numWrongGuesses number of wrong guesses made.
+	 */
+	public void setOutcome(boolean won, int numWrongGuesses) {
+		this.won = won;
+		this.numWrongGuesses = numWrongGuesses;
+
+	}
+
+	/**
+	 * Method used to get the round seed.
+	 * @return seed
+	 */
+	public long getSeed() {
+		return seed;
+
+	}
+
+	/**
+	 * Method used to get the dictionary fingerprint.
+	 * @return dictionaryFingerprint
+	 */
+	public long getDictionaryFingerprint() {
+		return dictionaryFingerprint;
+
+	}
+
+	/**
+	 * Method used to get the difficulty level.
+	 * @return difficultyLevel
+	 */
+	public int getDifficultyLevel() {
+		return difficultyLevel;
+
+	}
+
+	/**
+	 * Method used to know whether the word was drawn from a range of word scores.
+	 * @return True if the game was played with adaptive difficulty.
+	 */
+	public boolean hasScoreRange() {
+		return !Double.isNaN(lowScore);
+
+	}
+
+	/**
+	 * Method used to get the lowest score of the range.
+	 * @return lowScore, or NaN if there is no range.
+	 */
+	public double getLowScore() {
+		return lowScore;
+
+	}
+
+	/**
+	 * Method used to get the highest score of the range.
+	 * @return highScore, or NaN if there is no range.
+	 */
+	public double getHighScore() {
+		return highScore;
+
+	}
+
+	/**
+	 * Method used to get the raw guesses.
+	 * @return rawGuesses
+	 */
+	public List<String> getRawGuesses() {
+		return rawGuesses;
+
+	}
+
+	/**
+	 * Method used to get the reveal trace.
+	 * @return revealTrace
+	 */
+	public String getRevealTrace() {
+		return revealTrace.toString();
+
+	}
+
+	/**
+	 * Method used to know whether the game was won.
+	 * @return won
+	 */
+	public boolean getWon() {
+		return won;
+
+	}
+
+	/**
+	 * Method used to get the number of wrong guesses.
+	 * @return numWrongGuesses
+	 */
+	public int getNumWrongGuesses() {
+		return numWrongGuesses;
+
+	}
+}
@@ -0,0 +1,89 @@
+
+import java.io.*;
+
+/**
+ * The GameRecorder Class appends GameRecords to a file while the game is played, one record per
+ * finished game. The GameReplayer Class reads the same file back.
+ * @author Cristobal Padilla
+ *
+ */
+public class GameRecorder implements Closeable {
+
+	// Instance fields.
+	private DataOutputStream out;
+	private GameRecord currentRecord;
+
+	/**
+	 * Constructor opens the recording file. New games are appended to whatever the file already holds.
+	 * @param recordingFile file to append to.
+	 * @throws IOException file could not be opened.
+	 */
+	public GameRecorder(File recordingFile) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(recordingFile, true)));
+
+	}
+
+	/**
+	 * Method used to start recording a game, right after its secret word has been picked. If the words are
+	 * a range of scores, the range is recorded too, so that the game can be replayed from the dictionary.
+	 * @param game game being played.
+	 */
+	public void beginGame(Hangman game) {
+
+		currentRecord = new GameRecord(game.getRoundSeed(), game.getDictionaryFingerprint(), game.getDifficultyLevel());
+
+		if (game.hasScoreRange())
+			currentRecord.setScoreRange(game.getLowScore(), game.getHighScore());
+
+	}
+
+	/**
+	 * Method used to record a raw line typed as a guess.
+	 * @param rawGuess raw input.
+	 */
+	public void recordRawGuess(String rawGuess) {
+
+		if (currentRecord != null)
+			currentRecord.addRawGuess(rawGuess);
+
+	}
+
+	/**
+	 * Method used to record the effect of a valid guess.
+	 * @param validUserGuess char guessed.
+	 * @param numRevealed number of positions it revealed.
+	 */
+	public void recordReveal(char validUserGuess, int numRevealed) {
+
+		if (currentRecord != null)
+			currentRecord.addReveal(validUserGuess, numRevealed);
+
+	}
+
+	/**
+	 * Method used to finish the current game and write its record.
+	 * @param won True if the user guessed the word.
+	 * @param numWrongGuesses number of wrong guesses made.
+	 * @throws IOException record could not be written.
+	 */
+	public void endGame(boolean won, int numWrongGuesses) throws IOException {
+
+		if (currentRecord != null) {
+			currentRecord.setOutcome(won, numWrongGuesses);
+			currentRecord.writeTo(out);
+			out.flush();																				// A crash shouldn't lose finished games.
+			currentRecord = null;
+
+		}
+	}
+
+	/**
+	 * Method used to close the recording file.
+	 * @throws IOException file could not be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		out.close();
+
+	}
+}
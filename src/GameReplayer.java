@@ -0,0 +1,204 @@
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * This class replays games recorded by the GameRecorder Class, headlessly and at full speed. Each
+ * recorded game is re-run from its seed and its raw guesses, using the same guess rules as the console
+ * game, and the outcome and reveal trace are compared with the recorded ones. Records are read in batches
+ * and each batch is replayed in parallel across all cores, so millions of games can be checked in one run.
+ * Games played with adaptive difficulty are replayed over the range of word scores they were recorded with,
+ * which needs the same WordScores the dictionary had then.
+ * Usage: java GameReplayer dictionaryFile recordingFile
+ * @author Cristobal Padilla
+ *
+ */
+public class GameReplayer {
+
+	// Number of records read and replayed at a time.
+	public static final int BATCH_SIZE = 65536;
+
+	// Instance fields.
+	private final File dictionaryFile;
+	private DictionaryIndex dictionaryIndex;
+	private final ThreadLocal<Hangman> workerGames;
+	private final AtomicLong numReplayed;
+	private final AtomicLong numDivergent;
+
+	public static void main(String[] args) {
+
+		if (args.length != 2) {
+			System.out.println("Usage: java GameReplayer dictionaryFile recordingFile");
+			return;
+
+		}
+
+		try {
+			GameReplayer replayer = new GameReplayer(new File(args[0]));
+			long start = System.nanoTime();
+			replayer.replayAll(new File(args[1]));
+			long millis = (System.nanoTime() - start) / 1_000_000;
+
+			System.out.println("Replayed " + replayer.getNumReplayed() + " games in " + millis + " ms, " +
+							   replayer.getNumDivergent() + " divergent.");
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * Constructor takes the dictionary the games were recorded with. The dictionary is indexed once, the
+	 * first time a batch needs it, and then shared by every worker thread.
+	 * @param dictionaryFile dictionary file.
+	 */
+	public GameReplayer(File dictionaryFile) {
+
+		this.dictionaryFile = dictionaryFile;
+		workerGames = ThreadLocal.withInitial(() -> new Hangman(dictionaryIndex.getPartition(Hangman.EASY)));
+		numReplayed = new AtomicLong();
+		numDivergent = new AtomicLong();
+
+	}
+
+	/**
+	 * Method used to replay every record in a recording file, one batch at a time.
+	 * @param recordingFile file written by GameRecorder.
+	 * @throws IOException file could not be read, or the dictionary could not be loaded.
+	 */
+	public void replayAll(File recordingFile) throws IOException {
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(recordingFile)))) {
+
+			ArrayList<GameRecord> batch = new ArrayList<GameRecord>(BATCH_SIZE);
+			long firstIndex = 0;
+			GameRecord record;
+
+			while ((record = GameRecord.readFrom(in)) != null) {
+				batch.add(record);
+
+				if (batch.size() == BATCH_SIZE) {
+					replayBatch(batch, firstIndex);
+					firstIndex += batch.size();
+					batch.clear();
+
+				}
+			}
+			replayBatch(batch, firstIndex);
+
+		}
+	}
+
+	/**
+	 * Method used to replay one batch of records in parallel.
+	 * @param batch records to replay.
+	 * @param firstIndex position of the first record in the recording file.
+	 * @throws IOException dictionary could not be loaded.
+	 */
+	private void replayBatch(List<GameRecord> batch, long firstIndex) throws IOException {
+
+		if (dictionaryIndex == null)																	// Load it before going parallel.
+			dictionaryIndex = DictionaryIndex.load(new FileWordSource(dictionaryFile));
+
+		for (GameRecord record : batch) {
+
+			if (record.getDifficultyLevel() < Hangman.EASY || record.getDifficultyLevel() > Hangman.HARD)
+				throw new IOException("Invalid difficulty level in recording: " + record.getDifficultyLevel());
+
+		}
+
+		IntStream.range(0, batch.size()).parallel().forEach(index -> {
+			String divergence = replay(batch.get(index));
+			numReplayed.incrementAndGet();
+
+			if (divergence != null) {
+				numDivergent.incrementAndGet();
+				System.out.println("Game " + (firstIndex + index) + " diverged: " + divergence);
+
+			}
+		});
+	}
+
+	/**
+	 * Method used to replay one record on the calling thread.
+	 * @param record recorded game.
+	 * @return description of the divergence, or null if the replay matches the recording.
+	 */
+	public String replay(GameRecord record) {
+
+		Hangman game = workerGames.get();
+
+		if (!record.hasScoreRange())
+			game.usePartition(dictionaryIndex.getPartition(record.getDifficultyLevel()));
+		else if (dictionaryIndex.hasScores())
+			game.usePartition(dictionaryIndex.selectRange(record.getLowScore(), record.getHighScore()));			// A lookup, not a copy.
+		else
+			return "played with a range of word scores, but the dictionary has no WordScores";
+
+		if (game.getDictionaryFingerprint() != record.getDictionaryFingerprint())
+			return "dictionary fingerprint " + Long.toHexString(record.getDictionaryFingerprint()) +
+				   " does not match " + Long.toHexString(game.getDictionaryFingerprint());
+
+		game.pickSecretWord(record.getSeed());
+		game.populateSecretWordLineChars();
+		game.setNumWrongGuesses(0);
+
+		StringBuilder revealTrace = new StringBuilder();
+		Iterator<String> rawGuesses = record.getRawGuesses().iterator();
+
+		while (game.getNumWrongGuesses() < Hangman.MAX_GUESSES && !game.checkGameStatus()) {
+
+			if (!rawGuesses.hasNext())
+				return "ran out of recorded guesses before the game ended";
+
+			String rawGuess = rawGuesses.next();
+			char firstChar = rawGuess.isEmpty() ? 0 : rawGuess.charAt(0);
+
+			if (GuessValidator.validate(firstChar, rawGuess.length(), game) != GuessValidator.VALID)
+				continue;																				// The console game asks again.
+
+			char validUserGuess = Character.toLowerCase(firstChar);
+
+			game.markLetterUsed(validUserGuess);
+			revealTrace.append(GameRecord.traceStep(validUserGuess, game.revealGuess(validUserGuess)));
+
+			if (!game.checkGuess(validUserGuess))
+				game.setNumWrongGuesses(game.getNumWrongGuesses() + 1);
+
+		}
+
+		if (!revealTrace.toString().equals(record.getRevealTrace()))
+			return "reveal trace \"" + revealTrace + "\" instead of \"" + record.getRevealTrace() + "\"";
+
+		if (game.checkGameStatus() != record.getWon() || game.getNumWrongGuesses() != record.getNumWrongGuesses())
+			return "outcome " + game.checkGameStatus() + "/" + game.getNumWrongGuesses() + " instead of " +
+				   record.getWon() + "/" + record.getNumWrongGuesses();
+
+		if (rawGuesses.hasNext())
+			return "game ended before all recorded guesses were used";
+
+		return null;
+
+	}
+
+	/**
+	 * Method used to get the number of games replayed so far.
+	 * @return numReplayed
+	 */
+	public long getNumReplayed() {
+		return numReplayed.get();
+
+	}
+
+	/**
+	 * Method used to get the number of replays that did not match their recording.
+	 * @return numDivergent
+	 */
+	public long getNumDivergent() {
+		return numDivergent.get();
+
+	}
+}
@@ -0,0 +1,277 @@
+
+/**
+ * The GameState Class is a snapshot of a game of Hangman at one point: what a player, a renderer or a
+ * remote client can know about it. It's immutable, so it can be kept, compared or handed to another thread
+ * freely. Taking one (see Hangman.snapshot()) allocates this object only: the secret word, its case-folded
+ * form and the alphabet are shared with the game, as they are never changed, and the letters used are a
+ * bitset. The masked word is worked out from them when asked for. The secret word itself is only given
+ * out once the round is over, so a state can be sent to a player as it is.
+ * @author Cristobal Padilla
+ *
+ */
+public final class GameState {
+
+	// Outcomes of the round.
+	public static final int PLAYING = 0;
+	public static final int WON = 1;
+	public static final int LOST = 2;
+
+	// Instance fields.
+	private final String secretWord;
+	private final String foldedSecretWord;
+	private final Alphabet alphabet;
+	private final long secretWordLetters;
+	private final long lettersUsed;
+	private final int numWrongGuesses;
+	private final int outcome;
+	private final int difficultyLevel;
+	private final int numGames;
+	private final int numWins;
+	private final int numLosses;
+
+	/**
+	 * Constructor takes every value of the snapshot. Games build their own, with Hangman.snapshot().
+	 */
+	GameState(String secretWord, String foldedSecretWord, Alphabet alphabet, long secretWordLetters, long lettersUsed,
+			  int numWrongGuesses, int outcome, int difficultyLevel, int numGames, int numWins, int numLosses) {
+
+		this.secretWord = secretWord;
+		this.foldedSecretWord = foldedSecretWord;
+		this.alphabet = alphabet;
+		this.secretWordLetters = secretWordLetters;
+		this.lettersUsed = lettersUsed;
+		this.numWrongGuesses = numWrongGuesses;
+		this.outcome = outcome;
+		this.difficultyLevel = difficultyLevel;
+		this.numGames = numGames;
+		this.numWins = numWins;
+		this.numLosses = numLosses;
+
+	}
+
+	/**
+	 * Method used to get the word so far, with '_' for hidden chars, like Hangman.getSecretWordLineChars().
+	 * @return new array.
+	 */
+	public char[] getMaskedWord() {
+
+		char[] maskedWord = new char[foldedSecretWord.length()];
+
+		for (int index = 0; index < maskedWord.length; index++) {
+			maskedWord[index] = maskedCharAt(index);
+
+		}
+		return maskedWord;
+
+	}
+
+	/**
+	 * Method used to append the word so far to a builder, without an array in between.
+	 * @param out builder.
+	 * @param separator char put after every char of the word, or 0 for none.
+	 * @return builder
+	 */
+	public StringBuilder appendMaskedWord(StringBuilder out, char separator) {
+
+		for (int index = 0; index < foldedSecretWord.length(); index++) {
+			out.append(maskedCharAt(index));
+
+			if (separator != 0)
+				out.append(separator);
+
+		}
+		return out;
+
+	}
+
+	/**
+	 * Method used to get one char of the word so far.
+	 * @param index position in the word.
+	 * @return char, or '_' if it's hidden.
+	 */
+	public char maskedCharAt(int index) {
+
+		char letter = foldedSecretWord.charAt(index);
+		return ((lettersUsed & alphabet.bit(letter)) != 0) ? letter : '_';
+
+	}
+
+	/**
+	 * Method used to get the bitset of the positions revealed, bit i for the char at index i. Only the first
+	 * Long.SIZE positions fit.
+	 * @return bitset
+	 */
+	public long getRevealedPositions() {
+
+		long positions = 0;
+
+		for (int index = 0; index < Math.min(Long.SIZE, foldedSecretWord.length()); index++) {
+
+			if ((lettersUsed & alphabet.bit(foldedSecretWord.charAt(index))) != 0)
+				positions |= 1L << index;
+
+		}
+		return positions;
+
+	}
+
+	/**
+	 * Method used to get the secret word, once the round is over.
+	 * @return word, or null while the round is being played.
+	 */
+	public String getSecretWord() {
+		return (outcome == PLAYING) ? null : secretWord;
+
+	}
+
+	/**
+	 * Method used to get the length of the secret word.
+	 * @return chars
+	 */
+	public int getWordLength() {
+		return foldedSecretWord.length();
+
+	}
+
+	/**
+	 * Method used to get the alphabet of the dictionary the word comes from.
+	 * @return alphabet
+	 */
+	public Alphabet getAlphabet() {
+		return alphabet;
+
+	}
+
+	/**
+	 * Method used to get the bitset of the alphabet indices guessed in the round.
+	 * @return bitset
+	 */
+	public long getLettersUsed() {
+		return lettersUsed;
+
+	}
+
+	/**
+	 * Method used to get the bitset of the letters guessed that are in the word.
+	 * @return bitset
+	 */
+	public long getLettersHit() {
+		return lettersUsed & secretWordLetters;
+
+	}
+
+	/**
+	 * Method used to check whether a letter has been guessed in the round.
+	 * @param letter lowercase letter.
+	 * @return True or False.
+	 */
+	public boolean isLetterUsed(char letter) {
+		return (lettersUsed & alphabet.bit(letter)) != 0;
+
+	}
+
+	/**
+	 * Method used to get the number of wrong guesses made in the round.
+	 * @return numWrongGuesses
+	 */
+	public int getNumWrongGuesses() {
+		return numWrongGuesses;
+
+	}
+
+	/**
+	 * Method used to get the number of wrong guesses the player can still make.
+	 * @return guesses
+	 */
+	public int getNumGuessesLeft() {
+		return Math.max(0, Hangman.MAX_GUESSES - numWrongGuesses);
+
+	}
+
+	/**
+	 * Method used to get how the round stands.
+	 * @return PLAYING, WON or LOST.
+	 */
+	public int getOutcome() {
+		return outcome;
+
+	}
+
+	/**
+	 * Method used to know whether the round has been won or lost.
+	 * @return True if the round is over.
+	 */
+	public boolean isOver() {
+		return outcome != PLAYING;
+
+	}
+
+	/**
+	 * Method used to get the difficulty level of the game.
+	 * @return Hangman.EASY or Hangman.HARD.
+	 */
+	public int getDifficultyLevel() {
+		return difficultyLevel;
+
+	}
+
+	/**
+	 * Method used to get the number of games played, as it was when the snapshot was taken.
+	 * @return numGames
+	 */
+	public int getNumGames() {
+		return numGames;
+
+	}
+
+	/**
+	 * Method used to get the number of wins, as it was when the snapshot was taken.
+	 * @return numWins
+	 */
+	public int getNumWins() {
+		return numWins;
+
+	}
+
+	/**
+	 * Method used to get the number of losses, as it was when the snapshot was taken.
+	 * @return numLosses
+	 */
+	public int getNumLosses() {
+		return numLosses;
+
+	}
+
+	@Override
+	public boolean equals(Object other) {
+
+		if (this == other)
+			return true;
+
+		if (!(other instanceof GameState))
+			return false;
+
+		GameState state = (GameState) other;
+		return lettersUsed == state.lettersUsed && numWrongGuesses == state.numWrongGuesses && outcome == state.outcome &&
+			   difficultyLevel == state.difficultyLevel && numGames == state.numGames && numWins == state.numWins &&
+			   numLosses == state.numLosses && secretWord.equals(state.secretWord);
+
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * secretWord.hashCode() + Long.hashCode(lettersUsed)) * 31 + numWrongGuesses * 7 + outcome;
+
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuilder str = appendMaskedWord(new StringBuilder(), (char) 0);
+		str.append(" wrong=").append(numWrongGuesses);
+		str.append((outcome == WON) ? " WON" : (outcome == LOST) ? " LOST" : " PLAYING");
+		str.append(" games=").append(numGames).append(" wins=").append(numWins).append(" losses=").append(numLosses);
+		return str.toString();
+
+	}
+}
@@ -0,0 +1,107 @@
+
+/**
+ * The GuessValidator Class applies the guess rules without throwing: it returns a verdict code, and every
+ * verdict has a message made once, up front, so a rejected guess costs no more than an accepted one. Bots
+ * and scripts get guesses wrong all the time, and an exception per wrong guess (with its stack trace) used
+ * to be most of what validating cost. The exceptions are still there for callers that want them, see
+ * HangmanConsoleGame.parseGuess(), and they don't fill stack traces anymore either.
+ * @author Cristobal Padilla
+ *
+ */
+public class GuessValidator {
+
+	// Verdicts.
+	public static final int VALID = 0;
+	public static final int EMPTY = 1;
+	public static final int MULTIPLE_CHARS = 2;
+	public static final int NOT_ALPHABET = 3;
+	public static final int PREVIOUSLY_USED = 4;
+
+	// Messages of the verdicts. PREVIOUSLY_USED names the letter, see previouslyUsedMessage().
+	public static final String EMPTY_MESSAGE = "Error: You entered an empty string. Please enter a valid character.";
+	public static final String MULTIPLE_CHARS_MESSAGE = "Error: You entered multiple characters. Single-character guesses only.";
+	public static final String NOT_ALPHABET_MESSAGE = "Error: You entered an invalid character. Only enter valid alphabet character, as indicated above.";
+
+	// Static fields.
+	private static final String[] PREVIOUSLY_USED_MESSAGES = new String[Alphabet.TABLE_SIZE];
+
+	static {
+
+		for (char letter = 0; letter < Alphabet.TABLE_SIZE; letter++) {
+			PREVIOUSLY_USED_MESSAGES[letter] = "You've used '" + letter + "' before!";
+
+		}
+	}
+
+	/**
+	 * Private constructor: the class only has static methods.
+	 */
+	private GuessValidator() {
+	}
+
+	/**
+	 * Method used to apply the guess rules to a line given by its first char and its length. First, the line
+	 * must be a single character. Then, it must be a letter of the game's alphabet that has not been used before.
+	 * @param firstChar first char of the line.
+	 * @param length length of the line, in chars.
+	 * @param game game being played.
+	 * @return VALID, EMPTY, MULTIPLE_CHARS, NOT_ALPHABET or PREVIOUSLY_USED.
+	 */
+	public static int validate(char firstChar, int length, Hangman game) {
+
+		if (length == 0)
+			return EMPTY;
+
+		if (length > 1)
+			return MULTIPLE_CHARS;
+
+		char guess = Character.toLowerCase(firstChar);
+
+		if (!Character.isLetter(guess) || !game.isInAlphabet(guess))
+			return NOT_ALPHABET;
+
+		if (game.isLetterUsed(guess))
+			return PREVIOUSLY_USED;
+
+		return VALID;
+
+	}
+
+	/**
+	 * Method used to get the message of a verdict.
+	 * @param verdict verdict returned by validate().
+	 * @param firstChar first char of the line that was validated.
+	 * @return message, or null if the guess is VALID.
+	 */
+	public static String message(int verdict, char firstChar) {
+
+		switch (verdict) {
+			case EMPTY:
+				return EMPTY_MESSAGE;
+
+			case MULTIPLE_CHARS:
+				return MULTIPLE_CHARS_MESSAGE;
+
+			case NOT_ALPHABET:
+				return NOT_ALPHABET_MESSAGE;
+
+			case PREVIOUSLY_USED:
+				return previouslyUsedMessage(firstChar);
+
+			default:
+				return null;
+
+		}
+	}
+
+	/**
+	 * Method used to get the message for a letter that has been used before. Letters in the range the
+	 * Alphabet Class has a table for get the message made up front; others get a new one.
+	 * @param letter letter, as entered.
+	 * @return message
+	 */
+	public static String previouslyUsedMessage(char letter) {
+		return (letter < Alphabet.TABLE_SIZE) ? PREVIOUSLY_USED_MESSAGES[letter] : "You've used '" + letter + "' before!";
+
+	}
+}
@@ -0,0 +1,65 @@
+
+import java.util.*;
+
+/**
+ * This interface is implemented by the bots that play Hangman on their own. A strategy only sees what a
+ * player would see: the revealed chars of the word, the letters used so far and the alphabet. Strategies
+ * keep no state between calls, so one instance can be shared by every thread of a tournament; the copy
+ * forGame() returns is for one game on one thread.
+ * @author Cristobal Padilla
+ *
+ */
+public interface GuessingStrategy {
+
+	/**
+	 * Method used to choose the next letter to guess.
+	 * @param revealedChars the word so far, with '_' for hidden chars.
+	 * @param lettersUsed bitset of the alphabet indices guessed so far.
+	 * @param alphabet alphabet of the game.
+	 * @return lowercase letter that has not been used yet.
+	 */
+	char nextGuess(char[] revealedChars, long lettersUsed, Alphabet alphabet);
+
+	/**
+	 * Method used to get the name of the strategy, as used on the command line.
+	 * @return name
+	 */
+	String getName();
+
+	/**
+	 * Method used to get the strategy to play one game with. A strategy that draws random numbers returns a
+	 * copy seeded from the round seed of the game, so that games played with the same seed get the same
+	 * guesses; the others return themselves.
+	 * @param roundSeed round seed of the game.
+	 * @return strategy
+	 */
+	default GuessingStrategy forGame(long roundSeed) {
+		return this;
+
+	}
+
+	/**
+	 * Method used to build a strategy from its name: "frequency", "random" or "candidates".
+	 * @param name name of the strategy.
+	 * @param dictionary dictionary array the games are played with.
+	 * @return strategy
+	 * @throws IllegalArgumentException the name is not known.
+	 */
+	static GuessingStrategy forName(String name, List<String> dictionary) {
+
+		switch (name) {
+			case LetterFrequencyStrategy.NAME:
+				return new LetterFrequencyStrategy();
+
+			case RandomGuessStrategy.NAME:
+				return new RandomGuessStrategy();
+
+			case CandidateFilterStrategy.NAME:
+				return new CandidateFilterStrategy(dictionary);
+
+			default:
+				throw new IllegalArgumentException("Unknown strategy: " + name);
+
+		}
+	}
+}
@@ -1,6 +1,8 @@
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * The Hangman Class holds necessary data to play the Hangman game. 
@@ -18,23 +20,43 @@ public class Hangman {
 	private int difficultyLevel;
 	private char [] secretWordLineChars;
 	private String secretWord;
+	private int secretWordId;
+	private String foldedSecretWord;
+	private long secretWordLetters;
+	private long lettersUsed;
+	private Alphabet alphabet;
 	private File dictionaryFilePath;
-	private ArrayList<String> dictionary;
+	private WordSource dictionarySource;
+	private List<String> dictionary;
+	private List<Double> frequencies;
+	private DictionaryIndex.Partition partition;
 	private BufferedReader words;
+	private FutureTask<DictionaryIndex> loader;
+	private Random generator;
+	private long roundSeed;
+	private String preparedSecretWord;
+	private int preparedSecretWordId;
+	private long preparedRoundSeed;
+	private DictionaryIndex.Partition preparedPartition;
+	private double lowScore;
+	private double highScore;
+	private long dictionaryFingerprint;
 
 	// Static constants. 
 	public final static int MAX_GUESSES = 6;
 	public final static int EASY = 0;
 	public final static int HARD = 1;
 	public final static String DEFAULT_DICTIONARY_FILE_PATH = "../words.txt";
+	public final static double DEFAULT_FREQUENCY = 1.0;
 	public final String DEFAULT_SECRET_WORD = "Abracadabra";
 	
 	/**
-	 * No-args constructor. This constructor uses the "words.txt" file as a dictionary.
+	 * No-args constructor. This constructor uses the "words.txt" file as a dictionary, wherever the game
+	 * is run from (see WordSource.defaultSource()).
 	 * @throws IOException 
 	 */
 	public Hangman() throws IOException {
-		this(new File(DEFAULT_DICTIONARY_FILE_PATH));
+		this(WordSource.defaultSource());
 		
 	}
 	
@@ -44,73 +66,359 @@ public class Hangman {
 	 * @throws IOException dictionary not found.
 	 */
 	public Hangman(File dictionaryFilePath) throws IOException {
+		this(new FileWordSource(dictionaryFilePath));
 		
-		this.dictionaryFilePath = dictionaryFilePath;
-		words = new BufferedReader(new FileReader(dictionaryFilePath));								// Note: having BufferedReader in here throws IOException right away if the
-		dictionary = new ArrayList<String>();														// file is not found, instead of waiting until the the dictionary
-		numGames = 0;																				// array is being filled.	
+	}
+	
+	/**
+	 * Constructor takes the source of the dictionary: a file, a classpath resource, a directory, the
+	 * standard input, or several of them merged (see WordSource.parse()).
+	 * @param dictionarySource dictionary source.
+	 * @throws IOException dictionary not found.
+	 */
+	public Hangman(WordSource dictionarySource) throws IOException {
+		
+		this.dictionarySource = dictionarySource;
+		dictionaryFilePath = dictionarySource.getFile();
+		List<WordSource> parts = dictionarySource.expand();
+		
+		if (parts.size() == 1 && parts.get(0) == dictionarySource)
+			words = dictionarySource.open();														// Note: having BufferedReader in here throws IOException right away if the
+																									// source is not found, instead of waiting until the the dictionary
+																									// array is being filled. Merged sources are read in the background.
+		dictionary = new ArrayList<String>();
+		frequencies = new ArrayList<Double>();
+		lowScore = Double.NaN;
+		highScore = Double.NaN;
+		loader = null;
+		generator = new Random();
+		numGames = 0;
+		numWins = 0;
+		numLosses = 0;
+		numWrongGuesses = 0;
+		difficultyLevel = EASY;
+		alphabet = Alphabet.ENGLISH;
+		setSecretWord(DEFAULT_SECRET_WORD);
+		
+	}
+	
+	/**
+	 * Copy constructor. The new game shares the already populated dictionary array and alias table of
+	 * the template (neither is changed once populated), but keeps its own secret word, counters and
+	 * random generator. This is how headless tools run many games at once over one loaded dictionary.
+	 * @param template game whose dictionary has been populated.
+	 */
+	public Hangman(Hangman template) {
+		
+		dictionaryFilePath = template.dictionaryFilePath;
+		dictionarySource = template.dictionarySource;
+		dictionary = template.dictionary;
+		frequencies = template.frequencies;
+		partition = template.partition;
+		lowScore = template.lowScore;
+		highScore = template.highScore;
+		dictionaryFingerprint = template.dictionaryFingerprint;
+		difficultyLevel = template.difficultyLevel;
+		alphabet = template.alphabet;
+		generator = new Random();
+		numGames = 0;
+		numWins = 0;
+		numLosses = 0;
+		numWrongGuesses = 0;
+		setSecretWord(DEFAULT_SECRET_WORD);
+		
+	}
+	
+	/**
+	 * Constructor takes the words to play with directly, without a dictionary file. Headless tools use it
+	 * to play over any list of words, such as a whole dictionary when scoring it.
+	 * @param partition words to play with.
+	 */
+	Hangman(DictionaryIndex.Partition partition) {
+		
+		generator = new Random();
+		numGames = 0;
 		numWins = 0;
 		numLosses = 0;
 		numWrongGuesses = 0;
 		difficultyLevel = EASY;
-		secretWord = DEFAULT_SECRET_WORD;
+		usePartition(partition);
+		setSecretWord(DEFAULT_SECRET_WORD);
 		
 	}
 	
+	/**
+	 * Method used to start loading the dictionary file on a background thread, so that the file can be read
+	 * while the user is still answering prompts. The whole file is indexed, split by difficulty level, so
+	 * choosing the level afterwards doesn't need the file again. Calling this method more than once has
+	 * no effect. If the dictionary has up-to-date WordScores (see the WordScores Class), the index goes by
+	 * score instead of length.
+	 */
+	public void startLoadingDictionary() {
+		
+		if (loader == null) {
+			
+			BufferedReader reader = words;
+			words = null;																			// The loader owns the reader from now on.
+			WordSource source = dictionarySource;
+			File file = dictionaryFilePath;
+			loader = new FutureTask<DictionaryIndex>(() -> (reader == null) ? DictionaryIndex.load(source) :
+					DictionaryIndex.load(reader, (file != null) ? WordScores.loadCached(file) : null));
+			
+			Thread thread = new Thread(loader, "dictionary-loader");
+			thread.setDaemon(true);
+			thread.start();
+			
+		}
+	}
+	
 	/**
 	 * Method used to populate the dictionary array what will be used for the game. This method uses the
 	 * difficultyLevel boolean as a control variable to determine which type of words to add into the
 	 * array. If difficultyLevel is easy, then add words that are 5 characters long or more. If difficulty
-	 * level is hard, then only add words that are 4 characters long or less. This method throws an exception 
-	 * if the dictionary file is not found. 
+	 * level is hard, then only add words that are 4 characters long or less. If the dictionary has been
+	 * scored, easy and hard are the lower and upper half of the word scores instead. Each line may carry an optional
+	 * frequency column after the word (e.g. "apple 1520"); if any word has one, pickSecretWord() favors
+	 * common words. The alphabet of the game is built from the words kept. If startLoadingDictionary() was
+	 * called, this method only waits for the background load to finish and then takes the words of the
+	 * difficulty level from the index; otherwise, it loads the file first. Calling it again after the
+	 * difficulty level changes doesn't read the file again. The dictionary array belongs to the index and
+	 * must not be changed. This method throws an exception if the dictionary file is not found, or if its
+	 * words use more than Alphabet.MAX_SIZE letters.
 	 * @throws IOException dictionary file not found.
 	 */
 	public void populateDictionaryArray() throws IOException {
 	
-		String str = " ";
+		startLoadingDictionary();
+		usePartition(awaitDictionaryIndex().getPartition(difficultyLevel));
+		
+	}
+	
+	/**
+	 * Method used to play with the words whose score is in a range, instead of a difficulty level. This is
+	 * a lookup in the loaded index, so it's cheap enough to call between any two rounds.
+	 * @param lowScore lowest score, included.
+	 * @param highScore highest score, excluded.
+	 * @throws IOException dictionary could not be loaded.
+	 * @throws IllegalStateException the dictionary has no word scores.
+	 */
+	public void setScoreRange(double lowScore, double highScore) throws IOException {
+		
+		startLoadingDictionary();
+		usePartition(awaitDictionaryIndex().selectRange(lowScore, highScore));
+		this.lowScore = lowScore;
+		this.highScore = highScore;
+		
+	}
+	
+	/**
+	 * Method used to know whether the words are a range of scores, set with setScoreRange(), instead of a
+	 * difficulty level or a pack.
+	 * @return True if the words are a range of scores.
+	 */
+	public boolean hasScoreRange() {
+		return !Double.isNaN(lowScore);
+		
+	}
+	
+	/**
+	 * Method used to get the lowest score of the range set with setScoreRange().
+	 * @return lowScore, or NaN if the words are not a range of scores.
+	 */
+	public double getLowScore() {
+		return lowScore;
+		
+	}
+	
+	/**
+	 * Method used to get the highest score of the range set with setScoreRange().
+	 * @return highScore, or NaN if the words are not a range of scores.
+	 */
+	public double getHighScore() {
+		return highScore;
+		
+	}
+	
+	/**
+	 * Method used to know whether the dictionary has word scores, so that setScoreRange() can be used.
+	 * @return True if the dictionary has been scored.
+	 * @throws IOException dictionary could not be loaded.
+	 */
+	public boolean hasWordScores() throws IOException {
+		
+		startLoadingDictionary();
+		return awaitDictionaryIndex().hasScores();
 		
-		if (difficultyLevel == EASY) {
+	}
+	
+	/**
+	 * Method used to take the words of a partition as the dictionary array, e.g. a pack from a
+	 * DictionaryRegistry. The next word is drawn from them.
+	 * @param partition words to play with.
+	 */
+	public void usePartition(DictionaryIndex.Partition partition) {
+		
+		dictionary = partition.getWords();
+		frequencies = partition.getFrequencies();
+		this.partition = partition;
+		lowScore = Double.NaN;																		// setScoreRange() sets it again.
+		highScore = Double.NaN;
+		alphabet = partition.getAlphabet();
+		dictionaryFingerprint = partition.getFingerprint();
+		preparedSecretWord = null;
+		preparedPartition = null;
+		
+	}
+	
+	/**
+	 * Method used to wait for the background load to finish.
+	 * @return index
+	 * @throws IOException dictionary could not be loaded, or the wait was interrupted.
+	 */
+	private DictionaryIndex awaitDictionaryIndex() throws IOException {
+		
+		try {
+			return loader.get();
 			
-			while ( (str = words.readLine()) != null) {
-				
-				if (str.length() >= 5) {
-					dictionary.add(str);
-				
-				}
-			}
+		} catch (ExecutionException exception) {
 			
-		} else if (difficultyLevel == HARD) {
+			if (exception.getCause() instanceof IOException)
+				throw (IOException) exception.getCause();
+			
+			throw new IOException(exception.getCause());
+			
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while loading the dictionary.");
 			
-			while ( (str = words.readLine()) != null) {
-				
-				if (str.length() <= 4) {
-					dictionary.add(str);
-				
-				}
-			}
 		}
-		words.close();
-		
 	}
 	
 	/**
 	 * Method used to randomly select a word from the dictionary array and 
-	 * assign it as the new secret word.
+	 * assign it as the new secret word. If the dictionary came with a frequency
+	 * column, the draw is weighted by frequency; otherwise, it's uniform. Each
+	 * round gets its own seed, so that it can be replayed with pickSecretWord(long).
+	 * If the next round has been prepared with prepareNextRound(), its word is used.
 	 */
 	public void pickSecretWord() {
 		
-		Random generator = new Random();
-		secretWord = dictionary.get(generator.nextInt(dictionary.size()) - 1);
+		if (preparedSecretWord != null) {
+			String word = preparedSecretWord;
+			
+			if (preparedPartition != null)
+				usePartition(preparedPartition);																// Forgets the prepared word, so it was kept above.
+			
+			roundSeed = preparedRoundSeed;
+			setSecretWord(word);
+			secretWordId = preparedSecretWordId;
+			preparedSecretWord = null;
+			preparedPartition = null;
+			
+		} else {
+			pickSecretWord(generator.nextLong());
+			
+		}
+	}
+	
+	/**
+	 * Method used to select the secret word from a given round seed. The same seed over the
+	 * same dictionary (see getDictionaryFingerprint()) always selects the same word.
+	 * @param seed round seed.
+	 */
+	public void pickSecretWord(long seed) {
+		
+		roundSeed = seed;
+		int wordId = wordIdForSeed(seed);
+		setSecretWord(dictionary.get(wordId));
+		secretWordId = wordId;
+		
+	}
+	
+	/**
+	 * Method used to draw the word of a round seed.
+	 * @param seed round seed.
+	 * @return index of the word in the dictionary array.
+	 */
+	private int wordIdForSeed(long seed) {
+		return wordIdForSeed(seed, dictionary, partition);
+		
+	}
+	
+	/**
+	 * Method used to draw the word of a round seed from given words.
+	 * @param seed round seed.
+	 * @param words words to draw from.
+	 * @param partition partition the words come from, which draws by frequency, or null for a uniform draw.
+	 * @return index of the word in the words.
+	 */
+	private static int wordIdForSeed(long seed, List<String> words, DictionaryIndex.Partition partition) {
+		
+		Random roundGenerator = new Random(seed);
+		
+		if (partition != null)
+			return partition.nextWordId(roundGenerator);
+		else
+			return roundGenerator.nextInt(words.size());
+		
+	}
+	
+	/**
+	 * Method used to draw the word of the next round ahead of time, without changing the current round.
+	 * The next call to pickSecretWord() takes it.
+	 * @return word of the next round.
+	 */
+	public String prepareNextRound() {
+		
+		if (preparedSecretWord == null) {
+			preparedRoundSeed = generator.nextLong();
+			preparedSecretWordId = wordIdForSeed(preparedRoundSeed);
+			preparedSecretWord = dictionary.get(preparedSecretWordId);
+			
+		}
+		return preparedSecretWord;
+		
+	}
+	
+	/**
+	 * Method used to draw the word of the next round ahead of time from other words, e.g. the next pack of a
+	 * DictionaryRegistry, without changing the current round: the game keeps its words until the next call
+	 * to pickSecretWord(), which takes the partition and the word together.
+	 * @param partition words of the next round.
+	 * @return word of the next round.
+	 */
+	public String prepareNextRound(DictionaryIndex.Partition partition) {
+		
+		if (preparedSecretWord == null) {
+			preparedRoundSeed = generator.nextLong();
+			preparedSecretWordId = wordIdForSeed(preparedRoundSeed, partition.getWords(), partition);
+			preparedSecretWord = partition.getWords().get(preparedSecretWordId);
+			preparedPartition = partition;
+			
+		}
+		return preparedSecretWord;
+		
+	}
+	
+	/**
+	 * Method used to throw away the round drawn by prepareNextRound().
+	 */
+	public void discardPreparedRound() {
+		
+		preparedSecretWord = null;
+		preparedPartition = null;
 		
 	}
 	
 	/**
 	 * Method used to populate a char array of the same length as the current secret 
-	 * word, but consisting only of '_' characters. 
+	 * word, but consisting only of '_' characters. Since this starts a new round, it
+	 * also forgets the letters used in the last one.
 	 */
 	public void populateSecretWordLineChars() {
 		
 		secretWordLineChars = new char[secretWord.length()];
+		lettersUsed = 0;
 		
 		for(int index = 0; index < secretWord.length(); index++) {
 			secretWordLineChars[index] = '_';
@@ -118,6 +426,112 @@ public class Hangman {
 		} 
 	}
 	
+	/**
+	 * Method used to reveal every position of the secret word that holds the character guessed,
+	 * ignoring case, in the secretWordLineChars array. The secret word is case-folded once, when it's
+	 * picked, so this is a plain comparison.
+	 * @param validUserGuess lowercase char the user entered.
+	 * @return number of positions revealed.
+	 */
+	public int revealGuess(char validUserGuess) {
+		
+		int numRevealed = 0;
+		
+		if ((secretWordLetters & alphabet.bit(validUserGuess)) == 0)								// Not in the word, nothing to reveal.
+			return 0;
+		
+		for (int index = 0; index < foldedSecretWord.length(); index++) {
+			
+			if (foldedSecretWord.charAt(index) == validUserGuess) {
+				secretWordLineChars[index] = validUserGuess;
+				numRevealed++;
+				
+			}
+		}
+		return numRevealed;
+		
+	}
+	
+	/**
+	 * Method used to bring back a round suspended with a SessionSnapshot: its secret word, the letters used
+	 * and the wrong guesses. The revealed chars are worked out again from the letters used. The dictionary
+	 * array must be the one the round was played with (see getDictionaryFingerprint()).
+	 * @param wordId index of the secret word in the dictionary array.
+	 * @param lettersUsed bitset of the alphabet indices guessed.
+	 * @param numWrongGuesses wrong guesses made.
+	 */
+	public void restoreRound(int wordId, long lettersUsed, int numWrongGuesses) {
+		
+		setSecretWord(dictionary.get(wordId));
+		secretWordId = wordId;
+		roundSeed = 0;																				// Not known anymore.
+		populateSecretWordLineChars();
+		
+		for (long letters = lettersUsed & secretWordLetters; letters != 0; letters &= letters - 1) {
+			revealGuess((char) alphabet.codePointAt(Long.numberOfTrailingZeros(letters)));
+			
+		}
+		this.lettersUsed = lettersUsed;
+		this.numWrongGuesses = numWrongGuesses;
+		
+	}
+	
+	/**
+	 * Method used to take an immutable snapshot of the game: the word so far, the letters used, the wrong
+	 * guesses, the outcome and the stats. It doesn't copy the word or the dictionary, so it's cheap enough
+	 * to take after every guess.
+	 * @return state
+	 */
+	public GameState snapshot() {
+		
+		int outcome = GameState.PLAYING;
+		
+		if (secretWordLineChars != null && checkGameStatus())
+			outcome = GameState.WON;
+		else if (numWrongGuesses >= MAX_GUESSES)
+			outcome = GameState.LOST;
+		
+		return new GameState(secretWord, foldedSecretWord, alphabet, secretWordLetters, lettersUsed, numWrongGuesses, outcome,
+							 difficultyLevel, numGames, numWins, numLosses);
+		
+	}
+	
+	/**
+	 * Method used to let a bot play the current secret word from start to finish, without any output.
+	 * The round ends when the word is guessed, the guesses are exhausted, or every letter has been used
+	 * (a word with a char outside the alphabet can't be completed).
+	 * @param strategy bot making the guesses.
+	 * @return number of guesses made.
+	 * @throws IllegalStateException the strategy guessed a letter that is used or not in the alphabet.
+	 */
+	public int playRound(GuessingStrategy strategy) {
+		
+		long allLetters = (alphabet.size() == Alphabet.MAX_SIZE) ? -1L : (1L << alphabet.size()) - 1;
+		int numGuesses = 0;
+		
+		populateSecretWordLineChars();
+		numWrongGuesses = 0;
+		
+		while (numWrongGuesses < MAX_GUESSES && !checkGameStatus() && lettersUsed != allLetters) {
+			
+			char guess = strategy.nextGuess(secretWordLineChars, lettersUsed, alphabet);
+			
+			if (!isInAlphabet(guess) || isLetterUsed(guess))
+				throw new IllegalStateException(strategy.getName() + " guessed '" + guess + "', which is not available.");
+			
+			markLetterUsed(guess);
+			revealGuess(guess);
+			
+			if (!checkGuess(guess))
+				numWrongGuesses++;
+			
+			numGuesses++;
+			
+		}
+		return numGuesses;
+		
+	}
+	
 	/**
 	 * Method used to check the status of the game by looking at the 
 	 * secretWordLineChars and see how many '_' it still contain.
@@ -147,26 +561,41 @@ public class Hangman {
 	
 	/**
 	 * Method used to compare the character the user entered with the characters in the
-	 * secretWord String. If there's a match, return true; Else, return false.
-	 * @param userValidGuess char the user entered.
+	 * secretWord String, ignoring case. If there's a match, return true; Else, return false.
+	 * @param userValidGuess lowercase char the user entered.
 	 * @return match True or False
 	 */
 	public boolean checkGuess(char userValidGuess) {
+		return (secretWordLetters & alphabet.bit(userValidGuess)) != 0;
 		
-		boolean match = false;
-		int index = 0;
+	}
+	
+	/**
+	 * Method used to record that a letter has been guessed in the current round.
+	 * @param validUserGuess lowercase char the user entered.
+	 */
+	public void markLetterUsed(char validUserGuess) {
+		lettersUsed |= alphabet.bit(validUserGuess);
 		
-		while(index < secretWord.length()) {
-			
-			if (userValidGuess == secretWord.charAt(index)) {
-				match = true;
-				break;
-				
-			}
-			index++;
-			
-		}
-		return match;
+	}
+	
+	/**
+	 * Method used to check whether a letter has already been guessed in the current round.
+	 * @param validUserGuess lowercase char the user entered.
+	 * @return True or False.
+	 */
+	public boolean isLetterUsed(char validUserGuess) {
+		return (lettersUsed & alphabet.bit(validUserGuess)) != 0;
+		
+	}
+	
+	/**
+	 * Method used to check whether a char is one of the letters of the game's alphabet.
+	 * @param validUserGuess lowercase char the user entered.
+	 * @return True or False.
+	 */
+	public boolean isInAlphabet(char validUserGuess) {
+		return alphabet.indexOf(validUserGuess) >= 0;
 		
 	}
 	
@@ -287,12 +716,42 @@ public class Hangman {
 		
 	}
 
+	/**
+	 * Method used to get the index of the secret word in the dictionary array.
+	 * @return secretWordId, or -1 if the word was set with setSecretWord().
+	 */
+	public int getSecretWordId() {
+		return secretWordId;
+		
+	}
+
 	/**
 	 * Method used to set the secretWord String.
 	 * @param secretWord
 	 */
 	public void setSecretWord(String secretWord) {
 		this.secretWord = secretWord;
+		secretWordId = -1;																			// Not known to come from the dictionary array.
+		foldedSecretWord = Alphabet.fold(secretWord);
+		secretWordLetters = alphabet.letterMask(foldedSecretWord);
+		
+	}
+	
+	/**
+	 * Method used to get the alphabet of the dictionary.
+	 * @return alphabet
+	 */
+	public Alphabet getAlphabet() {
+		return alphabet;
+		
+	}
+	
+	/**
+	 * Method used to get the letters used in the current round.
+	 * @return bitset of alphabet indices.
+	 */
+	public long getLettersUsed() {
+		return lettersUsed;
 		
 	}
 
@@ -311,24 +770,91 @@ public class Hangman {
 	 */
 	public void setDictionaryFilePath(File dictionaryFilePath) {
 		this.dictionaryFilePath = dictionaryFilePath;
+		dictionarySource = new FileWordSource(dictionaryFilePath);
+
+		if (words != null) {
+
+			try {
+				words.close();
+
+			} catch (IOException exception) {
+				// Nothing more is read from the old file, so there's nothing to recover.
+
+			}
+			words = null;
+
+		}
+
+		if (loader != null) {
+			loader.cancel(true);																	// Stops the old file from being read, if it still is.
+			loader = null;																			// The next populate loads the new file.
+
+		}
+
+	}
+	
+	/**
+	 * Method used to get the source the dictionary is read from.
+	 * @return dictionarySource
+	 */
+	public WordSource getDictionarySource() {
+		return dictionarySource;
 		
 	}
 
 	/**
-	 * Method used to get the dictionary ArrayList.
+	 * Method used to get the dictionary list. It may be a view of a loaded index, so it must not be changed.
 	 * @return dictionary
 	 */
-	public ArrayList<String> getDictionary() {
+	public List<String> getDictionary() {
 		return dictionary;
 		
 	}
 
 	/**
-	 * Method used to set the dictionary ArrayList.
+	 * Method used to set the dictionary ArrayList. The words are played uniformly, and the alphabet and
+	 * fingerprint are those of the new words, as if they were a partition of their own (see usePartition()).
 	 * @param dictionary
+	 * @throws IllegalArgumentException the words use more than Alphabet.MAX_SIZE letters.
 	 */
 	public void setDictionary(ArrayList<String> dictionary) {
-		this.dictionary = dictionary;
+		
+		ArrayList<String> foldedWords = new ArrayList<String>(dictionary.size());
+		
+		for (String word : dictionary) {
+			foldedWords.add(Alphabet.fold(word));
+			
+		}
+		
+		ArrayList<Double> uniform = new ArrayList<Double>(Collections.nCopies(dictionary.size(), DEFAULT_FREQUENCY));
+		usePartition(new DictionaryIndex.Partition(dictionary, uniform, false, Alphabet.forWords(foldedWords)));
+		
+	}
+	
+	/**
+	 * Method used to get the alias table used for weighted picks.
+	 * @return frequencyTable, or null if the dictionary has no frequency column, or is a range of scores.
+	 */
+	public AliasTable getFrequencyTable() {
+		return (partition != null) ? partition.getFrequencyTable() : null;
+		
+	}
+	
+	/**
+	 * Method used to get the seed of the current round.
+	 * @return roundSeed
+	 */
+	public long getRoundSeed() {
+		return roundSeed;
+		
+	}
+	
+	/**
+	 * Method used to get the fingerprint of the populated dictionary.
+	 * @return dictionaryFingerprint
+	 */
+	public long getDictionaryFingerprint() {
+		return dictionaryFingerprint;
 		
 	}
 }
@@ -0,0 +1,1563 @@
+
+import java.io.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class holds simple timing benchmarks for the Hangman classes. It doesn't need any outside
+ * library: every benchmark warms up first, then reports the best of a few timed runs. Run it with the
+ * name of the benchmark as the first argument, or with no arguments to run them all.
+ * @author Cristobal Padilla
+ *
+ */
+public class HangmanBenchmark {
+
+	// Constants used to control the timed runs.
+	public static final int WARMUP_ROUNDS = 5;
+	public static final int TIMED_ROUNDS = 5;
+
+	// Length of a run of the race benchmark, in milliseconds.
+	public static final int RACE_MILLIS = 2000;
+
+	public static void main(String[] args) {
+
+		String benchmark = (args.length > 0) ? args[0] : "all";
+
+		if (benchmark.equals("all") || benchmark.equals("alias"))
+			aliasTableBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("gzip"))
+			gzipLoadBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("spectate"))
+			spectatorBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("race"))
+			raceBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("script"))
+			scriptedInputBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("validate"))
+			guessValidatorBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("snapshot"))
+			sessionSnapshotBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("wheel"))
+			timingWheelBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("offheap"))
+			sessionStoreBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("batch"))
+			batchGuessBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("delta"))
+			deltaProtocolBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("events"))
+			eventBusBenchmark();
+
+		if (benchmark.equals("all") || benchmark.equals("scale"))
+			dictionaryScaleBenchmark((args.length > 1) ? Long.parseLong(args[1]) : 1_000_000);
+
+	}
+
+	/**
+	 * This method compares weighted picks through an AliasTable against plain uniform picks, using
+	 * a synthetic dictionary with Zipf-like frequencies. It also reports how much memory the table takes.
+	 */
+	public static void aliasTableBenchmark() {
+
+		final int numWords = 1_000_000;
+		final int numPicks = 10_000_000;
+		ArrayList<Double> weights = new ArrayList<Double>(numWords);
+
+		for (int index = 0; index < numWords; index++) {
+			weights.add(1.0 / (index + 1));
+
+		}
+
+		long start = System.nanoTime();
+		AliasTable table = new AliasTable(weights);
+		long buildNanos = System.nanoTime() - start;
+
+		Random generator = new Random(42);
+		long uniformNanos = Long.MAX_VALUE;
+		long aliasNanos = Long.MAX_VALUE;
+		long sink = 0;																					// Keeps the JIT from dropping the loops.
+
+		for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+
+			start = System.nanoTime();
+			for (int pick = 0; pick < numPicks; pick++) {
+				sink += generator.nextInt(numWords);
+
+			}
+			long uniform = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int pick = 0; pick < numPicks; pick++) {
+				sink += table.next(generator);
+
+			}
+			long alias = System.nanoTime() - start;
+
+			if (round >= WARMUP_ROUNDS) {
+				uniformNanos = Math.min(uniformNanos, uniform);
+				aliasNanos = Math.min(aliasNanos, alias);
+
+			}
+		}
+
+		System.out.println("Alias table, " + numWords + " words:");
+		System.out.println("\tbuild time:        " + (buildNanos / 1_000_000) + " ms");
+		System.out.println("\ttable memory:      " + (table.memoryFootprint() / 1024) + " KB");
+		System.out.println("\tuniform picks/sec: " + perSecond(numPicks, uniformNanos));
+		System.out.println("\talias picks/sec:   " + perSecond(numPicks, aliasNanos));
+		System.out.println("\t(checksum " + sink + ")");
+
+	}
+
+	/**
+	 * This method compares loading a dictionary from plain text, from a single-member gzip file (inflated
+	 * by a GZIPInputStream) and from a multi-member gzip file (inflated in parallel by the
+	 * ParallelGzipInputStream). It reports the load time and the peak heap used while loading.
+	 */
+	public static void gzipLoadBenchmark() {
+
+		final int numWords = 2_000_000;
+		final int memberSize = 1 << 20;
+
+		try {
+			File plain = File.createTempFile("hangman-bench-", ".txt");
+			File single = new File(plain.getPath() + ".gz");
+			File multi = new File(plain.getPath() + ".multi.gz");
+			plain.deleteOnExit();
+			single.deleteOnExit();
+			multi.deleteOnExit();
+
+			Random generator = new Random(42);
+			StringBuilder text = new StringBuilder();
+
+			for (int count = 0; count < numWords; count++) {
+				int length = 3 + generator.nextInt(8);
+
+				for (int index = 0; index < length; index++) {
+					text.append((char) ('a' + generator.nextInt(26)));
+
+				}
+				text.append('\n');
+
+			}
+			byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+
+			try (OutputStream out = new FileOutputStream(plain)) {
+				out.write(bytes);
+
+			}
+
+			try (OutputStream out = new GZIPOutputStream(new FileOutputStream(single))) {
+				out.write(bytes);
+
+			}
+
+			try (FileOutputStream out = new FileOutputStream(multi)) {
+
+				for (int offset = 0; offset < bytes.length; offset += memberSize) {						// One member per chunk, like a parallel compressor.
+					GZIPOutputStream member = new GZIPOutputStream(out);
+					member.write(bytes, offset, Math.min(memberSize, bytes.length - offset));
+					member.finish();
+
+				}
+			}
+
+			System.out.println("Dictionary load, " + numWords + " words (" + (bytes.length >> 20) + " MB of text):");
+			File[] files = {plain, single, multi};
+			String[] names = {"plain text:       ", "gzip, 1 member:   ", "gzip, " + ((bytes.length + memberSize - 1) / memberSize) +
+							  " members: "};
+
+			for (int index = 0; index < files.length; index++) {
+				long bestNanos = Long.MAX_VALUE;
+				long peakBytes = 0;
+
+				for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+					resetPeakHeap();
+					long start = System.nanoTime();
+					DictionaryIndex dictionaryIndex = DictionaryIndex.load(ParallelGzipInputStream.openReader(files[index]));
+					long nanos = System.nanoTime() - start;
+
+					if (dictionaryIndex.getPartition(Hangman.EASY).getWords().isEmpty())
+						throw new IOException("Nothing was loaded from " + files[index]);
+
+					if (round >= WARMUP_ROUNDS) {
+						bestNanos = Math.min(bestNanos, nanos);
+						peakBytes = Math.max(peakBytes, peakHeap());
+
+					}
+				}
+				System.out.println("\t" + names[index] + (bestNanos / 1_000_000) + " ms, " + (files[index].length() >> 10) +
+								   " KB on disk, peak heap " + (peakBytes >> 20) + " MB");
+
+			}
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * This method fans frames out to 10,000 in-memory watchers through a SpectatorChannel. One in ten
+	 * watchers is slow (it takes at most 256 bytes per write), so it has to drop frames. The player publishes
+	 * as fast as it can; the benchmark reports what a publish costs the player, how long the fan-out takes to
+	 * deliver every last frame, how many frames were sent and dropped, and how much the fan-out thread
+	 * allocates per frame written, which shows that frames are not copied per watcher.
+	 */
+	public static void spectatorBenchmark() {
+
+		final int numWatchers = 10_000;
+		final int numFrames = 1_000;
+		final int slowEvery = 10;
+		StringBuilder frame = new StringBuilder();
+
+		while (frame.length() < 1500) {																// About the size of a console frame.
+			frame.append("\t\t  *     /     *   \t               --\n");
+
+		}
+
+		try (SpectatorChannel channel = new SpectatorChannel()) {
+			CountingChannel[] sinks = new CountingChannel[numWatchers];
+
+			for (int index = 0; index < numWatchers; index++) {
+				sinks[index] = new CountingChannel((index % slowEvery == 0) ? 256 : Integer.MAX_VALUE);
+				channel.addWatcher(sinks[index]);
+
+			}
+
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			com.sun.management.ThreadMXBean allocations = (threads instanceof com.sun.management.ThreadMXBean) ?
+														   (com.sun.management.ThreadMXBean) threads : null;
+			long fanOutId = channel.getFanOutThread().getId();
+			long allocatedBefore = (allocations != null) ? allocations.getThreadAllocatedBytes(fanOutId) : 0;
+
+			long start = System.nanoTime();
+			long publishNanos = 0;
+
+			for (int count = 0; count < numFrames; count++) {
+				long publishStart = threads.getCurrentThreadCpuTime();										// CPU time: the fan-out thread may preempt the player.
+				channel.publish(frame);
+				publishNanos += threads.getCurrentThreadCpuTime() - publishStart;
+				Thread.yield();
+
+			}
+
+			while (channel.getFramesSent() + channel.getFramesDropped() < (long) numFrames * numWatchers) {	// Every watcher got the last frame.
+				Thread.sleep(1);
+
+			}
+			long totalNanos = System.nanoTime() - start;
+			long allocated = (allocations != null) ? allocations.getThreadAllocatedBytes(fanOutId) - allocatedBefore : -1;
+			long bytes = 0;
+
+			for (CountingChannel sink : sinks) {
+				bytes += sink.bytes;
+
+			}
+
+			System.out.println("Spectator fan-out, " + numWatchers + " watchers (1 in " + slowEvery + " slow), " + numFrames +
+							   " frames of " + frame.length() + " bytes:");
+			System.out.println("\tpublish cost:        " + (publishNanos / numFrames) + " ns/frame (player CPU)");
+			System.out.println("\tall delivered in:    " + (totalNanos / 1_000_000) + " ms");
+			System.out.println("\tframes sent:         " + channel.getFramesSent());
+			System.out.println("\tframes dropped:      " + channel.getFramesDropped());
+			System.out.println("\tbytes written:       " + (bytes >> 20) + " MB (" + (long) (bytes * 1e9 / totalNanos) / (1 << 20) + " MB/s)");
+
+			if (allocated >= 0)
+				System.out.println("\tfan-out allocation:  " + (allocated / Math.max(1, channel.getFramesSent())) + " bytes per frame sent");
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+
+		}
+	}
+
+	/**
+	 * This method races bots on shared words through RaceGame, with 1 to 512 players, for RACE_MILLIS each.
+	 * Every player has its own thread, and guesses random letters the word doesn't show as used yet. A word
+	 * takes at most 26 claims, so the players don't wait for each other between words: whoever sees the race
+	 * over (the word revealed, or every player who joined it out of guesses) puts the next word of a pool of
+	 * 500 in its place, and the others join it as soon as they see it. That keeps every player guessing for the whole run. It
+	 * reports, for each number of players, the guesses per second over all players and per player, how often
+	 * a compare-and-set had to be retried, and how many guesses were lost because another player claimed the
+	 * letter first. Players only contend when they run at the same time, so on one processor a player mostly
+	 * races a whole word alone, and both stay near 0.
+	 */
+	public static void raceBenchmark() {
+
+		final int poolSize = 500;
+		Random generator = new Random(42);
+		String[] words = new String[poolSize];
+
+		for (int index = 0; index < poolSize; index++) {
+			char[] word = new char[5 + generator.nextInt(8)];
+
+			for (int position = 0; position < word.length; position++) {
+				word[position] = (char) ('a' + generator.nextInt(26));
+
+			}
+			words[index] = new String(word);
+
+		}
+
+		System.out.println("Race, " + RACE_MILLIS + " ms per run, " + Runtime.getRuntime().availableProcessors() + " processors:");
+		System.out.println("\tplayers   guesses/sec   per player/sec   CAS retries   retries/attempt   lost guesses      words");
+
+		try {
+			raceStep(4, words, false);																		// Warm-up.
+
+			for (int numPlayers : new int[] { 1, 2, 4, 16, 128, 512 }) {
+				raceStep(numPlayers, words, true);
+
+			}
+
+		} catch (InterruptedException | BrokenBarrierException exception) {
+			Thread.currentThread().interrupt();
+
+		}
+	}
+
+	/**
+	 * Method used to run the race benchmark for one number of players.
+	 * @param numPlayers players, one thread each.
+	 * @param words pool of words raced on, in turn.
+	 * @param report True to print the results, False for a warm-up.
+	 * @throws InterruptedException interrupted while waiting for the players.
+	 * @throws BrokenBarrierException a player was interrupted.
+	 */
+	private static void raceStep(int numPlayers, String[] words, boolean report) throws InterruptedException, BrokenBarrierException {
+
+		AtomicReference<Race> current = new AtomicReference<Race>(new Race(words, 0, 0));
+		AtomicBoolean running = new AtomicBoolean(true);
+		CyclicBarrier barrier = new CyclicBarrier(numPlayers + 1);
+		LongAdder guesses = new LongAdder();
+		LongAdder lost = new LongAdder();
+
+		for (int index = 0; index < numPlayers; index++) {
+			String name = "player-" + index;
+			GuessingStrategy strategy = new RandomGuessStrategy(new Random(index));
+
+			Thread thread = new Thread(() -> {
+
+				try {
+					barrier.await();
+					Race race = null;
+					RaceGame.Player player = null;
+					long numGuesses = 0;
+					long numLost = 0;
+
+					while (running.get()) {
+						Race latest = current.get();
+
+						if (latest != race) {
+
+							if (player != null) {
+								numGuesses += player.getNumGuesses();
+								numLost += player.getNumLost();
+
+							}
+							race = latest;
+							player = race.game.join(name);
+
+						}
+
+						long used = race.game.getLettersUsed();													// Before isOver(): a letter is left to guess if it's false.
+
+						if (race.game.isOver()) {
+							race.next(current, words);
+							continue;
+
+						}
+
+						if (!player.hasGuessesLeft()) {																// Out: wait for the others, or the next word.
+							Thread.yield();
+							continue;
+
+						}
+						race.game.guess(player, strategy.nextGuess(null, used, race.game.getAlphabet()));
+
+					}
+
+					if (player != null) {
+						numGuesses += player.getNumGuesses();
+						numLost += player.getNumLost();
+
+					}
+					guesses.add(numGuesses);
+					lost.add(numLost);
+					barrier.await();
+
+				} catch (InterruptedException | BrokenBarrierException exception) {
+					// Benchmark aborted.
+
+				}
+			}, name);
+			thread.setDaemon(true);
+			thread.start();
+
+		}
+
+		barrier.await();																					// Every player starts at once.
+		long start = System.nanoTime();
+		Thread.sleep(report ? RACE_MILLIS : RACE_MILLIS / 2);
+		running.set(false);
+		long nanos = System.nanoTime() - start;
+		barrier.await();
+
+		Race last = current.get();
+		long retries = last.previousRetries + last.game.getCasRetries();
+		long attempts = guesses.sum() + lost.sum();
+
+		if (report)
+			System.out.println(String.format("\t%7d   %11d   %14d   %11d   %15.4f   %11.1f%%   %8d", numPlayers, perSecond(attempts, nanos),
+											 perSecond(attempts, nanos) / numPlayers, retries, (double) retries / Math.max(1, attempts),
+											 100.0 * lost.sum() / Math.max(1, attempts), last.number + 1));
+	}
+
+	/**
+	 * This method reads a script of 5,000,000 one-letter guesses, as piped to the console game, and validates
+	 * every line with the game's guess rules: once through a Scanner (KeyboardInput) and once through a
+	 * ScriptedInput. It reports the guesses validated per second with each.
+	 */
+	public static void scriptedInputBenchmark() {
+
+		final int numGuesses = 5_000_000;
+		Random generator = new Random(42);
+		byte[] script = new byte[2 * numGuesses];
+
+		for (int index = 0; index < numGuesses; index++) {
+			script[2 * index] = (byte) ('a' + generator.nextInt(26));
+			script[2 * index + 1] = '\n';
+
+		}
+
+		try {
+			ArrayList<String> words = new ArrayList<String>(Arrays.asList("abracadabra"));
+			ArrayList<Double> frequencies = new ArrayList<Double>(Arrays.asList(1.0));
+			Hangman game = new Hangman(new DictionaryIndex.Partition(words, frequencies, false));
+			String[] names = {"Scanner:       ", "ScriptedInput: "};
+
+			System.out.println("Scripted input, " + numGuesses + " guesses:");
+
+			for (int index = 0; index < names.length; index++) {
+				long bestNanos = Long.MAX_VALUE;
+				long sink = 0;
+
+				for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+					InputStream in = new ByteArrayInputStream(script);
+					GameInput input = (index == 0) ? new KeyboardInput(in) : new ScriptedInput(in);
+					long start = System.nanoTime();
+
+					for (int count = 0; count < numGuesses; count++) {
+						int length = input.readLine();
+						sink += HangmanConsoleGame.parseGuess(input.getFirstChar(), length, game);
+
+					}
+					bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+
+				}
+				System.out.println("\t" + names[index] + perSecond(numGuesses, bestNanos) + " guesses/sec (checksum " + sink + ")");
+
+			}
+
+		} catch (IOException | MultipleCharsEnteredException | NotAlphabetCharacterException |
+				 PreviouslyUsedCharacterException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * This method validates 2,000,000 guesses, most of them wrong the way bot input is (empty, too long, not a
+	 * letter, or used before), first through HangmanConsoleGame.parseGuess(), which throws an exception per
+	 * wrong guess, then through GuessValidator.validate(), which returns a verdict. It reports the guesses
+	 * validated per second with each.
+	 */
+	public static void guessValidatorBenchmark() {
+
+		final int numGuesses = 2_000_000;
+		Random generator = new Random(42);
+		char[] firstChars = new char[numGuesses];
+		int[] lengths = new int[numGuesses];
+
+		for (int index = 0; index < numGuesses; index++) {
+			int kind = generator.nextInt(5);
+			firstChars[index] = (kind == 3) ? (char) ('0' + generator.nextInt(10)) : (char) ('a' + generator.nextInt(26));
+			lengths[index] = (kind == 0) ? 0 : (kind == 1) ? 2 : 1;
+
+		}
+
+		try {
+			ArrayList<String> words = new ArrayList<String>(Arrays.asList("abracadabra"));
+			ArrayList<Double> frequencies = new ArrayList<Double>(Arrays.asList(1.0));
+			Hangman game = new Hangman(new DictionaryIndex.Partition(words, frequencies, false));
+
+			for (char letter = 'a'; letter <= 'm'; letter++) {												// Half the letters are used.
+				game.markLetterUsed(letter);
+
+			}
+
+			System.out.println("Guess validation, " + numGuesses + " guesses:");
+
+			for (int method = 0; method < 2; method++) {
+				long bestNanos = Long.MAX_VALUE;
+				long valid = 0;
+
+				for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+					long start = System.nanoTime();
+					valid = 0;
+
+					for (int index = 0; index < numGuesses; index++) {
+
+						if (method == 0) {
+
+							try {
+								HangmanConsoleGame.parseGuess(firstChars[index], lengths[index], game);
+								valid++;
+
+							} catch (MultipleCharsEnteredException | NotAlphabetCharacterException |
+									 PreviouslyUsedCharacterException | StringIndexOutOfBoundsException exception) {
+								// Wrong guess.
+
+							}
+
+						} else if (GuessValidator.validate(firstChars[index], lengths[index], game) == GuessValidator.VALID) {
+							valid++;
+
+						}
+					}
+					bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+
+				}
+				System.out.println("\t" + ((method == 0) ? "exceptions: " : "verdicts:   ") + perSecond(numGuesses, bestNanos) +
+								   " guesses/sec (" + valid + " valid)");
+
+			}
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * This method suspends 500,000 games in progress to a session file with SessionSnapshot, then restores
+	 * them all, as after a restart. It reports the size of the file and how long saving and restoring take,
+	 * and checks that every game came back with its word, letters used and wrong guesses.
+	 */
+	public static void sessionSnapshotBenchmark() {
+
+		final int numSessions = 500_000;
+		final int numWords = 200_000;
+		Random generator = new Random(42);
+
+		try {
+			DictionaryIndex dictionaryIndex = syntheticDictionary(numWords, generator);
+			HashMap<Integer, Hangman> games = new HashMap<Integer, Hangman>(2 * numSessions);
+
+			for (int sessionId = 0; sessionId < numSessions; sessionId++) {
+				int difficultyLevel = (sessionId % 5 == 0) ? Hangman.HARD : Hangman.EASY;
+				Hangman game = new Hangman(dictionaryIndex.getPartition(difficultyLevel));
+				game.setDifficultyLevel(difficultyLevel);
+				game.pickSecretWord();
+				game.populateSecretWordLineChars();
+
+				for (int guess = generator.nextInt(8); guess > 0; guess--) {
+					char letter = (char) ('a' + generator.nextInt(26));
+					game.markLetterUsed(letter);
+					game.revealGuess(letter);
+
+					if (!game.checkGuess(letter))
+						game.setNumWrongGuesses(Math.min(Hangman.MAX_GUESSES - 1, game.getNumWrongGuesses() + 1));
+
+				}
+				games.put(sessionId, game);
+
+			}
+
+			File file = File.createTempFile("hangman-sessions-", ".bin");
+			file.deleteOnExit();
+			long bestSave = Long.MAX_VALUE;
+			long bestRestore = Long.MAX_VALUE;
+			Map<Integer, Hangman> restored = null;
+
+			for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+				restored = null;
+				System.gc();
+				long start = System.nanoTime();
+				SessionSnapshot.save(file, games, dictionaryIndex);
+				long saved = System.nanoTime();
+				restored = SessionSnapshot.restore(file, dictionaryIndex);
+				long end = System.nanoTime();
+
+				if (round >= WARMUP_ROUNDS) {
+					bestSave = Math.min(bestSave, saved - start);
+					bestRestore = Math.min(bestRestore, end - saved);
+
+				}
+			}
+
+			int mismatches = 0;
+
+			for (Map.Entry<Integer, Hangman> entry : games.entrySet()) {
+				Hangman original = entry.getValue();
+				Hangman copy = restored.get(entry.getKey());
+
+				if (copy == null || !copy.getSecretWord().equals(original.getSecretWord()) ||
+					copy.getLettersUsed() != original.getLettersUsed() || copy.getNumWrongGuesses() != original.getNumWrongGuesses() ||
+					!Arrays.equals(copy.getSecretWordLineChars(), original.getSecretWordLineChars()))
+					mismatches++;
+
+			}
+
+			System.out.println("Session snapshot, " + numSessions + " games in progress:");
+			System.out.println("\tfile size:  " + (file.length() >> 10) + " KB (" + SessionSnapshot.RECORD_SIZE + " bytes per game)");
+			System.out.println("\tsave:       " + (bestSave / 1_000_000) + " ms (" + perSecond(numSessions, bestSave) + " games/sec)");
+			System.out.println("\trestore:    " + (bestRestore / 1_000_000) + " ms (" + perSecond(numSessions, bestRestore) + " games/sec)");
+			System.out.println("\tmismatches: " + mismatches);
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * This method keeps the idle deadlines of a million sessions, the way a server does: every session is
+	 * touched at random, which moves its deadline, and then time runs out and every session is evicted.
+	 * A TimingWheel is compared with a ScheduledThreadPoolExecutor, which needs a cancel and a new task per
+	 * touch, in a heap. Both get the same touches; the executor's tasks never get to run.
+	 */
+	public static void timingWheelBenchmark() {
+
+		final int numSessions = 1_000_000;
+		final int numTouches = 4_000_000;
+		final long timeout = TimeUnit.MINUTES.toNanos(5);
+		final long tick = TimeUnit.MILLISECONDS.toNanos(100);
+		Random generator = new Random(42);
+		int[] touched = new int[numTouches];
+
+		for (int index = 0; index < numTouches; index++) {
+			touched[index] = generator.nextInt(numSessions);
+
+		}
+
+		long bestWheelTouch = Long.MAX_VALUE;
+		long bestWheelEvict = Long.MAX_VALUE;
+		long bestExecutorTouch = Long.MAX_VALUE;
+		long evicted = 0;
+		int batches = 0;
+
+		for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+			long now = 0;
+			TimingWheel<Integer> wheel = new TimingWheel<Integer>(tick, now);
+			ArrayList<TimingWheel.Timer<Integer>> timers = new ArrayList<TimingWheel.Timer<Integer>>(numSessions);
+
+			for (int session = 0; session < numSessions; session++) {
+				timers.add(wheel.schedule(session, now + timeout));
+
+			}
+
+			System.gc();
+			long start = System.nanoTime();
+
+			for (int index = 0; index < numTouches; index++) {
+				now += 50_000;																					// 4M touches over 200 seconds.
+				wheel.reschedule(timers.get(touched[index]), now + timeout);
+
+			}
+
+			long touchedAt = System.nanoTime();
+			ArrayList<Integer> expired = new ArrayList<Integer>();
+			batches = 0;
+
+			while (wheel.size() > 0) {
+				now += tick;
+
+				if (wheel.advance(now, expired) > 0)
+					batches++;
+
+				expired.clear();
+
+			}
+
+			long end = System.nanoTime();
+			evicted = wheel.getNumExpired();
+
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+			executor.setRemoveOnCancelPolicy(true);
+			ArrayList<ScheduledFuture<?>> tasks = new ArrayList<ScheduledFuture<?>>(numSessions);
+			Runnable evict = () -> { };
+
+			for (int session = 0; session < numSessions; session++) {
+				tasks.add(executor.schedule(evict, timeout, TimeUnit.NANOSECONDS));
+
+			}
+
+			System.gc();
+			long executorStart = System.nanoTime();
+
+			for (int index = 0; index < numTouches; index++) {
+				int session = touched[index];
+				tasks.get(session).cancel(false);
+				tasks.set(session, executor.schedule(evict, timeout, TimeUnit.NANOSECONDS));
+
+			}
+
+			long executorEnd = System.nanoTime();
+			executor.shutdownNow();
+
+			if (round >= WARMUP_ROUNDS) {
+				bestWheelTouch = Math.min(bestWheelTouch, touchedAt - start);
+				bestWheelEvict = Math.min(bestWheelEvict, end - touchedAt);
+				bestExecutorTouch = Math.min(bestExecutorTouch, executorEnd - executorStart);
+
+			}
+		}
+
+		System.out.println("Idle deadlines, " + numSessions + " sessions, " + numTouches + " touches:");
+		System.out.println("\ttiming wheel touch:  " + (bestWheelTouch / numTouches) + " ns (" + perSecond(numTouches, bestWheelTouch) + " touches/sec)");
+		System.out.println("\texecutor touch:      " + (bestExecutorTouch / numTouches) + " ns (" + perSecond(numTouches, bestExecutorTouch) + " touches/sec)");
+		System.out.println("\ttiming wheel evict:  " + (bestWheelEvict / 1_000_000) + " ms for " + evicted + " sessions in " + batches + " batches");
+
+	}
+
+	/**
+	 * This method keeps a million sessions playing, first as a Hangman each, then as records of an
+	 * OffHeapSessionStore, and compares the heap they take, the time of a random guess (which starts a new
+	 * round when it ends one), the collections the guesses cause, and the pause of a full collection with
+	 * every session alive.
+	 */
+	public static void sessionStoreBenchmark() {
+
+		final int numSessions = 1_000_000;
+		final int numGuesses = 10_000_000;
+		Random generator = new Random(42);
+
+		try {
+			DictionaryIndex dictionaryIndex = syntheticDictionary(200_000, generator);
+			DictionaryIndex.Partition[] partitions = {dictionaryIndex.getPartition(Hangman.EASY), dictionaryIndex.getPartition(Hangman.HARD)};
+			int[] sessions = new int[numGuesses];
+			char[] letters = new char[numGuesses];
+
+			for (int index = 0; index < numGuesses; index++) {
+				sessions[index] = generator.nextInt(numSessions);
+				letters[index] = (char) ('a' + generator.nextInt(26));
+
+			}
+
+			long[] onHeap = new long[5];
+			long[] offHeap = new long[5];
+			long offHeapBytes = 0;
+
+			for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+				long baseline = usedHeap();
+				Hangman[] games = new Hangman[numSessions];
+
+				for (int session = 0; session < numSessions; session++) {
+					int difficultyLevel = (session % 5 == 0) ? Hangman.HARD : Hangman.EASY;
+					games[session] = new Hangman(partitions[difficultyLevel]);
+					games[session].setDifficultyLevel(difficultyLevel);
+					games[session].pickSecretWord();
+					games[session].populateSecretWordLineChars();
+
+				}
+
+				long heap = Math.max(0, usedHeap() - baseline);
+				long collections = gcCount();
+				long collecting = gcMillis();
+				long start = System.nanoTime();
+
+				for (int index = 0; index < numGuesses; index++) {
+					Hangman game = games[sessions[index]];
+					char guess = letters[index];
+
+					if (GuessValidator.validate(guess, 1, game) != GuessValidator.VALID)
+						continue;
+
+					game.markLetterUsed(guess);
+					game.revealGuess(guess);
+
+					if (!game.checkGuess(guess))
+						game.setNumWrongGuesses(game.getNumWrongGuesses() + 1);
+
+					if (game.checkGameStatus() || game.getNumWrongGuesses() >= Hangman.MAX_GUESSES) {
+						game.pickSecretWord();
+						game.populateSecretWordLineChars();
+						game.setNumWrongGuesses(0);
+
+					}
+				}
+
+				long end = System.nanoTime();
+				long[] results = {heap, end - start, gcCount() - collections, gcMillis() - collecting, fullCollectionMillis()};
+				games = null;
+
+				baseline = usedHeap();
+				OffHeapSessionStore store = new OffHeapSessionStore(dictionaryIndex);
+
+				for (int session = 0; session < numSessions; session++) {
+					int slot = store.open((session % 5 == 0) ? Hangman.HARD : Hangman.EASY);
+					store.startRound(slot, generator.nextInt(partitions[store.getDifficultyLevel(slot)].getWords().size()));
+
+				}
+
+				heap = Math.max(0, usedHeap() - baseline);
+				collections = gcCount();
+				collecting = gcMillis();
+				start = System.nanoTime();
+
+				for (int index = 0; index < numGuesses; index++) {
+					int slot = sessions[index];
+					int outcome = store.guess(slot, letters[index]);
+
+					if (outcome == OffHeapSessionStore.WON || outcome == OffHeapSessionStore.LOST)
+						store.startRound(slot, generator.nextInt(partitions[store.getDifficultyLevel(slot)].getWords().size()));
+
+				}
+
+				end = System.nanoTime();
+				long[] storeResults = {heap, end - start, gcCount() - collections, gcMillis() - collecting, fullCollectionMillis()};
+				offHeapBytes = store.offHeapBytes();
+
+				if (round >= WARMUP_ROUNDS && (round == WARMUP_ROUNDS || results[1] < onHeap[1]))
+					onHeap = results;
+
+				if (round >= WARMUP_ROUNDS && (round == WARMUP_ROUNDS || storeResults[1] < offHeap[1]))
+					offHeap = storeResults;
+
+			}
+
+			System.out.println("Session state, " + numSessions + " sessions, " + numGuesses + " guesses:");
+			System.out.println("\t                  heap       off-heap   guess     collections   full collection");
+			System.out.println(String.format("\tHangman objects   %5d MB   %5d MB   %4d ns   %4d, %5d ms   %5d ms", onHeap[0] >> 20, 0,
+											 onHeap[1] / numGuesses, onHeap[2], onHeap[3], onHeap[4]));
+			System.out.println(String.format("\toff-heap store    %5d MB   %5d MB   %4d ns   %4d, %5d ms   %5d ms", offHeap[0] >> 20, offHeapBytes >> 20,
+											 offHeap[1] / numGuesses, offHeap[2], offHeap[3], offHeap[4]));
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * This method plays every letter of the alphabet against a batch of games, first through each game's
+	 * Hangman (checkGuess() and revealGuess()), then through a BatchGuessEvaluator, one char at a time and
+	 * eight chars at a time. The revealed positions of both are checked against each other after a few
+	 * letters, before timing.
+	 */
+	public static void batchGuessBenchmark() {
+
+		final int numGames = 200_000;
+		Random generator = new Random(42);
+
+		try {
+			DictionaryIndex.Partition partition = syntheticDictionary(200_000, generator).getPartition(Hangman.EASY);
+			BatchGuessEvaluator evaluator = new BatchGuessEvaluator(partition);
+			Alphabet alphabet = partition.getAlphabet();
+			Hangman[] games = new Hangman[numGames];
+			int[] wordIds = new int[numGames];
+			long[] revealed = new long[numGames];
+
+			for (int game = 0; game < numGames; game++) {
+				games[game] = new Hangman(partition);
+				games[game].pickSecretWord();
+				games[game].populateSecretWordLineChars();
+				wordIds[game] = games[game].getSecretWordId();
+
+			}
+
+			int mismatches = 0;
+
+			for (char letter : "etaoin".toCharArray()) {
+				evaluator.evaluate(letter, wordIds, revealed, numGames);
+
+				for (Hangman game : games) {
+					game.revealGuess(letter);
+
+				}
+			}
+
+			for (int game = 0; game < numGames; game++) {
+				char[] pattern = games[game].getSecretWordLineChars();
+
+				for (int index = 0; index < pattern.length; index++) {
+
+					if ((pattern[index] != '_') != ((revealed[game] & (1L << index)) != 0))
+						mismatches++;
+
+				}
+			}
+
+			long operations = (long) numGames * alphabet.size();
+			long bestHangman = Long.MAX_VALUE;
+			long bestScalar = Long.MAX_VALUE;
+			long bestPacked = Long.MAX_VALUE;
+			long hits = 0;
+
+			for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+
+				for (Hangman game : games) {
+					game.populateSecretWordLineChars();
+
+				}
+
+				long start = System.nanoTime();
+
+				for (int index = 0; index < alphabet.size(); index++) {
+					char letter = (char) alphabet.codePointAt(index);
+
+					for (Hangman game : games) {
+
+						if (game.checkGuess(letter))
+							game.revealGuess(letter);
+
+					}
+				}
+
+				long end = System.nanoTime();
+				Arrays.fill(revealed, 0);
+				long scalarStart = System.nanoTime();
+
+				for (int index = 0; index < alphabet.size(); index++) {
+					evaluator.evaluateScalar((char) alphabet.codePointAt(index), wordIds, revealed, numGames);
+
+				}
+
+				long scalarEnd = System.nanoTime();
+				Arrays.fill(revealed, 0);
+				long packedStart = System.nanoTime();
+				hits = 0;
+
+				for (int index = 0; index < alphabet.size(); index++) {
+					hits += evaluator.evaluate((char) alphabet.codePointAt(index), wordIds, revealed, numGames);
+
+				}
+
+				long packedEnd = System.nanoTime();
+
+				if (round >= WARMUP_ROUNDS) {
+					bestHangman = Math.min(bestHangman, end - start);
+					bestScalar = Math.min(bestScalar, scalarEnd - scalarStart);
+					bestPacked = Math.min(bestPacked, packedEnd - packedStart);
+
+				}
+			}
+
+			System.out.println("Batch guesses, " + numGames + " games, " + alphabet.size() + " letters each (" + hits + " hits):");
+			System.out.println("\tHangman.checkGuess/revealGuess: " + perSecond(operations, bestHangman) + " guesses/sec");
+			System.out.println("\tpacked, one char at a time:     " + perSecond(operations, bestScalar) + " guesses/sec");
+			System.out.println("\tpacked, eight chars at a time:  " + perSecond(operations, bestPacked) + " guesses/sec");
+			System.out.println("\tpacked words:                   " + (evaluator.memoryFootprint() >> 10) + " KB");
+			System.out.println("\tmismatches:                     " + mismatches);
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * This method plays games with the frequency strategy and sends each of them to a remote client twice:
+	 * as the console frames (one after the start, after every guess and at the end, in UTF-8), and as a
+	 * GameDeltaCodec round. It reports the bytes per game of each, and how fast each is encoded and decoded
+	 * (decoding a frame is turning its bytes back into text; decoding a round is rebuilding its Board).
+	 * Every Board is checked against the game it was sent from.
+	 */
+	public static void deltaProtocolBenchmark() {
+
+		final int numGames = 5_000;
+		Random generator = new Random(42);
+
+		try {
+			DictionaryIndex.Partition partition = syntheticDictionary(200_000, generator).getPartition(Hangman.EASY);
+			GuessingStrategy strategy = new LetterFrequencyStrategy();
+			GameState[][] states = new GameState[numGames][];
+			char[][] guesses = new char[numGames][];
+			Hangman game = new Hangman(partition);
+			game.setDifficultyLevel(Hangman.EASY);
+			int numMessages = 0;
+			int maxWordLength = 0;
+
+			for (int index = 0; index < numGames; index++) {												// Snapshots first: only encoding is timed.
+				game.pickSecretWord();
+				game.populateSecretWordLineChars();
+				game.setNumWrongGuesses(0);
+				ArrayList<GameState> played = new ArrayList<GameState>();
+				StringBuilder letters = new StringBuilder();
+				played.add(game.snapshot());
+
+				while (game.getNumWrongGuesses() < Hangman.MAX_GUESSES && !game.checkGameStatus()) {
+					char guess = strategy.nextGuess(game.getSecretWordLineChars(), game.getLettersUsed(), partition.getAlphabet());
+					game.markLetterUsed(guess);
+					game.revealGuess(guess);
+
+					if (!game.checkGuess(guess))
+						game.setNumWrongGuesses(game.getNumWrongGuesses() + 1);
+
+					letters.append(guess);
+					played.add(game.snapshot());
+
+				}
+
+				if (game.checkGameStatus())
+					game.setNumWins(game.getNumWins() + 1);
+				else
+					game.setNumLosses(game.getNumLosses() + 1);
+
+				game.setNumGames(game.getNumGames() + 1);
+				played.add(game.snapshot());																	// The end, with the stats.
+				states[index] = played.toArray(new GameState[0]);
+				guesses[index] = letters.toString().toCharArray();
+				numMessages += states[index].length;
+				maxWordLength = Math.max(maxWordLength, states[index][0].getWordLength());
+
+			}
+
+			ByteBuffer deltas = ByteBuffer.allocate(numMessages * GameDeltaCodec.maxMessageSize(maxWordLength));
+			long bestTextEncode = Long.MAX_VALUE;
+			long bestTextDecode = Long.MAX_VALUE;
+			long bestDeltaEncode = Long.MAX_VALUE;
+			long bestDeltaDecode = Long.MAX_VALUE;
+			long textBytes = 0;
+			long deltaBytes = 0;
+			int mismatches = 0;
+			long sink = 0;																				// Keeps the JIT from dropping the loops.
+
+			for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+				ArrayList<byte[]> frames = new ArrayList<byte[]>(numMessages);
+				long start = System.nanoTime();
+
+				for (GameState[] played : states) {
+
+					for (GameState state : played) {
+						HangmanConsoleGame.setGameOver(state.isOver() && state.getNumGames() > played[0].getNumGames());
+						frames.add(HangmanConsoleGame.renderFrame(state).getBytes(StandardCharsets.UTF_8));
+
+					}
+				}
+
+				long textEncode = System.nanoTime() - start;
+				start = System.nanoTime();
+				textBytes = 0;
+
+				for (byte[] frame : frames) {
+					sink += new String(frame, StandardCharsets.UTF_8).length();
+					textBytes += frame.length;
+
+				}
+
+				long textDecode = System.nanoTime() - start;
+				deltas.clear();
+				start = System.nanoTime();
+
+				for (int index = 0; index < numGames; index++) {
+					GameState[] played = states[index];
+					GameDeltaCodec.encodeHeader(played[0], deltas);
+
+					for (int guess = 0; guess < guesses[index].length; guess++) {
+						GameDeltaCodec.encodeGuess(played[guess + 1], guesses[index][guess], deltas);
+
+					}
+					GameDeltaCodec.encodeEnd(played[played.length - 1], deltas);
+
+				}
+
+				long deltaEncode = System.nanoTime() - start;
+				deltas.flip();
+				deltaBytes = deltas.remaining();
+				GameDeltaCodec.Board board = new GameDeltaCodec.Board();
+				mismatches = 0;
+				int numRounds = 0;
+				start = System.nanoTime();
+
+				for (int type; (type = board.apply(deltas)) != GameDeltaCodec.NONE; ) {
+
+					if (type == GameDeltaCodec.END) {
+						GameState[] played = states[numRounds++];
+						mismatches += board.getSecretWord().equals(played[played.length - 1].getSecretWord()) ? 0 : 1;
+
+					}
+				}
+
+				long deltaDecode = System.nanoTime() - start;
+
+				for (int index = 0; index < numGames && round == 0; index++) {								// Whole boards, checked once, outside the timing.
+					GameState last = states[index][states[index].length - 1];
+					deltas.clear();
+					GameDeltaCodec.encodeHeader(states[index][0], deltas);
+
+					for (int guess = 0; guess < guesses[index].length; guess++) {
+						GameDeltaCodec.encodeGuess(states[index][guess + 1], guesses[index][guess], deltas);
+
+					}
+					deltas.flip();
+
+					while (board.apply(deltas) != GameDeltaCodec.NONE) {
+					}
+
+					if (!Arrays.equals(board.getMaskedWord(), last.getMaskedWord()) || board.getNumWrongGuesses() != last.getNumWrongGuesses() ||
+						board.getLettersUsed().length() != Long.bitCount(last.getLettersUsed()))
+						mismatches++;
+
+				}
+
+				mismatches += (numRounds == numGames) ? 0 : 1;
+
+				if (round >= WARMUP_ROUNDS) {
+					bestTextEncode = Math.min(bestTextEncode, textEncode);
+					bestTextDecode = Math.min(bestTextDecode, textDecode);
+					bestDeltaEncode = Math.min(bestDeltaEncode, deltaEncode);
+					bestDeltaDecode = Math.min(bestDeltaDecode, deltaDecode);
+
+				}
+			}
+
+			HangmanConsoleGame.setGameOver(false);
+			System.out.println("Remote protocol, " + numGames + " games, " + numMessages + " frames or messages each way:");
+			System.out.println("\t                bytes/game   encode games/sec   decode games/sec");
+			System.out.println(String.format("\ttext frames     %10d   %16d   %16d", textBytes / numGames, perSecond(numGames, bestTextEncode),
+											 perSecond(numGames, bestTextDecode)));
+			System.out.println(String.format("\tdelta messages  %10d   %16d   %16d", deltaBytes / numGames, perSecond(numGames, bestDeltaEncode),
+											 perSecond(numGames, bestDeltaDecode)));
+			System.out.println("\tmismatches:     " + mismatches);
+			System.out.println("\t(checksum " + sink + ")");
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * This method plays random guesses in a loop that publishes a GameEvent per guess and per ending, as the
+	 * console game and the server do, with no subscriber, with a fast subscriber, and with the fast one next
+	 * to a slow one (a millisecond per event) that either drops what doesn't fit in its buffer or is
+	 * disconnected. Guesses come in bursts of 200 with a millisecond between bursts, left out of the timing,
+	 * like players that think, so subscribers get a processor even on a machine with one. It reports the
+	 * cost of a guess, its 99th and 99.99th percentiles, and what each subscriber got: a slow subscriber must
+	 * not change what the loop costs, nor what the fast one gets.
+	 */
+	public static void eventBusBenchmark() {
+
+		final int numGuesses = 200_000;
+		final int burst = 200;
+		final int bufferCapacity = 256;
+		String[] names = {"no subscriber:          ", "fast subscriber:        ", "fast + slow, DROP:      ", "fast + slow, DISCONNECT:"};
+		Random generator = new Random(42);
+
+		try {
+			DictionaryIndex.Partition partition = syntheticDictionary(200_000, generator).getPartition(Hangman.EASY);
+			char[] letters = new char[numGuesses];
+
+			for (int index = 0; index < numGuesses; index++) {
+				letters[index] = (char) ('a' + generator.nextInt(26));
+
+			}
+
+			System.out.println("Event bus, " + numGuesses + " guesses in bursts of " + burst + ", subscriber buffers of " + bufferCapacity + " events:");
+
+			for (int setup = 0; setup < names.length; setup++) {
+				LatencyHistogram latencies = new LatencyHistogram();
+				long bestNanos = Long.MAX_VALUE;
+				String report = "";
+
+				for (int round = 0; round < WARMUP_ROUNDS + TIMED_ROUNDS; round++) {
+					GameEventBus bus = new GameEventBus();
+					LongAdder fastEvents = new LongAdder();
+					LongAdder slowEvents = new LongAdder();
+					GameEventBus.Feed fast = null;
+					GameEventBus.Feed slow = null;
+
+					if (setup >= 1)
+						fast = bus.subscribe("fast", event -> fastEvents.increment(), bufferCapacity, GameEventBus.DROP);
+
+					if (setup >= 2) {
+						slow = bus.subscribe("slow", event -> {
+
+							slowEvents.increment();
+							LockSupport.parkNanos(1_000_000);
+
+						}, bufferCapacity, (setup == 2) ? GameEventBus.DROP : GameEventBus.DISCONNECT);
+					}
+
+					Hangman game = new Hangman(partition);
+					game.pickSecretWord();
+					game.populateSecretWordLineChars();
+					latencies.reset();
+					long nanos = 0;
+					long start = System.nanoTime();
+
+					for (int index = 0; index < numGuesses; index++) {
+
+						if (index % burst == 0 && index > 0) {
+							nanos += System.nanoTime() - start;
+							Thread.sleep(1);
+							start = System.nanoTime();
+
+						}
+
+						long guessStart = System.nanoTime();
+						char guess = letters[index];
+
+						if (GuessValidator.validate(guess, 1, game) == GuessValidator.VALID) {
+							game.markLetterUsed(guess);
+							int numRevealed = game.revealGuess(guess);
+
+							if (!game.checkGuess(guess))
+								game.setNumWrongGuesses(game.getNumWrongGuesses() + 1);
+
+							if (bus.hasSubscribers())
+								bus.publish(new GameEvent.GuessMade(1, game.snapshot(), guess, numRevealed));
+
+							if (game.checkGameStatus() || game.getNumWrongGuesses() >= Hangman.MAX_GUESSES) {
+
+								if (bus.hasSubscribers())
+									bus.publish(new GameEvent.GameEnded(1, game.snapshot(), Long.bitCount(game.getLettersUsed())));
+
+								game.pickSecretWord();
+								game.populateSecretWordLineChars();
+								game.setNumWrongGuesses(0);
+
+							}
+						}
+						latencies.record(System.nanoTime() - guessStart);
+
+					}
+
+					nanos += System.nanoTime() - start;
+
+					for (int wait = 0; fast != null && fast.getLag() > 0 && wait < 1000; wait++) {					// Counted once the fast one is done.
+						Thread.sleep(1);
+
+					}
+					bus.close();
+
+					if (round >= WARMUP_ROUNDS && nanos < bestNanos) {
+						bestNanos = nanos;
+						report = String.format(" %4d ns/guess, p99 %5d ns, p99.99 %6d ns", nanos / numGuesses, latencies.getPercentile(99),
+											   latencies.getPercentile(99.99));
+
+						if (fast != null)
+							report += ", fast got " + fastEvents.sum() + " of " + bus.getNumPublished() + " (" + fast.getNumDropped() + " dropped)";
+
+						if (slow != null)
+							report += ", slow got " + slowEvents.sum() + (slow.isDisconnected() ? " (disconnected)" : " (" + slow.getNumDropped() + " dropped)");
+
+					}
+				}
+				System.out.println("\t" + names[setup] + report);
+
+			}
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+
+		}
+	}
+
+	/**
+	 * This method follows the dictionary path of a game (construction, populateDictionaryArray() and
+	 * pickSecretWord()) over synthetic dictionaries from 10,000 words up to a maximum, ten times bigger
+	 * each step, and prints one line per size: the scaling curves of time, heap and collections. Big
+	 * dictionaries take too long for repeated rounds, so each size runs once, after a warm-up at the
+	 * smallest size; the per-word columns should stay flat as the size grows. Run it with a big enough
+	 * -Xmx for the largest size (about 150 bytes per word).
+	 * @param maxWords largest dictionary, up to DictionaryGenerator.MAX_WORDS.
+	 */
+	public static void dictionaryScaleBenchmark(long maxWords) {
+
+		try {
+			File file = File.createTempFile("hangman-scale-", ".txt");
+			file.deleteOnExit();
+			System.out.println("Dictionary scaling, English-like words of 3 to 10 letters with Zipf frequencies:");
+			System.out.println("\t      words   generate   construct    populate   ns/word   retained   bytes/word   peak heap   collections" +
+							   "   pick p50   pick p99");
+			dictionaryScaleStep(10_000, file, false);
+
+			for (long numWords = 10_000; numWords <= maxWords; numWords *= 10) {
+				dictionaryScaleStep(numWords, file, true);
+
+			}
+			file.delete();
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * Method used to run one size of the dictionary scaling benchmark.
+	 * @param numWords size of the dictionary.
+	 * @param file file the dictionary is written to.
+	 * @param report True to print the results, False for a warm-up.
+	 * @throws IOException dictionary could not be written or read.
+	 */
+	private static void dictionaryScaleStep(long numWords, File file, boolean report) throws IOException {
+
+		final int numPicks = 1_000_000;
+		DictionaryGenerator dictionaryGenerator = DictionaryGenerator.english(numWords);
+		dictionaryGenerator.setFrequencies(true);
+		long start = System.nanoTime();
+		dictionaryGenerator.write(numWords, file);
+		long generated = System.nanoTime();
+
+		long baseline = usedHeap();
+		resetPeakHeap();
+		long collections = gcCount();
+		long collecting = gcMillis();
+		long constructStart = System.nanoTime();
+		Hangman game = new Hangman(file);
+		long constructed = System.nanoTime();
+		game.populateDictionaryArray();
+		long populated = System.nanoTime();
+		long peak = peakHeap() - baseline;
+		long numCollections = gcCount() - collections;
+		long collectionMillis = gcMillis() - collecting;
+		long retained = Math.max(0, usedHeap() - baseline);
+		LatencyHistogram picks = new LatencyHistogram();
+
+		for (int pick = 0; pick < numPicks; pick++) {
+			long pickStart = System.nanoTime();
+			game.pickSecretWord();
+			picks.record(System.nanoTime() - pickStart);
+
+		}
+
+		if (report)
+			System.out.println(String.format("\t%11d   %6d ms   %6d ms   %6d ms   %7d   %5d MB   %10d   %6d MB   %4d, %5d ms   %5d ns   %5d ns",
+											 numWords, (generated - start) / 1_000_000, (constructed - constructStart) / 1_000_000,
+											 (populated - constructed) / 1_000_000, (populated - constructStart) / numWords, retained >> 20,
+											 retained / numWords, peak >> 20, numCollections, collectionMillis, picks.getPercentile(50),
+											 picks.getPercentile(99)));
+	}
+
+	/**
+	 * Method used to build a dictionary of random words of 3 to 10 English letters.
+	 * @param numWords number of words.
+	 * @param generator source of the letters.
+	 * @return dictionary
+	 * @throws IOException never, the words are in memory.
+	 */
+	private static DictionaryIndex syntheticDictionary(int numWords, Random generator) throws IOException {
+
+		StringBuilder text = new StringBuilder();
+
+		for (int count = 0; count < numWords; count++) {
+			int length = 3 + generator.nextInt(8);
+
+			for (int index = 0; index < length; index++) {
+				text.append((char) ('a' + generator.nextInt(26)));
+
+			}
+			text.append('\n');
+
+		}
+		return DictionaryIndex.load(new BufferedReader(new StringReader(text.toString())));
+
+	}
+
+	/**
+	 * The Race Class is one word of the race benchmark: its game, and the CAS retries of the words raced
+	 * before it.
+	 */
+	private static final class Race {
+
+		// Instance fields.
+		private final RaceGame game;
+		private final int number;
+		private final long previousRetries;
+
+		Race(String[] words, int number, long previousRetries) {
+
+			game = new RaceGame(words[number % words.length], Alphabet.ENGLISH);
+			this.number = number;
+			this.previousRetries = previousRetries;
+
+		}
+
+		/**
+		 * Method used to put the next word of the pool in place of this one, unless another player did it first.
+		 * @param current word being raced on.
+		 * @param words pool of words.
+		 */
+		void next(AtomicReference<Race> current, String[] words) {
+
+			if (current.get() == this)
+				current.compareAndSet(this, new Race(words, number + 1, previousRetries + game.getCasRetries()));
+
+		}
+	}
+
+	/**
+	 * The CountingChannel Class is a watcher that throws the bytes away, after counting them. It takes at
+	 * most a given number of bytes per write, to play a slow watcher.
+	 */
+	private static final class CountingChannel implements WritableByteChannel {
+
+		// Instance fields.
+		private final int maxPerWrite;
+		private long bytes;
+
+		CountingChannel(int maxPerWrite) {
+			this.maxPerWrite = maxPerWrite;
+
+		}
+
+		@Override
+		public int write(ByteBuffer source) {
+
+			int count = Math.min(maxPerWrite, source.remaining());
+			source.position(source.position() + count);
+			bytes += count;
+			return count;
+
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	/**
+	 * Method used to collect garbage and start measuring the peak heap again.
+	 */
+	private static void resetPeakHeap() {
+
+		System.gc();
+
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+
+			if (pool.getType() == MemoryType.HEAP)
+				pool.resetPeakUsage();
+
+		}
+	}
+
+	/**
+	 * Method used to get the peak heap since the last reset. Each pool peaks at its own time, so the sum is
+	 * an upper bound.
+	 * @return bytes
+	 */
+	private static long peakHeap() {
+
+		long bytes = 0;
+
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+
+			if (pool.getType() == MemoryType.HEAP)
+				bytes += pool.getPeakUsage().getUsed();
+
+		}
+		return bytes;
+
+	}
+
+	/**
+	 * Method used to get the heap in use once the garbage is collected.
+	 * @return bytes
+	 */
+	private static long usedHeap() {
+
+		System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+	}
+
+	/**
+	 * Method used to time a full collection, which has to trace everything alive.
+	 * @return milliseconds
+	 */
+	private static long fullCollectionMillis() {
+
+		long start = System.nanoTime();
+		System.gc();
+		return (System.nanoTime() - start) / 1_000_000;
+
+	}
+
+	/**
+	 * Method used to get the number of collections so far, over all collectors.
+	 * @return collections
+	 */
+	private static long gcCount() {
+
+		long count = 0;
+
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, collector.getCollectionCount());
+
+		}
+		return count;
+
+	}
+
+	/**
+	 * Method used to get the time spent collecting so far, over all collectors.
+	 * @return milliseconds
+	 */
+	private static long gcMillis() {
+
+		long millis = 0;
+
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			millis += Math.max(0, collector.getCollectionTime());
+
+		}
+		return millis;
+
+	}
+
+	/**
+	 * Method used to turn an operation count and a duration into a rate.
+	 * @param operations number of operations timed.
+	 * @param nanos time they took.
+	 * @return operations per second.
+	 */
+	static long perSecond(long operations, long nanos) {
+		return (long) (operations * 1e9 / Math.max(nanos, 1));
+
+	}
+}
@@ -2,6 +2,7 @@
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.text.DecimalFormat;
 import java.util.*;
 
@@ -18,14 +19,24 @@ public class HangmanConsoleGame {
 	private static boolean gameOver;
 	private static boolean playGame;
 	private static boolean exceptionStatus;
-	private static char[] alphabet;
-	private static char[] charsUsed;
 	private static Hangman game;
-	private static String secretWordDisplay;
-	private static Scanner keyboard;
-	private static Exception currentGameException;
+	private static GameInput input;
+	private static String currentErrorMessage;
+	private static GameRecorder recorder;
+	private static GameJournal journal;
+	private static String preparedFrame;
+	private static String preparedPack;
+	private static int preparedPackWords;
+	private static AdaptiveDifficulty adaptiveDifficulty;
+	private static DictionaryRegistry packs;
+	private static SpectatorChannel spectators;
+	private static SpectatorChannel deltaSpectators;
+	private static ByteBuffer deltaMessage;
+	private static final GameEventBus events = new GameEventBus();
+	private static GameEventLog eventLog;
+	private static boolean quiet;
 	
-	// Constant used to represent the size of the English alphabet.
+	// Constant used to represent the size of the English alphabet. The game itself uses the alphabet of its dictionary.
 	public static final int ENGLISH_ALPHABET_SIZE = 26;
 	public static final String NEXT_PAGE = "\n\n\n\n\n\n\n\n\n\n";
 	
@@ -34,24 +45,201 @@ public class HangmanConsoleGame {
 		gameOver = false;
 		playGame = false;
 		exceptionStatus = false;
-		keyboard = new Scanner(System.in);
 		
-		setupGame();
+		try {
+			parseArguments(args);
 			
-		if(playGame)														 
-			playGame();
+		} catch (IOException exception) {
+			System.out.println("\t" + exception.getMessage());
+			return;
 			
+		}
+		
+		if (input == null)
+			input = new KeyboardInput(System.in);
+		
+		try {
+			setupGame();
+			
+			if(playGame)														 
+				playGame();
+			
+		} catch (NoSuchElementException exception) {
+			// The input ended, e.g. a piped script.
+			
+		}
+		
+		if (quiet && game != null && game.getNumGames() > 0) {
+			gameOver = true;
+			System.out.println("\t" + displayGameStats(game.snapshot()));
+			
+		}
+		
+		closeRecorder();
 		System.out.println("\t Goodbye.");
 			
 	}
 	
+	/**
+	 * Method used to read the command line options. "--record <file>" appends every game played to the
+	 * given file so that it can be replayed later by GameReplayer; it can't be used with packs. "--journal <directory>" logs every guess
+	 * and outcome to a GameJournal in the given directory, for JournalScan. "--adaptive" draws each word from
+	 * a range of word scores that follows how the user is doing (see AdaptiveDifficulty). "--pack name=file[,weight]",
+	 * given once per pack, plays with a weighted mix of dictionary packs instead of asking for a dictionary,
+	 * and "--pack-budget <megabytes>" sets the memory the loaded packs may share (see DictionaryRegistry).
+	 * "--spectate <port>" streams every frame to whoever connects to the port (see SpectatorChannel), and
+	 * "--spectate-delta <port>" streams each round as a header and one small delta per guess instead, for
+	 * clients that draw the board themselves (see GameDeltaCodec). "--event-log <file>" appends every game
+	 * event to the given file, through the event bus (see getEventBus()).
+	 * "--scripted" reads standard input as a script, e.g. a recorded session or bot input, through a
+	 * ScriptedInput instead of a Scanner, and "--quiet" shows no frames or prompts, only the stats at the end.
+	 * @param args command line arguments.
+	 * @throws IOException recording file, journal or port could not be opened, or an option is malformed.
+	 */
+	private static void parseArguments(String[] args) throws IOException {
+		
+		ArrayList<String> packSpecs = new ArrayList<String>();
+		long packBudget = Runtime.getRuntime().maxMemory() / 4;
+		
+		for (int index = 0; index < args.length; index++) {
+			
+			if (args[index].equals("--record") && index + 1 < args.length) {
+				recorder = new GameRecorder(new File(args[++index]));
+				
+			} else if (args[index].equals("--journal") && index + 1 < args.length) {
+				journal = new GameJournal(new File(args[++index]), false);
+				
+			} else if (args[index].equals("--adaptive")) {
+				adaptiveDifficulty = new AdaptiveDifficulty();
+				
+			} else if (args[index].equals("--pack") && index + 1 < args.length) {
+				packSpecs.add(args[++index]);
+				
+			} else if (args[index].equals("--spectate") && index + 1 < args.length) {
+				spectators = new SpectatorChannel();
+				spectators.listen((int) parseNumber(args[++index]));
+				
+			} else if (args[index].equals("--spectate-delta") && index + 1 < args.length) {
+				deltaSpectators = new SpectatorChannel();
+				deltaSpectators.listen((int) parseNumber(args[++index]));
+				deltaMessage = ByteBuffer.allocate(GameDeltaCodec.maxMessageSize(GameDeltaCodec.MAX_WORD_LENGTH));
+				
+			} else if (args[index].equals("--event-log") && index + 1 < args.length) {
+				eventLog = new GameEventLog(new File(args[++index]));
+				events.subscribe("event-log", eventLog, GameEventBus.DEFAULT_BUFFER_CAPACITY, GameEventBus.DROP);
+				
+			} else if (args[index].equals("--scripted")) {
+				input = new ScriptedInput(System.in);
+				
+			} else if (args[index].equals("--quiet")) {
+				quiet = true;
+				
+			} else if (args[index].equals("--pack-budget") && index + 1 < args.length) {
+				packBudget = parseNumber(args[++index]) << 20;
+				
+			} else {
+				throw new IOException("Unknown option: " + args[index]);
+				
+			}
+		}
+		
+		if (!packSpecs.isEmpty() && recorder != null)																// GameReplayer takes one dictionary, not a mix.
+			throw new IOException("Games played with --pack can't be recorded: GameReplayer replays games of one dictionary only.");
+		
+		if (!packSpecs.isEmpty()) {
+			packs = new DictionaryRegistry(packBudget);
+			
+			try {
+				
+				for (String spec : packSpecs) {
+					packs.registerPack(spec);
+					
+				}
+				
+			} catch (IllegalArgumentException exception) {
+				throw new IOException(exception.getMessage());
+				
+			}
+		}
+	}
+	
+	/**
+	 * Method used to read a number given as an option.
+	 * @param str option value.
+	 * @return number
+	 * @throws IOException the value is not a number.
+	 */
+	private static long parseNumber(String str) throws IOException {
+		
+		try {
+			return Long.parseLong(str);
+			
+		} catch (NumberFormatException exception) {
+			throw new IOException("Not a number: " + str);
+			
+		}
+	}
+	
+	/**
+	 * Method used to read the dictionary the user typed. The standard input can't be one of its sources, as
+	 * the game reads the user's answers from it.
+	 * @param str dictionary, see WordSource.parse().
+	 * @return source
+	 * @throws IOException the standard input is one of the sources.
+	 */
+	private static WordSource parseDictionarySource(String str) throws IOException {
+		
+		WordSource source = WordSource.parse(str);
+		
+		for (WordSource part : source.expand()) {
+			
+			if (part instanceof StdinWordSource)
+				throw new IOException("The dictionary can't be read from the standard input: the game reads your guesses from it.");
+			
+		}
+		return source;
+		
+	}
+	
+	/**
+	 * Method used to close the recording file, the journal, the spectator channels and the event bus, if
+	 * they are open. The event log is given a second to take the last events.
+	 */
+	private static void closeRecorder() {
+		
+		try {
+			
+			if (recorder != null)
+				recorder.close();
+			
+			if (journal != null)
+				journal.close();
+			
+			if (spectators != null)
+				spectators.close();
+			
+			if (deltaSpectators != null)
+				deltaSpectators.close();
+			
+			events.close();
+			
+			if (eventLog != null)
+				eventLog.awaitClose(1000);
+			
+		} catch (IOException exception) {
+			System.out.println("\t" + exception.getMessage());
+			
+		}
+	}
+	
 	/**
 	 * Method used to set up the game. First, it ask the user to enter the address of the 
 	 * dictionary file that will be used for the game. The user has the option to
 	 * use the default dictionary if he/she prefers. If the user enters "quit" the program
 	 * exits. Also, this method also asks the user to choose the difficulty level. Easy mode
 	 * means the words to be guessed are at least 5 characters long. Hard mode means the words
-	 * to be guessed are at most 4 characters long. This method also handles three exceptions:
+	 * to be guessed are at most 4 characters long. The dictionary is loaded in the background while the user
+	 * picks the difficulty level. If dictionary packs were given, there is no dictionary to ask for. This method also handles three exceptions:
 	 * FileNotFoundException, IOException, and IncorrectDifficultyLevelEntryException.
 	 */
 	public static void setupGame() {
@@ -64,28 +252,43 @@ public class HangmanConsoleGame {
 		while(!validDictionary) {
 		
 			try {																								// Try block to get the dictionary file address.
-				System.out.print("\tEnter the dictionary file name (or \"default\" to use " +
-								 "the default dictionary. Enter \"E\" to exit): ");
-				userInput = keyboard.nextLine();
 				
-				if(userInput.equalsIgnoreCase("default")) {																// Use default dictionary
+				if (packs == null) {
+					prompt("\tEnter the dictionary file or directory, several separated by commas (or \"default\" to use " +
+						   "the default dictionary. Enter \"E\" to exit): ");
+					userInput = nextLine();
+					
+				} else {
+					userInput = "";
+					
+				}
+				
+				if (packs != null) {																				// Packs were given on the command line.
+					game = new Hangman(packs.getPartition(packs.getPacks().get(0).getName(), Hangman.EASY));		// A placeholder: loadWords() draws the first pack.
+					playGame = true;
+					
+				} else if(userInput.equalsIgnoreCase("default")) {														// Use default dictionary
 					game = new Hangman();
 					playGame = true;
 				
 				} else if(userInput.equalsIgnoreCase("E") || userInput.equalsIgnoreCase("exit")) {						// Exit the program.
+					playGame = false;																		// A dictionary refused before still set it.
 					break;
 					
 				} else {
-					game = new Hangman(new File(userInput));															// Use user's file as dictionary
+					game = new Hangman(parseDictionarySource(userInput));												// Use user's file(s) as dictionary
 					playGame = true;
 					
 				}
 				
+				if (packs == null)
+					game.startLoadingDictionary();																	// Read the file while the user picks the difficulty level.
+				
 				while (!validDifficultyLevel) {                                                 					
 					
 					try { 																						// Try block to get the difficulty level.
-						System.out.print("\tPick difficulty level ('H' for hard, or 'E' for easy): ");		
-						userInput = keyboard.nextLine();
+						prompt("\tPick difficulty level ('H' for hard, or 'E' for easy): ");		
+						userInput = nextLine();
 						
 						if (userInput.equalsIgnoreCase("H") || userInput.equalsIgnoreCase("hard")){
 							game.setDifficultyLevel(Hangman.HARD);
@@ -97,7 +300,8 @@ public class HangmanConsoleGame {
 							throw new IncorrectDifficultyLevelEntryException();
 							
 						}
-						game.populateDictionaryArray();
+						loadWords();
+						startAdaptiveDifficulty();
 						validDifficultyLevel = true;
 						
 					} catch (IncorrectDifficultyLevelEntryException exception) {
@@ -123,35 +327,68 @@ public class HangmanConsoleGame {
 	 * is then compared to the characters in the secret word to see if there's a match. It continues to 
 	 * do this until the user has exhausted all the given guesses, or the user guesses the word correctly.
 	 * At the end of the game, it updates the game stats and then it ask the user if he/she wishes to 
-	 * continue playing. 
+	 * continue playing. The start of every round, every guess and every ending are published on the event
+	 * bus too, if anything is subscribed to it.
 	 */
 	public static void playGame() {
 
 		char validUserGuess;
+		int numGuesses;
 		
 		do 
 		{	
-			game.pickSecretWord();
+			numGuesses = 0;
+			game.pickSecretWord();																					// Takes the prepared word, if there is one.
 			game.populateSecretWordLineChars();
-			generateSecretWordDisplay();
-			generateAlphabetArrays();																				
-			updateGraphics();
+			publishDelta(GameDeltaCodec.HEADER, (char) 0);
+			
+			if (events.hasSubscribers())
+				events.publish(new GameEvent.RoundStarted(0, game.snapshot()));
+			
+			if (preparedFrame != null) {																			// Prepared during the play-again prompt.
+				showFrame(preparedFrame);
+				preparedFrame = null;
+				
+			} else {
+				updateGraphics();
+				
+			}
+			
+			if (recorder != null)
+				recorder.beginGame(game);
 			
 			while ( (game.getNumWrongGuesses() < Hangman.MAX_GUESSES) && !game.checkGameStatus() ) {				// Continue playing until guesses have been
 																													// exhausted or word has been guessed.
 				validUserGuess = validateUserGuess();																
-				updateAlphabets(validUserGuess);
-				updateSecretWordDisplay(validUserGuess);															// This method only updates the secret word if the char passed to it
-																													// is in the secret word. Otherwise, it does nothing. So, no need to check.
+				game.markLetterUsed(validUserGuess);
+				int numRevealed = game.revealGuess(validUserGuess);													// Reveals nothing if the char is not in the secret word, so no need to check.
+				
+				if (recorder != null)
+					recorder.recordReveal(validUserGuess, numRevealed);
+				
 				if (!game.checkGuess(validUserGuess)) {																// Check if the char is not in the secret word. If so, increase the 
 					game.setNumWrongGuesses(game.getNumWrongGuesses() + 1);											// amount of wrong guesses.
 					
 				}	
+				journalGuess(validUserGuess, ++numGuesses, numRevealed > 0);
+				publishDelta(GameDeltaCodec.GUESS, validUserGuess);
+				
+				if (events.hasSubscribers())
+					events.publish(new GameEvent.GuessMade(0, game.snapshot(), validUserGuess, numRevealed));
+				
 				updateGraphics();
 				
 			}
 			gameOver = true;																						// Current game is over at this point.
 			updateGameStats();																						// Record results.
+			adaptDifficulty();
+			recordGameOutcome();
+			journalOutcome(numGuesses);
+			publishDelta(GameDeltaCodec.END, (char) 0);
+			
+			if (events.hasSubscribers())
+				events.publish(new GameEvent.GameEnded(0, game.snapshot(), numGuesses));
+			
 			updateGraphics();																							
 			
 			keepPlaying();
@@ -160,77 +397,255 @@ public class HangmanConsoleGame {
 	}
 	
 	/**
-	 * Method used to check if the character entered has been entered before in the current game.
-	 * @param userValidGuess char entered by the user.
-	 * @return priorUse True or False.
+	 * Method used to take the words of the chosen difficulty level: from the dictionary file, or from a
+	 * pack drawn from the mix, if packs were given. Subscribers of the event bus are told which.
+	 * @throws IOException dictionary or pack could not be loaded.
 	 */
-	private static boolean checkCharPriorUse(char userValidGuess) {
-		
-		boolean priorUse = false;
-		int index = 0;
+	private static void loadWords() throws IOException {
 		
-		while(index < charsUsed.length) {
-			if (userValidGuess == charsUsed[index]) {																// once a match has been found, set priorUse to true
-				priorUse = true;																					// and exit.
-				break;
-				
-			}
-			index++;
+		if (packs != null) {
+			String pack = packs.nextPack();
+			DictionaryIndex.Partition partition = packs.getPartition(pack, game.getDifficultyLevel());
+			
+			if (partition.getWords().isEmpty())
+				throw new IOException("Pack " + pack + " has no words for this difficulty level.");
+			
+			game.usePartition(partition);
+			
+			if (events.hasSubscribers())
+				events.publish(new GameEvent.DictionaryReloaded(0, pack, game.getDifficultyLevel(), partition.getWords().size()));
+			
+		} else {
+			game.populateDictionaryArray();
+			
+			if (game.getDictionary().isEmpty())
+				throw new IOException("Dictionary " + game.getDictionarySource().getName() + " has no words for this difficulty level.");
+			
+			if (events.hasSubscribers())
+				events.publish(new GameEvent.DictionaryReloaded(0, game.getDictionarySource().getName(), game.getDifficultyLevel(),
+																game.getDictionary().size()));
 			
 		}
-		return priorUse;
 		
 	}
 	
 	/**
-	 * Method asks the user for input and validates it. First, it makes sure that the input is a single character.
-	 * Then, it checks that the input is a alphabet letter. If any of these conditions are not met, exceptions are
-	 * thrown and handled. If input is valid, then a valid char is returned.
-	 * @return validCharEntry Valid char input.
+	 * Method used to start adaptive difficulty, if it was asked for. It needs a scored dictionary; without
+	 * one, the chosen difficulty level is kept.
+	 * @throws IOException dictionary could not be loaded.
 	 */
-	private static char validateUserGuess() {
+	private static void startAdaptiveDifficulty() throws IOException {
 		
-		boolean validGuess = false;
-		String userInput;
-		char validCharEntry = ' ';
+		if (adaptiveDifficulty == null)
+			return;
 		
-		while (!validGuess) {
+		if (packs != null) {
+			System.out.println("\tAdaptive difficulty doesn't work with dictionary packs, so it is off.");
+			adaptiveDifficulty = null;
+			
+		} else if (!game.hasWordScores()) {
+			System.out.println("\tThis dictionary has no word scores (run WordScores on it), so adaptive difficulty is off.");
+			adaptiveDifficulty = null;
+			
+		} else {
+			game.setScoreRange(adaptiveDifficulty.getLow(), adaptiveDifficulty.getHigh());
 			
-			System.out.print("\t Enter your guess: ");
+		}
+	}
+	
+	/**
+	 * Method used to move the range of word scores after a game, if adaptive difficulty is on.
+	 */
+	private static void adaptDifficulty() {
 		
-			try{
-				userInput = keyboard.nextLine();
+		if (adaptiveDifficulty != null) {
+			adaptiveDifficulty.recordGame(game.checkGameStatus());
+			
+			try {
+				game.setScoreRange(adaptiveDifficulty.getLow(), adaptiveDifficulty.getHigh());
 				
-				if (userInput.length() > 1) {																			// Test for multiple characters.
-					throw new MultipleCharsEnteredException();
-					
-				} else if (!Character.isLetter(userInput.charAt(0))) {													// Test for non-alphabetic character. 
-					throw new NotAlphabetCharacterException();
-					
-				} else if (checkCharPriorUse(userInput.toLowerCase().charAt(0))){										// Test for previous use. This line also throws an exception if
-					throw new PreviouslyUsedCharacterException(userInput.charAt(0));									// the empty string is passed as an argument.
-					
-				} else {	
-					validGuess = true;
-					validCharEntry = userInput.toLowerCase().charAt(0);
+			} catch (IOException exception) {
+				System.out.println("\t" + exception.getMessage());
 				
-				}	
+			}
+		}
+	}
+	
+	/**
+	 * Method used to write the record of the game that just ended, if the game is being recorded.
+	 */
+	private static void recordGameOutcome() {
+		
+		if (recorder != null) {
+			
+			try {
+				recorder.endGame(game.checkGameStatus(), game.getNumWrongGuesses());
 				
-			} catch (MultipleCharsEnteredException exception ) {
-				updateExceptionStatus(exception);
+			} catch (IOException exception) {
+				System.out.println("\t" + exception.getMessage());
+				
+			}
+		}
+	}
+	
+	/**
+	 * Method used to log a guess to the journal, if there is one. A journal that fails is closed and
+	 * dropped, so that the game can go on.
+	 * @param validUserGuess char guessed.
+	 * @param guessNumber number of this guess in the game.
+	 * @param hit True if the char is in the secret word.
+	 */
+	private static void journalGuess(char validUserGuess, int guessNumber, boolean hit) {
+		
+		if (journal != null) {
 			
-			} catch (NotAlphabetCharacterException exception) {
-				updateExceptionStatus(exception);
+			try {
+				journal.logGuess(game.getSecretWord().length(), validUserGuess, guessNumber, hit, game.getNumWrongGuesses());
 				
-			} catch (PreviouslyUsedCharacterException exception) {
-				updateExceptionStatus(exception);
+			} catch (IOException exception) {
+				dropJournal(exception);
+				
+			}
+		}
+	}
+	
+	/**
+	 * Method used to log the outcome of the game that just ended to the journal, if there is one.
+	 * @param numGuesses number of valid guesses made.
+	 */
+	private static void journalOutcome(int numGuesses) {
+		
+		if (journal != null) {
 			
-			} catch (StringIndexOutOfBoundsException exception) {														// Handle the empty string.
-				updateExceptionStatus(exception);																							
+			try {
+				journal.logOutcome(game.getSecretWord().length(), numGuesses, game.checkGameStatus(), game.getNumWrongGuesses());
+				
+			} catch (IOException exception) {
+				dropJournal(exception);
 				
 			}
 		}
-		return validCharEntry;
+	}
+	
+	/**
+	 * Method used to stop journaling after a failure.
+	 * @param exception failure.
+	 */
+	private static void dropJournal(IOException exception) {
+		
+		System.out.println("\tJournal disabled: " + exception.getMessage());
+		
+		try {
+			journal.close();
+			
+		} catch (IOException closeException) {
+			// Already reported.
+			
+		}
+		journal = null;
+		
+	}
+	
+	/**
+	 * Method asks the user for input and validates it. First, it makes sure that the input is a single character.
+	 * Then, it checks that the input is a alphabet letter. If any of these conditions are not met, the user is
+	 * shown the message of GuessValidator's verdict and asked again; nothing is thrown. If input is valid, then
+	 * a valid char is returned.
+	 * @return Valid char input.
+	 */
+	private static char validateUserGuess() {
+		
+		while (true) {
+			
+			prompt("\t Enter your guess: ");
+			int length = input.readLine();																		// No String is made, unless recording.
+			char firstChar = input.getFirstChar();
+			
+			if (recorder != null)
+				recorder.recordRawGuess(input.getLine());
+			
+			int verdict = GuessValidator.validate(firstChar, length, game);
+			
+			if (verdict == GuessValidator.VALID)
+				return Character.toLowerCase(firstChar);
+			
+			updateErrorStatus(GuessValidator.message(verdict, firstChar));
+			
+		}
+	}
+	
+	/**
+	 * Method used to apply the guess rules to one line of input. First, it makes sure that the input is a single
+	 * character. Then, it checks that the input is a letter of the game's alphabet that has not been used before.
+	 * GameReplayer applies the same rules when it replays recorded input.
+	 * @param userInput line entered by the user.
+	 * @param game game being played.
+	 * @return lowercase char guessed.
+	 * @throws MultipleCharsEnteredException input is longer than one character.
+	 * @throws NotAlphabetCharacterException input is not a letter of the alphabet.
+	 * @throws PreviouslyUsedCharacterException letter has been guessed before.
+	 * @throws StringIndexOutOfBoundsException input is empty.
+	 */
+	static char parseGuess(String userInput, Hangman game) throws MultipleCharsEnteredException,
+			NotAlphabetCharacterException, PreviouslyUsedCharacterException {
+		return parseGuess(userInput.isEmpty() ? 0 : userInput.charAt(0), userInput.length(), game);
+		
+	}
+	
+	/**
+	 * Method used to apply the guess rules to a line given by its first char and its length, so that the line
+	 * doesn't have to be a String.
+	 * @param firstChar first char of the line.
+	 * @param length length of the line, in chars.
+	 * @param game game being played.
+	 * @return lowercase char guessed.
+	 * @throws MultipleCharsEnteredException input is longer than one character.
+	 * @throws NotAlphabetCharacterException input is not a letter of the alphabet.
+	 * @throws PreviouslyUsedCharacterException letter has been guessed before.
+	 * @throws StringIndexOutOfBoundsException input is empty.
+	 */
+	static char parseGuess(char firstChar, int length, Hangman game) throws MultipleCharsEnteredException,
+			NotAlphabetCharacterException, PreviouslyUsedCharacterException {
+		
+		switch (GuessValidator.validate(firstChar, length, game))
+		{
+			case GuessValidator.EMPTY:
+				throw new StringIndexOutOfBoundsException(0);
+				
+			case GuessValidator.MULTIPLE_CHARS:
+				throw new MultipleCharsEnteredException();
+				
+			case GuessValidator.NOT_ALPHABET:
+				throw new NotAlphabetCharacterException();
+				
+			case GuessValidator.PREVIOUSLY_USED:
+				throw new PreviouslyUsedCharacterException(firstChar);
+				
+		}
+		return Character.toLowerCase(firstChar);
+		
+	}
+	
+	/**
+	 * Method used to read a whole line of input, e.g. an answer to a prompt.
+	 * @return line
+	 * @throws NoSuchElementException there is no more input.
+	 */
+	private static String nextLine() {
+		
+		input.readLine();
+		return input.getLine();
+		
+	}
+	
+	/**
+	 * Method used to print a prompt, unless the game is quiet.
+	 * @param prompt text of the prompt.
+	 */
+	private static void prompt(String prompt) {
+		
+		if (!quiet)
+			System.out.print(prompt);
 		
 	}
 	
@@ -246,16 +661,22 @@ public class HangmanConsoleGame {
 		while(!validInput) {
 			
 			try {
-				System.out.print("\t Would you like to play again? (Y/N) : ");
-				userInput = keyboard.nextLine();
+				prompt("\t Would you like to play again? (Y/N) : ");
+				
+				if (preparedFrame == null)
+					prepareNextRound();																		// The user is reading the prompt anyway.
+				
+				userInput = nextLine();
 			
 				if (userInput.equalsIgnoreCase("y") || userInput.equalsIgnoreCase("yes")) {
 					resetGame();
+					publishPreparedPack();
 					validInput = true;
 				
 				} else if (userInput.equalsIgnoreCase("n") || userInput.equalsIgnoreCase("no")) {
 					validInput = true;
 					playGame = false;
+					discardPreparedRound();
 				
 				} else {
 					throw new InvalidKeepPlayingInputException();
@@ -270,14 +691,100 @@ public class HangmanConsoleGame {
 	}
 	
 	/**
-	 * This method, when called, sets the exceptionStatus boolean to true and sets the currentGameException equal
-	 * to whatever exception is passed as a parameter. Then, it updates the game graphics according to the new
-	 * exception status. Finally, it sets the exceptionStatus back to false (resets it, if you will).
+	 * Method used to set up the next round ahead of time: its secret word and its whole
+	 * opening frame. The frame is rendered from a snapshot of a scratch copy of the game, standing in for the
+	 * real one, so the finished round stays on screen untouched. If the user plays again, playGame() only has to print the frame.
+	 * With packs, the next pack is drawn here too, but only the scratch copy takes it; the game takes it with
+	 * the prepared word, when the next round starts.
+	 */
+	private static void prepareNextRound() {
+		
+		Hangman currentGame = game;
+		boolean currentGameOver = gameOver;
+		DictionaryIndex.Partition partition = null;
+		
+		if (packs != null) {																				// Each round draws its pack from the mix.
+			
+			try {
+				String pack = packs.nextPack();
+				partition = packs.getPartition(pack, currentGame.getDifficultyLevel());
+				
+				if (partition.getWords().isEmpty())
+					throw new IOException("Pack " + pack + " has no words for this difficulty level.");
+				
+				preparedPack = pack;
+				preparedPackWords = partition.getWords().size();
+				
+			} catch (IOException exception) {
+				System.out.println("\t" + exception.getMessage());											// Keep the pack of the last round.
+				partition = null;
+				
+			}
+		}
+		
+		game = new Hangman(currentGame);																	// Shares the dictionary, nothing else.
+		
+		if (partition != null) {
+			game.usePartition(partition);
+			game.setSecretWord(currentGame.prepareNextRound(partition));
+			
+		} else {
+			game.setSecretWord(currentGame.prepareNextRound());
+			
+		}
+		game.populateSecretWordLineChars();
+		gameOver = false;
+		
+		preparedFrame = isRendering() ? NEXT_PAGE + startGraphic(game.snapshot()) : "";
+		
+		game = currentGame;
+		gameOver = currentGameOver;
+		
+	}
+	
+	/**
+	 * Method used to throw away the round set up by prepareNextRound().
+	 */
+	private static void discardPreparedRound() {
+		
+		game.discardPreparedRound();
+		preparedFrame = null;
+		preparedPack = null;
+		
+	}
+	
+	/**
+	 * Method used to tell the subscribers of the event bus that the next round is played with the pack drawn
+	 * by prepareNextRound(), once the user has chosen to play it.
+	 */
+	private static void publishPreparedPack() {
+		
+		if (preparedPack != null && events.hasSubscribers())
+			events.publish(new GameEvent.DictionaryReloaded(0, preparedPack, game.getDifficultyLevel(), preparedPackWords));
+		
+		preparedPack = null;
+		
+	}
+	
+	/**
+	 * This method, when called, shows the message of whatever exception is passed as a parameter, see
+	 * updateErrorStatus().
 	 * @param exception 
 	 */
 	private static void updateExceptionStatus(Exception exception) {
+		updateErrorStatus(exception.getMessage());
+		
+	}
+	
+	/**
+	 * This method, when called, sets the exceptionStatus boolean to true and sets the currentErrorMessage equal
+	 * to the message passed as a parameter. Then, it updates the game graphics according to the new
+	 * exception status. Finally, it sets the exceptionStatus back to false (resets it, if you will).
+	 * @param message error message, e.g. from GuessValidator.
+	 */
+	private static void updateErrorStatus(String message) {
 		exceptionStatus = true;
-		currentGameException = exception;
+		currentErrorMessage = message;
 		updateGraphics();
 		exceptionStatus = false;
 		
@@ -303,17 +810,18 @@ public class HangmanConsoleGame {
 	 * Method used to display the game stats after each game. This method uses the Hangman's
 	 * methods to get the number of games, number of wins, number of losses, and, using this
 	 * information, calculate the user's winning percentage and display it. 
+	 * @param state snapshot of the game.
 	 */
-	private static String displayGameStats() {
+	private static String displayGameStats(GameState state) {
 		String str = " ";
 		DecimalFormat formatter = new DecimalFormat("0.00 %");
 		
 		if (gameOver) {
 		
-			double winPercentage = (double)game.getNumWins() / game.getNumGames() ;
-			str = "Total games played: " + game.getNumGames() +
-				  "\tGames won: " + game.getNumWins() +
-				  "\tGames lost: " + game.getNumLosses() +
+			double winPercentage = (double)state.getNumWins() / state.getNumGames() ;
+			str = "Total games played: " + state.getNumGames() +
+				  "\tGames won: " + state.getNumWins() +
+				  "\tGames lost: " + state.getNumLosses() +
 				  "\tWinning percentage: " + formatter.format(winPercentage);
 		
 		}
@@ -321,6 +829,47 @@ public class HangmanConsoleGame {
 		
 	}
 	
+	/**
+	 * Method used to get the bus the game publishes its events on, to subscribe to them.
+	 * @return bus
+	 */
+	public static GameEventBus getEventBus() {
+		return events;
+		
+	}
+	
+	/**
+	 * Method used to publish a message of the round to the delta spectators, if the game is being watched
+	 * that way. The header of a round is its key frame, so a spectator who connects mid-round gets it and
+	 * every guess since.
+	 * @param type GameDeltaCodec.HEADER, GUESS or END.
+	 * @param validUserGuess char guessed, for a GUESS.
+	 */
+	private static void publishDelta(int type, char validUserGuess) {
+		
+		if (deltaSpectators == null)
+			return;
+		
+		GameState state = game.snapshot();
+		
+		if (deltaMessage.capacity() < GameDeltaCodec.maxMessageSize(state.getWordLength()))
+			deltaMessage = ByteBuffer.allocate(GameDeltaCodec.maxMessageSize(state.getWordLength()));
+		
+		ByteBuffer message = deltaMessage;																// Reused: the channel copies what it's given.
+		message.clear();
+		
+		if (type == GameDeltaCodec.HEADER)
+			GameDeltaCodec.encodeHeader(state, message);
+		else if (type == GameDeltaCodec.GUESS)
+			GameDeltaCodec.encodeGuess(state, validUserGuess, message);
+		else
+			GameDeltaCodec.encodeEnd(state, message);
+		
+		message.flip();
+		deltaSpectators.publish(message, type == GameDeltaCodec.HEADER);
+		
+	}
+	
 	/**
 	 * This method resets the number of wrong guesses to 0 and sets the gameOver to false, 
 	 * so that a new game can be played.
@@ -333,197 +882,164 @@ public class HangmanConsoleGame {
 	}
 	
 	/**
-	 * This method is used to update the graphics of the game. The control variable for the 
-	 * graphics is the number of wrong guesses.
+	 * This method is used to update the graphics of the game. Frames are drawn from a snapshot of the game
+	 * (see GameState), taken once per frame. Every frame also goes to the spectators, if any.
 	 */
 	public static void updateGraphics() {
 		
-		if(game.checkGameStatus()) {
-			System.out.print(NEXT_PAGE + userWinGraphic());
-			
-		} else {
-			
-			switch (game.getNumWrongGuesses())
-			{
-				case 0: 
-						System.out.print(NEXT_PAGE + startGraphic());
-						break;
-				case 1:	
-						System.out.print(NEXT_PAGE + firstWrongGuessGraphic());
-						break;
-					
-				case 2:
-						System.out.print(NEXT_PAGE + secondWrongGuessGraphic());
-						break;
-					
-				case 3:
-						System.out.print(NEXT_PAGE + thirdWrongGuessGraphic());
-						break;
-					
-				case 4:
-						System.out.print(NEXT_PAGE + fourthWrongGuessGraphic());
-						break;
-					
-				case 5: 
-						System.out.print(NEXT_PAGE + fifthWrongGuessGraphic());
-						break;
-					
-				case 6:
-						System.out.print(NEXT_PAGE + sixthWrongGuessGraphic());
-						break;
-						
-			}
-		}
+		if (!isRendering())
+			return;
+		
+		showFrame(renderFrame(game.snapshot()));
+		
 	}
 	
 	/**
-	 * This method is used to generate the secret word that's displayed to the user, using the
-	 * existing chars in the secretWordLineChars array in the Hangman's class.
+	 * Method used to draw the frame of a snapshot of the game, as updateGraphics() shows it. The control
+	 * variable is the number of wrong guesses.
+	 * @param state snapshot of the game.
+	 * @return whole frame.
 	 */
-	public static void generateSecretWordDisplay() {
+	static String renderFrame(GameState state) {
 		
-		secretWordDisplay = " ";																					// Note: This must stay so that the string get reset, 
-																													// otherwise the string keeps getting longer and longer.	
-		for (int index = 0; index < game.getSecretWordLineChars().length; index++) {
-			secretWordDisplay += game.getSecretWordLineChars()[index] + " ";
-			
+		if(state.getOutcome() == GameState.WON)
+			return NEXT_PAGE + userWinGraphic(state);
+		
+		switch (state.getNumWrongGuesses())
+		{
+			case 0: 
+					return NEXT_PAGE + startGraphic(state);
+			case 1:	
+					return NEXT_PAGE + firstWrongGuessGraphic(state);
+			case 2:
+					return NEXT_PAGE + secondWrongGuessGraphic(state);
+			case 3:
+					return NEXT_PAGE + thirdWrongGuessGraphic(state);
+			case 4:
+					return NEXT_PAGE + fourthWrongGuessGraphic(state);
+			case 5: 
+					return NEXT_PAGE + fifthWrongGuessGraphic(state);
+			default:
+					return NEXT_PAGE + sixthWrongGuessGraphic(state);
 		}
 	}
 	
 	/**
-	 * This method is used to update the chars in the secretWordLineChars array using
-	 * the input from the user. If the char is in the secret word, then the char is 
-	 * saved in the secretWordLineChars array, in the appropriate spot. Finally, this method
-	 * calls the generateSecretWordDisplay to generate the secredWordDisplay String with 
-	 * the most updated information.
-	 * @param userValidGuess
+	 * Method used to print a frame and publish it to the spectators, if the game is being watched.
+	 * @param frame whole frame, as printed.
 	 */
-	public static void updateSecretWordDisplay(char validUserGuess) {
+	private static void showFrame(String frame) {
 		
-		for (int index = 0; index < game.getSecretWord().length(); index++) {
-			
-			 if (game.getSecretWord().toLowerCase().charAt(index) == validUserGuess) 
-				game.getSecretWordLineChars()[index] = validUserGuess;
-								
-		}
-		generateSecretWordDisplay();												
+		if (!quiet)
+			System.out.print(frame);
+		
+		if (spectators != null)
+			spectators.publish(frame);
 		
 	}
 	
 	/**
-	 * This method generates two arrays the size of the English alphabet. One array holds the lowercase
-	 * characters of the alphabet, the other holds whitespace. 
+	 * This method is used to generate the secret word that's displayed to the user, from the word
+	 * so far in a snapshot of the game, each char followed by a space.
+	 * @param state snapshot of the game.
+	 * @return str
 	 */
-	public static void generateAlphabetArrays() {
+	private static String secretWordDisplay(GameState state) {
+		return state.appendMaskedWord(new StringBuilder(" "), ' ').toString();
 		
-		alphabet = new char[ENGLISH_ALPHABET_SIZE];
-		charsUsed = new char[ENGLISH_ALPHABET_SIZE];
+	}
+	
+	/**
+	 * Method used to know whether frames have to be rendered: they don't when the game is quiet and nobody
+	 * is watching it.
+	 * @return True if frames are shown or published.
+	 */
+	private static boolean isRendering() {
+		return !quiet || spectators != null;
 		
-		for (int index = 0; index < ENGLISH_ALPHABET_SIZE; index++) {
-			alphabet[index] = (char) ((int)'a' + index);
-			charsUsed[index] = ' ';
-			
-		}
 	}
 	
 	/**
-	 * This method generates a string containing the first half of the characters in the
-	 * alphabet array. 
+	 * This method generates a string containing the first half of the letters of the game's
+	 * alphabet that have not been used, with whitespace for the ones used.
+	 * @param state snapshot of the game.
 	 * @return str 
 	 */
-	private static String lowerAlphAvailable() {
-		
-		String str = "";
-		
-		for (int index = 0; index < (ENGLISH_ALPHABET_SIZE / 2); index++) {	
-			str += alphabet[index] + " ";
-			
-		}
-		return str;
+	private static String lowerAlphAvailable(GameState state) {
+		return halfOf(state, 0, state.getAlphabet().size() / 2, false);
 		
 	}
 	
 	/**
-	 * This method generates a string containing the characters from the second half of
-	 * the alphabet array.
+	 * This method generates a string containing the second half of the letters of the game's
+	 * alphabet that have not been used.
+	 * @param state snapshot of the game.
 	 * @return str
 	 */
-	private static String upperAlphAvailable() {
-		
-		String str = "";
-		
-		for (int index = (ENGLISH_ALPHABET_SIZE / 2); index < ENGLISH_ALPHABET_SIZE; index++) {
-			str += alphabet[index] + " ";
-			
-		}
-		return str;
+	private static String upperAlphAvailable(GameState state) {
+		return halfOf(state, state.getAlphabet().size() / 2, state.getAlphabet().size(), false);
 		
 	}
 	
 	/**
-	 * This method generates a string containing the characters from the first part of the 
-	 * charsUsed array. 
+	 * This method generates a string containing the letters used from the first half of the
+	 * game's alphabet, with whitespace for the ones not used yet.
+	 * @param state snapshot of the game.
 	 * @return str
 	 */
-	public static String lowerAlphabetUsed() {
-		
-		String str = "";
-		
-		for (int index = 0; index < (ENGLISH_ALPHABET_SIZE / 2); index++){
-			str += charsUsed[index] + " ";
-			
-		}
-		return str;
+	public static String lowerAlphabetUsed(GameState state) {
+		return halfOf(state, 0, state.getAlphabet().size() / 2, true);
 				
 	}
 	
 	/**
-	 * This method generates a string containing the characters from the second part of
-	 * the charsUsed array.
+	 * This method generates a string containing the letters used from the second half of the
+	 * game's alphabet.
+	 * @param state snapshot of the game.
 	 * @return str
 	 */
-	public static String upperAlphabetUsed() {
-		String str = "";
-		
-		for (int index = (ENGLISH_ALPHABET_SIZE / 2); index < ENGLISH_ALPHABET_SIZE; index++){
-			str += charsUsed[index] + " ";
-			
-		}
-		return str;
+	public static String upperAlphabetUsed(GameState state) {
+		return halfOf(state, state.getAlphabet().size() / 2, state.getAlphabet().size(), true);
 		
 	}
 	
 	/**
-	 * This method takes in a valid char guess and does two things: it removed the char from the
-	 * alphabet array, placing a whitespace in it's place, and then saving the char in the 
-	 * charsUsed array. 
-	 * @param userValidGuess
+	 * This method generates a string with part of the game's alphabet, each letter followed by a
+	 * space: either the letters used, or the ones still available, the others being whitespace.
+	 * @param state snapshot of the game.
+	 * @param from first index in the alphabet.
+	 * @param to index after the last.
+	 * @param used True for the letters used, False for the available ones.
+	 * @return str
 	 */
-	public static void updateAlphabets(char validUserGuess) {
+	private static String halfOf(GameState state, int from, int to, boolean used) {
 		
-		for (int index = 0; index < alphabet.length; index++){
-			
-			if(alphabet[index] == validUserGuess){
-				alphabet[index] = ' ';
-				charsUsed[index] = validUserGuess;
+		Alphabet letters = state.getAlphabet();
+		StringBuilder str = new StringBuilder(2 * (to - from));
+		
+		for (int index = from; index < to; index++) {
+			char letter = (char) letters.codePointAt(index);
+			str.append((state.isLetterUsed(letter) == used) ? letter : ' ').append(' ');
 			
-			}	
-		}	
+		}
+		return str.toString();
+		
 	}
 	
 	/**
 	 * This method returns a string containing the secret word. Note that this method only returns 
 	 * a string only if the gameOver boolean is true, meaning the game is finished. Otherwise, 
 	 * this method returns whitespace.
+	 * @param state snapshot of the game.
 	 * @return str Secret word.
 	 */
-	private static String revealSecretWord() {
+	private static String revealSecretWord(GameState state) {
 		String str = " ";
 		
 		if (gameOver) { 
 			
-			if (!game.checkGameStatus())
-				str = "The secret word is: " + game.getSecretWord();
+			if (state.getOutcome() != GameState.WON)
+				str = "The secret word is: " + state.getSecretWord();
 			
 		}
 		return str;
@@ -532,22 +1048,16 @@ public class HangmanConsoleGame {
 	
 	/**
 	 * This method returns string containing an error message. The error message used is based on whatever
-	 * exception the currentGameException points to. Note: if no exception has been thrown, then this method
+	 * error the currentErrorMessage describes. Note: if no error has been found, then this method
 	 * returns whitespace.
 	 * @return str
 	 */ 
 	public static String errorMessageDisplay() {
 		String str = " ";
 		
-		if (exceptionStatus) {
-			
-			if (currentGameException instanceof StringIndexOutOfBoundsException)
-				str = "Error: You entered an empty string. Please enter a valid character.";
-			
-			else
-				str = currentGameException.getMessage();
-			
-		}
+		if (exceptionStatus)
+			str = currentErrorMessage;
+		
 		return str;
 		
 	}
@@ -556,18 +1066,19 @@ public class HangmanConsoleGame {
 	 * This method return a string containing the number of guesses left in the current game. Note:
 	 * this method only works while the game is still being played. If the current game has ended, this method 
 	 * returns whitespace.
+	 * @param state snapshot of the game.
 	 * @return str
 	 */
-	public static String numGuessesLeftDisplay() {
+	public static String numGuessesLeftDisplay(GameState state) {
 		String str = " ";
 		 																												// Only display the number of guesses left if there are still any left.
-		if (game.getNumWrongGuesses() != Hangman.MAX_GUESSES && !game.checkGameStatus()) {              				// Ignore if the the user lost or won.
+		if (!state.isOver()) {              																			// Ignore if the the user lost or won.
 																										 
-			if(game.getNumWrongGuesses() == (Hangman.MAX_GUESSES - 1)) {												// Check to see if user is down to his/her 
+			if(state.getNumGuessesLeft() == 1) {																		// Check to see if user is down to his/her 
 				str = " You have only one guess left. Make it a good one!" ;											// last guess. If so, let them know, haha.
 		
 			} else {																									
-				str = " You have " + (Hangman.MAX_GUESSES - game.getNumWrongGuesses())	+ " guesses left." ;
+				str = " You have " + state.getNumGuessesLeft()	+ " guesses left." ;
 		
 			}
 		}
@@ -578,14 +1089,15 @@ public class HangmanConsoleGame {
 	 * This method returns the outcome of the game, revealing whether the user won or lost. Note that this 
 	 * method works only if the gameOver boolean is true, meaning the game is over. Otherwise, it
 	 * return whitespace.
+	 * @param state snapshot of the game.
 	 * @return str Game outcome.
 	 */
-	private static String gameOutcomeDisplay() {
+	private static String gameOutcomeDisplay(GameState state) {
 		String str = " ";
 		
 		if (gameOver) {
 			
-			if (game.checkGameStatus()) {
+			if (state.getOutcome() == GameState.WON) {
 				str = "Congratulations!!! You've guessed the word correctly.";
 			
 			} else {
@@ -633,42 +1145,6 @@ public class HangmanConsoleGame {
 		
 	}
 
-	/**
-	 * Method used to get the alphabet char array.
-	 * @return alphabet.
-	 */
-	public static char[] getAlphabet() {
-		return alphabet;
-		
-	}
-
-	/**
-	 * Method used to set the alphabet char array.
-	 * @param alphabet
-	 */
-	public static void setAlphabet(char[] alphabet) {
-		HangmanConsoleGame.alphabet = alphabet;
-		
-	}
-
-	/**
-	 * Method used to get the charsUsed char array.
-	 * @return charsUsed
-	 */
-	public static char[] getCharsUsed() {
-		return charsUsed;
-		
-	}
-
-	/**
-	 * Method used to set the charsUsed array.
-	 * @param charsUsed
-	 */
-	public static void setCharsUsed(char[] charsUsed) {
-		HangmanConsoleGame.charsUsed = charsUsed;
-		
-	}
-
 	/**
 	 * Method used to get the Hangman object.
 	 * @return Hangman
@@ -687,29 +1163,11 @@ public class HangmanConsoleGame {
 		
 	}
 
-	/**
-	 * Method used to get the secredWordDisplay string.
-	 * @return secretWordDisplay
-	 */
-	public static String getSecretWordDisplay() {
-		return secretWordDisplay;
-		
-	}
-	
-	/**
-	 * Method used to set the secretWordDisplay string.
-	 * @param secretWordDisplay
-	 */
-	public static void setSecretWordDisplay(String secretWordDisplay) {
-		HangmanConsoleGame.secretWordDisplay = secretWordDisplay;
-		
-	}
-	
 	/**
 	 * Method used to generate the starting point graphic.
 	 * @return str 
 	 */
-	private static String startGraphic() {
+	private static String startGraphic(GameState state) {
 
 		String str = "\t\t\t---------------------------------" + "\n" +
 					 "\t\t\t-                              --" + "\n" +
@@ -721,22 +1179,22 @@ public class HangmanConsoleGame {
 					 "\t\t\t-                              --" + "\n" +
 					 "\t\t\t                               --"        +	  "\t\t" +    "     Characters Available" 	    + "\n" +					
 					 "\t\t\t                               --"        +   "\t\t" + 	  "*******************************" + "\n" +				
-					 "\t\t\t                               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable() +" *" + "\n" +	
-					 "\t\t\t                               --"        +   "\t\t" +    "*  "+ upperAlphAvailable() +" *" + "\n" +
+					 "\t\t\t                               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable(state) +" *" + "\n" +	
+					 "\t\t\t                               --"        +   "\t\t" +    "*  "+ upperAlphAvailable(state) +" *" + "\n" +
 					 "\t\t\t                               --"        +   "\t\t" +    "*******************************" + "\n" +
 					 "\t\t\t                               --" + "\n" +
 					 "\t\t\t                               --"        +   "\t\t" +    "       Characters Used"          + "\n" +    
 					 "\t\t\t                               --"        +   "\t\t" + 	  "*******************************" + "\n" + 
-					 "\t\t\t                               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed() +" *" + "\n" +          
-					 "\t\t\t                               --"        +   "\t\t" +    "*  " + upperAlphabetUsed() +" *" + "\n" +
+					 "\t\t\t                               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed(state) +" *" + "\n" +          
+					 "\t\t\t                               --"        +   "\t\t" +    "*  " + upperAlphabetUsed(state) +" *" + "\n" +
 					 "\t\t\t                               --"        +   "\t\t" +    "*******************************" + "\n" +
 					 "\t\t\t                               --" + "\n" +
 					 "\t\t\t                               --" + "\n" + 
-					 "\t\t\t                               --"        +   "\t\t" +           secretWordDisplay          + "\n" +
+					 "\t\t\t                               --"        +   "\t\t" +           secretWordDisplay(state)   + "\n" +
 					 "\t\t\t                               --" + "\n" +
 					 "\t\t\t                               --" + "\n" +
-					 "\t\t\t                               --"        +   "\t\t" +           revealSecretWord()         + "\n" +
-					 "\t\t\t                               --" 		  +   "\t\t" +		    gameOutcomeDisplay()		+ "\n" +
+					 "\t\t\t                               --"        +   "\t\t" +           revealSecretWord(state)         + "\n" +
+					 "\t\t\t                               --" 		  +   "\t\t" +		    gameOutcomeDisplay(state)		+ "\n" +
 					 "\t\t\t                               --" + "\n" +  
 					 "\t\t\t                               --" + "\n" +  
 					 "\t\t\t                               --" + "\n" +  
@@ -751,7 +1209,7 @@ public class HangmanConsoleGame {
 					 "\t\t\t                               --" + "\n" +
 					 "\t----------------------------------------------------------" + "\n" +
 					 "\t "+ 		errorMessageDisplay()	   + "\n" +
-					 "\t" + numGuessesLeftDisplay()	+ displayGameStats() + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
+					 "\t" + numGuessesLeftDisplay(state)	+ displayGameStats(state) + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
 					 
 		return str;
 
@@ -761,7 +1219,7 @@ public class HangmanConsoleGame {
 	 * Method used to generate the head graphic, which represents first wrong guess.
 	 * @return str
 	 */
-	private static String firstWrongGuessGraphic() {
+	private static String firstWrongGuessGraphic(GameState state) {
 	
 		String str = "\t\t\t---------------------------------" + "\n" +
 					 "\t\t\t-                              --" + "\n" +
@@ -773,22 +1231,22 @@ public class HangmanConsoleGame {
 					 "\t\t\t-                              --" + "\n" +
 			       "\t\t   ***********    \t               --"        +	  "\t\t" +    "     Characters Available" 	    + "\n" +
 			       "\t\t  *           *   \t               --"        +   "\t\t" + 	  "*******************************" + "\n" +
-			       "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable() +" *" + "\n" +
-			       "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable() +" *" + "\n" +
+			       "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable(state) +" *" + "\n" +
+			       "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable(state) +" *" + "\n" +
 			       "\t\t  *           *   \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 			       "\t\t  *    ---    *   \t               --" + "\n" +
 			       "\t\t  *           *   \t               --"        +   "\t\t" +    "       Characters Used"          + "\n" +
 			       "\t\t   ***********    \t               --"        +   "\t\t" + 	  "*******************************" + "\n" +
-				     "\t\t\t                               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed() +" *" + "\n" +  
-				     "\t\t\t                               --"        +   "\t\t" +    "*  " + upperAlphabetUsed() +" *" + "\n" +   
+				     "\t\t\t                               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed(state) +" *" + "\n" +  
+				     "\t\t\t                               --"        +   "\t\t" +    "*  " + upperAlphabetUsed(state) +" *" + "\n" +   
 				     "\t\t\t                               --"        +   "\t\t" +    "*******************************" + "\n" +
 				     "\t\t\t                               --" + "\n" +
 				     "\t\t\t                               --" + "\n" +
-			 	     "\t\t\t                               --"        +   "\t\t" +           secretWordDisplay          + "\n" +
+			 	     "\t\t\t                               --"        +   "\t\t" +           secretWordDisplay(state)   + "\n" +
 			         "\t\t\t                               --" + "\n" +
 			   	     "\t\t\t                               --" + "\n" +
-			 	     "\t\t\t                               --"        +   "\t\t" +           revealSecretWord()         + "\n" +
-			  	     "\t\t\t                               --" 		  +   "\t\t" +			gameOutcomeDisplay()		+ "\n" +
+			 	     "\t\t\t                               --"        +   "\t\t" +           revealSecretWord(state)         + "\n" +
+			  	     "\t\t\t                               --" 		  +   "\t\t" +			gameOutcomeDisplay(state)		+ "\n" +
 				     "\t\t\t                               --" + "\n" +
 			 	     "\t\t\t                               --" + "\n" +
 			 	     "\t\t\t                               --" + "\n" +
@@ -803,7 +1261,7 @@ public class HangmanConsoleGame {
 			   	     "\t\t\t                               --" + "\n" +
 					 "\t----------------------------------------------------------" + "\n" + 
 					 "\t "+ 		errorMessageDisplay()	   + "\n" +
-					 "\t" + numGuessesLeftDisplay()	+ displayGameStats() + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
+					 "\t" + numGuessesLeftDisplay(state)	+ displayGameStats(state) + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
 
 		return str;
 
@@ -813,7 +1271,7 @@ public class HangmanConsoleGame {
 	 * Method used to generate the head an body graphic, which represents two wrong guesses.
 	 * @return
 	 */
-	private static String secondWrongGuessGraphic() {
+	private static String secondWrongGuessGraphic(GameState state) {
 	
 		String str = "\t\t\t---------------------------------" + "\n" +
 					 "\t\t\t-                              --" + "\n" +
@@ -825,22 +1283,22 @@ public class HangmanConsoleGame {
 					 "\t\t\t-                              --" + "\n" +
 				   "\t\t   ***********    \t               --"        +	  "\t\t" +    "     Characters Available" 	    + "\n" +
 				   "\t\t  *           *   \t               --"        +   "\t\t" + 	  "*******************************" + "\n" +
-				   "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable() +" *" + "\n" +
-				   "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable() +" *" + "\n" +
+				   "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable(state) +" *" + "\n" +
+				   "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable(state) +" *" + "\n" +
 				   "\t\t  *           *   \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 				   "\t\t  *    ---    *   \t               --" + "\n" +
 				   "\t\t  *           *   \t               --"        +   "\t\t" +    "       Characters Used"          + "\n" +
 				   "\t\t   ***********    \t               --"        +   "\t\t" +    "*******************************" + "\n" +
-				   "\t\t        *         \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed() +" *" + "\n" +
-				   "\t\t        *         \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed() +" *" + "\n" +
+				   "\t\t        *         \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed(state) +" *" + "\n" +
+				   "\t\t        *         \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed(state) +" *" + "\n" +
 				   "\t\t        *         \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 				   "\t\t        *         \t               --" + "\n" +
 				   "\t\t        *         \t               --" + "\n" +
-				   "\t\t        *         \t               --"        +   "\t\t" +           secretWordDisplay          + "\n" +
+				   "\t\t        *         \t               --"        +   "\t\t" +           secretWordDisplay(state)   + "\n" +
 				   "\t\t        *         \t               --" + "\n" +
 				   "\t\t        *         \t               --" + "\n" +
-		       	   "\t\t        *         \t               --"        +   "\t\t" +           revealSecretWord()         + "\n" +
-		       	   "\t\t        *         \t               --" 		  +   "\t\t" +			gameOutcomeDisplay()		+ "\n" +
+		       	   "\t\t        *         \t               --"        +   "\t\t" +           revealSecretWord(state)         + "\n" +
+		       	   "\t\t        *         \t               --" 		  +   "\t\t" +			gameOutcomeDisplay(state)		+ "\n" +
 		       	   "\t\t        *         \t               --" + "\n" +
 		       	   "\t\t        *         \t               --" + "\n" +
 		       	   "\t\t        *         \t               --" + "\n" +
@@ -855,7 +1313,7 @@ public class HangmanConsoleGame {
 		       	   	 "\t\t\t                               --" + "\n" +
 		       	   	 "\t----------------------------------------------------------" + "\n" + 
 		       	   	 "\t "+ 		errorMessageDisplay()	   + "\n" +
-		       	   	 "\t" + numGuessesLeftDisplay()	+ displayGameStats() + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
+		       	   	 "\t" + numGuessesLeftDisplay(state)	+ displayGameStats(state) + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
 
 		return str;
 
@@ -865,7 +1323,7 @@ public class HangmanConsoleGame {
 	 * Method used to generate the head, body, and one arm graphic. This represents three wrong guesses.
 	 * @return str
 	 */
-	private static String thirdWrongGuessGraphic() {
+	private static String thirdWrongGuessGraphic(GameState state) {
 	
 		String str = "\t\t\t---------------------------------" + "\n" +
 					 "\t\t\t-                              --" + "\n" +
@@ -877,22 +1335,22 @@ public class HangmanConsoleGame {
 					 "\t\t\t-                              --" + "\n" +
 				   "\t\t   ***********    \t               --"        +	  "\t\t" +    "     Characters Available" 	    + "\n" +
 		           "\t\t  *           *   \t               --"        +   "\t\t" + 	  "*******************************" + "\n" +
-		           "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  " + lowerAlphAvailable() +" *" + "\n" +
-		           "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  " + upperAlphAvailable() +" *" + "\n" +
+		           "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  " + lowerAlphAvailable(state) +" *" + "\n" +
+		           "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  " + upperAlphAvailable(state) +" *" + "\n" +
 		           "\t\t  *           *   \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 		           "\t\t  *    ---    *   \t               --" + "\n" +
 		           "\t\t  *           *   \t               --"        +   "\t\t" +    "       Characters Used"          + "\n" +
 		       	   "\t\t   ***********    \t               --"        +   "\t\t" + 	  "*******************************" + "\n" +
-		       	   "\t\t        *         \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed() +" *" + "\n" +
-		       	   "\t\t        *         \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed() +" *" + "\n" +
+		       	   "\t\t        *         \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed(state) +" *" + "\n" +
+		       	   "\t\t        *         \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed(state) +" *" + "\n" +
 		       	   "\t\t        *         \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 		       	   "\t\t       **         \t               --" + "\n" +
 		       	   "\t\t      * *         \t               --" + "\n" +
-		       	   "\t\t     *  *         \t               --"        +   "\t\t" +           secretWordDisplay          + "\n" +
+		       	   "\t\t     *  *         \t               --"        +   "\t\t" +           secretWordDisplay(state)   + "\n" +
 		       	   "\t\t    *   *         \t               --" + "\n" +
 		       	   "\t\t   *    *         \t               --" + "\n" +
-		       	   "\t\t  *     *         \t               --"        +   "\t\t" +           revealSecretWord()         + "\n" +
-		       	   "\t\t *      *         \t               --" 		  +   "\t\t" +			gameOutcomeDisplay()		+ "\n" +
+		       	   "\t\t  *     *         \t               --"        +   "\t\t" +           revealSecretWord(state)         + "\n" +
+		       	   "\t\t *      *         \t               --" 		  +   "\t\t" +			gameOutcomeDisplay(state)		+ "\n" +
 		       	   "\t\t        *         \t               --" + "\n" +
 		       	   "\t\t        *         \t               --" + "\n" +
 		       	   "\t\t        *         \t               --" + "\n" +
@@ -907,7 +1365,7 @@ public class HangmanConsoleGame {
 		       	   	 "\t\t\t                               --" + "\n" +
 		       	   	 "\t----------------------------------------------------------" + "\n" + 
 		       	   	 "\t "+ 		errorMessageDisplay()	   + "\n" +
-		       	   	 "\t" + numGuessesLeftDisplay()	+ displayGameStats() + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
+		       	   	 "\t" + numGuessesLeftDisplay(state)	+ displayGameStats(state) + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
 
 		return str;
 
@@ -917,7 +1375,7 @@ public class HangmanConsoleGame {
 	 * Method used to generate the head, body, and both arms graphic. This represents 4 wrong guesses.
 	 * @return str
 	 */
-	private static String fourthWrongGuessGraphic() {
+	private static String fourthWrongGuessGraphic(GameState state) {
 	
 		String str = "\t\t\t---------------------------------" + "\n" +
 					 "\t\t\t-                              --" + "\n" +
@@ -929,22 +1387,22 @@ public class HangmanConsoleGame {
 					 "\t\t\t-                              --" + "\n" +
 		           "\t\t   ***********    \t               --"        +	  "\t\t" +    "     Characters Available" 	    + "\n" +
 		           "\t\t  *           *   \t               --"        +   "\t\t" + 	  "*******************************" + "\n" +
-		           "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable() +" *" + "\n" +
-		           "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable() +" *" + "\n" +
+		           "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable(state) +" *" + "\n" +
+		           "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable(state) +" *" + "\n" +
 		           "\t\t  *           *   \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 		           "\t\t  *    ---    *   \t               --" + "\n" +
 		           "\t\t  *           *   \t               --"        +   "\t\t" +    "       Characters Used"          + "\n" +
 		           "\t\t   ***********    \t               --"        +   "\t\t" + 	  "*******************************" + "\n" +
-		           "\t\t        *         \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed() +" *" + "\n" +
-		           "\t\t        *         \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed() +" *" + "\n" +
+		           "\t\t        *         \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed(state) +" *" + "\n" +
+		           "\t\t        *         \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed(state) +" *" + "\n" +
 		           "\t\t        *         \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 		           "\t\t       ***        \t               --" + "\n" +
 		           "\t\t      * * *       \t               --" + "\n" +
-		           "\t\t     *  *  *      \t               --"        +   "\t\t" +           secretWordDisplay          + "\n" +
+		           "\t\t     *  *  *      \t               --"        +   "\t\t" +           secretWordDisplay(state)   + "\n" +
 		           "\t\t    *   *   *     \t               --" + "\n" +
 		           "\t\t   *    *    *    \t               --" + "\n" +
-		           "\t\t  *     *     *   \t               --"        +   "\t\t" +           revealSecretWord()         + "\n" +
-		           "\t\t *      *      *  \t               --" 		  +   "\t\t" +		    gameOutcomeDisplay()		+ "\n" +
+		           "\t\t  *     *     *   \t               --"        +   "\t\t" +           revealSecretWord(state)         + "\n" +
+		           "\t\t *      *      *  \t               --" 		  +   "\t\t" +		    gameOutcomeDisplay(state)		+ "\n" +
 		           "\t\t        *         \t               --" + "\n" +
 		           "\t\t        *         \t               --" + "\n" +
 		           "\t\t        *         \t               --" + "\n" +
@@ -959,7 +1417,7 @@ public class HangmanConsoleGame {
 		           	 "\t\t\t                               --" + "\n" +
 		           	 "\t----------------------------------------------------------" + "\n" +
 		           	 "\t "+ 		errorMessageDisplay()	   + "\n" +
-		           	 "\t" + numGuessesLeftDisplay()	+ displayGameStats() + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
+		           	 "\t" + numGuessesLeftDisplay(state)	+ displayGameStats(state) + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
 
 		return str;
 
@@ -969,7 +1427,7 @@ public class HangmanConsoleGame {
 	 * Method used to generate the head, body, arms, and a leg graphic. This represents five wrong guesses.
 	 * @return str
 	 */
-	private static String fifthWrongGuessGraphic() {
+	private static String fifthWrongGuessGraphic(GameState state) {
 	
 		String str = "\t\t\t---------------------------------" + "\n" +
 					 "\t\t\t-                              --" + "\n" +
@@ -981,22 +1439,22 @@ public class HangmanConsoleGame {
 					 "\t\t\t-                              --" + "\n" +
 				   "\t\t   ***********    \t               --"        +	  "\t\t" +    "     Characters Available" 	    + "\n" +
 				   "\t\t  *           *   \t               --"        +   "\t\t" + 	  "*******************************" + "\n" +
-				   "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable() +" *" + "\n" +
-				   "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable() +" *" + "\n" +
+				   "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable(state) +" *" + "\n" +
+				   "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable(state) +" *" + "\n" +
 				   "\t\t  *           *   \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 				   "\t\t  *     O     *   \t               --" + "\n" +
 				   "\t\t  *           *   \t               --"        +   "\t\t" +    "       Characters Used"          + "\n" +
 				   "\t\t   ***********    \t               --"        +   "\t\t" +    "*******************************" + "\n" +
-				   "\t\t        *         \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed() +" *" + "\n" +
-				   "\t\t        *         \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed() +" *" + "\n" +
+				   "\t\t        *         \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed(state) +" *" + "\n" +
+				   "\t\t        *         \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed(state) +" *" + "\n" +
 				   "\t\t        *         \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 				   "\t\t       ***        \t               --" + "\n" +
 				   "\t\t      * * *       \t               --" + "\n" +
-				   "\t\t     *  *  *      \t               --"        +   "\t\t" +           secretWordDisplay          + "\n" +
+				   "\t\t     *  *  *      \t               --"        +   "\t\t" +           secretWordDisplay(state)   + "\n" +
 				   "\t\t    *   *   *     \t               --" + "\n" +
 				   "\t\t   *    *    *    \t               --" + "\n" +
-				   "\t\t  *     *     *   \t               --"        +   "\t\t" +           revealSecretWord()         + "\n" +
-				   "\t\t *      *      *  \t               --" 		  +   "\t\t" +			gameOutcomeDisplay()		+ "\n" +
+				   "\t\t  *     *     *   \t               --"        +   "\t\t" +           revealSecretWord(state)         + "\n" +
+				   "\t\t *      *      *  \t               --" 		  +   "\t\t" +			gameOutcomeDisplay(state)		+ "\n" +
 				   "\t\t        *         \t               --" + "\n" +
 				   "\t\t        *         \t               --" + "\n" +
 				   "\t\t       **         \t               --" + "\n" +
@@ -1011,7 +1469,7 @@ public class HangmanConsoleGame {
 		             "\t\t\t                               --" + "\n" +
 		             "\t----------------------------------------------------------" + "\n" +
 		             "\t "+ 		errorMessageDisplay()	   + "\n" +
-		             "\t" + numGuessesLeftDisplay()	+ displayGameStats() + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
+		             "\t" + numGuessesLeftDisplay(state)	+ displayGameStats(state) + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
 
 		return str;
 
@@ -1022,7 +1480,7 @@ public class HangmanConsoleGame {
 	 * user lost.
 	 * @return str
 	 */
-	private static String sixthWrongGuessGraphic() {
+	private static String sixthWrongGuessGraphic(GameState state) {
 		
 		String str = "\t\t\t---------------------------------" + "\n" +
 					 "\t\t\t-                              --" + "\n" +
@@ -1034,22 +1492,22 @@ public class HangmanConsoleGame {
 					 "\t\t\t-                              --" + "\n" +
 				   "\t\t   ***********    \t               --"        +	  "\t\t" +    "     Characters Available" 	    + "\n" +
 				   "\t\t  *           *   \t               --"        +   "\t\t" + 	  "*******************************" + "\n" +
-				   "\t\t  *   X   X   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable() +" *" + "\n" +
-				   "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable() +" *" + "\n" +
+				   "\t\t  *   X   X   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable(state) +" *" + "\n" +
+				   "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable(state) +" *" + "\n" +
 				   "\t\t  *           *   \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 				   "\t\t  *     /     *   \tGoodbye        --" + "\n" +
 				   "\t\t  *           *   \tcruel world!   --"        +   "\t\t" +    "       Characters Used"          + "\n" +
 				   "\t\t   ***********    \t               --"        +   "\t\t" +    "*******************************" + "\n" +
-				   "\t\t        *         \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed() +" *" + "\n" +
-				   "\t\t        *         \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed() +" *" + "\n" +
+				   "\t\t        *         \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed(state) +" *" + "\n" +
+				   "\t\t        *         \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed(state) +" *" + "\n" +
 				   "\t\t        *         \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 				   "\t\t       ***        \t               --" + "\n" +
 				   "\t\t      * * *       \t               --" + "\n" +
-				   "\t\t     *  *  *      \t               --"        +   "\t\t" +           secretWordDisplay          + "\n" +
+				   "\t\t     *  *  *      \t               --"        +   "\t\t" +           secretWordDisplay(state)   + "\n" +
 				   "\t\t    *   *   *     \t               --" + "\n" +
 				   "\t\t   *    *    *    \t               --" + "\n" +
-				   "\t\t  *     *     *   \t               --"        +   "\t\t" +           revealSecretWord()         + "\n" +
-				   "\t\t *      *      *  \t               --" 		  +   "\t\t" +			gameOutcomeDisplay()		+ "\n" +
+				   "\t\t  *     *     *   \t               --"        +   "\t\t" +           revealSecretWord(state)         + "\n" +
+				   "\t\t *      *      *  \t               --" 		  +   "\t\t" +			gameOutcomeDisplay(state)		+ "\n" +
 				   "\t\t        *         \t               --" + "\n" +
 				   "\t\t        *         \t               --" + "\n" +
 				   "\t\t       ***        \t               --" + "\n" +
@@ -1064,7 +1522,7 @@ public class HangmanConsoleGame {
 		             "\t\t\t                               --" + "\n" +
 		             "\t----------------------------------------------------------" + "\n" +
 		             "\t "+ 		errorMessageDisplay()	   + "\n" +
-		             "\t" + numGuessesLeftDisplay()	+ displayGameStats() + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
+		             "\t" + numGuessesLeftDisplay(state)	+ displayGameStats(state) + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
 
 		return str;
 
@@ -1074,7 +1532,7 @@ public class HangmanConsoleGame {
 	 * Method used to generate the user's victory.
 	 * @return str
 	 */
-	private static String userWinGraphic() {
+	private static String userWinGraphic(GameState state) {
 		
 		String str = "\t\t\t---------------------------------" + "\n" +
 					 "\t\t\t                               --" + "\n" +
@@ -1086,22 +1544,22 @@ public class HangmanConsoleGame {
 					 "\t\t\t                               --" + "\n" +
 			       "\t\t   ***********    \t               --"        +	  "\t\t" +    "     Characters Available" 	    + "\n" +
 			       "\t\t  *           *   \t               --"        +   "\t\t" + 	  "*******************************" + "\n" +
-			       "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable() +" *" + "\n" +
-			       "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable() +" *" + "\n" +
+			       "\t\t  *   *   *   *   \t               --"        +	  "\t\t" +	  "*  "+ lowerAlphAvailable(state) +" *" + "\n" +
+			       "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  "+ upperAlphAvailable(state) +" *" + "\n" +
 			       "\t\t  *           *   \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 			       "\t\t  *    ===    *   \t Woohoo!!!     --" + "\n" +
 			       "\t\t  *           *   \t I'm still     --"        +   "\t\t" +    "       Characters Used"          + "\n" +
 			       "\t\t*  ***********  * \t alive         --"        +   "\t\t" + 	  "*******************************" + "\n" +
-			       "\t\t *      *      *  \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed() +" *" + "\n" +
-			       "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed() +" *" + "\n" +
+			       "\t\t *      *      *  \t               --"        +	  "\t\t" +	  "*  " + lowerAlphabetUsed(state) +" *" + "\n" +
+			       "\t\t  *     *     *   \t               --"        +   "\t\t" +    "*  " + upperAlphabetUsed(state) +" *" + "\n" +
 			       "\t\t   *    *    *    \t               --"        +   "\t\t" +    "*******************************" + "\n" +
 			       "\t\t    *********     \t               --" + "\n" +
 			       "\t\t        *         \t               --" + "\n" +
-			   	   "\t\t        *         \t               --"        +   "\t\t" +           secretWordDisplay          + "\n" +
+			   	   "\t\t        *         \t               --"        +   "\t\t" +           secretWordDisplay(state)   + "\n" +
 			   	   "\t\t        *         \t               --" + "\n" +
 			   	   "\t\t        *         \t               --" + "\n" +
-			   	   "\t\t        *         \t               --"        +   "\t\t" +           revealSecretWord()         + "\n" +
-			   	   "\t\t        *         \t               --" 		  +   "\t\t" +			gameOutcomeDisplay()		+ "\n" +
+			   	   "\t\t        *         \t               --"        +   "\t\t" +           revealSecretWord(state)         + "\n" +
+			   	   "\t\t        *         \t               --" 		  +   "\t\t" +			gameOutcomeDisplay(state)		+ "\n" +
 			   	   "\t\t        *         \t               --" + "\n" +
 			   	   "\t\t        *         \t               --" + "\n" +
 			   	   "\t\t       ***        \t               --" + "\n" +
@@ -1116,7 +1574,7 @@ public class HangmanConsoleGame {
 			   	     "\t\t\t                               --" + "\n" +
 			   	     "\t----------------------------------------------------------" + "\n" +
 			   	     "\t "+ 		errorMessageDisplay()	   + "\n" +
-			   	     "\t" + numGuessesLeftDisplay()	+ displayGameStats() + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
+			   	     "\t" + numGuessesLeftDisplay(state)	+ displayGameStats(state) + "\n" ;					// This line displays either the number of guesses left or the game stats, not both.
 	
 		return str;
 				
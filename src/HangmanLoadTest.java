@@ -0,0 +1,470 @@
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The HangmanLoadTest Class measures what a HangmanServer can take. It starts a server in the same process,
+ * then simulates a number of players against it over TCP. Every player goes through the whole lifecycle of
+ * the console game: it connects, picks a difficulty level (setupGame), guesses with a bot strategy until the
+ * round ends (playGame), and plays again or leaves (keepPlaying). Between two lines, a player thinks for a
+ * random time drawn from a log-normal distribution around a median, like people do, and now and then it
+ * makes a typo the server has to reject. The run has three phases: players join one by one during the
+ * ramp-up, all of them play during the steady state, and they leave one by one, at the end of a round,
+ * during the ramp-down. For each phase and each operation, it reports the throughput and the latency
+ * percentiles, from a LatencyHistogram. All the players are driven by one thread with one selector, so
+ * thousands of them don't need thousands of threads.
+ * Usage: java HangmanLoadTest players rampUpSeconds steadySeconds rampDownSeconds [thinkMillis] [strategy[,strategy...]] [dictionary[,dictionary...]]
+ * @author Cristobal Padilla
+ *
+ */
+public class HangmanLoadTest {
+
+	// Operations measured.
+	public static final int CONNECT = 0;
+	public static final int SETUP = 1;
+	public static final int GUESS = 2;
+	public static final int KEEP_PLAYING = 3;
+	public static final String[] OPERATION_NAMES = {"connect", "setup", "guess", "keepPlaying"};
+
+	// Phases of a run.
+	public static final int RAMP_UP = 0;
+	public static final int STEADY = 1;
+	public static final int RAMP_DOWN = 2;
+	public static final String[] PHASE_NAMES = {"ramp-up", "steady", "ramp-down"};
+
+	// Spread of the log-normal think time, the chance of a typo, and the chance of picking hard mode.
+	public static final double THINK_SIGMA = 0.6;
+	public static final double TYPO_RATE = 0.02;
+	public static final double HARD_RATE = 0.2;
+
+	// Time the players get, after the ramp-down, to finish what they are doing.
+	public static final long GRACE_NANOS = 5_000_000_000L;
+
+	// Instance fields.
+	private final InetSocketAddress server;
+	private final int numPlayers;
+	private final long[] phaseNanos;
+	private final long thinkNanos;
+	private final GuessingStrategy[] strategies;
+	private final LatencyHistogram[][] latencies;
+	private final long[] phaseRejected;
+	private final long[] phaseFailures;
+	private final Random generator;
+	private long gamesWon;
+	private long gamesLost;
+	private long startTime;
+
+	/**
+	 * The Player Class is one simulated player: its connection, where it is in the lifecycle, and the round
+	 * it's playing.
+	 */
+	private static final class Player {
+
+		// Instance fields.
+		final GuessingStrategy strategy;
+		final long joinTime;
+		final long leaveTime;
+		final ByteBuffer in;
+		SocketChannel socket;
+		int operation;
+		long sentTime;
+		long dueTime;
+		char[] revealedChars;
+		long lettersUsed;
+		boolean done;
+
+		Player(GuessingStrategy strategy, long joinTime, long leaveTime) {
+
+			this.strategy = strategy;
+			this.joinTime = joinTime;
+			this.leaveTime = leaveTime;
+			in = ByteBuffer.allocate(HangmanServer.MAX_LINE_LENGTH);
+			operation = -1;																			// Not connected yet.
+			dueTime = joinTime;
+
+		}
+	}
+
+	public static void main(String[] args) {
+
+		if (args.length < 4) {
+			System.out.println("Usage: java HangmanLoadTest players rampUpSeconds steadySeconds rampDownSeconds [thinkMillis] " +
+							   "[strategy[,strategy...]] [dictionary[,dictionary...]]");
+			System.out.println("Strategies: " + LetterFrequencyStrategy.NAME + ", " + RandomGuessStrategy.NAME + ", " +
+							   CandidateFilterStrategy.NAME);
+			return;
+
+		}
+
+		try {
+			DictionaryIndex dictionaryIndex = DictionaryIndex.load((args.length > 6) ? WordSource.parse(args[6]) : WordSource.defaultSource());
+			String[] names = ((args.length > 5) ? args[5] : LetterFrequencyStrategy.NAME + "," + RandomGuessStrategy.NAME).split(",");
+			GuessingStrategy[] strategies = new GuessingStrategy[names.length];
+
+			for (int index = 0; index < names.length; index++) {
+				strategies[index] = GuessingStrategy.forName(names[index].trim(), dictionaryIndex.getPartition(Hangman.EASY).getWords());
+
+			}
+
+			try (HangmanServer server = new HangmanServer(dictionaryIndex)) {
+				int port = server.start(0);
+				long[] phaseNanos = new long[PHASE_NAMES.length];
+
+				for (int phase = 0; phase < phaseNanos.length; phase++) {
+					phaseNanos[phase] = (long) (Double.parseDouble(args[1 + phase]) * 1e9);
+
+				}
+
+				HangmanLoadTest test = new HangmanLoadTest(new InetSocketAddress("localhost", port), Integer.parseInt(args[0]),
+														   phaseNanos, (long) (((args.length > 4) ? Double.parseDouble(args[4]) : 200) * 1e6),
+														   strategies);
+				test.run();
+				test.printReport(System.out);
+				System.out.println("Server: " + server.getSessionsOpened() + " sessions, " + server.getGamesPlayed() + " games.");
+
+			}
+
+		} catch (IOException | IllegalArgumentException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * Constructor takes the shape of the run.
+	 * @param server address of the server.
+	 * @param numPlayers number of players at the steady state.
+	 * @param phaseNanos length of the ramp-up, steady state and ramp-down.
+	 * @param thinkNanos median think time between two lines.
+	 * @param strategies strategies the players use, in turn.
+	 */
+	public HangmanLoadTest(InetSocketAddress server, int numPlayers, long[] phaseNanos, long thinkNanos, GuessingStrategy[] strategies) {
+
+		this.server = server;
+		this.numPlayers = numPlayers;
+		this.phaseNanos = phaseNanos.clone();
+		this.thinkNanos = thinkNanos;
+		this.strategies = strategies;
+		latencies = new LatencyHistogram[PHASE_NAMES.length][OPERATION_NAMES.length];
+		phaseRejected = new long[PHASE_NAMES.length];
+		phaseFailures = new long[PHASE_NAMES.length];
+		generator = new Random();
+
+		for (LatencyHistogram[] phase : latencies) {
+
+			for (int operation = 0; operation < phase.length; operation++) {
+				phase[operation] = new LatencyHistogram();
+
+			}
+		}
+	}
+
+	/**
+	 * Method used to run the test, until every player has left or the grace time after the ramp-down is over.
+	 * @throws IOException selector could not be opened.
+	 */
+	public void run() throws IOException {
+
+		startTime = System.nanoTime();
+		long leaveStart = startTime + phaseNanos[RAMP_UP] + phaseNanos[STEADY];
+		long deadline = leaveStart + phaseNanos[RAMP_DOWN] + GRACE_NANOS;
+		PriorityQueue<Player> timers = new PriorityQueue<Player>(Comparator.comparingLong((Player player) -> player.dueTime));
+		ArrayList<Player> players = new ArrayList<Player>(numPlayers);
+
+		for (int index = 0; index < numPlayers; index++) {
+			Player player = new Player(strategies[index % strategies.length], startTime + phaseNanos[RAMP_UP] * index / numPlayers,
+									   leaveStart + phaseNanos[RAMP_DOWN] * index / numPlayers);
+			players.add(player);
+			timers.add(player);
+
+		}
+
+		int numActive = numPlayers;
+
+		try (Selector selector = Selector.open()) {
+
+			while (numActive > 0 && System.nanoTime() < deadline) {
+				long now = System.nanoTime();
+
+				while (!timers.isEmpty() && timers.peek().dueTime <= now) {
+					Player player = timers.poll();
+
+					try {
+						act(player, selector);
+
+					} catch (IOException exception) {
+						numActive -= drop(player);
+
+					}
+				}
+
+				long wait = timers.isEmpty() ? 10 : (timers.peek().dueTime - System.nanoTime()) / 1_000_000;
+
+				if (wait > 0)
+					selector.select(wait);
+				else
+					selector.selectNow();
+
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					Player player = (Player) key.attachment();
+
+					try {
+
+						if (key.isConnectable()) {
+							player.socket.finishConnect();
+							key.interestOps(SelectionKey.OP_READ);
+							answered(player, null, timers);
+
+						} else if (key.isReadable()) {
+							numActive -= read(player, timers);
+
+						}
+
+					} catch (IOException exception) {
+						numActive -= drop(player);
+
+					}
+				}
+			}
+		}
+
+		for (Player player : players) {																	// Out of time.
+
+			if (player.socket != null)
+				player.socket.close();
+
+		}
+	}
+
+	/**
+	 * Method used to do what a player is due to do: connect, or send its next line.
+	 * @param player player.
+	 * @param selector selector of the run.
+	 * @throws IOException connection failed.
+	 */
+	private void act(Player player, Selector selector) throws IOException {
+
+		String line;
+
+		switch (player.operation) {
+			case -1:
+				player.socket = SocketChannel.open();
+				player.socket.configureBlocking(false);
+				player.socket.setOption(StandardSocketOptions.TCP_NODELAY, true);
+				player.operation = CONNECT;
+				player.sentTime = System.nanoTime();
+				player.socket.connect(server);
+				player.socket.register(selector, SelectionKey.OP_CONNECT, player);
+				return;
+
+			case CONNECT:
+			case SETUP:
+				player.operation = SETUP;
+				line = (generator.nextDouble() < HARD_RATE) ? "H" : "E";
+				break;
+
+			case KEEP_PLAYING:
+				line = (player.dueTime >= player.leaveTime) ? "N" : "Y";
+				break;
+
+			default:
+				player.operation = GUESS;
+				line = nextGuess(player);
+				break;
+
+		}
+
+		ByteBuffer out = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+		player.sentTime = System.nanoTime();
+
+		while (out.hasRemaining()) {																	// A few bytes: the socket takes them at once.
+			player.socket.write(out);
+
+		}
+	}
+
+	/**
+	 * Method used to choose a player's next guess: usually its strategy's, sometimes a typo.
+	 * @param player player.
+	 * @return line to send.
+	 */
+	private String nextGuess(Player player) {
+
+		if (generator.nextDouble() < TYPO_RATE)
+			return (player.lettersUsed != 0) ? String.valueOf((char) Alphabet.ENGLISH.codePointAt(Long.numberOfTrailingZeros(player.lettersUsed))) : "ab";
+
+		char guess = player.strategy.nextGuess(player.revealedChars, player.lettersUsed, Alphabet.ENGLISH);
+		player.lettersUsed |= Alphabet.ENGLISH.bit(guess);
+		return String.valueOf(guess);
+
+	}
+
+	/**
+	 * Method used to read what the server sent a player, and handle every whole line.
+	 * @param player player.
+	 * @param timers players waiting to act.
+	 * @return 1 if the player left, 0 otherwise.
+	 * @throws IOException connection failed.
+	 */
+	private int read(Player player, PriorityQueue<Player> timers) throws IOException {
+
+		if (player.socket.read(player.in) < 0)
+			throw new EOFException();
+
+		ByteBuffer in = player.in;
+		in.flip();
+		int lineStart = 0;
+		int left = 0;
+
+		for (int index = 0; index < in.limit(); index++) {
+
+			if (in.get(index) == '\n') {
+				left += answered(player, new String(in.array(), lineStart, index - lineStart, StandardCharsets.UTF_8), timers);
+				lineStart = index + 1;
+
+			}
+		}
+
+		in.position(lineStart);
+		in.compact();
+		return left;
+
+	}
+
+	/**
+	 * Method used to handle the server's answer to a player: the latency is recorded, and the player is
+	 * told to think about its next line.
+	 * @param player player.
+	 * @param line answer, or null if the player just connected.
+	 * @param timers players waiting to act.
+	 * @return 1 if the player left, 0 otherwise.
+	 * @throws IOException connection could not be closed.
+	 */
+	private int answered(Player player, String line, PriorityQueue<Player> timers) throws IOException {
+
+		long now = System.nanoTime();
+		int phase = phaseOf(now);
+		latencies[phase][player.operation].record(now - player.sentTime);
+
+		if (line != null) {
+
+			if (line.startsWith("ERR")) {
+				phaseRejected[phase]++;
+
+			} else if (line.startsWith("PLAY ")) {
+				int space = line.indexOf(' ', 5);
+				char[] revealedChars = line.substring(5, space).toCharArray();
+
+				if (player.operation != GUESS)																// A new round.
+					player.lettersUsed = 0;
+
+				player.revealedChars = revealedChars;
+				player.operation = GUESS;
+
+			} else if (line.startsWith("WON ") || line.startsWith("LOST ")) {
+
+				if (line.charAt(0) == 'W')
+					gamesWon++;
+				else
+					gamesLost++;
+
+				player.operation = KEEP_PLAYING;
+
+			} else if (line.equals("BYE")) {
+				player.socket.close();
+				player.done = true;
+				return 1;
+
+			}
+		}
+
+		player.dueTime = now + thinkTime();
+		timers.add(player);
+		return 0;
+
+	}
+
+	/**
+	 * Method used to drop a player whose connection failed.
+	 * @param player player.
+	 * @return 1 if the player was still active, 0 otherwise.
+	 * @throws IOException connection could not be closed.
+	 */
+	private int drop(Player player) throws IOException {
+
+		if (player.done)
+			return 0;
+
+		player.done = true;
+		phaseFailures[phaseOf(System.nanoTime())]++;
+
+		if (player.socket != null)
+			player.socket.close();
+
+		return 1;
+
+	}
+
+	/**
+	 * Method used to draw a think time: log-normal, so most are near the median and a few are much longer.
+	 * @return nanoseconds
+	 */
+	private long thinkTime() {
+		return (long) (thinkNanos * Math.exp(THINK_SIGMA * generator.nextGaussian()));
+
+	}
+
+	/**
+	 * Method used to find the phase a time falls in.
+	 * @param time System.nanoTime() value.
+	 * @return RAMP_UP, STEADY or RAMP_DOWN.
+	 */
+	private int phaseOf(long time) {
+
+		long elapsed = time - startTime;
+
+		if (elapsed < phaseNanos[RAMP_UP])
+			return RAMP_UP;
+
+		return (elapsed < phaseNanos[RAMP_UP] + phaseNanos[STEADY]) ? STEADY : RAMP_DOWN;
+
+	}
+
+	/**
+	 * Method used to print the throughput and latency percentiles of every operation, phase by phase.
+	 * @param out stream to print to.
+	 */
+	public void printReport(PrintStream out) {
+
+		out.println("Load test, " + numPlayers + " players, median think time " + (thinkNanos / 1_000_000) + " ms:");
+
+		for (int phase = 0; phase < PHASE_NAMES.length; phase++) {
+			double seconds = Math.max(1e-9, phaseNanos[phase] / 1e9);
+			out.println("  " + PHASE_NAMES[phase] + " (" + (phaseNanos[phase] / 1_000_000_000.0) + " s, " + phaseRejected[phase] +
+						" lines rejected, " + phaseFailures[phase] + " connections failed):");
+			out.println(String.format("    %-12s %9s %10s %9s %9s %9s %9s %9s", "operation", "count", "ops/s", "p50 ms",
+									  "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+			for (int operation = 0; operation < OPERATION_NAMES.length; operation++) {
+				LatencyHistogram histogram = latencies[phase][operation];
+				out.println(String.format("    %-12s %9d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f", OPERATION_NAMES[operation],
+										  histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+										  histogram.getPercentile(50) / 1e6, histogram.getPercentile(90) / 1e6,
+										  histogram.getPercentile(99) / 1e6, histogram.getPercentile(99.9) / 1e6,
+										  histogram.getMax() / 1e6));
+
+			}
+		}
+		out.println("Games: " + gamesWon + " won, " + gamesLost + " lost.");
+
+	}
+}
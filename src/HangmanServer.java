@@ -0,0 +1,1019 @@
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The HangmanServer Class plays Hangman over TCP, with a line protocol that follows the console game:
+ * a session picks a difficulty level (setupGame), guesses until the word is found or the guesses are
+ * exhausted (playGame), and answers whether to play again (keepPlaying). Every line the client sends gets
+ * exactly one line back:
+ *   E or H            -> PLAY pattern guessesLeft     (difficulty level; the first round starts)
+ *   guess             -> PLAY pattern guessesLeft | WON word | LOST word | ERR message
+ *   Y or N            -> PLAY pattern guessesLeft | BYE
+ *   SUSPEND           -> SUSPENDED id                 (while playing; the session ends)
+ *   RESUME id         -> PLAY pattern guessesLeft     (instead of a difficulty level)
+ *   RACE [E or H]     -> PLAY pattern guessesLeft     (instead of a difficulty level; joins the level's race)
+ *   guess, racing     -> PLAY pattern guessesLeft | OUT pattern 0 | WON word | LOST word | ERR message
+ * The pattern is the word so far, with '_' for hidden letters. Guesses go through the same GuessValidator
+ * as the console game. Suspended games are kept by id, and can be saved to a session file with
+ * saveSessions() and restored after a restart with restoreSessions() (see SessionSnapshot). When the server
+ * is closed, every game still being played is suspended too, and its player is sent its SUSPENDED line.
+ * A session that sends nothing for the idle timeout is evicted: closed, and, if so set, its game suspended
+ * first like on SUSPEND. Idle deadlines are kept in a TimingWheel per loop, so touching one costs the same
+ * with a million sessions as with ten. Sessions are served without blocking by a few event loops, one per
+ * processor, each with its own selector; a new connection goes to the loops in turn, and stays on its loop.
+ * Every session shares the one loaded dictionary index. Rounds, guesses and endings are published, with the
+ * session id, on the server's GameEventBus, so stats or metrics can follow every session without slowing a
+ * loop down. With a GameJournal set, every guess and outcome of every session is also logged to it, and
+ * its writer thread commits the records of all the sessions together.
+ * Sessions that send RACE play a race instead (see RaceGame): every racing session of a difficulty level
+ * guesses the same word at once, from whatever loop it's on, each with its own wrong guesses, and a
+ * letter goes to whoever claims it first (another racer's letter gets the "used before" error). The racer
+ * who reveals the last letter gets WON, and the others LOST on their next line. A racer out of guesses gets
+ * OUT until the race is over, which is also when every racer is out or gone. Y joins the level's race again:
+ * the one going on, or a new one with a new word. Races aren't suspended, journaled or published.
+ * Usage: java HangmanServer port [dictionary[,dictionary...]] [sessionFile] [journalDirectory]
+ * @author Cristobal Padilla
+ *
+ */
+public class HangmanServer implements Closeable {
+
+	// Longest line a client may send. Longer lines close the session.
+	public static final int MAX_LINE_LENGTH = 1024;
+
+	// States of a session.
+	public static final int SETUP = 0;
+	public static final int PLAYING = 1;
+	public static final int KEEP_PLAYING = 2;
+	public static final int CLOSING = 3;
+
+	// Idle sessions: default timeout, and the coarsest tick their deadlines are kept with.
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+	public static final long MAX_IDLE_TICK_MILLIS = 100;
+
+	// Instance fields.
+	private final DictionaryIndex dictionaryIndex;
+	private final EventLoop[] loops;
+	private final AtomicLong sessionsOpened;
+	private final AtomicLong gamesPlayed;
+	private final AtomicInteger nextSessionId;
+	private final ConcurrentHashMap<Integer, Hangman> suspended;
+	private final AtomicReferenceArray<RaceGame> races;
+	private final AtomicLong sessionsEvicted;
+	private final GameEventBus events;
+	private volatile GameJournal journal;
+	private long idleTimeoutNanos;
+	private boolean suspendOnEviction;
+	private ServerSocketChannel server;
+	private Thread acceptor;
+	private volatile boolean closed;
+
+	public static void main(String[] args) {
+
+		if (args.length < 1) {
+			System.out.println("Usage: java HangmanServer port [dictionary[,dictionary...]] [sessionFile] [journalDirectory]");
+			return;
+
+		}
+
+		try {
+			HangmanServer server = new HangmanServer(DictionaryIndex.load((args.length > 1) ? WordSource.parse(args[1]) : WordSource.defaultSource()));
+			File sessionFile = (args.length > 2) ? new File(args[2]) : null;
+
+			if (args.length > 3)
+				server.setJournal(new GameJournal(new File(args[3]), false));
+
+			if (sessionFile != null && sessionFile.exists())
+				System.out.println("Restored " + server.restoreSessions(sessionFile) + " suspended games.");
+
+			if (sessionFile != null)
+				server.setSuspendOnEviction(true);																// Idle games are saved with the rest.
+
+			if (sessionFile != null || args.length > 3) {														// The journal's last records are written on close.
+				Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+
+					try {
+						server.close();
+
+						if (sessionFile != null)
+							System.out.println("Saved " + server.saveSessions(sessionFile) + " suspended games.");
+
+					} catch (IOException exception) {
+						System.out.println(exception.getMessage());
+
+					}
+				}));
+			}
+
+			System.out.println("Serving Hangman on port " + server.start(Integer.parseInt(args[0])) + ".");
+			server.awaitClose();
+
+		} catch (IOException | NumberFormatException exception) {
+			System.out.println(exception.getMessage());
+
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+
+		}
+	}
+
+	/**
+	 * Constructor takes the dictionary every session plays with.
+	 * @param dictionaryIndex loaded dictionary.
+	 */
+	public HangmanServer(DictionaryIndex dictionaryIndex) {
+
+		this.dictionaryIndex = dictionaryIndex;
+		loops = new EventLoop[Runtime.getRuntime().availableProcessors()];
+		sessionsOpened = new AtomicLong();
+		gamesPlayed = new AtomicLong();
+		nextSessionId = new AtomicInteger();
+		suspended = new ConcurrentHashMap<Integer, Hangman>();
+		races = new AtomicReferenceArray<RaceGame>(Hangman.HARD + 1);
+		sessionsEvicted = new AtomicLong();
+		events = new GameEventBus();
+		idleTimeoutNanos = DEFAULT_IDLE_TIMEOUT_MILLIS * 1000000;
+
+	}
+
+	/**
+	 * Method used to set how long a session may send nothing before it's evicted. Call it before start().
+	 * @param millis idle timeout, in milliseconds.
+	 */
+	public void setIdleTimeout(long millis) {
+
+		if (millis <= 0)
+			throw new IllegalArgumentException("The idle timeout must be positive.");
+
+		idleTimeoutNanos = millis * 1000000;
+
+	}
+
+	/**
+	 * Method used to choose whether the game of a session evicted while playing is suspended, and so saved
+	 * by saveSessions(), or dropped. Call it before start().
+	 * @param suspendOnEviction True to suspend.
+	 */
+	public void setSuspendOnEviction(boolean suspendOnEviction) {
+		this.suspendOnEviction = suspendOnEviction;
+
+	}
+
+	/**
+	 * Method used to log the guesses and outcomes of every session to a journal. The server closes it when
+	 * it's closed. A session only waits on it if the writer thread falls a whole buffer behind.
+	 * @param journal journal, or null to stop logging.
+	 */
+	public void setJournal(GameJournal journal) {
+		this.journal = journal;
+
+	}
+
+	/**
+	 * Method used to bring back the games of a session file, so that their players can resume them.
+	 * @param file session file written by saveSessions().
+	 * @return number of games restored.
+	 * @throws IOException file could not be read, or was saved with another dictionary.
+	 */
+	public int restoreSessions(File file) throws IOException {
+
+		LinkedHashMap<Integer, Hangman> games = SessionSnapshot.restore(file, dictionaryIndex);
+		suspended.putAll(games);
+
+		for (int sessionId : games.keySet()) {
+			nextSessionId.accumulateAndGet(sessionId + 1, Math::max);									// New sessions never take a restored id.
+
+		}
+		return games.size();
+
+	}
+
+	/**
+	 * Method used to save every suspended game to a session file. Closing the server first suspends the
+	 * games still being played, so they are saved too.
+	 * @param file session file.
+	 * @return number of games saved.
+	 * @throws IOException file could not be written.
+	 */
+	public int saveSessions(File file) throws IOException {
+		return SessionSnapshot.save(file, suspended, dictionaryIndex);
+
+	}
+
+	/**
+	 * Method used to get the number of suspended games.
+	 * @return games
+	 */
+	public int getNumSuspended() {
+		return suspended.size();
+
+	}
+
+	/**
+	 * Method used to start serving: the event loops, and a thread that accepts connections. All of them
+	 * are daemons.
+	 * @param port TCP port, or 0 for any free port.
+	 * @return port the server listens on.
+	 * @throws IOException port could not be opened.
+	 */
+	public synchronized int start(int port) throws IOException {
+
+		server = ServerSocketChannel.open();
+		server.bind(new InetSocketAddress(port), 1024);
+
+		for (int index = 0; index < loops.length; index++) {
+			loops[index] = new EventLoop(index);
+
+		}
+
+		ServerSocketChannel listening = server;
+		acceptor = new Thread(() -> {
+
+			int next = 0;
+
+			try {
+
+				while (!closed) {
+					SocketChannel socket = listening.accept();
+					socket.configureBlocking(false);
+					socket.setOption(StandardSocketOptions.TCP_NODELAY, true);
+					loops[next].add(socket);
+					next = (next + 1) % loops.length;
+
+				}
+
+			} catch (IOException exception) {
+				// Closed.
+
+			}
+		}, "hangman-accept");
+		acceptor.setDaemon(true);
+		acceptor.start();
+		return server.socket().getLocalPort();
+
+	}
+
+	/**
+	 * Method used to wait until the server is closed. The server's threads are daemons, so a program that
+	 * only serves must wait here.
+	 * @throws InterruptedException the wait was interrupted.
+	 */
+	public void awaitClose() throws InterruptedException {
+
+		Thread thread;
+
+		synchronized (this) {
+			thread = acceptor;
+
+		}
+
+		if (thread != null)
+			thread.join();
+
+	}
+
+	/**
+	 * Method used to get the number of sessions opened since the server started.
+	 * @return sessions
+	 */
+	public long getSessionsOpened() {
+		return sessionsOpened.get();
+
+	}
+
+	/**
+	 * Method used to get the number of games finished, won or lost, over all sessions.
+	 * @return games
+	 */
+	public long getGamesPlayed() {
+		return gamesPlayed.get();
+
+	}
+
+	/**
+	 * Method used to get the number of sessions evicted for being idle.
+	 * @return sessions
+	 */
+	public long getSessionsEvicted() {
+		return sessionsEvicted.get();
+
+	}
+
+	/**
+	 * Method used to get the number of sessions whose idle deadline is being kept, over all loops. Each loop
+	 * publishes its count once per pass, so it may lag a pass behind.
+	 * @return sessions
+	 */
+	public int getWheelSize() {
+
+		int size = 0;
+
+		for (EventLoop loop : loops) {
+
+			if (loop != null)
+				size += loop.wheelSize;
+
+		}
+		return size;
+
+	}
+
+	/**
+	 * Method used to get the bus the sessions publish their events on, to subscribe to them.
+	 * @return bus
+	 */
+	public GameEventBus getEventBus() {
+		return events;
+
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+
+		closed = true;
+
+		if (server != null)
+			server.close();
+
+		for (EventLoop loop : loops) {
+
+			if (loop != null)
+				loop.close();
+
+		}
+		events.close();
+
+		if (journal != null)
+			journal.close();
+
+	}
+
+	/**
+	 * Method used to stop journaling after a failure, once, whichever session hit it first.
+	 * @param failed journal that failed.
+	 * @param exception failure.
+	 */
+	private synchronized void dropJournal(GameJournal failed, IOException exception) {
+
+		if (journal != failed)
+			return;
+
+		System.out.println("Journal disabled: " + exception.getMessage());
+		journal = null;
+
+		try {
+			failed.close();
+
+		} catch (IOException closeException) {
+			// Already failed; the first error was reported.
+
+		}
+	}
+
+	/**
+	 * The EventLoop Class serves its sessions from one thread, with one selector, and keeps their idle
+	 * deadlines in its own timing wheel.
+	 */
+	private final class EventLoop {
+
+		// Instance fields.
+		private final Selector selector;
+		private final ConcurrentLinkedQueue<SocketChannel> added;
+		private final TimingWheel<Session> wheel;
+		private final long tickMillis;
+		private final ArrayList<Session> idle;
+		private final Thread thread;
+		private volatile int wheelSize;
+
+		EventLoop(int number) throws IOException {
+
+			selector = Selector.open();
+			added = new ConcurrentLinkedQueue<SocketChannel>();
+			tickMillis = Math.max(1, Math.min(MAX_IDLE_TICK_MILLIS, idleTimeoutNanos / 16000000));			// Late by a sixteenth at most.
+			wheel = new TimingWheel<Session>(tickMillis * 1000000, System.nanoTime());
+			idle = new ArrayList<Session>();
+			thread = new Thread(this::run, "hangman-loop-" + number);
+			thread.setDaemon(true);
+			thread.start();
+
+		}
+
+		/**
+		 * Method used by the acceptor to hand a new connection to the loop.
+		 * @param socket non-blocking socket.
+		 */
+		void add(SocketChannel socket) {
+
+			added.add(socket);
+			selector.wakeup();
+
+		}
+
+		/**
+		 * Method used by the loop's thread: it registers new connections, serves ready ones and evicts idle
+		 * ones until the server is closed. The select wakes up at least once a tick, for the wheel.
+		 */
+		private void run() {
+
+			try {
+
+				while (!closed) {
+					selector.select(tickMillis);
+					long now = System.nanoTime();
+
+					for (SocketChannel socket; (socket = added.poll()) != null; ) {
+						Session session = new Session(socket);
+						session.key = socket.register(selector, SelectionKey.OP_READ, session);
+						session.timer = wheel.schedule(session, now + idleTimeoutNanos);
+						sessionsOpened.incrementAndGet();
+
+					}
+
+					Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+
+					while (keys.hasNext()) {
+						SelectionKey key = keys.next();
+						keys.remove();
+						Session session = (Session) key.attachment();
+
+						try {
+
+							if (key.isValid() && key.isWritable())
+								session.flush(key);
+
+							if (key.isValid() && key.isReadable()) {
+								session.read(key);
+								wheel.reschedule(session.timer, now + idleTimeoutNanos);
+
+							}
+
+						} catch (IOException exception) {
+							session.leaveRace();
+							key.cancel();
+							session.socket.close();
+
+						}
+
+						if (!key.isValid())
+							wheel.cancel(session.timer);
+
+					}
+
+					if (wheel.advance(now, idle) > 0)
+						evict();
+
+					wheelSize = wheel.size();
+
+				}
+
+			} catch (IOException | ClosedSelectorException exception) {
+				// Closed.
+
+			}
+			shutDown();
+
+		}
+
+		/**
+		 * Method used to close the sessions that expired in the wheel, as one batch. A game being played is
+		 * suspended first if the server is set to, and its player is sent its SUSPENDED line if the socket
+		 * takes it.
+		 */
+		private void evict() {
+
+			for (Session session : idle) {
+
+				try {
+
+					session.leaveRace();
+
+					if (session.state == PLAYING && session.race == null && suspendOnEviction) {
+						session.suspend();
+						session.out.flip();
+						session.socket.write(session.out);
+
+					}
+
+				} catch (IOException exception) {
+					// Gone already: closed below anyway.
+
+				}
+
+				try {
+					session.key.cancel();
+					session.socket.close();
+
+				} catch (IOException exception) {
+					// Nothing left to close.
+
+				}
+			}
+
+			sessionsEvicted.addAndGet(idle.size());
+			idle.clear();
+
+		}
+
+		/**
+		 * Method used to stop the loop and wait for it to suspend its games and close its connections.
+		 */
+		void close() {
+
+			selector.wakeup();
+
+			try {
+				thread.join();
+
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+
+			}
+		}
+
+		/**
+		 * Method used by the loop's thread, once the server is closed: games still being played are suspended,
+		 * and their players are told their ids, if their sockets take one more line.
+		 */
+		private void shutDown() {
+
+			for (SelectionKey key : selector.keys()) {
+				Session session = (Session) key.attachment();
+
+				try {
+					session.leaveRace();
+
+					if (session.state == PLAYING && session.race == null) {
+						session.suspend();
+						session.out.flip();
+						session.socket.write(session.out);
+
+					}
+					session.socket.close();
+
+				} catch (IOException exception) {
+					// Gone already.
+
+				}
+			}
+
+			try {
+				selector.close();
+
+			} catch (IOException exception) {
+				// Nothing left to close.
+
+			}
+		}
+	}
+
+	/**
+	 * The Session Class is one connected player: its game, where it is in the lifecycle, and its buffers.
+	 * Only its loop's thread touches it.
+	 */
+	private final class Session {
+
+		// Instance fields.
+		private final SocketChannel socket;
+		private final int id;
+		private final ByteBuffer in;
+		private ByteBuffer out;
+		private SelectionKey key;
+		private TimingWheel.Timer<Session> timer;
+		private Hangman game;
+		private RaceGame race;
+		private RaceGame.Player racer;
+		private int raceLevel;
+		private int state;
+
+		Session(SocketChannel socket) {
+
+			this.socket = socket;
+			id = nextSessionId.getAndIncrement();
+			in = ByteBuffer.allocate(MAX_LINE_LENGTH);
+			out = ByteBuffer.allocate(256);
+			state = SETUP;
+
+		}
+
+		/**
+		 * Method used to read what the client sent and answer every whole line in it.
+		 * @param key key of the session.
+		 * @throws IOException connection failed, the client left, or a line is too long.
+		 */
+		void read(SelectionKey key) throws IOException {
+
+			if (socket.read(in) < 0)
+				throw new EOFException();
+
+			in.flip();
+			int lineStart = 0;
+
+			for (int index = 0; index < in.limit(); index++) {
+
+				if (in.get(index) == '\n') {
+					int lineEnd = (index > lineStart && in.get(index - 1) == '\r') ? index - 1 : index;
+					String line = new String(in.array(), lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+					respond(line);
+					lineStart = index + 1;
+
+				}
+			}
+
+			in.position(lineStart);
+			in.compact();
+
+			if (!in.hasRemaining())
+				throw new IOException("Line too long.");
+
+			flush(key);
+
+		}
+
+		/**
+		 * Method used to write what's pending, and to wait for the socket to take the rest if it can't now.
+		 * @param key key of the session.
+		 * @throws IOException connection failed.
+		 */
+		void flush(SelectionKey key) throws IOException {
+
+			out.flip();
+			socket.write(out);
+			out.compact();
+
+			if (out.position() > 0) {
+				key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+
+			} else if (state == CLOSING) {
+				key.cancel();
+				socket.close();
+
+			} else {
+				key.interestOps(SelectionKey.OP_READ);
+
+			}
+		}
+
+		/**
+		 * Method used to answer one line, according to the state of the session.
+		 * @param line line sent by the client.
+		 */
+		private void respond(String line) {
+
+			switch (state) {
+				case SETUP:
+
+					if (line.startsWith("RESUME ")) {
+						resume(line.substring(7));
+
+					} else if (line.equalsIgnoreCase("H") || line.equalsIgnoreCase("hard")) {
+						startGame(Hangman.HARD);
+
+					} else if (line.equalsIgnoreCase("E") || line.equalsIgnoreCase("easy")) {
+						startGame(Hangman.EASY);
+
+					} else if (line.equalsIgnoreCase("RACE") || line.equalsIgnoreCase("RACE E")) {
+						joinRace(Hangman.EASY);
+
+					} else if (line.equalsIgnoreCase("RACE H")) {
+						joinRace(Hangman.HARD);
+
+					} else {
+						send("ERR Error: you entered an incorrect option for the difficulty level.");
+
+					}
+					break;
+
+				case PLAYING:
+
+					if (race != null)
+						raceGuess(line);
+					else if (line.equals("SUSPEND"))
+						suspend();
+					else
+						guess(line);
+
+					break;
+
+				case KEEP_PLAYING:
+
+					if ((line.equalsIgnoreCase("y") || line.equalsIgnoreCase("yes")) && race != null) {
+						joinRace(raceLevel);
+
+					} else if (line.equalsIgnoreCase("y") || line.equalsIgnoreCase("yes")) {
+						startRound();
+
+					} else if (line.equalsIgnoreCase("n") || line.equalsIgnoreCase("no")) {
+						send("BYE");
+						state = CLOSING;
+
+					} else {
+						send("ERR Error: Invalid Input!");
+
+					}
+					break;
+
+			}
+		}
+
+		/**
+		 * Method used to set the session up with the words of a difficulty level, and start the first round.
+		 * @param difficultyLevel Hangman.EASY or Hangman.HARD.
+		 */
+		private void startGame(int difficultyLevel) {
+
+			DictionaryIndex.Partition partition = dictionaryIndex.getPartition(difficultyLevel);
+
+			if (partition.getWords().isEmpty()) {
+				send("ERR Error: the dictionary has no words for that difficulty level.");
+				return;
+
+			}
+
+			game = new Hangman(partition);
+			game.setDifficultyLevel(difficultyLevel);
+			startRound();
+
+		}
+
+		/**
+		 * Method used to take over a suspended game.
+		 * @param id id the game was suspended with.
+		 */
+		private void resume(String id) {
+
+			Hangman resumed = null;
+
+			try {
+				resumed = suspended.remove(Integer.parseInt(id.trim()));
+
+			} catch (NumberFormatException exception) {
+				// Not an id: no such game.
+
+			}
+
+			if (resumed == null) {
+				send("ERR Error: there is no suspended game " + id + ".");
+				return;
+
+			}
+
+			game = resumed;
+			state = PLAYING;
+			sendPattern();
+
+		}
+
+		/**
+		 * Method used to suspend the game being played, under the session's id, and end the session.
+		 */
+		void suspend() {
+
+			suspended.put(id, game);
+			send("SUSPENDED " + id);
+			state = CLOSING;
+
+		}
+
+		/**
+		 * Method used to start a round with a new secret word.
+		 */
+		private void startRound() {
+
+			game.pickSecretWord();
+			game.populateSecretWordLineChars();
+			game.setNumWrongGuesses(0);
+			state = PLAYING;
+			sendPattern();
+
+			if (events.hasSubscribers())
+				events.publish(new GameEvent.RoundStarted(id, game.snapshot()));
+
+		}
+
+		/**
+		 * Method used to play one guess, the way the console game does.
+		 * @param line guess sent by the client.
+		 */
+		private void guess(String line) {
+
+			char firstChar = line.isEmpty() ? 0 : line.charAt(0);
+			int verdict = GuessValidator.validate(firstChar, line.length(), game);
+
+			if (verdict != GuessValidator.VALID) {
+				send("ERR " + GuessValidator.message(verdict, firstChar));
+				return;
+
+			}
+
+			char guess = Character.toLowerCase(firstChar);
+			game.markLetterUsed(guess);
+			int numRevealed = game.revealGuess(guess);
+
+			if (!game.checkGuess(guess))
+				game.setNumWrongGuesses(game.getNumWrongGuesses() + 1);
+
+			if (events.hasSubscribers())
+				events.publish(new GameEvent.GuessMade(id, game.snapshot(), guess, numRevealed));
+
+			GameJournal journal = HangmanServer.this.journal;
+
+			if (journal != null) {
+
+				try {
+					journal.logGuess(game.getSecretWord().length(), guess, Long.bitCount(game.getLettersUsed()), numRevealed > 0,
+									 game.getNumWrongGuesses());
+
+				} catch (IOException exception) {
+					dropJournal(journal, exception);
+
+				}
+			}
+
+			if (game.checkGameStatus()) {
+				game.setNumWins(game.getNumWins() + 1);
+				endRound("WON ");
+
+			} else if (game.getNumWrongGuesses() >= Hangman.MAX_GUESSES) {
+				game.setNumLosses(game.getNumLosses() + 1);
+				endRound("LOST ");
+
+			} else {
+				sendPattern();
+
+			}
+		}
+
+		/**
+		 * Method used to end a round and tell the client how it went.
+		 * @param outcome "WON " or "LOST ".
+		 */
+		private void endRound(String outcome) {
+
+			game.setNumGames(game.getNumGames() + 1);
+			gamesPlayed.incrementAndGet();
+			state = KEEP_PLAYING;
+			send(outcome + game.getSecretWord());
+
+			if (events.hasSubscribers())
+				events.publish(new GameEvent.GameEnded(id, game.snapshot(), Long.bitCount(game.getLettersUsed())));
+
+			GameJournal journal = HangmanServer.this.journal;
+
+			if (journal != null) {
+
+				try {
+					journal.logOutcome(game.getSecretWord().length(), Long.bitCount(game.getLettersUsed()), outcome.equals("WON "),
+									   game.getNumWrongGuesses());
+
+				} catch (IOException exception) {
+					dropJournal(journal, exception);
+
+				}
+			}
+		}
+
+		/**
+		 * Method used to join the race of a difficulty level: the one going on, or a new one, with a word of
+		 * the level, if it's over. Sessions on other loops may be starting one at the same time, so only one
+		 * of them gets it in; the others join it.
+		 * @param difficultyLevel Hangman.EASY or Hangman.HARD.
+		 */
+		private void joinRace(int difficultyLevel) {
+
+			DictionaryIndex.Partition partition = dictionaryIndex.getPartition(difficultyLevel);
+
+			if (partition.getWords().isEmpty()) {
+				send("ERR Error: the dictionary has no words for that difficulty level.");
+				return;
+
+			}
+
+			RaceGame current = races.get(difficultyLevel);
+
+			while (current == null || current.isOver()) {
+				RaceGame next = new RaceGame(partition.getWords().get(partition.nextWordId(ThreadLocalRandom.current())),
+											 partition.getAlphabet());
+				current = races.compareAndSet(difficultyLevel, current, next) ? next : races.get(difficultyLevel);
+
+			}
+
+			race = current;
+			raceLevel = difficultyLevel;
+			racer = current.join("session-" + id);
+			state = PLAYING;
+			sendRacePattern("PLAY ");
+
+		}
+
+		/**
+		 * Method used to play one guess of a race.
+		 * @param line guess sent by the client.
+		 */
+		private void raceGuess(String line) {
+
+			char firstChar = line.isEmpty() ? 0 : line.charAt(0);
+
+			if (line.length() != 1) {
+				send("ERR " + GuessValidator.message(line.isEmpty() ? GuessValidator.EMPTY : GuessValidator.MULTIPLE_CHARS, firstChar));
+				return;
+
+			}
+
+			char guess = Character.toLowerCase(firstChar);
+
+			if (!Character.isLetter(guess) || race.getAlphabet().bit(guess) == 0) {
+				send("ERR " + GuessValidator.NOT_ALPHABET_MESSAGE);
+				return;
+
+			}
+
+			if (race.guess(racer, guess) == RaceGame.ALREADY_USED) {												// Claimed by this racer, or another one first.
+				send("ERR " + GuessValidator.previouslyUsedMessage(firstChar));
+				return;
+
+			}
+
+			if (race.getWinner() == racer)
+				endRace("WON ");
+			else if (race.isOver())
+				endRace("LOST ");
+			else if (!racer.hasGuessesLeft())
+				sendRacePattern("OUT ");																			// Waits for the others.
+			else
+				sendRacePattern("PLAY ");
+
+		}
+
+		/**
+		 * Method used to end a race for the session and tell the client how it went.
+		 * @param outcome "WON " or "LOST ".
+		 */
+		private void endRace(String outcome) {
+
+			gamesPlayed.incrementAndGet();
+			state = KEEP_PLAYING;
+			send(outcome + race.getSecretWord());
+
+		}
+
+		/**
+		 * Method used to take the session out of its race, e.g. when it's closed, so that the others don't wait
+		 * for it.
+		 */
+		void leaveRace() {
+
+			if (racer != null)
+				race.leave(racer);
+
+		}
+
+		/**
+		 * Method used to send the race's word so far and the session's guesses left.
+		 * @param prefix "PLAY " or "OUT ".
+		 */
+		private void sendRacePattern(String prefix) {
+			send(prefix + new String(race.getRevealedChars()) + ' ' + Math.max(0, Hangman.MAX_GUESSES - racer.getNumWrongGuesses()));
+
+		}
+
+		/**
+		 * Method used to send the word so far and the guesses left.
+		 */
+		private void sendPattern() {
+
+			GameState state = game.snapshot();
+			send(state.appendMaskedWord(new StringBuilder("PLAY "), (char) 0).append(' ').append(state.getNumGuessesLeft()).toString());
+
+		}
+
+		/**
+		 * Method used to queue a line for the client.
+		 * @param line line, without terminator.
+		 */
+		private void send(String line) {
+
+			byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+
+			if (out.remaining() < bytes.length) {
+				ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * out.capacity(), out.position() + bytes.length));
+				out.flip();
+				larger.put(out);
+				out = larger;
+
+			}
+			out.put(bytes);
+
+		}
+	}
+}
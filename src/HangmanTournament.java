@@ -0,0 +1,185 @@
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class runs a tournament: a large number of bot games over one dictionary and difficulty level, for
+ * each of a list of guessing strategies. Games are split into shards that run on a fork-join pool. Each
+ * shard plays on its own copy of the game and fills its own results, which are merged when shards are
+ * joined, so workers never share anything they write. Every strategy plays the same secret words, since
+ * game i always uses the same round seed, which also seeds the guesses of random strategies, so a run
+ * with the same seed is played the same way. The summary is written as CSV, one line per strategy.
+ * Usage: java HangmanTournament dictionary[,dictionary...] E|H numGames strategy[,strategy...] [output.csv] [seed]
+ * @author Cristobal Padilla
+ *
+ */
+public class HangmanTournament {
+
+	// Number of games a shard plays without splitting further.
+	public static final int SHARD_SIZE = 1024;
+
+	// Instance fields.
+	private final Hangman template;
+	private final GuessingStrategy[] strategies;
+	private final long baseSeed;
+
+	public static void main(String[] args) {
+
+		if (args.length < 4) {
+			System.out.println("Usage: java HangmanTournament dictionary[,dictionary...] E|H numGames strategy[,strategy...] [output.csv] [seed]");
+			System.out.println("Strategies: " + LetterFrequencyStrategy.NAME + ", " + RandomGuessStrategy.NAME + ", " +
+							   CandidateFilterStrategy.NAME);
+			return;
+
+		}
+
+		try {
+			Hangman template = new Hangman(WordSource.parse(args[0]));
+			template.setDifficultyLevel(args[1].equalsIgnoreCase("H") ? Hangman.HARD : Hangman.EASY);
+			template.populateDictionaryArray();
+
+			String[] names = args[3].split(",");
+			GuessingStrategy[] strategies = new GuessingStrategy[names.length];
+
+			for (int index = 0; index < names.length; index++) {
+				strategies[index] = GuessingStrategy.forName(names[index].trim(), template.getDictionary());
+
+			}
+
+			long baseSeed = (args.length > 5) ? Long.parseLong(args[5]) : System.nanoTime();
+			HangmanTournament tournament = new HangmanTournament(template, strategies, baseSeed);
+
+			long start = System.nanoTime();
+			TournamentResult[] results = tournament.run(Long.parseLong(args[2]));
+			long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+			try (PrintStream out = (args.length > 4) ? new PrintStream(new FileOutputStream(args[4]), false, StandardCharsets.UTF_8) : null) {
+				writeCsv(results, (out != null) ? out : System.out);
+
+			}
+			System.err.println(results[0].getNumGames() * strategies.length + " games in " + millis + " ms on " +
+							   ForkJoinPool.commonPool().getParallelism() + " workers (" +
+							   (results[0].getNumGames() * strategies.length * 1000 / millis) + " games/sec).");
+
+		} catch (IOException | IllegalArgumentException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * Constructor takes a game whose dictionary has been populated, and the strategies to compare.
+	 * @param template populated game.
+	 * @param strategies strategies, each shared by all workers.
+	 * @param baseSeed seed the round seeds are derived from.
+	 */
+	public HangmanTournament(Hangman template, GuessingStrategy[] strategies, long baseSeed) {
+
+		this.template = template;
+		this.strategies = strategies;
+		this.baseSeed = baseSeed;
+
+	}
+
+	/**
+	 * Method used to play every game of the tournament on the common fork-join pool.
+	 * @param numGames number of games each strategy plays.
+	 * @return results, in the same order as the strategies.
+	 */
+	public TournamentResult[] run(long numGames) {
+		return ForkJoinPool.commonPool().invoke(new Shard(0, numGames));
+
+	}
+
+	/**
+	 * Method used to get the round seed of a game, so that every strategy plays the same words.
+	 * @param gameNumber number of the game.
+	 * @return seed
+	 */
+	private long roundSeed(long gameNumber) {
+		return baseSeed * 0x9E3779B97F4A7C15L + gameNumber;
+
+	}
+
+	/**
+	 * Method used to write the CSV summary.
+	 * @param results results of the strategies.
+	 * @param out stream to write to.
+	 */
+	public static void writeCsv(TournamentResult[] results, PrintStream out) {
+
+		out.println(TournamentResult.csvHeader());
+
+		for (TournamentResult result : results) {
+			out.println(result.toCsv());
+
+		}
+	}
+
+	/**
+	 * The Shard Class plays a range of games. Big ranges are split in two and played in parallel.
+	 */
+	private class Shard extends RecursiveTask<TournamentResult[]> {
+
+		// Static constants.
+		private static final long serialVersionUID = 1L;
+
+		// Instance fields.
+		private final long from;
+		private final long to;
+
+		/**
+		 * Constructor takes the range of games to play.
+		 * @param from first game.
+		 * @param to game after the last.
+		 */
+		Shard(long from, long to) {
+			this.from = from;
+			this.to = to;
+
+		}
+
+		@Override
+		protected TournamentResult[] compute() {
+
+			if (to - from > SHARD_SIZE) {
+				long middle = (from + to) >>> 1;
+				Shard left = new Shard(from, middle);
+				left.fork();
+				TournamentResult[] results = new Shard(middle, to).compute();
+				TournamentResult[] leftResults = left.join();
+
+				for (int index = 0; index < results.length; index++) {
+					results[index].merge(leftResults[index]);
+
+				}
+				return results;
+
+			}
+
+			Hangman game = new Hangman(template);															// This shard's own game state.
+			TournamentResult[] results = new TournamentResult[strategies.length];
+
+			for (int index = 0; index < strategies.length; index++) {
+				results[index] = new TournamentResult(strategies[index].getName());
+
+			}
+
+			for (long gameNumber = from; gameNumber < to; gameNumber++) {
+
+				for (int index = 0; index < strategies.length; index++) {
+					long seed = roundSeed(gameNumber);
+					game.pickSecretWord(seed);
+					int numGuesses = game.playRound(strategies[index].forGame(seed));				// Random strategies replay with the seed too.
+					results[index].addGame(game.checkGameStatus(), numGuesses, game.getNumWrongGuesses());
+
+				}
+			}
+			return results;
+
+		}
+	}
+}
@@ -9,10 +9,10 @@ public class IncorrectDifficultyLevelEntryException extends Exception {
 	
 	/**
 	 * No-args constructor, which uses a call to the Exception Class's constructor, 
-	 * passing a string argument message.
+	 * passing a string argument message. No stack trace.
 	 */
 	IncorrectDifficultyLevelEntryException() {
-		super("Error: you entered an incorrect option for the difficulty level. Please enter 'H' for hard or 'E' for easy." );
+		super("Error: you entered an incorrect option for the difficulty level. Please enter 'H' for hard or 'E' for easy.", null, false, false);
 		
 	}
 }
@@ -8,10 +8,11 @@ public class InvalidKeepPlayingInputException extends Exception{
 
 	/**
 	 * No-args constructor, which uses a call to the Exception Class's constructor, 
-	 * passing a string argument message.
+	 * passing a string argument message. It reports bad input, not a
+	 * bug, so it has no stack trace.
 	 */
 	public InvalidKeepPlayingInputException() {
-		super("Error: Invalid Input!");
+		super("Error: Invalid Input!", null, false, false);
 		
 	}
 }
@@ -0,0 +1,244 @@
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * This class is an offline query tool for the journals written by the GameJournal Class. Every segment
+ * file is memory-mapped and scanned on its own thread, and the partial results are merged at the end.
+ * It prints how often each letter is guessed and how often it hits, which letters players open with,
+ * and, for every word length, the loss rate and the letters that most often turn out wrong.
+ * Usage: java JournalScan journalDirectory
+ * @author Cristobal Padilla
+ *
+ */
+public class JournalScan {
+
+	// Constants used to size the tables. Longer words and later guesses share the last row.
+	public static final int MAX_WORD_LENGTH = 32;
+	public static final int MAX_GUESS_NUMBER = 32;
+	public static final int NUM_TOP_LETTERS = 5;
+
+	// Instance fields.
+	private final TreeMap<Character, long[]> letterGuesses;											// letter -> {guesses, hits}
+	private final TreeMap<Character, long[]> letterByGuessNumber;										// letter -> count per guess number
+	private final TreeMap<Character, long[]> wrongByWordLength;											// letter -> wrong guesses per word length
+	private final long[] gamesByWordLength;
+	private final long[] lossesByWordLength;
+	private long numRecords;
+
+	public static void main(String[] args) {
+
+		if (args.length != 1) {
+			System.out.println("Usage: java JournalScan journalDirectory");
+			return;
+
+		}
+
+		File[] segments = GameJournal.listSegments(new File(args[0]));
+
+		try {
+			JournalScan result = scan(segments);
+			result.print(System.out);
+
+		} catch (UncheckedIOException exception) {
+			System.out.println(exception.getCause().getMessage());
+
+		}
+	}
+
+	/**
+	 * No-args constructor, which starts with empty tables.
+	 */
+	public JournalScan() {
+
+		letterGuesses = new TreeMap<Character, long[]>();
+		letterByGuessNumber = new TreeMap<Character, long[]>();
+		wrongByWordLength = new TreeMap<Character, long[]>();
+		gamesByWordLength = new long[MAX_WORD_LENGTH + 1];
+		lossesByWordLength = new long[MAX_WORD_LENGTH + 1];
+
+	}
+
+	/**
+	 * Method used to scan segment files in parallel and merge the results.
+	 * @param segments segment files.
+	 * @return merged result.
+	 * @throws UncheckedIOException a segment could not be read.
+	 */
+	public static JournalScan scan(File[] segments) {
+
+		return Arrays.stream(segments)
+					 .parallel()
+					 .map(JournalScan::scanSegment)
+					 .reduce(new JournalScan(), JournalScan::merge);
+
+	}
+
+	/**
+	 * Method used to scan one segment file.
+	 * @param segment segment file.
+	 * @return result for this segment.
+	 * @throws UncheckedIOException the segment could not be read.
+	 */
+	private static JournalScan scanSegment(File segment) {
+
+		JournalScan result = new JournalScan();
+
+		try (FileChannel channel = FileChannel.open(segment.toPath(), StandardOpenOption.READ)) {
+
+			long usableSize = channel.size() - (channel.size() % GameJournal.RECORD_SIZE);				// Ignore a torn record at the end.
+			MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, 0, usableSize);
+
+			while (records.hasRemaining()) {
+				result.add(records);
+
+			}
+
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+
+		}
+		return result;
+
+	}
+
+	/**
+	 * Method used to add the next record of a buffer to the tables.
+	 * @param records buffer positioned at a record.
+	 */
+	private void add(ByteBuffer records) {
+
+		byte type = records.get();
+		int wordLength = Math.min(records.get() & 0xFF, MAX_WORD_LENGTH);
+		char letter = records.getChar();
+		int count = records.get() & 0xFF;
+		boolean flag = records.get() != 0;
+		records.get();																					// Wrong guesses so far, not needed here.
+		records.get();
+
+		numRecords++;
+
+		if (type == GameJournal.GUESS_RECORD) {
+			letterGuesses.computeIfAbsent(letter, key -> new long[2])[0]++;
+
+			if (flag)
+				letterGuesses.get(letter)[1]++;
+			else
+				wrongByWordLength.computeIfAbsent(letter, key -> new long[MAX_WORD_LENGTH + 1])[wordLength]++;
+
+			letterByGuessNumber.computeIfAbsent(letter, key -> new long[MAX_GUESS_NUMBER + 1])[Math.min(count, MAX_GUESS_NUMBER)]++;
+
+		} else if (type == GameJournal.OUTCOME_RECORD) {
+			gamesByWordLength[wordLength]++;
+
+			if (!flag)
+				lossesByWordLength[wordLength]++;
+
+		}
+	}
+
+	/**
+	 * Method used to merge two results into a new one.
+	 * @param left result.
+	 * @param right result.
+	 * @return merged result.
+	 */
+	private static JournalScan merge(JournalScan left, JournalScan right) {
+
+		JournalScan merged = new JournalScan();
+
+		for (JournalScan part : new JournalScan[] {left, right}) {
+			mergeTable(merged.letterGuesses, part.letterGuesses);
+			mergeTable(merged.letterByGuessNumber, part.letterByGuessNumber);
+			mergeTable(merged.wrongByWordLength, part.wrongByWordLength);
+			addInto(merged.gamesByWordLength, part.gamesByWordLength);
+			addInto(merged.lossesByWordLength, part.lossesByWordLength);
+			merged.numRecords += part.numRecords;
+
+		}
+		return merged;
+
+	}
+
+	/**
+	 * Method used to add the rows of one table into another.
+	 */
+	private static void mergeTable(TreeMap<Character, long[]> target, TreeMap<Character, long[]> source) {
+
+		for (Map.Entry<Character, long[]> entry : source.entrySet()) {
+			addInto(target.computeIfAbsent(entry.getKey(), key -> new long[entry.getValue().length]), entry.getValue());
+
+		}
+	}
+
+	/**
+	 * Method used to add one array into another of the same length.
+	 */
+	private static void addInto(long[] target, long[] source) {
+
+		for (int index = 0; index < source.length; index++) {
+			target[index] += source[index];
+
+		}
+	}
+
+	/**
+	 * Method used to print the letter-guess distribution and the failure heatmap.
+	 * @param out stream to print to.
+	 */
+	public void print(PrintStream out) {
+
+		out.println("Records scanned: " + numRecords);
+		out.println();
+		out.println("Letter\tGuesses\tHit rate\tAs first guess");
+
+		for (Map.Entry<Character, long[]> entry : letterGuesses.entrySet()) {
+			long[] counts = entry.getValue();
+			out.printf("%c\t%d\t%.1f %%\t\t%d%n", entry.getKey(), counts[0], 100.0 * counts[1] / counts[0],
+					   letterByGuessNumber.get(entry.getKey())[1]);
+
+		}
+
+		out.println();
+		out.println("Length\tGames\tLoss rate\tMost often wrong");
+
+		for (int wordLength = 1; wordLength <= MAX_WORD_LENGTH; wordLength++) {
+
+			if (gamesByWordLength[wordLength] == 0)
+				continue;
+
+			out.printf("%d%s\t%d\t%.1f %%\t\t%s%n", wordLength, (wordLength == MAX_WORD_LENGTH) ? "+" : "",
+					   gamesByWordLength[wordLength], 100.0 * lossesByWordLength[wordLength] / gamesByWordLength[wordLength],
+					   topWrongLetters(wordLength));
+
+		}
+	}
+
+	/**
+	 * Method used to list the letters with the most wrong guesses for one word length.
+	 * @param wordLength row of the heatmap.
+	 * @return letters and counts, most frequent first.
+	 */
+	private String topWrongLetters(int wordLength) {
+
+		ArrayList<Map.Entry<Character, long[]>> rows = new ArrayList<Map.Entry<Character, long[]>>(wrongByWordLength.entrySet());
+		rows.sort((left, right) -> Long.compare(right.getValue()[wordLength], left.getValue()[wordLength]));
+
+		StringBuilder str = new StringBuilder();
+
+		for (int index = 0; index < Math.min(NUM_TOP_LETTERS, rows.size()); index++) {
+
+			if (rows.get(index).getValue()[wordLength] == 0)
+				break;
+
+			str.append(rows.get(index).getKey()).append('=').append(rows.get(index).getValue()[wordLength]).append(' ');
+
+		}
+		return str.toString();
+
+	}
+}
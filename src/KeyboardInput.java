@@ -0,0 +1,44 @@
+import java.io.InputStream;
+import java.util.Scanner;
+
+/**
+ * The KeyboardInput Class reads the user's lines with a Scanner. It's the input used when somebody is
+ * actually typing.
+ * @author Cristobal Padilla
+ *
+ */
+public class KeyboardInput implements GameInput {
+
+	// Instance fields.
+	private final Scanner keyboard;
+	private String line;
+
+	/**
+	 * Constructor takes the stream to read from.
+	 * @param in usually System.in.
+	 */
+	public KeyboardInput(InputStream in) {
+		keyboard = new Scanner(in);
+
+	}
+
+	@Override
+	public int readLine() {
+
+		line = keyboard.nextLine();
+		return line.length();
+
+	}
+
+	@Override
+	public char getFirstChar() {
+		return line.isEmpty() ? 0 : line.charAt(0);
+
+	}
+
+	@Override
+	public String getLine() {
+		return line;
+
+	}
+}
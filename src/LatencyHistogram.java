@@ -0,0 +1,175 @@
+
+import java.util.Arrays;
+
+/**
+ * The LatencyHistogram Class counts latencies the way an HDR histogram does: buckets are linear within each
+ * power of two and there are 2^SUB_BUCKET_BITS of them per power, so every value is kept with a relative
+ * error under 1/2^SUB_BUCKET_BITS (under 1% here), from one nanosecond up to hours, in a few thousand
+ * counters. Recording is a couple of shifts and an increment, with no allocation. It isn't thread-safe:
+ * each thread should fill its own histogram, and add() them together afterwards.
+ * @author Cristobal Padilla
+ *
+ */
+public class LatencyHistogram {
+
+	// Precision: 2^7 = 128 buckets per power of two.
+	public static final int SUB_BUCKET_BITS = 7;
+	public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	// Instance fields.
+	private final long[] counts;
+	private long totalCount;
+	private long min;
+	private long max;
+	private double sum;
+
+	/**
+	 * No-args constructor, for an empty histogram.
+	 */
+	public LatencyHistogram() {
+
+		counts = new long[(Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT];
+		min = Long.MAX_VALUE;
+
+	}
+
+	/**
+	 * Method used to record one value.
+	 * @param nanos latency, in nanoseconds. Negative values count as 0.
+	 */
+	public void record(long nanos) {
+
+		long value = Math.max(0, nanos);
+		counts[indexOf(value)]++;
+		totalCount++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+
+	}
+
+	/**
+	 * Method used to find the bucket of a value. Values below 2 * SUB_BUCKET_COUNT have a bucket each;
+	 * above, the SUB_BUCKET_BITS bits after the leading one pick the bucket within the power of two.
+	 * @param value value, not negative.
+	 * @return index
+	 */
+	private static int indexOf(long value) {
+
+		int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+
+		if (shift <= 0)
+			return (int) value;
+
+		return ((shift + 1) << SUB_BUCKET_BITS) + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+
+	}
+
+	/**
+	 * Method used to get the highest value that falls in a bucket.
+	 * @param index index of the bucket.
+	 * @return value
+	 */
+	private static long highestValueOf(int index) {
+
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+
+		if (shift <= 0)
+			return index;
+
+		long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+		return ((subBucket + 1) << shift) - 1;
+
+	}
+
+	/**
+	 * Method used to get a percentile. The value returned is the top of the bucket the percentile falls in,
+	 * capped at the maximum recorded.
+	 * @param percentile e.g. 99.9
+	 * @return nanoseconds, or 0 if nothing was recorded.
+	 */
+	public long getPercentile(double percentile) {
+
+		if (totalCount == 0)
+			return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+		long seen = 0;
+
+		for (int index = 0; index < counts.length; index++) {
+			seen += counts[index];
+
+			if (seen >= rank)
+				return Math.min(max, highestValueOf(index));
+
+		}
+		return max;
+
+	}
+
+	/**
+	 * Method used to add the values of another histogram to this one.
+	 * @param other histogram.
+	 */
+	public void add(LatencyHistogram other) {
+
+		for (int index = 0; index < counts.length; index++) {
+			counts[index] += other.counts[index];
+
+		}
+		totalCount += other.totalCount;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+
+	}
+
+	/**
+	 * Method used to forget every value recorded.
+	 */
+	public void reset() {
+
+		Arrays.fill(counts, 0);
+		totalCount = 0;
+		sum = 0;
+		min = Long.MAX_VALUE;
+		max = 0;
+
+	}
+
+	/**
+	 * Method used to get the number of values recorded.
+	 * @return totalCount
+	 */
+	public long getTotalCount() {
+		return totalCount;
+
+	}
+
+	/**
+	 * Method used to get the smallest value recorded.
+	 * @return nanoseconds, or 0 if nothing was recorded.
+	 */
+	public long getMin() {
+		return (totalCount == 0) ? 0 : min;
+
+	}
+
+	/**
+	 * Method used to get the largest value recorded.
+	 * @return nanoseconds, or 0 if nothing was recorded.
+	 */
+	public long getMax() {
+		return max;
+
+	}
+
+	/**
+	 * Method used to get the mean of the values recorded.
+	 * @return nanoseconds, or 0 if nothing was recorded.
+	 */
+	public double getMean() {
+		return (totalCount == 0) ? 0 : sum / totalCount;
+
+	}
+}
@@ -0,0 +1,51 @@
+
+/**
+ * This strategy guesses letters in order of how common they are in English text, followed by any other
+ * letter of the alphabet in alphabet order. It's the baseline every other strategy should beat.
+ * @author Cristobal Padilla
+ *
+ */
+public class LetterFrequencyStrategy implements GuessingStrategy {
+
+	// Static constants.
+	public static final String NAME = "frequency";
+	public static final String ENGLISH_LETTER_ORDER = "etaoinsrhldcumfpgwybvkxjqz";
+
+	@Override
+	public char nextGuess(char[] revealedChars, long lettersUsed, Alphabet alphabet) {
+
+		for (int index = 0; index < ENGLISH_LETTER_ORDER.length(); index++) {
+			char letter = ENGLISH_LETTER_ORDER.charAt(index);
+
+			if ((lettersUsed & alphabet.bit(letter)) == 0)
+				return letter;
+
+		}
+		return firstUnused(lettersUsed, alphabet);
+
+	}
+
+	/**
+	 * Method used to get the first letter of the alphabet that has not been used.
+	 * @param lettersUsed bitset of the alphabet indices guessed so far.
+	 * @param alphabet alphabet of the game.
+	 * @return letter
+	 * @throws IllegalStateException every letter has been used.
+	 */
+	static char firstUnused(long lettersUsed, Alphabet alphabet) {
+
+		int index = Long.numberOfTrailingZeros(~lettersUsed);
+
+		if (index >= alphabet.size())
+			throw new IllegalStateException("Every letter has been used.");
+
+		return (char) alphabet.codePointAt(index);
+
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+
+	}
+}
@@ -0,0 +1,228 @@
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The MergedWordSource Class reads several sources as one dictionary. The simple sources they are made of
+ * (see WordSource.expand()) are merged in the order they were given, line by line. A word already merged,
+ * ignoring case, is dropped with the rest of its line, so the first source that has a word decides its
+ * frequency column. DictionaryIndex.load(WordSource) reads the simple sources in parallel, a thread each up
+ * to the number of processors (see readParts()), and parses their lines straight into the index; open()
+ * streams them one after the other.
+ * @author Cristobal Padilla
+ *
+ */
+public class MergedWordSource implements WordSource {
+
+	// Instance fields.
+	private final List<WordSource> sources;
+
+	/**
+	 * Constructor takes the sources, in order of precedence.
+	 * @param sources sources to merge.
+	 */
+	public MergedWordSource(List<WordSource> sources) {
+		this.sources = new ArrayList<WordSource>(sources);
+
+	}
+
+	/**
+	 * Method used to open a reader over the merged lines. It reads the sources one after the other, as the
+	 * lines are read; DictionaryIndex.load(WordSource) reads them in parallel instead.
+	 * @return reader
+	 * @throws IOException sources could not be listed.
+	 */
+	@Override
+	public BufferedReader open() throws IOException {
+		return new BufferedReader(new MergedReader(expand()));
+
+	}
+
+	/**
+	 * Method used to read the lines of simple sources in parallel, a thread each up to the number of
+	 * processors. The lines of each source are kept apart, in the order of the sources, for
+	 * DictionaryIndex.load(List) to merge.
+	 * @param parts simple sources, in order of precedence.
+	 * @return lines of each source.
+	 * @throws IOException a source could not be read; the others are not waited for.
+	 */
+	public static List<ArrayList<String>> readParts(List<WordSource> parts) throws IOException {
+
+		ExecutorService readers = Executors.newFixedThreadPool(Math.max(1, Math.min(parts.size(), Runtime.getRuntime().availableProcessors())),
+															   runnable -> {
+																   Thread thread = new Thread(runnable, "word-source-reader");
+																   thread.setDaemon(true);
+																   return thread;
+
+															   });
+		ArrayList<Future<ArrayList<String>>> pending = new ArrayList<Future<ArrayList<String>>>(parts.size());
+
+		try {
+
+			for (WordSource part : parts) {
+				pending.add(readers.submit(() -> read(part)));
+
+			}
+
+			ArrayList<ArrayList<String>> lines = new ArrayList<ArrayList<String>>(parts.size());
+
+			for (Future<ArrayList<String>> part : pending) {
+				lines.add(part.get());
+
+			}
+			return lines;
+
+		} catch (ExecutionException exception) {
+
+			if (exception.getCause() instanceof IOException)
+				throw (IOException) exception.getCause();
+
+			throw new IOException(exception.getCause());
+
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while reading the dictionaries.");
+
+		} finally {
+			readers.shutdownNow();
+
+		}
+	}
+
+	/**
+	 * Method used to read the lines of one simple source.
+	 * @param source source.
+	 * @return lines
+	 * @throws IOException source could not be read.
+	 */
+	private static ArrayList<String> read(WordSource source) throws IOException {
+
+		ArrayList<String> lines = new ArrayList<String>();
+
+		try (BufferedReader in = source.open()) {
+
+			for (String line; (line = in.readLine()) != null; ) {
+				lines.add(line);
+
+			}
+		}
+		return lines;
+
+	}
+
+	@Override
+	public List<WordSource> expand() throws IOException {
+
+		ArrayList<WordSource> parts = new ArrayList<WordSource>();
+
+		for (WordSource source : sources) {
+			parts.addAll(source.expand());
+
+		}
+		return parts;
+
+	}
+
+	@Override
+	public String getName() {
+
+		StringJoiner names = new StringJoiner(",");
+
+		for (WordSource source : sources) {
+			names.add(source.getName());
+
+		}
+		return names.toString();
+
+	}
+
+	/**
+	 * The MergedReader Class reads the sources one after the other, a line at a time, and drops the lines of
+	 * words already read. Only the words seen are kept, never the lines.
+	 */
+	private static final class MergedReader extends Reader {
+
+		// Instance fields.
+		private final Iterator<WordSource> parts;
+		private final HashSet<String> seen;
+		private BufferedReader part;
+		private String line;
+		private int position;
+
+		MergedReader(List<WordSource> parts) {
+
+			this.parts = parts.iterator();
+			seen = new HashSet<String>();
+
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) throws IOException {
+
+			if (length == 0)
+				return 0;
+
+			while (line == null || position > line.length()) {												// position == length() is the '\n'.
+				line = nextLine();
+
+				if (line == null)
+					return -1;
+
+				position = 0;
+
+			}
+
+			int count = Math.min(length, line.length() - position);
+			line.getChars(position, position + count, buffer, offset);
+			position += count;
+
+			if (count < length) {
+				buffer[offset + count++] = '\n';
+				position++;
+
+			}
+			return count;
+
+		}
+
+		/**
+		 * Method used to read the next line of a word not read yet, opening the next source when one ends.
+		 * @return line, or null once every source has ended.
+		 * @throws IOException a source could not be read.
+		 */
+		private String nextLine() throws IOException {
+
+			while (true) {
+
+				if (part == null) {
+
+					if (!parts.hasNext())
+						return null;
+
+					part = parts.next().open();
+
+				}
+
+				String str = part.readLine();
+
+				if (str == null) {
+					part.close();
+					part = null;
+
+				} else if (seen.add(Alphabet.fold(DictionaryIndex.wordOf(str)))) {
+					return str;
+
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+
+			if (part != null)
+				part.close();
+
+		}
+	}
+}
@@ -9,10 +9,10 @@ public class MultipleCharsEnteredException extends Exception {
 	
 	/**
 	 * No-args constructor, which uses a call to the Exception Class's constructor,
-	 * passing a string argument message.
+	 * passing a string argument message. No stack trace is filled in, which keeps rejecting bot input cheap.
 	 */
 	MultipleCharsEnteredException () {
-		super("Error: You entered multiple characters. Single-character guesses only.");
+		super(GuessValidator.MULTIPLE_CHARS_MESSAGE, null, false, false);
 		
 	}
 }
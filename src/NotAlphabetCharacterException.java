@@ -9,10 +9,10 @@ public class NotAlphabetCharacterException extends Exception {
 	
 	/**
 	 * No-args constructor, which uses a call to the Exception Class's constructor,
-	 * passing a string argument message.
+	 * passing a string argument message. It has no stack trace, see GuessValidator.
 	 */
 	NotAlphabetCharacterException()  {
-		super("Error: You entered an invalid character. Only enter valid alphabet character, as indicated above.");
+		super(GuessValidator.NOT_ALPHABET_MESSAGE, null, false, false);
 		
 	}
 }
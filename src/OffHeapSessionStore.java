@@ -0,0 +1,424 @@
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The OffHeapSessionStore Class keeps the games of many sessions outside the Java heap. What a round needs
+ * is a handful of numbers: the index of the secret word, the bitset of its letters, the bitset of the
+ * letters used, the wrong guesses, plus the session's wins and losses. Each session is a fixed-size record
+ * of RECORD_SIZE bytes in a direct buffer, instead of a Hangman with its char array, Random and lists, so
+ * the collector has nothing to trace however many sessions there are: a million of them are 32 MB that
+ * it never looks at. Buffers (slabs) of SLAB_SLOTS records are added as needed, and closed slots are
+ * recycled through a free list kept in the records themselves. Guesses are played on the bitsets alone;
+ * the secret word is only looked up to start a round or to draw the pattern.
+ * A slot is an int: the slab in the high bits, the record in the low SLAB_BITS bits. It isn't
+ * thread-safe: like a server's event loop, the thread that owns the sessions should own the store.
+ * It's a prototype measured by HangmanBenchmark, not a feature of the game: HangmanServer still keeps
+ * every session on the heap, as a Hangman, and nothing else uses this store.
+ * @author Cristobal Padilla
+ *
+ */
+public class OffHeapSessionStore {
+
+	// Layout of a record.
+	public static final int RECORD_SIZE = 32;
+	private static final int WORD_LETTERS = 0;																	// long
+	private static final int LETTERS_USED = 8;																	// long
+	private static final int WORD_ID = 16;																		// int, or next free slot
+	private static final int NUM_WINS = 20;																		// int
+	private static final int NUM_LOSSES = 24;																	// int
+	private static final int NUM_WRONG_GUESSES = 28;															// byte
+	private static final int DIFFICULTY_LEVEL = 29;																// byte
+	private static final int STATE = 30;																		// byte
+	private static final int FLAGS = 31;																		// byte
+
+	// Size of a slab: 2^16 records, 2 MB.
+	public static final int SLAB_BITS = 16;
+	public static final int SLAB_SLOTS = 1 << SLAB_BITS;
+
+	// States of a slot.
+	public static final int FREE = 0;
+	public static final int SETUP = 1;
+	public static final int PLAYING = 2;
+	public static final int ROUND_OVER = 3;
+
+	// Outcomes of a guess.
+	public static final int HIT = 0;
+	public static final int MISS = 1;
+	public static final int WON = 2;
+	public static final int LOST = 3;
+	public static final int ALREADY_USED = 4;
+	public static final int NOT_ALPHABET = 5;
+
+	// Flags of a record.
+	private static final int UNWINNABLE = 1;																	// The word has a char outside the alphabet.
+
+	// Instance fields.
+	private final DictionaryIndex dictionaryIndex;
+	private ByteBuffer[] slabs;
+	private int numSlabs;
+	private int nextUnused;
+	private int freeHead;
+	private int size;
+
+	/**
+	 * Constructor takes the dictionary the sessions play with. No memory is taken until the first session.
+	 * @param dictionaryIndex loaded dictionary.
+	 */
+	public OffHeapSessionStore(DictionaryIndex dictionaryIndex) {
+
+		this.dictionaryIndex = dictionaryIndex;
+		slabs = new ByteBuffer[4];
+		freeHead = -1;
+
+	}
+
+	/**
+	 * Method used to open a session, in a recycled slot if there is one.
+	 * @param difficultyLevel Hangman.EASY or Hangman.HARD.
+	 * @return slot of the session.
+	 */
+	public int open(int difficultyLevel) {
+
+		if (difficultyLevel != Hangman.EASY && difficultyLevel != Hangman.HARD)
+			throw new IllegalArgumentException("Unknown difficulty level " + difficultyLevel + ".");
+
+		int slot;
+
+		if (freeHead >= 0) {
+			slot = freeHead;
+			freeHead = slab(slot).getInt(offset(slot) + WORD_ID);
+
+		} else {
+
+			if ((nextUnused >>> SLAB_BITS) == numSlabs)
+				addSlab();
+
+			slot = nextUnused++;
+
+		}
+
+		ByteBuffer slab = slab(slot);
+		int offset = offset(slot);
+		slab.putLong(offset + WORD_LETTERS, 0);
+		slab.putLong(offset + LETTERS_USED, 0);
+		slab.putInt(offset + WORD_ID, -1);
+		slab.putInt(offset + NUM_WINS, 0);
+		slab.putInt(offset + NUM_LOSSES, 0);
+		slab.put(offset + NUM_WRONG_GUESSES, (byte) 0);
+		slab.put(offset + DIFFICULTY_LEVEL, (byte) difficultyLevel);
+		slab.put(offset + STATE, (byte) SETUP);
+		slab.put(offset + FLAGS, (byte) 0);
+		size++;
+		return slot;
+
+	}
+
+	/**
+	 * Method used to add a slab of SLAB_SLOTS records.
+	 */
+	private void addSlab() {
+
+		if (numSlabs == slabs.length)
+			slabs = Arrays.copyOf(slabs, 2 * numSlabs);
+
+		slabs[numSlabs++] = ByteBuffer.allocateDirect(SLAB_SLOTS * RECORD_SIZE).order(ByteOrder.nativeOrder());
+
+	}
+
+	/**
+	 * Method used to close a session. Its slot goes to the free list, and is handed out again by open().
+	 * @param slot slot of the session.
+	 */
+	public void close(int slot) {
+
+		ByteBuffer slab = slab(slot);
+		int offset = offset(slot);
+		checkOpen(slab, offset, slot);
+		slab.put(offset + STATE, (byte) FREE);
+		slab.putInt(offset + WORD_ID, freeHead);
+		freeHead = slot;
+		size--;
+
+	}
+
+	/**
+	 * Method used to start a round with a given word of the session's difficulty level, e.g. one drawn by a
+	 * Hangman over the same partition (see Hangman.getSecretWordId()).
+	 * @param slot slot of the session.
+	 * @param wordId index of the word in its partition.
+	 */
+	public void startRound(int slot, int wordId) {
+
+		ByteBuffer slab = slab(slot);
+		int offset = offset(slot);
+		checkOpen(slab, offset, slot);
+		DictionaryIndex.Partition partition = dictionaryIndex.getPartition(slab.get(offset + DIFFICULTY_LEVEL));
+		String foldedWord = Alphabet.fold(partition.getWords().get(wordId));
+		Alphabet alphabet = partition.getAlphabet();
+		boolean unwinnable = false;
+
+		for (int index = 0; index < foldedWord.length(); ) {
+			int codePoint = foldedWord.codePointAt(index);
+			unwinnable |= alphabet.indexOf(codePoint) < 0;
+			index += Character.charCount(codePoint);
+
+		}
+
+		slab.putLong(offset + WORD_LETTERS, alphabet.letterMask(foldedWord));
+		slab.putLong(offset + LETTERS_USED, 0);
+		slab.putInt(offset + WORD_ID, wordId);
+		slab.put(offset + NUM_WRONG_GUESSES, (byte) 0);
+		slab.put(offset + STATE, (byte) PLAYING);
+		slab.put(offset + FLAGS, (byte) (unwinnable ? UNWINNABLE : 0));
+
+	}
+
+	/**
+	 * Method used to play a guess. A guess that wins or loses the round counts it in the session's stats,
+	 * and ends the round; the next one starts with startRound().
+	 * @param slot slot of the session.
+	 * @param validUserGuess lowercase char the user entered.
+	 * @return HIT, MISS, WON, LOST, ALREADY_USED or NOT_ALPHABET.
+	 * @throws IllegalStateException the session is not playing a round.
+	 */
+	public int guess(int slot, char validUserGuess) {
+
+		ByteBuffer slab = slab(slot);
+		int offset = offset(slot);
+
+		if (slab.get(offset + STATE) != PLAYING)
+			throw new IllegalStateException("Session " + slot + " is not playing a round.");
+
+		long bit = dictionaryIndex.getPartition(slab.get(offset + DIFFICULTY_LEVEL)).getAlphabet().bit(validUserGuess);
+
+		if (bit == 0)
+			return NOT_ALPHABET;
+
+		long lettersUsed = slab.getLong(offset + LETTERS_USED);
+
+		if ((lettersUsed & bit) != 0)
+			return ALREADY_USED;
+
+		long wordLetters = slab.getLong(offset + WORD_LETTERS);
+		lettersUsed |= bit;
+		slab.putLong(offset + LETTERS_USED, lettersUsed);
+
+		if ((wordLetters & bit) != 0) {
+
+			if ((wordLetters & ~lettersUsed) != 0 || slab.get(offset + FLAGS) == UNWINNABLE)
+				return HIT;
+
+			slab.putInt(offset + NUM_WINS, slab.getInt(offset + NUM_WINS) + 1);
+			slab.put(offset + STATE, (byte) ROUND_OVER);
+			return WON;
+
+		}
+
+		int numWrongGuesses = slab.get(offset + NUM_WRONG_GUESSES) + 1;
+		slab.put(offset + NUM_WRONG_GUESSES, (byte) numWrongGuesses);
+
+		if (numWrongGuesses < Hangman.MAX_GUESSES)
+			return MISS;
+
+		slab.putInt(offset + NUM_LOSSES, slab.getInt(offset + NUM_LOSSES) + 1);
+		slab.put(offset + STATE, (byte) ROUND_OVER);
+		return LOST;
+
+	}
+
+	/**
+	 * Method used to draw the word so far, with '_' for hidden letters, like Hangman.getSecretWordLineChars().
+	 * It looks the word up, so it's meant for rendering, not for the guess loop.
+	 * @param slot slot of the session.
+	 * @return pattern
+	 */
+	public char[] getPattern(int slot) {
+
+		ByteBuffer slab = slab(slot);
+		int offset = offset(slot);
+		String foldedWord = Alphabet.fold(getSecretWord(slot));
+		Alphabet alphabet = dictionaryIndex.getPartition(slab.get(offset + DIFFICULTY_LEVEL)).getAlphabet();
+		long revealed = slab.getLong(offset + LETTERS_USED) & slab.getLong(offset + WORD_LETTERS);
+		char[] pattern = new char[foldedWord.length()];
+
+		for (int index = 0; index < pattern.length; index++) {
+			char letter = foldedWord.charAt(index);
+			pattern[index] = ((revealed & alphabet.bit(letter)) != 0) ? letter : '_';
+
+		}
+		return pattern;
+
+	}
+
+	/**
+	 * Method used to bring a session's round onto the heap, as a Hangman, e.g. to hand it to code written
+	 * for Hangman or to save it with a SessionSnapshot.
+	 * @param slot slot of the session, playing a round.
+	 * @return game
+	 */
+	public Hangman toHangman(int slot) {
+
+		ByteBuffer slab = slab(slot);
+		int offset = offset(slot);
+		checkOpen(slab, offset, slot);
+		int difficultyLevel = slab.get(offset + DIFFICULTY_LEVEL);
+		Hangman game = new Hangman(dictionaryIndex.getPartition(difficultyLevel));
+		game.setDifficultyLevel(difficultyLevel);
+		game.setNumWins(getNumWins(slot));
+		game.setNumLosses(getNumLosses(slot));
+		game.setNumGames(getNumWins(slot) + getNumLosses(slot));
+		game.restoreRound(getWordId(slot), getLettersUsed(slot), getNumWrongGuesses(slot));
+		return game;
+
+	}
+
+	/**
+	 * Method used to find the slab of a slot.
+	 * @param slot slot.
+	 * @return slab
+	 */
+	private ByteBuffer slab(int slot) {
+
+		if (slot < 0 || slot >= nextUnused)
+			throw new IndexOutOfBoundsException("No session in slot " + slot + ".");
+
+		return slabs[slot >>> SLAB_BITS];
+
+	}
+
+	/**
+	 * Method used to find the record of a slot within its slab.
+	 * @param slot slot.
+	 * @return offset, in bytes.
+	 */
+	private static int offset(int slot) {
+		return (slot & (SLAB_SLOTS - 1)) * RECORD_SIZE;
+
+	}
+
+	/**
+	 * Method used to refuse a slot that is on the free list.
+	 * @param slab slab of the slot.
+	 * @param offset offset of the slot.
+	 * @param slot slot.
+	 */
+	private static void checkOpen(ByteBuffer slab, int offset, int slot) {
+
+		if (slab.get(offset + STATE) == FREE)
+			throw new IllegalStateException("Session " + slot + " is closed.");
+
+	}
+
+	/**
+	 * Method used to get where the session stands.
+	 * @param slot slot of the session.
+	 * @return FREE, SETUP, PLAYING or ROUND_OVER.
+	 */
+	public int getState(int slot) {
+		return slab(slot).get(offset(slot) + STATE);
+
+	}
+
+	/**
+	 * Method used to get the difficulty level of the session.
+	 * @param slot slot of the session.
+	 * @return Hangman.EASY or Hangman.HARD.
+	 */
+	public int getDifficultyLevel(int slot) {
+		return slab(slot).get(offset(slot) + DIFFICULTY_LEVEL);
+
+	}
+
+	/**
+	 * Method used to get the index of the secret word in its partition.
+	 * @param slot slot of the session.
+	 * @return wordId, or -1 before the first round.
+	 */
+	public int getWordId(int slot) {
+		return slab(slot).getInt(offset(slot) + WORD_ID);
+
+	}
+
+	/**
+	 * Method used to get the secret word, from the dictionary.
+	 * @param slot slot of the session.
+	 * @return word
+	 */
+	public String getSecretWord(int slot) {
+		return dictionaryIndex.getPartition(getDifficultyLevel(slot)).getWords().get(getWordId(slot));
+
+	}
+
+	/**
+	 * Method used to get the bitset of the alphabet indices guessed in the current round.
+	 * @param slot slot of the session.
+	 * @return bitset
+	 */
+	public long getLettersUsed(int slot) {
+		return slab(slot).getLong(offset(slot) + LETTERS_USED);
+
+	}
+
+	/**
+	 * Method used to get the bitset of the letters of the secret word guessed so far.
+	 * @param slot slot of the session.
+	 * @return bitset
+	 */
+	public long getRevealedLetters(int slot) {
+
+		ByteBuffer slab = slab(slot);
+		int offset = offset(slot);
+		return slab.getLong(offset + LETTERS_USED) & slab.getLong(offset + WORD_LETTERS);
+
+	}
+
+	/**
+	 * Method used to get the number of wrong guesses made in the current round.
+	 * @param slot slot of the session.
+	 * @return numWrongGuesses
+	 */
+	public int getNumWrongGuesses(int slot) {
+		return slab(slot).get(offset(slot) + NUM_WRONG_GUESSES);
+
+	}
+
+	/**
+	 * Method used to get the number of rounds the session won.
+	 * @param slot slot of the session.
+	 * @return numWins
+	 */
+	public int getNumWins(int slot) {
+		return slab(slot).getInt(offset(slot) + NUM_WINS);
+
+	}
+
+	/**
+	 * Method used to get the number of rounds the session lost.
+	 * @param slot slot of the session.
+	 * @return numLosses
+	 */
+	public int getNumLosses(int slot) {
+		return slab(slot).getInt(offset(slot) + NUM_LOSSES);
+
+	}
+
+	/**
+	 * Method used to get the number of open sessions.
+	 * @return sessions
+	 */
+	public int size() {
+		return size;
+
+	}
+
+	/**
+	 * Method used to get the memory taken outside the heap, by the slabs.
+	 * @return bytes
+	 */
+	public long offHeapBytes() {
+		return (long) numSlabs * SLAB_SLOTS * RECORD_SIZE;
+
+	}
+}
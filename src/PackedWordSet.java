@@ -0,0 +1,241 @@
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The PackedWordSet Class is a hash set of dictionary entries, made for millions of words. Entries are
+ * appended, as UTF-8 bytes, to one growing byte array (the arena), so there is no object per word; the
+ * hash table is one long array, open-addressed with linear probing, where each slot packs the hash of a
+ * key (high 32 bits) with the offset of its entry in the arena, plus one (low 32 bits, 0 means empty).
+ * Since the arena is only ever appended to, walking it gives the entries back in the order they were added.
+ *
+ * An entry is a key (the case-folded word) and the line it came from, with its line number:
+ *
+ *   int lineNumber, int lineLength, int keyLength, byte[lineLength] line
+ *
+ * where the key is the first keyLength bytes of the line.
+ * @author Cristobal Padilla
+ *
+ */
+public class PackedWordSet {
+
+	// Static constants.
+	public static final int HEADER_SIZE = 3 * Integer.BYTES;
+	public static final int MIN_CAPACITY = 1024;
+
+	// Instance fields.
+	private byte[] arena;
+	private int arenaSize;
+	private long[] slots;
+	private int size;
+
+	/**
+	 * Constructor takes the number of entries to make room for.
+	 * @param expectedSize expected number of entries.
+	 */
+	public PackedWordSet(int expectedSize) {
+
+		int capacity = MIN_CAPACITY;
+
+		while (capacity < 2 * expectedSize) {
+			capacity <<= 1;
+
+		}
+		slots = new long[capacity];
+		arena = new byte[capacity * 8];
+
+	}
+
+	/**
+	 * Method used to add an entry, unless an entry with the same key is already in the set.
+	 * @param line normalized line, as UTF-8 bytes; it starts with the key.
+	 * @param keyLength length of the key, in bytes.
+	 * @param lineNumber line number of the entry in the input.
+	 * @return -1 if the entry was added, or the line number of the entry that has the same key.
+	 */
+	public int add(byte[] line, int keyLength, int lineNumber) {
+
+		int hash = hash(line, 0, keyLength);
+		int mask = slots.length - 1;
+
+		for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+
+			if (slots[slot] == 0) {
+				slots[slot] = ((long) hash << 32) | (append(line, keyLength, lineNumber) + 1L);
+
+				if (++size * 2 > slots.length)															// Keep the table at most half full.
+					rehash(slots.length * 2);
+
+				return -1;
+
+			}
+
+			if ((int) (slots[slot] >>> 32) == hash) {
+				int offset = (int) slots[slot] - 1;
+
+				if (Arrays.equals(arena, offset + HEADER_SIZE, offset + HEADER_SIZE + readInt(offset + 8), line, 0, keyLength))
+					return readInt(offset);
+
+			}
+		}
+	}
+
+	/**
+	 * Method used to copy an entry to the end of the arena, growing it if needed.
+	 * @return offset of the entry.
+	 */
+	private int append(byte[] line, int keyLength, int lineNumber) {
+
+		int needed = arenaSize + HEADER_SIZE + line.length;
+
+		if (needed < 0)
+			throw new IllegalStateException("A PackedWordSet can't hold more than 2 GB of words.");
+
+		if (needed > arena.length)
+			arena = Arrays.copyOf(arena, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * arena.length)));
+
+		int offset = arenaSize;
+		writeInt(offset, lineNumber);
+		writeInt(offset + 4, line.length);
+		writeInt(offset + 8, keyLength);
+		System.arraycopy(line, 0, arena, offset + HEADER_SIZE, line.length);
+		arenaSize = needed;
+		return offset;
+
+	}
+
+	/**
+	 * Method used to move every slot into a bigger table. The hashes are kept in the slots, so no key is
+	 * read again.
+	 * @param capacity new number of slots, a power of two.
+	 */
+	private void rehash(int capacity) {
+
+		long[] oldSlots = slots;
+		int mask = capacity - 1;
+		slots = new long[capacity];
+
+		for (long entry : oldSlots) {
+
+			if (entry != 0) {
+				int slot = (int) (entry >>> 32) & mask;
+
+				while (slots[slot] != 0) {
+					slot = (slot + 1) & mask;
+
+				}
+				slots[slot] = entry;
+
+			}
+		}
+	}
+
+	/**
+	 * Method used to write the lines, one per line, in the order they were added.
+	 * @param out stream to write to.
+	 * @throws IOException lines could not be written.
+	 */
+	public void writeLines(OutputStream out) throws IOException {
+
+		for (int offset = 0; offset < arenaSize; offset += HEADER_SIZE + readInt(offset + 4)) {
+			out.write(arena, offset + HEADER_SIZE, readInt(offset + 4));
+			out.write('\n');
+
+		}
+	}
+
+	/**
+	 * Method used to write every entry, sorted by key, for an external merge sort. Keys are compared as
+	 * unsigned bytes, which for UTF-8 is code point order.
+	 * @param out stream to write to.
+	 * @throws IOException entries could not be written.
+	 */
+	public void writeSortedRun(OutputStream out) throws IOException {
+
+		Integer[] offsets = new Integer[size];
+		int count = 0;
+
+		for (int offset = 0; offset < arenaSize; offset += HEADER_SIZE + readInt(offset + 4)) {
+			offsets[count++] = offset;
+
+		}
+		Arrays.sort(offsets, (left, right) -> compareKeys(left, right));
+
+		for (int offset : offsets) {
+			out.write(arena, offset, HEADER_SIZE + readInt(offset + 4));
+
+		}
+	}
+
+	/**
+	 * Method used to compare the keys of two entries.
+	 * @return negative, zero or positive, like a Comparator.
+	 */
+	private int compareKeys(int left, int right) {
+
+		return Arrays.compareUnsigned(arena, left + HEADER_SIZE, left + HEADER_SIZE + readInt(left + 8),
+									  arena, right + HEADER_SIZE, right + HEADER_SIZE + readInt(right + 8));
+
+	}
+
+	/**
+	 * Method used to empty the set, keeping the memory it has already grown to.
+	 */
+	public void clear() {
+
+		Arrays.fill(slots, 0);
+		arenaSize = 0;
+		size = 0;
+
+	}
+
+	/**
+	 * Method used to get the number of entries.
+	 * @return size
+	 */
+	public int size() {
+		return size;
+
+	}
+
+	/**
+	 * Method used to estimate the memory the entries need, in bytes: their part of the arena and of a
+	 * half-full table. After clear(), this starts again from 0, even though the arrays keep their size.
+	 * @return bytes
+	 */
+	public long memoryUsed() {
+		return arenaSize + 2L * size * Long.BYTES;
+
+	}
+
+	/**
+	 * Method used to hash a key (FNV-1a, then mixed so that the low bits are good for a power-of-two table).
+	 * @return hash
+	 */
+	private static int hash(byte[] bytes, int from, int to) {
+
+		int hash = 0x811C9DC5;
+
+		for (int index = from; index < to; index++) {
+			hash = (hash ^ (bytes[index] & 0xFF)) * 0x01000193;
+
+		}
+		return hash ^ (hash >>> 16);
+
+	}
+
+	private int readInt(int offset) {
+		return ((arena[offset] & 0xFF) << 24) | ((arena[offset + 1] & 0xFF) << 16) | ((arena[offset + 2] & 0xFF) << 8) |
+			   (arena[offset + 3] & 0xFF);
+
+	}
+
+	private void writeInt(int offset, int value) {
+
+		arena[offset] = (byte) (value >>> 24);
+		arena[offset + 1] = (byte) (value >>> 16);
+		arena[offset + 2] = (byte) (value >>> 8);
+		arena[offset + 3] = (byte) value;
+
+	}
+}
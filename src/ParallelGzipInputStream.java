@@ -0,0 +1,548 @@
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * The ParallelGzipInputStream Class reads a gzip file made of several members, like the ones written by
+ * parallel compressors, and inflates the members in parallel. The file is memory-mapped and scanned once
+ * for anything that looks like a member header (1f 8b 08, then valid flags). Compressed bytes look like a
+ * header now and then, so a candidate only counts once the member before it ends exactly where it starts:
+ * the first member is inflated on the reader's thread, like GZIPInputStream would, and only if a second
+ * member follows it do the rest go on the common fork-join pool, a few members ahead of the reader. From
+ * then on, members are read in file order, and candidates that turn out to be inside a member are dropped.
+ * Every member is inflated CHUNK_SIZE bytes at a time, and at most MAX_CHUNKS_AHEAD chunks of it wait for
+ * the reader, so memory stays bounded however big a member or the file is. Every member's CRC-32 and length
+ * are checked. Like GZIPInputStream, anything after the last member that isn't a member header is ignored.
+ * @author Cristobal Padilla
+ *
+ */
+public class ParallelGzipInputStream extends InputStream {
+
+	// Static constants.
+	public static final int TRAILER_SIZE = 8;
+	public static final int FHCRC = 2;
+	public static final int FEXTRA = 4;
+	public static final int FNAME = 8;
+	public static final int FCOMMENT = 16;
+
+	// Inflated bytes per chunk, and chunks a member may have waiting for the reader.
+	public static final int CHUNK_SIZE = 256 * 1024;
+	public static final int MAX_CHUNKS_AHEAD = 4;
+
+	// Instance fields.
+	private final MappedByteBuffer file;
+	private final int[] candidates;
+	private final ArrayDeque<Member> inFlight;
+	private final int readAhead;
+	private int nextCandidate;
+	private boolean parallel;
+	private Member current;
+	private byte[] chunk;
+	private int position;
+	private int nextMemberStart;
+
+	/**
+	 * Method used to open a dictionary file as UTF-8 text. Files whose name ends in ".gz" are inflated on the fly:
+	 * in parallel if they have several members, or with a GZIPInputStream otherwise.
+	 * @param file dictionary file.
+	 * @return reader
+	 * @throws IOException file not found, or not a gzip file.
+	 */
+	public static BufferedReader openReader(File file) throws IOException {
+		return new BufferedReader(new InputStreamReader(open(file), StandardCharsets.UTF_8));
+
+	}
+
+	/**
+	 * Method used to open a file as bytes, inflating it if its name ends in ".gz".
+	 * @param file file.
+	 * @return stream
+	 * @throws IOException file not found, or not a gzip file.
+	 */
+	public static InputStream open(File file) throws IOException {
+
+		if (!file.getName().endsWith(".gz"))
+			return new FileInputStream(file);
+
+		if (file.length() < Integer.MAX_VALUE) {
+
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				int[] candidates = findCandidates(mapped);
+
+				if (candidates.length > 1 && candidates[0] == 0)											// Maybe several members: see after the first.
+					return new ParallelGzipInputStream(mapped, candidates);
+
+			}
+		}
+		return new GZIPInputStream(new FileInputStream(file), 64 * 1024);
+
+	}
+
+	/**
+	 * Constructor takes the mapped file and the offsets of its candidate headers. Nothing is inflated
+	 * until the first read.
+	 * @param file mapped gzip file.
+	 * @param candidates offsets that look like member headers, in order, the first one at 0.
+	 */
+	private ParallelGzipInputStream(MappedByteBuffer file, int[] candidates) {
+
+		this.file = file;
+		this.candidates = candidates;
+		inFlight = new ArrayDeque<Member>();
+		readAhead = 2 * ForkJoinPool.commonPool().getParallelism();
+		current = new Member(file, 0);
+		nextCandidate = 1;
+
+	}
+
+	/**
+	 * Method used to find every offset that looks like the header of a member.
+	 * @param file mapped gzip file.
+	 * @return offsets, in order.
+	 */
+	static int[] findCandidates(ByteBuffer file) {
+
+		int[] candidates = new int[16];
+		int count = 0;
+		int limit = file.limit() - 10;																	// A header is at least 10 bytes.
+
+		for (int offset = 0; offset < limit; offset++) {
+
+			if (file.get(offset) == (byte) 0x1f && file.get(offset + 1) == (byte) 0x8b && file.get(offset + 2) == 8 &&
+				(file.get(offset + 3) & 0xE0) == 0) {
+
+				if (count == candidates.length)
+					candidates = Arrays.copyOf(candidates, 2 * count);
+
+				candidates[count++] = offset;
+
+			}
+		}
+		return Arrays.copyOf(candidates, count);
+
+	}
+
+	@Override
+	public int read() throws IOException {
+
+		byte[] one = new byte[1];
+		return (read(one, 0, 1) < 0) ? -1 : one[0] & 0xFF;
+
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+
+		while (chunk == null || position == chunk.length) {
+
+			if (current == null) {
+
+				if (nextMemberStart >= file.limit())
+					return -1;
+
+				current = takeMember(nextMemberStart);
+
+				if (current == null) {																// Trailing bytes.
+					nextMemberStart = file.limit();
+					return -1;
+
+				}
+			}
+
+			chunk = parallel ? current.take() : current.inflateOnCallingThread();
+			position = 0;
+
+			if (chunk == null) {																	// The member is over: the next one starts after it.
+				nextMemberStart = current.end;
+				current = null;
+				parallel = true;
+
+			}
+		}
+
+		int count = Math.min(length, chunk.length - position);
+		System.arraycopy(chunk, position, buffer, offset, count);
+		position += count;
+		return count;
+
+	}
+
+	/**
+	 * Method used to get the member that starts at an offset, to drop the candidates before it, and to
+	 * start inflating the candidates after it.
+	 * @param start offset of the member.
+	 * @return member, or null if no member starts there.
+	 */
+	private Member takeMember(int start) {
+
+		while (!inFlight.isEmpty() && inFlight.peekFirst().start < start) {							// Candidates inside earlier members are false.
+			inFlight.pollFirst().cancel();
+
+		}
+
+		while (nextCandidate < candidates.length && candidates[nextCandidate] < start) {
+			nextCandidate++;
+
+		}
+
+		if (inFlight.isEmpty() && nextCandidate < candidates.length && candidates[nextCandidate] == start)
+			startInflating(candidates[nextCandidate++]);
+
+		Member member = (!inFlight.isEmpty() && inFlight.peekFirst().start == start) ? inFlight.pollFirst() : null;
+
+		while (nextCandidate < candidates.length && inFlight.size() < readAhead) {
+			startInflating(candidates[nextCandidate++]);
+
+		}
+		return member;
+
+	}
+
+	/**
+	 * Method used to start inflating a candidate member on the common pool.
+	 * @param start offset of the candidate.
+	 */
+	private void startInflating(int start) {
+
+		Member member = new Member(file, start);
+		member.start();
+		inFlight.addLast(member);
+
+	}
+
+	/**
+	 * Method used to find where the compressed data of a member starts, past its header.
+	 * @param member gzip file, little-endian.
+	 * @param start offset of the member.
+	 * @return offset of the compressed data.
+	 * @throws IOException the header is truncated.
+	 */
+	static int skipHeader(ByteBuffer member, int start) throws IOException {
+
+		int flags = member.get(start + 3);
+		int offset = start + 10;
+
+		if ((flags & FEXTRA) != 0)
+			offset += 2 + (member.getShort(offset) & 0xFFFF);
+
+		if ((flags & FNAME) != 0)
+			offset = skipZeroTerminated(member, offset);
+
+		if ((flags & FCOMMENT) != 0)
+			offset = skipZeroTerminated(member, offset);
+
+		if ((flags & FHCRC) != 0)
+			offset += 2;
+
+		if (offset >= member.limit())
+			throw new IOException("truncated header");
+
+		return offset;
+
+	}
+
+	/**
+	 * Method used to skip a zero-terminated header field.
+	 * @return offset after the field.
+	 */
+	private static int skipZeroTerminated(ByteBuffer buffer, int offset) {
+
+		while (offset < buffer.limit() && buffer.get(offset) != 0) {
+			offset++;
+
+		}
+		return offset + 1;
+
+	}
+
+	@Override
+	public void close() {
+
+		for (Member member : inFlight) {
+			member.cancel();
+
+		}
+		inFlight.clear();
+
+		if (current != null)
+			current.cancel();
+
+		current = null;
+		chunk = null;
+		nextMemberStart = file.limit();
+
+	}
+
+	/**
+	 * The Member Class inflates one member, a chunk at a time: on the reader's thread, or on the common
+	 * pool, where it keeps going until MAX_CHUNKS_AHEAD chunks are waiting and goes on when the reader takes
+	 * one. Errors, e.g. running out of memory, reach the reader as they are; anything else that goes wrong
+	 * means the candidate is not a valid member.
+	 */
+	static final class Member {
+
+		// Instance fields.
+		final int start;
+		private final ByteBuffer input;
+		private final Inflater inflater;
+		private final CRC32 crc;
+		private long length;
+		private boolean inflated;
+		private boolean released;
+		int end;
+
+		// Instance fields shared with the pool, guarded by the member.
+		private final ArrayDeque<byte[]> chunks;
+		private boolean running;
+		private boolean finished;
+		private boolean cancelled;
+		private Throwable failure;
+
+		/**
+		 * Constructor reads the header of the member.
+		 * @param file mapped gzip file.
+		 * @param start offset of the member.
+		 */
+		Member(ByteBuffer file, int start) {
+
+			this.start = start;
+			input = file.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+			inflater = new Inflater(true);
+			crc = new CRC32();
+			chunks = new ArrayDeque<byte[]>();
+
+			try {
+				input.position(skipHeader(input, start));
+				inflater.setInput(input);
+
+			} catch (IOException | IndexOutOfBoundsException exception) {
+				failure = (exception instanceof IOException) ? exception : new IOException("truncated header");
+				release();
+
+			}
+		}
+
+		/**
+		 * Method used to inflate the next chunk of the member on the calling thread.
+		 * @return chunk, or null once the member is over.
+		 * @throws IOException the member is corrupt.
+		 */
+		byte[] inflateOnCallingThread() throws IOException {
+
+			if (failure != null)
+				throw corrupt(failure);
+
+			if (inflated)
+				return null;
+
+			try {
+				return inflateChunk();
+
+			} catch (IOException exception) {
+				failure = exception;
+				throw corrupt(exception);
+
+			}
+		}
+
+		/**
+		 * Method used to inflate the next chunk, and check the trailer once the member is over. Only one
+		 * thread at a time calls it.
+		 * @return chunk, as long as what was inflated.
+		 * @throws IOException the member is corrupt.
+		 */
+		private byte[] inflateChunk() throws IOException {
+
+			byte[] chunk = new byte[CHUNK_SIZE];
+			int count = 0;
+
+			try {
+
+				while (count < CHUNK_SIZE && !inflater.finished()) {
+					int inflatedCount = inflater.inflate(chunk, count, CHUNK_SIZE - count);
+
+					if (inflatedCount == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+						release();
+						throw new IOException("truncated member");
+
+					}
+					count += inflatedCount;
+
+				}
+
+			} catch (DataFormatException exception) {
+				release();
+				throw new IOException(exception.getMessage());
+
+			}
+
+			crc.update(chunk, 0, count);
+			length += count;
+
+			if (inflater.finished()) {
+				end = input.limit() - inflater.getRemaining() + TRAILER_SIZE;
+				release();
+
+				if (end > input.limit())
+					throw new IOException("truncated trailer");
+
+				if ((int) crc.getValue() != input.getInt(end - 8) || (int) length != input.getInt(end - 4))
+					throw new IOException("CRC or length mismatch");
+
+				inflated = true;
+
+			}
+			return (count == CHUNK_SIZE) ? chunk : Arrays.copyOf(chunk, count);
+
+		}
+
+		/**
+		 * Method used to start inflating the member on the common pool.
+		 */
+		synchronized void start() {
+
+			if (failure == null && !running)
+				schedule();
+
+		}
+
+		/**
+		 * Method used to inflate one more chunk on the common pool.
+		 */
+		private void schedule() {
+
+			running = true;
+			ForkJoinPool.commonPool().execute(this::inflateInBackground);
+
+		}
+
+		/**
+		 * Method run on the common pool to inflate a chunk and, if there's room, schedule the next one.
+		 */
+		private void inflateInBackground() {
+
+			byte[] chunk = null;
+			Throwable failure = null;
+
+			try {
+				chunk = inflateChunk();
+
+			} catch (Throwable throwable) {																// An Error too: the reader rethrows it.
+				failure = throwable;
+
+			}
+
+			synchronized (this) {
+				running = false;
+
+				if (cancelled) {
+					release();
+
+				} else if (failure != null) {
+					this.failure = failure;
+					release();
+
+				} else {
+					chunks.addLast(chunk);
+					finished = inflated;
+
+					if (!finished && chunks.size() < MAX_CHUNKS_AHEAD)
+						schedule();
+
+				}
+				notifyAll();
+
+			}
+		}
+
+		/**
+		 * Method used by the reader to take the next chunk, waiting for it if need be.
+		 * @return chunk, or null once the member is over.
+		 * @throws IOException the member is corrupt, or the wait was interrupted.
+		 */
+		synchronized byte[] take() throws IOException {
+
+			while (chunks.isEmpty() && failure == null && !finished) {
+
+				if (!running)
+					schedule();
+
+				try {
+					wait();
+
+				} catch (InterruptedException exception) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while inflating.");
+
+				}
+			}
+
+			if (!chunks.isEmpty()) {
+				byte[] chunk = chunks.pollFirst();
+
+				if (!running && !finished && failure == null)										// Room for one more.
+					schedule();
+
+				return chunk;
+
+			}
+
+			if (failure != null)
+				throw corrupt(failure);
+
+			return null;
+
+		}
+
+		/**
+		 * Method used to stop inflating the member, e.g. because it was a false candidate.
+		 */
+		synchronized void cancel() {
+
+			cancelled = true;
+			chunks.clear();
+
+			if (!running)
+				release();
+
+		}
+
+		/**
+		 * Method used to free the inflater, once.
+		 */
+		private void release() {
+
+			if (!released) {
+				released = true;
+				inflater.end();
+
+			}
+		}
+
+		/**
+		 * Method used to describe a failure to the reader: an Error as it is, anything else as a corrupt member.
+		 * @param failure what went wrong.
+		 * @return exception to throw.
+		 */
+		private IOException corrupt(Throwable failure) {
+
+			if (failure instanceof Error)
+				throw (Error) failure;
+
+			return new IOException("Corrupt gzip member at offset " + start + ": " + failure.getMessage());
+
+		}
+	}
+}
@@ -8,10 +8,11 @@ public class PreviouslyUsedCharacterException extends Exception{
 
 	/**
 	 * No-args constructor, which uses a call to the Exception Class's constructor, 
-	 * passing a string argument message.
+	 * passing a string argument message. The message is made up front
+	 * by GuessValidator, and no stack trace is filled in.
 	 */
 	public PreviouslyUsedCharacterException(char validUserGuess) {
-		super("You've used '" + validUserGuess + "' before!");
+		super(GuessValidator.previouslyUsedMessage(validUserGuess), null, false, false);
 		
 	}
 }
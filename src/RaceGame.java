@@ -0,0 +1,324 @@
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The RaceGame Class lets many players guess letters of the same secret word at the same time, each from
+ * their own thread and with their own budget of wrong guesses. The letters used so far are the only shared
+ * state: one long, used as a bitset over the alphabet and updated by compare-and-set, so no player ever
+ * waits on a lock. A guess claims its letter; if another player claimed it first, the guess is lost but
+ * costs nothing. What is revealed is simply the used letters that are in the word, so there is no char
+ * array to keep in step. The player whose guess reveals the last hidden letter wins. Players join the race
+ * (see join()), and it keeps count of those who can still guess: once every player who joined is out of
+ * guesses, or has left, the race is over too, with no winner.
+ * @author Cristobal Padilla
+ *
+ */
+public class RaceGame {
+
+	// Results of a guess.
+	public static final int HIT = 0;
+	public static final int MISS = 1;
+	public static final int ALREADY_USED = 2;
+	public static final int OUT_OF_GUESSES = 3;
+	public static final int GAME_OVER = 4;
+
+	// Instance fields.
+	private final String secretWord;
+	private final String foldedSecretWord;
+	private final Alphabet alphabet;
+	private final long secretWordLetters;
+	private final AtomicLong lettersUsed;
+	private final AtomicReference<Player> winner;
+	private final LongAdder casRetries;
+	private final AtomicInteger livePlayers;
+	private final AtomicInteger numPlayers;
+
+	/**
+	 * The Player Class holds one player's own counters. A player must only be used by one thread at a time.
+	 */
+	public static final class Player {
+
+		// Instance fields.
+		private final String name;
+		private int numWrongGuesses;
+		private int numGuesses;
+		private int numHits;
+		private int numLost;
+		private boolean left;
+
+		/**
+		 * Constructor takes the name of the player. Players are made by RaceGame.join().
+		 * @param name name, for results.
+		 */
+		private Player(String name) {
+			this.name = name;
+
+		}
+
+		/**
+		 * Method used to get the name of the player.
+		 * @return name
+		 */
+		public String getName() {
+			return name;
+
+		}
+
+		/**
+		 * Method used to get the number of wrong guesses the player made.
+		 * @return numWrongGuesses
+		 */
+		public int getNumWrongGuesses() {
+			return numWrongGuesses;
+
+		}
+
+		/**
+		 * Method used to get the number of letters the player claimed, hits and misses.
+		 * @return numGuesses
+		 */
+		public int getNumGuesses() {
+			return numGuesses;
+
+		}
+
+		/**
+		 * Method used to get the number of letters the player claimed that are in the word.
+		 * @return numHits
+		 */
+		public int getNumHits() {
+			return numHits;
+
+		}
+
+		/**
+		 * Method used to get the number of guesses lost because another player claimed the letter first.
+		 * @return guesses
+		 */
+		public int getNumLost() {
+			return numLost;
+
+		}
+
+		/**
+		 * Method used to know whether the player can still guess.
+		 * @return True if the player has wrong guesses left, and hasn't left the race.
+		 */
+		public boolean hasGuessesLeft() {
+			return numWrongGuesses < Hangman.MAX_GUESSES && !left;
+
+		}
+	}
+
+	/**
+	 * Constructor takes the word to race on.
+	 * @param secretWord secret word.
+	 * @param alphabet alphabet of the dictionary the word comes from.
+	 */
+	public RaceGame(String secretWord, Alphabet alphabet) {
+
+		this.secretWord = secretWord;
+		this.alphabet = alphabet;
+		foldedSecretWord = Alphabet.fold(secretWord);
+		secretWordLetters = alphabet.letterMask(foldedSecretWord);
+		lettersUsed = new AtomicLong();
+		winner = new AtomicReference<Player>();
+		casRetries = new LongAdder();
+		livePlayers = new AtomicInteger();
+		numPlayers = new AtomicInteger();
+
+	}
+
+	/**
+	 * Method used to join the race, with a full budget of wrong guesses.
+	 * @param name name of the player, for results.
+	 * @return player, to be used by the calling thread only.
+	 */
+	public Player join(String name) {
+
+		livePlayers.incrementAndGet();																	// Live first: isOver() must never see the player joined but not live.
+		numPlayers.incrementAndGet();
+		return new Player(name);
+
+	}
+
+	/**
+	 * Method used to take a player out of the race before it runs out of guesses, e.g. when it disconnects.
+	 * Leaving twice, or after running out of guesses, has no effect.
+	 * @param player player leaving, owned by the calling thread.
+	 */
+	public void leave(Player player) {
+
+		if (player.hasGuessesLeft()) {
+			player.left = true;
+			livePlayers.decrementAndGet();
+
+		}
+	}
+
+	/**
+	 * Method used to make a guess for a player.
+	 * @param player player guessing, owned by the calling thread.
+	 * @param guess lowercase letter.
+	 * @return HIT, MISS, ALREADY_USED, OUT_OF_GUESSES or GAME_OVER.
+	 * @throws IllegalArgumentException the guess is not in the alphabet.
+	 */
+	public int guess(Player player, char guess) {
+
+		if (!player.hasGuessesLeft())
+			return OUT_OF_GUESSES;
+
+		long bit = alphabet.bit(guess);
+
+		if (bit == 0)
+			throw new IllegalArgumentException("Not a letter of the alphabet: " + guess);
+
+		long used = lettersUsed.get();
+
+		while (true) {
+
+			if ((secretWordLetters & ~used) == 0)														// Somebody already won.
+				return GAME_OVER;
+
+			if ((used & bit) != 0) {
+				player.numLost++;
+				return ALREADY_USED;
+
+			}
+
+			long witness = lettersUsed.compareAndExchange(used, used | bit);
+
+			if (witness == used)
+				break;
+
+			casRetries.increment();																		// Another player got in first: look again.
+			used = witness;
+
+		}
+
+		player.numGuesses++;
+
+		if ((secretWordLetters & bit) == 0) {
+			player.numWrongGuesses++;
+
+			if (!player.hasGuessesLeft())
+				livePlayers.decrementAndGet();																// Out: the race may be over for everyone.
+
+			return MISS;
+
+		}
+
+		player.numHits++;
+
+		if ((secretWordLetters & ~(used | bit)) == 0)													// This guess revealed the last letter.
+			winner.compareAndSet(null, player);
+
+		return HIT;
+
+	}
+
+	/**
+	 * Method used to get the word as it's revealed so far, with '_' for hidden letters. Chars that aren't
+	 * letters of the alphabet are always shown.
+	 * @return revealed chars, case-folded.
+	 */
+	public char[] getRevealedChars() {
+
+		long used = lettersUsed.get();
+		char[] revealedChars = new char[foldedSecretWord.length()];
+
+		for (int index = 0; index < revealedChars.length; index++) {
+			char letter = foldedSecretWord.charAt(index);
+			long bit = alphabet.bit(letter);
+			revealedChars[index] = (bit == 0 || (used & bit) != 0) ? letter : '_';
+
+		}
+		return revealedChars;
+
+	}
+
+	/**
+	 * Method used to know whether the race is over: the word has been fully revealed, or every player who
+	 * joined is out of guesses or has left.
+	 * @return True if the race is over.
+	 */
+	public boolean isOver() {
+		return isRevealed() || (numPlayers.get() > 0 && livePlayers.get() == 0);
+
+	}
+
+	/**
+	 * Method used to know whether the word has been fully revealed, i.e. somebody won.
+	 * @return True if every letter of the word has been guessed.
+	 */
+	public boolean isRevealed() {
+		return (secretWordLetters & ~lettersUsed.get()) == 0;
+
+	}
+
+	/**
+	 * Method used to get the number of players who joined the race.
+	 * @return players
+	 */
+	public int getNumPlayers() {
+		return numPlayers.get();
+
+	}
+
+	/**
+	 * Method used to get the number of players who can still guess.
+	 * @return players
+	 */
+	public int getNumLivePlayers() {
+		return livePlayers.get();
+
+	}
+
+	/**
+	 * Method used to get the bitset of letters used so far, by anyone.
+	 * @return bitset of alphabet indices.
+	 */
+	public long getLettersUsed() {
+		return lettersUsed.get();
+
+	}
+
+	/**
+	 * Method used to get the player who revealed the last letter.
+	 * @return winner, or null if the race isn't over.
+	 */
+	public Player getWinner() {
+		return winner.get();
+
+	}
+
+	/**
+	 * Method used to get the number of times a compare-and-set lost to another player and had to be retried.
+	 * @return retries
+	 */
+	public long getCasRetries() {
+		return casRetries.sum();
+
+	}
+
+	/**
+	 * Method used to get the word being raced on.
+	 * @return secretWord
+	 */
+	public String getSecretWord() {
+		return secretWord;
+
+	}
+
+	/**
+	 * Method used to get the alphabet the guesses are checked against.
+	 * @return alphabet
+	 */
+	public Alphabet getAlphabet() {
+		return alphabet;
+
+	}
+}
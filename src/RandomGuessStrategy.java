@@ -0,0 +1,66 @@
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This strategy guesses any letter that has not been used yet, at random. A shared instance draws from
+ * ThreadLocalRandom; the copy returned by forGame() draws from its own generator, seeded from the game.
+ * @author Cristobal Padilla
+ *
+ */
+public class RandomGuessStrategy implements GuessingStrategy {
+
+	// Static constants.
+	public static final String NAME = "random";
+
+	// Instance fields.
+	private final Random generator;
+
+	/**
+	 * No-args constructor: guesses are drawn from ThreadLocalRandom, so they can't be replayed.
+	 */
+	public RandomGuessStrategy() {
+		generator = null;
+
+	}
+
+	/**
+	 * Constructor takes the generator to draw guesses from. The strategy is then only for one thread.
+	 * @param generator random generator.
+	 */
+	public RandomGuessStrategy(Random generator) {
+		this.generator = generator;
+
+	}
+
+	@Override
+	public char nextGuess(char[] revealedChars, long lettersUsed, Alphabet alphabet) {
+
+		long unused = ~lettersUsed & ((alphabet.size() == Alphabet.MAX_SIZE) ? -1L : (1L << alphabet.size()) - 1);
+		int numUnused = Long.bitCount(unused);
+
+		if (numUnused == 0)
+			throw new IllegalStateException("Every letter has been used.");
+
+		int skip = (generator != null) ? generator.nextInt(numUnused) : ThreadLocalRandom.current().nextInt(numUnused);
+
+		for (; skip > 0; skip--) {
+			unused &= unused - 1;																		// Drop the lowest letter.
+
+		}
+		return (char) alphabet.codePointAt(Long.numberOfTrailingZeros(unused));
+
+	}
+
+	@Override
+	public GuessingStrategy forGame(long roundSeed) {
+		return new RandomGuessStrategy(new Random(roundSeed ^ 0x5DEECE66DL));								// Not the word's own sequence.
+
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+
+	}
+}
@@ -0,0 +1,178 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The ScriptedInput Class reads lines piped to the game, like recorded sessions or bot input, much faster
+ * than a Scanner. The stream is read in large blocks into one byte buffer that is reused for the whole
+ * session, and lines are found by looking for '\n' in it. A line is never copied or turned into a String
+ * unless getLine() is called: its length and first char are decoded (as UTF-8) right from the buffer, which
+ * is all it takes to validate a guess. Lines end with "\n" or "\r\n".
+ * @author Cristobal Padilla
+ *
+ */
+public class ScriptedInput implements GameInput {
+
+	// Size of the blocks read from the stream. The buffer grows if a single line is longer.
+	public static final int BUFFER_SIZE = 64 * 1024;
+
+	// Instance fields.
+	private final InputStream in;
+	private byte[] buffer;
+	private int position;
+	private int limit;
+	private int lineStart;
+	private int lineEnd;
+	private boolean endOfStream;
+
+	/**
+	 * Constructor takes the stream to read from.
+	 * @param in usually System.in.
+	 */
+	public ScriptedInput(InputStream in) {
+
+		this.in = in;
+		buffer = new byte[BUFFER_SIZE];
+
+	}
+
+	@Override
+	public int readLine() {
+
+		int newline = indexOfNewline(position);
+
+		while (newline < 0) {
+
+			if (endOfStream) {
+
+				if (position == limit)
+					throw new NoSuchElementException("No line found");
+
+				newline = limit;																			// The last line has no terminator.
+				break;
+
+			}
+			int scanned = limit - position;
+			fill();
+			newline = indexOfNewline(position + scanned);
+
+		}
+
+		lineStart = position;
+		lineEnd = newline;
+		position = Math.min(newline + 1, limit);
+
+		if (lineEnd > lineStart && buffer[lineEnd - 1] == '\r')
+			lineEnd--;
+
+		return lengthInChars();
+
+	}
+
+	/**
+	 * Method used to find the next '\n' in the buffer.
+	 * @param from index to start looking at.
+	 * @return index, or -1 if there is none before the limit.
+	 */
+	private int indexOfNewline(int from) {
+
+		for (int index = from; index < limit; index++) {
+
+			if (buffer[index] == '\n')
+				return index;
+
+		}
+		return -1;
+
+	}
+
+	/**
+	 * Method used to read another block from the stream. What's left of the buffer is moved to its start
+	 * first, and the buffer only grows when a line doesn't fit in it.
+	 */
+	private void fill() {
+
+		if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, limit - position);
+			limit -= position;
+			position = 0;
+
+		}
+
+		if (limit == buffer.length)
+			buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+
+		try {
+			int count = in.read(buffer, limit, buffer.length - limit);
+
+			if (count < 0)
+				endOfStream = true;
+			else
+				limit += count;
+
+		} catch (IOException exception) {
+			endOfStream = true;																				// Like a Scanner, a failing stream just ends.
+
+		}
+	}
+
+	/**
+	 * Method used to count the UTF-16 chars of the current line, the same length a String of it would have.
+	 * @return length
+	 */
+	private int lengthInChars() {
+
+		int length = 0;
+
+		for (int index = lineStart; index < lineEnd; index++) {
+			int b = buffer[index];
+
+			if ((b & 0xC0) != 0x80)																			// Not a continuation byte: a new code point.
+				length++;
+
+			if ((b & 0xF8) == 0xF0)																			// Four bytes: a surrogate pair.
+				length++;
+
+		}
+		return length;
+
+	}
+
+	@Override
+	public char getFirstChar() {
+
+		int length = lineEnd - lineStart;
+
+		if (length == 0)
+			return 0;
+
+		int b0 = buffer[lineStart] & 0xFF;
+
+		if (b0 < 0x80)
+			return (char) b0;
+
+		int b1 = (length > 1) ? buffer[lineStart + 1] & 0x3F : 0;
+		int b2 = (length > 2) ? buffer[lineStart + 2] & 0x3F : 0;
+		int b3 = (length > 3) ? buffer[lineStart + 3] & 0x3F : 0;
+
+		if ((b0 & 0xE0) == 0xC0 && length > 1)
+			return (char) (((b0 & 0x1F) << 6) | b1);
+
+		if ((b0 & 0xF0) == 0xE0 && length > 2)
+			return (char) (((b0 & 0x0F) << 12) | (b1 << 6) | b2);
+
+		if ((b0 & 0xF8) == 0xF0 && length > 3)
+			return Character.highSurrogate(((b0 & 0x07) << 18) | (b1 << 12) | (b2 << 6) | b3);
+
+		return '\uFFFD';																				// Malformed.
+
+	}
+
+	@Override
+	public String getLine() {
+		return new String(buffer, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+
+	}
+}
@@ -0,0 +1,189 @@
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * The SessionSnapshot Class saves games in progress to a session file, so that they survive a restart. A
+ * game is a fixed-size record of 16 bytes, with no Strings in it: the session id, the index of the secret
+ * word in its difficulty level's words, the wrong guesses and difficulty level packed in with it, and the
+ * bitset of letters used. Everything else (the secret word, the revealed chars) is worked out again from
+ * the dictionary, so the header keeps the fingerprints of the words of both levels, and a file saved with
+ * other words is refused. The file is written, or read, in one sequential pass through a direct buffer of
+ * BUFFER_SIZE bytes; it's written next to the real one first, forced to disk, and then moved over it, so a
+ * crash never leaves half a file. It's never memory-mapped, as a mapped file can't be moved or replaced on
+ * Windows until the mapping is garbage collected.
+ * File layout: magic, version, number of records, EASY fingerprint, HARD fingerprint, then the records.
+ * @author Cristobal Padilla
+ *
+ */
+public class SessionSnapshot {
+
+	// Static constants.
+	public static final int MAGIC = 0x48475353;																// "HGSS"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 32;
+	public static final int RECORD_SIZE = 16;
+	public static final int BUFFER_SIZE = 64 * 1024;															// A whole number of records, and the header.
+
+	// Packing of the second int of a record: word id, then wrong guesses, then difficulty level.
+	public static final int WORD_ID_BITS = 27;
+	public static final int WRONG_GUESSES_BITS = 3;
+	public static final int MAX_WORD_ID = (1 << WORD_ID_BITS) - 1;
+
+	/**
+	 * Private constructor: the class only has static methods.
+	 */
+	private SessionSnapshot() {
+	}
+
+	/**
+	 * Method used to save games to a session file, replacing what it held. Games whose secret word doesn't
+	 * come from the dictionary (see Hangman.getSecretWordId()) can't be restored, so they are left out.
+	 * @param file session file.
+	 * @param games games by session id, all playing words of the dictionary index.
+	 * @param dictionaryIndex dictionary the games are played with.
+	 * @return number of games saved.
+	 * @throws IOException file could not be written.
+	 */
+	public static int save(File file, Map<Integer, Hangman> games, DictionaryIndex dictionaryIndex) throws IOException {
+
+		ArrayList<Map.Entry<Integer, Hangman>> saved = new ArrayList<Map.Entry<Integer, Hangman>>(games.size());
+
+		for (Map.Entry<Integer, Hangman> entry : games.entrySet()) {												// Taken first: the map may be changing.
+			int wordId = entry.getValue().getSecretWordId();
+
+			if (wordId >= 0 && wordId <= MAX_WORD_ID)
+				saved.add(new AbstractMap.SimpleImmutableEntry<Integer, Hangman>(entry));
+
+		}
+
+		int count = saved.size();
+
+		File temporary = new File(file.getPath() + ".tmp");
+
+		try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+													StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			out.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0);
+			out.putLong(dictionaryIndex.getPartition(Hangman.EASY).getFingerprint());
+			out.putLong(dictionaryIndex.getPartition(Hangman.HARD).getFingerprint());
+
+			for (Map.Entry<Integer, Hangman> entry : saved) {
+
+				if (out.remaining() < RECORD_SIZE)
+					drain(channel, out);
+
+				Hangman game = entry.getValue();
+				out.putInt(entry.getKey());
+				out.putInt(game.getSecretWordId() | (Math.min(game.getNumWrongGuesses(), Hangman.MAX_GUESSES) << WORD_ID_BITS) |
+						   (game.getDifficultyLevel() << (WORD_ID_BITS + WRONG_GUESSES_BITS)));
+				out.putLong(game.getLettersUsed());
+
+			}
+			drain(channel, out);
+			channel.force(true);																			// On disk before it replaces the old file.
+
+		}
+		Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return count;
+
+	}
+
+	/**
+	 * Method used to restore the games of a session file. Each game gets its own Hangman, over the words of
+	 * its difficulty level, with the round where it was left.
+	 * @param file session file.
+	 * @param dictionaryIndex dictionary the games were played with.
+	 * @return games by session id, in the order they were saved.
+	 * @throws IOException file could not be read, is not a session file, or was saved with other words.
+	 */
+	public static LinkedHashMap<Integer, Hangman> restore(File file, DictionaryIndex dictionaryIndex) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+
+			if (channel.size() < HEADER_SIZE)
+				throw new IOException(file + " is not a session file.");
+
+			ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			fill(channel, in);
+
+			if (in.getInt() != MAGIC || in.getInt() != VERSION)
+				throw new IOException(file + " is not a session file.");
+
+			int count = in.getInt();
+			in.getInt();
+			DictionaryIndex.Partition[] partitions = {dictionaryIndex.getPartition(Hangman.EASY), dictionaryIndex.getPartition(Hangman.HARD)};
+
+			if (in.getLong() != partitions[Hangman.EASY].getFingerprint() || in.getLong() != partitions[Hangman.HARD].getFingerprint())
+				throw new IOException(file + " was saved with another dictionary.");
+
+			if (channel.size() != HEADER_SIZE + (long) count * RECORD_SIZE)
+				throw new IOException(file + " is truncated.");
+
+			LinkedHashMap<Integer, Hangman> games = new LinkedHashMap<Integer, Hangman>(2 * count);
+
+			for (int index = 0; index < count; index++) {
+
+				if (in.remaining() < RECORD_SIZE) {
+					in.compact();
+					fill(channel, in);
+
+				}
+
+				int sessionId = in.getInt();
+				int packed = in.getInt();
+				long lettersUsed = in.getLong();
+				int wordId = packed & MAX_WORD_ID;
+				int difficultyLevel = packed >>> (WORD_ID_BITS + WRONG_GUESSES_BITS);
+
+				if (difficultyLevel > Hangman.HARD || wordId >= partitions[difficultyLevel].getWords().size())
+					throw new IOException(file + " has a corrupt record for session " + sessionId + ".");
+
+				Hangman game = new Hangman(partitions[difficultyLevel]);
+				game.setDifficultyLevel(difficultyLevel);
+				game.restoreRound(wordId, lettersUsed, (packed >>> WORD_ID_BITS) & ((1 << WRONG_GUESSES_BITS) - 1));
+				games.put(sessionId, game);
+
+			}
+			return games;
+
+		}
+	}
+
+	/**
+	 * Method used to write everything in a buffer to a channel, and clear it for more.
+	 * @param channel file written.
+	 * @param out buffer, being filled.
+	 * @throws IOException file could not be written.
+	 */
+	private static void drain(FileChannel channel, ByteBuffer out) throws IOException {
+
+		out.flip();
+
+		while (out.hasRemaining()) {
+			channel.write(out);
+
+		}
+		out.clear();
+
+	}
+
+	/**
+	 * Method used to read from a channel until a buffer is full or the file ends, and flip it for reading.
+	 * @param channel file read.
+	 * @param in buffer, being filled.
+	 * @throws IOException file could not be read.
+	 */
+	private static void fill(FileChannel channel, ByteBuffer in) throws IOException {
+
+		while (in.hasRemaining() && channel.read(in) >= 0) {
+		}
+		in.flip();
+
+	}
+}
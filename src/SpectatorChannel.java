@@ -0,0 +1,464 @@
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The SpectatorChannel Class streams the frames of a live game to any number of watchers. A frame is
+ * encoded, or copied, once, into a read-only slice of a direct ByteBuffer shared by every watcher; each
+ * watcher only gets its own duplicate() of it, a view with its own position, so the bytes are never copied
+ * per watcher. Frames are laid one after the other in direct buffers of ARENA_SIZE bytes, and a new one is
+ * only allocated when the last is full, so publishing doesn't allocate direct memory per frame. Publishing a
+ * frame just swaps in the latest one and wakes the fan-out thread up, so the player never waits for the
+ * watchers. The fan-out thread writes to every watcher without blocking: a watcher that can't take a
+ * whole frame keeps the rest of it for the next pass, and when it's done, it jumps to the latest frame,
+ * skipping (dropping) whatever was published in between. A frame is never cut, so watchers always see
+ * whole frames. Frames may also be published as deltas of the last whole frame, a key frame, e.g. the
+ * messages of a GameDeltaCodec round: deltas are kept until the next key frame, and a watcher takes them
+ * in order, never skipping one. A new watcher starts from the key frame, and a watcher still behind when
+ * the next key frame comes jumps to it. A watcher that can't take the rest of a frame is left alone until it
+ * can: a non-blocking socket is registered for OP_WRITE on the fan-out thread's selector, and anything else
+ * goes on a retry list polled every RETRY_NANOS, so a client that stops reading costs nothing while frames
+ * aren't being published.
+ * @author Cristobal Padilla
+ *
+ */
+public class SpectatorChannel implements Closeable {
+
+	// Time the fan-out thread waits before retrying watchers that couldn't take a whole frame and can't be selected.
+	public static final long RETRY_NANOS = 1_000_000;
+
+	// Size of the direct buffers frames are copied into, many frames each.
+	public static final int ARENA_SIZE = 256 * 1024;
+
+	// Instance fields.
+	private final CopyOnWriteArrayList<Watcher> watchers;
+	private final Selector selector;
+	private final ArrayList<Watcher> retrying;
+	private final AtomicBoolean published;
+	private final Thread fanOut;
+	private volatile Frame[] round;
+	private volatile boolean closed;
+	private volatile long framesSent;
+	private volatile long framesDropped;
+	private long sent;
+	private long dropped;
+	private long sequence;
+	private ByteBuffer arena;
+	private ServerSocketChannel server;
+
+	/**
+	 * The Frame Class is one published frame and its sequence number.
+	 */
+	private static final class Frame {
+
+		// Instance fields.
+		final ByteBuffer data;
+		final long sequence;
+
+		Frame(ByteBuffer data, long sequence) {
+
+			this.data = data;
+			this.sequence = sequence;
+
+		}
+	}
+
+	/**
+	 * The Watcher Class holds what the fan-out thread knows about one watcher. Only the fan-out thread
+	 * touches it once it's added.
+	 */
+	private static final class Watcher {
+
+		// Instance fields.
+		final WritableByteChannel channel;
+		ByteBuffer inFlight;
+		long lastSequence;
+		boolean stalled;
+		SelectionKey key;
+
+		Watcher(WritableByteChannel channel, long lastSequence) {
+
+			this.channel = channel;
+			this.lastSequence = lastSequence;
+
+		}
+	}
+
+	/**
+	 * No-args constructor. It starts the fan-out thread, as a daemon.
+	 * @throws IOException the selector could not be opened.
+	 */
+	public SpectatorChannel() throws IOException {
+
+		watchers = new CopyOnWriteArrayList<Watcher>();
+		selector = Selector.open();
+		retrying = new ArrayList<Watcher>();
+		published = new AtomicBoolean();
+		fanOut = new Thread(this::fanOutLoop, "spectator-fan-out");
+		fanOut.setDaemon(true);
+		fanOut.start();
+
+	}
+
+	/**
+	 * Method used to publish a frame. It's encoded once, and the watchers get it as soon as they can take it.
+	 * @param frame text of the frame, as printed to the console.
+	 */
+	public void publish(CharSequence frame) {
+		publish(ByteBuffer.wrap(frame.toString().getBytes(StandardCharsets.UTF_8)));
+
+	}
+
+	/**
+	 * Method used to publish an already encoded frame. Its bytes are copied, so the buffer can be reused.
+	 * @param frame bytes of the frame, from position to limit.
+	 */
+	public void publish(ByteBuffer frame) {
+		publish(frame, true);
+
+	}
+
+	/**
+	 * Method used to publish an already encoded frame, whole or as a delta. Its bytes are copied, so the
+	 * buffer can be reused.
+	 * @param frame bytes of the frame, from position to limit; the position is left where it was.
+	 * @param keyFrame True if the frame stands on its own, False if it's a delta of the frames since the
+	 * last key frame. A delta with no key frame before it is taken as one.
+	 */
+	public synchronized void publish(ByteBuffer frame, boolean keyFrame) {
+
+		Frame published = new Frame(copy(frame), ++sequence);
+		Frame[] frames = round;
+
+		if (keyFrame || frames == null) {
+			round = new Frame[] {published};
+
+		} else {
+			frames = Arrays.copyOf(frames, frames.length + 1);											// A new array: the fan-out thread may be reading the old one.
+			frames[frames.length - 1] = published;
+			round = frames;
+
+		}
+		wakeFanOut();
+
+	}
+
+	/**
+	 * Method used to copy a frame into the arena, taking a new one if it's full. The frames already in the
+	 * old arena keep it alive until the watchers are done with them.
+	 * @param frame bytes of the frame, from position to limit.
+	 * @return read-only copy, direct, so sockets write it without another copy.
+	 */
+	private ByteBuffer copy(ByteBuffer frame) {
+
+		int length = frame.remaining();
+
+		if (arena == null || arena.remaining() < length)
+			arena = ByteBuffer.allocateDirect(Math.max(ARENA_SIZE, length));
+
+		ByteBuffer data = arena.slice().limit(length);
+		data.put(frame.duplicate()).flip();
+		arena.position(arena.position() + length);
+		return data.asReadOnlyBuffer();
+
+	}
+
+	/**
+	 * Method used to add a watcher. It gets the latest key frame, and the deltas since, right away. Channels that can be made
+	 * non-blocking should be, so that one slow watcher doesn't hold up the others.
+	 * @param channel channel to write the frames to.
+	 */
+	public void addWatcher(WritableByteChannel channel) {
+
+		Frame[] frames = round;
+		watchers.add(new Watcher(channel, (frames == null) ? 0 : frames[0].sequence - 1));				// Starts with the key frame.
+		wakeFanOut();
+
+	}
+
+	/**
+	 * Method used to tell the fan-out thread that there's something new for every watcher.
+	 */
+	private void wakeFanOut() {
+
+		published.set(true);
+		selector.wakeup();
+
+	}
+
+	/**
+	 * Method used to accept watchers over TCP, on a daemon thread: anyone connecting to the port (e.g.
+	 * with telnet) starts watching.
+	 * @param port TCP port.
+	 * @throws IOException port could not be opened.
+	 */
+	public synchronized void listen(int port) throws IOException {
+
+		server = ServerSocketChannel.open();
+		server.bind(new InetSocketAddress(port));
+		ServerSocketChannel listening = server;
+
+		Thread acceptor = new Thread(() -> {
+
+			try {
+
+				while (!closed) {
+					SocketChannel socket = listening.accept();
+					socket.configureBlocking(false);
+					addWatcher(socket);
+
+				}
+
+			} catch (IOException exception) {
+				// Closed.
+
+			}
+		}, "spectator-accept");
+		acceptor.setDaemon(true);
+		acceptor.start();
+
+	}
+
+	/**
+	 * Method used by the fan-out thread: it passes over the watchers when something is published or added,
+	 * writes to stalled sockets when the selector says they can take more, polls the retry list, and
+	 * otherwise sleeps in the selector until the channel is closed.
+	 */
+	private void fanOutLoop() {
+
+		long retryMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(RETRY_NANOS));
+		long nextRetry = 0;
+
+		try {
+
+			while (!closed) {
+
+				if (published.getAndSet(false))
+					fanOutPass();
+
+				if (retrying.isEmpty())
+					selector.select();																// publish() and addWatcher() wake it up.
+				else
+					selector.select(retryMillis);
+
+				for (SelectionKey key : selector.selectedKeys()) {										// Stalled sockets that can take more.
+
+					if (key.isValid()) {
+						key.interestOps(0);
+						resume((Watcher) key.attachment());
+
+					}
+				}
+				selector.selectedKeys().clear();
+
+				if (!retrying.isEmpty() && System.nanoTime() - nextRetry >= 0) {
+					nextRetry = System.nanoTime() + RETRY_NANOS;
+					Watcher[] retry = retrying.toArray(new Watcher[0]);
+					retrying.clear();
+
+					for (Watcher watcher : retry) {
+						resume(watcher);
+
+					}
+				}
+				framesSent = sent;																		// Only this thread writes the counters.
+				framesDropped = dropped;
+
+			}
+
+		} catch (IOException exception) {
+			// The selector failed: nothing more can be sent.
+
+		} finally {
+			closeQuietly(selector);
+
+		}
+	}
+
+	/**
+	 * Method used to write as much as possible to every watcher that isn't stalled, once.
+	 */
+	private void fanOutPass() {
+
+		for (Watcher watcher : watchers) {
+
+			if (!watcher.stalled)
+				write(watcher);
+
+		}
+	}
+
+	/**
+	 * Method used to write to a watcher that was stalled, and is worth another try.
+	 * @param watcher watcher.
+	 */
+	private void resume(Watcher watcher) {
+
+		watcher.stalled = false;
+		write(watcher);
+
+	}
+
+	/**
+	 * Method used to write frames to a watcher until it has the latest one or can't take more. A watcher
+	 * that can't take more is stalled: left out of the passes until its socket is writable, or until the
+	 * next retry. Watchers whose channel fails are closed and removed.
+	 * @param watcher watcher.
+	 */
+	private void write(Watcher watcher) {
+
+		Frame[] frames = round;
+
+		if (frames == null)
+			return;
+
+		long first = frames[0].sequence;
+		long last = frames[frames.length - 1].sequence;
+
+		try {
+
+			while (true) {
+
+				if (watcher.inFlight == null) {
+
+					if (watcher.lastSequence >= last)
+						return;
+
+					Frame frame = frames[(int) Math.max(0, watcher.lastSequence + 1 - first)];			// The next delta, or the key frame if it's behind.
+					dropped += frame.sequence - watcher.lastSequence - 1;
+					watcher.inFlight = frame.data.duplicate();										// A view: same bytes, own position.
+					watcher.lastSequence = frame.sequence;
+
+				}
+
+				watcher.channel.write(watcher.inFlight);
+
+				if (watcher.inFlight.hasRemaining()) {
+					stall(watcher);
+					return;
+
+				}
+				watcher.inFlight = null;
+				sent++;
+
+			}
+
+		} catch (IOException exception) {
+			watchers.remove(watcher);
+			closeQuietly(watcher.channel);
+
+		}
+	}
+
+	/**
+	 * Method used to leave a watcher alone until it can take more: a non-blocking socket waits for OP_WRITE,
+	 * anything else goes on the retry list.
+	 * @param watcher watcher.
+	 * @throws IOException the channel is closed.
+	 */
+	private void stall(Watcher watcher) throws IOException {
+
+		watcher.stalled = true;
+
+		if (watcher.channel instanceof SelectableChannel && !((SelectableChannel) watcher.channel).isBlocking()) {
+
+			if (watcher.key == null)
+				watcher.key = ((SelectableChannel) watcher.channel).register(selector, SelectionKey.OP_WRITE, watcher);
+			else
+				watcher.key.interestOps(SelectionKey.OP_WRITE);
+
+		} else {
+			retrying.add(watcher);
+
+		}
+	}
+
+	/**
+	 * Method used to close a watcher's channel, or the selector, ignoring errors.
+	 * @param channel channel.
+	 */
+	private static void closeQuietly(Closeable channel) {
+
+		try {
+			channel.close();
+
+		} catch (IOException exception) {
+			// Already gone.
+
+		}
+	}
+
+	/**
+	 * Method used to get the number of watchers.
+	 * @return watchers
+	 */
+	public int getNumWatchers() {
+		return watchers.size();
+
+	}
+
+	/**
+	 * Method used to get the number of frames published.
+	 * @return frames
+	 */
+	public synchronized long getFramesPublished() {
+		return sequence;
+
+	}
+
+	/**
+	 * Method used to get the number of whole frames written, over all watchers.
+	 * @return frames
+	 */
+	public long getFramesSent() {
+		return framesSent;
+
+	}
+
+	/**
+	 * Method used to get the number of frames skipped by watchers that were too slow, over all watchers.
+	 * @return frames
+	 */
+	public long getFramesDropped() {
+		return framesDropped;
+
+	}
+
+	/**
+	 * Method used to get the fan-out thread, e.g. to measure it.
+	 * @return thread
+	 */
+	Thread getFanOutThread() {
+		return fanOut;
+
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		closed = true;
+		selector.wakeup();
+
+		synchronized (this) {
+
+			if (server != null)
+				server.close();
+
+		}
+
+		for (Watcher watcher : watchers) {
+			closeQuietly(watcher.channel);
+
+		}
+		watchers.clear();
+
+	}
+}
@@ -0,0 +1,32 @@
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The StdinWordSource Class reads a dictionary piped into the standard input, e.g. from another program, as
+ * UTF-8 whatever the platform's charset.
+ * Closing its reader leaves the standard input open.
+ * @author Cristobal Padilla
+ *
+ */
+public class StdinWordSource implements WordSource {
+
+	@Override
+	public BufferedReader open() {
+
+		return new BufferedReader(new InputStreamReader(new FilterInputStream(System.in) {
+
+			@Override
+			public void close() {
+				// System.in belongs to the program.
+
+			}
+		}, StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public String getName() {
+		return "-";
+
+	}
+}
@@ -0,0 +1,279 @@
+
+import java.util.List;
+
+/**
+ * The TimingWheel Class keeps deadlines for a large number of items, e.g. the idle deadline of every
+ * session of a server, where a scheduled task per item would not scale. Time is cut into ticks, and the
+ * wheel has LEVELS levels of SLOTS slots each: level 0 has a slot per tick, level 1 a slot per SLOTS ticks,
+ * and so on, so four levels of 64 slots cover 16 million ticks. An item goes in the slot of its deadline,
+ * on the lowest level whose range reaches it, as a node of a doubly linked list, so scheduling, moving
+ * (touching) and cancelling an item are all O(1). As time goes by, the items of a higher slot are moved
+ * down a level when their slot comes up, and the items of a level 0 slot expire together, as a batch.
+ * Deadlines are rounded up to a tick, so an item never expires early, and at most one tick late.
+ * It isn't thread-safe: it's meant for the one thread that owns the items, like a server's event loop.
+ * @author Cristobal Padilla
+ *
+ */
+public class TimingWheel<T> {
+
+	// Shape of the wheel.
+	public static final int SLOT_BITS = 6;
+	public static final int SLOTS = 1 << SLOT_BITS;
+	public static final int LEVELS = 4;
+
+	// Instance fields.
+	private final long tickNanos;
+	private final long origin;
+	private final Timer<T>[][] slots;
+	private long currentTick;
+	private boolean advancing;
+	private int size;
+	private long numExpired;
+
+	/**
+	 * The Timer Class is the node of one item in the wheel. Keep it to touch or cancel the item.
+	 */
+	public static final class Timer<T> {
+
+		// Instance fields.
+		private final T item;
+		private long deadline;
+		private Timer<T> previous;
+		private Timer<T> next;
+
+		private Timer(T item) {
+			this.item = item;
+
+		}
+
+		/**
+		 * Method used to get the item the timer is for.
+		 * @return item
+		 */
+		public T getItem() {
+			return item;
+
+		}
+
+		/**
+		 * Method used to get when the timer expires.
+		 * @return System.nanoTime() value.
+		 */
+		public long getDeadline() {
+			return deadline;
+
+		}
+
+		/**
+		 * Method used to know whether the timer is in a wheel, i.e. it has neither expired nor been cancelled.
+		 * @return True if scheduled.
+		 */
+		public boolean isScheduled() {
+			return next != null;
+
+		}
+	}
+
+	/**
+	 * Constructor takes the length of a tick and the current time.
+	 * @param tickNanos length of a tick: the precision of the deadlines.
+	 * @param now System.nanoTime() value.
+	 */
+	@SuppressWarnings("unchecked")
+	public TimingWheel(long tickNanos, long now) {
+
+		if (tickNanos <= 0)
+			throw new IllegalArgumentException("The tick must be positive.");
+
+		this.tickNanos = tickNanos;
+		origin = now;
+		slots = (Timer<T>[][]) new Timer<?>[LEVELS][SLOTS];
+
+		for (Timer<T>[] level : slots) {
+
+			for (int slot = 0; slot < SLOTS; slot++) {
+				Timer<T> sentinel = new Timer<T>(null);													// Every list is circular, around a sentinel.
+				sentinel.previous = sentinel;
+				sentinel.next = sentinel;
+				level[slot] = sentinel;
+
+			}
+		}
+	}
+
+	/**
+	 * Method used to add an item to the wheel.
+	 * @param item item.
+	 * @param deadline System.nanoTime() value when it expires.
+	 * @return timer of the item.
+	 */
+	public Timer<T> schedule(T item, long deadline) {
+
+		Timer<T> timer = new Timer<T>(item);
+		timer.deadline = deadline;
+		insert(timer);
+		size++;
+		return timer;
+
+	}
+
+	/**
+	 * Method used to move an item's deadline, e.g. when its session is used again. An expired or cancelled
+	 * timer is scheduled again.
+	 * @param timer timer of the item.
+	 * @param deadline System.nanoTime() value when it expires.
+	 */
+	public void reschedule(Timer<T> timer, long deadline) {
+
+		if (timer.isScheduled())
+			unlink(timer);
+		else
+			size++;
+
+		timer.deadline = deadline;
+		insert(timer);
+
+	}
+
+	/**
+	 * Method used to take an item out of the wheel before it expires.
+	 * @param timer timer of the item.
+	 */
+	public void cancel(Timer<T> timer) {
+
+		if (timer.isScheduled()) {
+			unlink(timer);
+			size--;
+
+		}
+	}
+
+	/**
+	 * Method used to move the wheel's time forward, and collect the items that expired on the way.
+	 * @param now System.nanoTime() value.
+	 * @param expired list the expired items are added to, in order of expiry tick.
+	 * @return number of items that expired.
+	 */
+	public int advance(long now, List<T> expired) {
+
+		long targetTick = Math.floorDiv(now - origin, tickNanos);
+		int count = 0;
+		advancing = true;
+
+		while (currentTick < targetTick) {
+			currentTick++;
+
+			int topLevel = 0;
+
+			while (topLevel < LEVELS - 1 && (currentTick & ((1L << (SLOT_BITS * (topLevel + 1))) - 1)) == 0) {
+				topLevel++;
+
+			}
+
+			for (int level = topLevel; level > 0; level--) {												// Highest first: its items may land a level below.
+				cascade(level, (int) (currentTick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+
+			}
+
+			Timer<T> sentinel = slots[0][(int) currentTick & (SLOTS - 1)];
+
+			while (sentinel.next != sentinel) {
+				Timer<T> timer = sentinel.next;
+				unlink(timer);
+				expired.add(timer.item);
+				count++;
+
+			}
+		}
+
+		advancing = false;
+		size -= count;
+		numExpired += count;
+		return count;
+
+	}
+
+	/**
+	 * Method used to put the items of a slot back in the wheel, which puts them on lower levels.
+	 * @param level level of the slot.
+	 * @param slot index of the slot.
+	 */
+	private void cascade(int level, int slot) {
+
+		Timer<T> sentinel = slots[level][slot];
+
+		while (sentinel.next != sentinel) {
+			Timer<T> timer = sentinel.next;
+			unlink(timer);
+			insert(timer);
+
+		}
+	}
+
+	/**
+	 * Method used to link a timer into the slot of its deadline.
+	 * @param timer timer, not in the wheel.
+	 */
+	private void insert(Timer<T> timer) {
+
+		long deadlineTick = Math.floorDiv(timer.deadline - origin + tickNanos - 1, tickNanos);			// Rounded up: never early.
+		deadlineTick = Math.max(deadlineTick, advancing ? currentTick : currentTick + 1);				// Past deadlines: as soon as possible.
+		long delta = deadlineTick - currentTick;
+		int level = 0;
+
+		while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+			level++;
+
+		}
+
+		if (delta >= (1L << (SLOT_BITS * LEVELS)))															// Beyond the wheel: as far as it goes.
+			deadlineTick = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+
+		Timer<T> sentinel = slots[level][(int) (deadlineTick >>> (SLOT_BITS * level)) & (SLOTS - 1)];
+		timer.previous = sentinel.previous;
+		timer.next = sentinel;
+		sentinel.previous.next = timer;
+		sentinel.previous = timer;
+
+	}
+
+	/**
+	 * Method used to take a timer out of its slot.
+	 * @param timer timer, in the wheel.
+	 */
+	private static <T> void unlink(Timer<T> timer) {
+
+		timer.previous.next = timer.next;
+		timer.next.previous = timer.previous;
+		timer.previous = null;
+		timer.next = null;
+
+	}
+
+	/**
+	 * Method used to get the number of items in the wheel.
+	 * @return items
+	 */
+	public int size() {
+		return size;
+
+	}
+
+	/**
+	 * Method used to get the number of items that expired since the wheel was made.
+	 * @return items
+	 */
+	public long getNumExpired() {
+		return numExpired;
+
+	}
+
+	/**
+	 * Method used to get the length of a tick: the precision of the deadlines.
+	 * @return nanoseconds
+	 */
+	public long getTickNanos() {
+		return tickNanos;
+
+	}
+}
@@ -0,0 +1,142 @@
+
+/**
+ * The TournamentResult Class holds the results of one strategy over a share of a tournament's games.
+ * Every worker fills its own results, and results are merged pairwise when the workers are joined, so
+ * no two threads ever write to the same one.
+ * @author Cristobal Padilla
+ *
+ */
+public class TournamentResult {
+
+	// Instance fields.
+	private final String strategyName;
+	private long numGames;
+	private long numWins;
+	private final long[] guessesUsed;																	// Games by number of guesses made.
+	private final long[] wrongGuesses;																	// Games by number of wrong guesses.
+
+	/**
+	 * Constructor starts an empty result.
+	 * @param strategyName name of the strategy.
+	 */
+	public TournamentResult(String strategyName) {
+
+		this.strategyName = strategyName;
+		guessesUsed = new long[Alphabet.MAX_SIZE + 1];
+		wrongGuesses = new long[Hangman.MAX_GUESSES + 1];
+
+	}
+
+	/**
+	 * Method used to add one game.
+	 * @param won True if the strategy guessed the word.
+	 * @param numGuesses number of guesses made.
+	 * @param numWrongGuesses number of wrong guesses made.
+	 */
+	public void addGame(boolean won, int numGuesses, int numWrongGuesses) {
+
+		numGames++;
+
+		if (won)
+			numWins++;
+
+		guessesUsed[numGuesses]++;
+		wrongGuesses[numWrongGuesses]++;
+
+	}
+
+	/**
+	 * Method used to add another result of the same strategy into this one.
+	 * @param other result to add.
+	 * @return this result.
+	 */
+	public TournamentResult merge(TournamentResult other) {
+
+		numGames += other.numGames;
+		numWins += other.numWins;
+
+		for (int index = 0; index < guessesUsed.length; index++) {
+			guessesUsed[index] += other.guessesUsed[index];
+
+		}
+
+		for (int index = 0; index < wrongGuesses.length; index++) {
+			wrongGuesses[index] += other.wrongGuesses[index];
+
+		}
+		return this;
+
+	}
+
+	/**
+	 * Method used to get the header line of the CSV summary.
+	 * @return header
+	 */
+	public static String csvHeader() {
+
+		StringBuilder str = new StringBuilder("strategy,games,wins,win_rate,mean_guesses");
+
+		for (int index = 0; index <= Hangman.MAX_GUESSES; index++) {
+			str.append(",wrong_").append(index);
+
+		}
+
+		for (int index = 1; index <= Alphabet.MAX_SIZE; index++) {
+			str.append(",guesses_").append(index);
+
+		}
+		return str.toString();
+
+	}
+
+	/**
+	 * Method used to get this result as one line of the CSV summary.
+	 * @return line
+	 */
+	public String toCsv() {
+
+		long totalGuesses = 0;
+
+		for (int index = 0; index < guessesUsed.length; index++) {
+			totalGuesses += index * guessesUsed[index];
+
+		}
+
+		StringBuilder str = new StringBuilder();
+		str.append(strategyName).append(',')
+		   .append(numGames).append(',')
+		   .append(numWins).append(',')
+		   .append(String.format("%.4f", (numGames == 0) ? 0.0 : (double) numWins / numGames)).append(',')
+		   .append(String.format("%.2f", (numGames == 0) ? 0.0 : (double) totalGuesses / numGames));
+
+		for (long count : wrongGuesses) {
+			str.append(',').append(count);
+
+		}
+
+		for (int index = 1; index < guessesUsed.length; index++) {
+			str.append(',').append(guessesUsed[index]);
+
+		}
+		return str.toString();
+
+	}
+
+	/**
+	 * Method used to get the number of games.
+	 * @return numGames
+	 */
+	public long getNumGames() {
+		return numGames;
+
+	}
+
+	/**
+	 * Method used to get the number of wins.
+	 * @return numWins
+	 */
+	public long getNumWins() {
+		return numWins;
+
+	}
+}
@@ -0,0 +1,292 @@
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * The WordScores Class holds a difficulty score, from 0 (easiest) to 1 (hardest), for every word of a
+ * dictionary. A score mixes three things:
+ *
+ *   - how many wrong guesses a reference solver (CandidateFilterStrategy) needs, out of MAX_GUESSES;
+ *   - how rare the word's letters are, compared with the most common letter of the dictionary;
+ *   - how few distinct letters the word has (few letters means few ways to hit).
+ *
+ * Scoring is done offline, in parallel, by running this class on a dictionary file. The scores are saved
+ * next to the dictionary, in a cache file that starts with a CRC-32 fingerprint of the dictionary's bytes;
+ * the game only uses a cache whose fingerprint still matches the file.
+ * Usage: java WordScores dictionaryFile
+ * @author Cristobal Padilla
+ *
+ */
+public class WordScores {
+
+	// Static constants.
+	public static final String CACHE_SUFFIX = ".scores";
+	public static final String CACHE_HEADER = "# hangman word scores v1 ";
+	public static final double SOLVER_WEIGHT = 0.5;
+	public static final double RARITY_WEIGHT = 0.3;
+	public static final double DISTINCT_WEIGHT = 0.2;
+	public static final int MANY_DISTINCT_LETTERS = 10;
+
+	// Instance fields.
+	private final long fileFingerprint;
+	private final HashMap<String, Double> scores;
+
+	public static void main(String[] args) {
+
+		if (args.length != 1) {
+			System.out.println("Usage: java WordScores dictionaryFile");
+			return;
+
+		}
+
+		try {
+			File dictionaryFile = new File(args[0]);
+			long start = System.nanoTime();
+			WordScores wordScores = compute(dictionaryFile);
+			wordScores.save(dictionaryFile);
+
+			System.out.println("Scored " + wordScores.size() + " words in " + (System.nanoTime() - start) / 1_000_000 +
+							   " ms, saved to " + cacheFile(dictionaryFile));
+
+		} catch (IOException exception) {
+			System.out.println(exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * Constructor takes the scores and the fingerprint of the file they belong to.
+	 * @param fileFingerprint fingerprint of the dictionary file.
+	 * @param scores score of each word.
+	 */
+	private WordScores(long fileFingerprint, HashMap<String, Double> scores) {
+		this.fileFingerprint = fileFingerprint;
+		this.scores = scores;
+
+	}
+
+	/**
+	 * Method used to score every word of a dictionary file. The reference solver plays each word once, and
+	 * words are spread over all cores.
+	 * @param dictionaryFile dictionary file.
+	 * @return scores
+	 * @throws IOException dictionary could not be read.
+	 */
+	public static WordScores compute(File dictionaryFile) throws IOException {
+
+		long fileFingerprint = fingerprintFile(dictionaryFile);
+		DictionaryIndex index = DictionaryIndex.load(ParallelGzipInputStream.openReader(dictionaryFile));
+		ArrayList<String> words = new ArrayList<String>(index.getPartition(Hangman.EASY).getWords());
+		ArrayList<Double> frequencies = new ArrayList<Double>();
+		words.addAll(index.getPartition(Hangman.HARD).getWords());
+
+		for (int count = 0; count < words.size(); count++) {
+			frequencies.add(Hangman.DEFAULT_FREQUENCY);
+
+		}
+
+		DictionaryIndex.Partition everything = new DictionaryIndex.Partition(words, frequencies, false);
+		Alphabet alphabet = everything.getAlphabet();
+		double[] rarity = letterRarity(words, alphabet);
+		GuessingStrategy solver = new CandidateFilterStrategy(words);
+		ThreadLocal<Hangman> games = ThreadLocal.withInitial(() -> new Hangman(everything));
+		double[] wordScores = new double[words.size()];
+
+		IntStream.range(0, words.size()).parallel().forEach(wordIndex -> {
+			Hangman game = games.get();
+			game.setSecretWord(words.get(wordIndex));
+			game.playRound(solver);
+			wordScores[wordIndex] = score(Alphabet.fold(words.get(wordIndex)), game.checkGameStatus() ? game.getNumWrongGuesses() :
+										  Hangman.MAX_GUESSES, rarity, alphabet);
+
+		});
+
+		HashMap<String, Double> scores = new HashMap<String, Double>(2 * words.size());
+
+		for (int wordIndex = 0; wordIndex < words.size(); wordIndex++) {
+			scores.put(words.get(wordIndex), wordScores[wordIndex]);
+
+		}
+		return new WordScores(fileFingerprint, scores);
+
+	}
+
+	/**
+	 * Method used to rate every letter of the alphabet from 0 (the most common letter) to 1 (never used).
+	 * @param words dictionary words.
+	 * @param alphabet alphabet of the words.
+	 * @return rarity of each alphabet index.
+	 */
+	private static double[] letterRarity(List<String> words, Alphabet alphabet) {
+
+		long[] counts = new long[alphabet.size()];
+		long maxCount = 1;
+
+		for (String word : words) {
+			String folded = Alphabet.fold(word);
+
+			for (int index = 0; index < folded.length(); index++) {
+				int letter = alphabet.indexOf(folded.charAt(index));
+
+				if (letter >= 0)
+					maxCount = Math.max(maxCount, ++counts[letter]);
+
+			}
+		}
+
+		double[] rarity = new double[alphabet.size()];
+
+		for (int letter = 0; letter < rarity.length; letter++) {
+			rarity[letter] = 1.0 - (double) counts[letter] / maxCount;
+
+		}
+		return rarity;
+
+	}
+
+	/**
+	 * Method used to combine the three parts of a score.
+	 * @param foldedWord case-folded word.
+	 * @param solverWrongGuesses wrong guesses the solver needed, or MAX_GUESSES if it lost.
+	 * @param rarity rarity of each alphabet index.
+	 * @param alphabet alphabet of the dictionary.
+	 * @return score, from 0 to 1.
+	 */
+	private static double score(String foldedWord, int solverWrongGuesses, double[] rarity, Alphabet alphabet) {
+
+		long letters = alphabet.letterMask(foldedWord);
+		int numDistinct = Long.bitCount(letters);
+		double totalRarity = 0;
+
+		for (long remaining = letters; remaining != 0; remaining &= remaining - 1) {
+			totalRarity += rarity[Long.numberOfTrailingZeros(remaining)];
+
+		}
+
+		double solverPart = (double) solverWrongGuesses / Hangman.MAX_GUESSES;
+		double rarityPart = (numDistinct == 0) ? 1.0 : totalRarity / numDistinct;
+		double distinctPart = 1.0 - (double) Math.min(numDistinct, MANY_DISTINCT_LETTERS) / MANY_DISTINCT_LETTERS;
+
+		return SOLVER_WEIGHT * solverPart + RARITY_WEIGHT * rarityPart + DISTINCT_WEIGHT * distinctPart;
+
+	}
+
+	/**
+	 * Method used to load the cached scores of a dictionary file.
+	 * @param dictionaryFile dictionary file.
+	 * @return scores, or null if there is no cache or it was made for a different version of the file.
+	 * @throws IOException cache could not be read.
+	 */
+	public static WordScores loadCached(File dictionaryFile) throws IOException {
+
+		File cache = cacheFile(dictionaryFile);
+
+		if (!cache.isFile())
+			return null;
+
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(cache), StandardCharsets.UTF_8))) {
+
+			String header = in.readLine();
+
+			if (header == null || !header.startsWith(CACHE_HEADER))
+				return null;
+
+			long cachedFingerprint = Long.parseLong(header.substring(CACHE_HEADER.length()).trim(), 16);
+
+			if (cachedFingerprint != fingerprintFile(dictionaryFile))
+				return null;																			// Stale: the dictionary changed.
+
+			HashMap<String, Double> scores = new HashMap<String, Double>();
+			String line;
+
+			while ((line = in.readLine()) != null) {
+				int tab = line.lastIndexOf('\t');
+
+				if (tab > 0)
+					scores.put(line.substring(0, tab), Double.parseDouble(line.substring(tab + 1)));
+
+			}
+			return new WordScores(cachedFingerprint, scores);
+
+		} catch (NumberFormatException exception) {
+			throw new IOException("Corrupt score cache " + cache + ": " + exception.getMessage());
+
+		}
+	}
+
+	/**
+	 * Method used to save the scores next to the dictionary file.
+	 * @param dictionaryFile dictionary file.
+	 * @throws IOException cache could not be written.
+	 */
+	public void save(File dictionaryFile) throws IOException {
+
+		try (PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(cacheFile(dictionaryFile)), StandardCharsets.UTF_8)))) {
+
+			out.println(CACHE_HEADER + Long.toHexString(fileFingerprint));
+
+			for (Map.Entry<String, Double> entry : scores.entrySet()) {
+				out.println(entry.getKey() + "\t" + entry.getValue());
+
+			}
+		}
+	}
+
+	/**
+	 * Method used to get the cache file of a dictionary file.
+	 * @param dictionaryFile dictionary file.
+	 * @return cache file.
+	 */
+	public static File cacheFile(File dictionaryFile) {
+		return new File(dictionaryFile.getPath() + CACHE_SUFFIX);
+
+	}
+
+	/**
+	 * Method used to compute the CRC-32 of a file's bytes.
+	 * @param file file.
+	 * @return fingerprint
+	 * @throws IOException file could not be read.
+	 */
+	public static long fingerprintFile(File file) throws IOException {
+
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[64 * 1024];
+
+		try (InputStream in = new FileInputStream(file)) {
+			int count;
+
+			while ((count = in.read(buffer)) > 0) {
+				crc.update(buffer, 0, count);
+
+			}
+		}
+		return crc.getValue();
+
+	}
+
+	/**
+	 * Method used to get the score of a word.
+	 * @param word dictionary word.
+	 * @return score, or NaN if the word has none.
+	 */
+	public double scoreOf(String word) {
+
+		Double score = scores.get(word);
+		return (score == null) ? Double.NaN : score;
+
+	}
+
+	/**
+	 * Method used to get the number of words scored.
+	 * @return size
+	 */
+	public int size() {
+		return scores.size();
+
+	}
+}
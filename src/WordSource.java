@@ -0,0 +1,116 @@
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.*;
+
+/**
+ * This interface is implemented by the places a dictionary can be read from: a file, a resource on the
+ * classpath, a directory of files, the standard input, or several of those merged together. A source only
+ * has to open a reader over its lines; DictionaryIndex.load(WordSource) does the rest. A source made of
+ * several others lists them in expand(), so that they can be read in parallel (see MergedWordSource).
+ * @author Cristobal Padilla
+ *
+ */
+public interface WordSource {
+
+	// Name of the bundled dictionary, on the classpath or next to the classes.
+	String DEFAULT_RESOURCE = "words.txt";
+
+	/**
+	 * Method used to open a reader over the lines of the source, decoded as UTF-8. The caller closes it.
+	 * @return reader
+	 * @throws IOException source not found, or could not be read.
+	 */
+	BufferedReader open() throws IOException;
+
+	/**
+	 * Method used to get the name of the source, for messages.
+	 * @return name
+	 */
+	String getName();
+
+	/**
+	 * Method used to get the sources this one is made of, which can be read in parallel. A simple source
+	 * is made of itself.
+	 * @return sources
+	 * @throws IOException sources could not be listed.
+	 */
+	default List<WordSource> expand() throws IOException {
+		return Collections.singletonList(this);
+
+	}
+
+	/**
+	 * Method used to get the file the source reads, which is where its WordScores are cached.
+	 * @return file, or null if the source is not a single file.
+	 */
+	default File getFile() {
+		return null;
+
+	}
+
+	/**
+	 * Method used to build a source from a command line argument, or from what the user typed. Several
+	 * sources separated by commas are merged. Each one is "-" for the standard input, "classpath:name" for a
+	 * resource, "default" for the default dictionary, a directory, or a file.
+	 * @param spec source specification.
+	 * @return source
+	 */
+	static WordSource parse(String spec) {
+
+		ArrayList<WordSource> sources = new ArrayList<WordSource>();
+
+		for (String part : spec.split(",")) {
+			String name = part.trim();
+
+			if (name.equals("-"))
+				sources.add(new StdinWordSource());
+			else if (name.startsWith("classpath:"))
+				sources.add(new ClasspathWordSource(name.substring("classpath:".length())));
+			else if (name.equalsIgnoreCase("default"))
+				sources.add(defaultSource());
+			else if (new File(name).isDirectory())
+				sources.add(new DirectoryWordSource(new File(name)));
+			else
+				sources.add(new FileWordSource(new File(name)));
+
+		}
+		return (sources.size() == 1) ? sources.get(0) : new MergedWordSource(sources);
+
+	}
+
+	/**
+	 * Method used to find the default dictionary, wherever the game is run from: DEFAULT_RESOURCE on the
+	 * classpath (e.g. bundled in the jar), then in the directory of the classes or the one above it (where
+	 * it sits in the source tree), then Hangman.DEFAULT_DICTIONARY_FILE_PATH from the working directory.
+	 * @return source
+	 */
+	static WordSource defaultSource() {
+
+		if (WordSource.class.getClassLoader().getResource(DEFAULT_RESOURCE) != null)
+			return new ClasspathWordSource(DEFAULT_RESOURCE);
+
+		try {
+			CodeSource code = WordSource.class.getProtectionDomain().getCodeSource();
+
+			if (code != null) {
+				File classes = new File(code.getLocation().toURI());
+				File directory = classes.isDirectory() ? classes : classes.getParentFile();					// A directory of classes, or a jar.
+
+				for (File file : new File[] {new File(directory, DEFAULT_RESOURCE), new File(directory.getParentFile(), DEFAULT_RESOURCE)}) {
+
+					if (file.isFile())
+						return new FileWordSource(file);
+
+				}
+			}
+
+		} catch (URISyntaxException | IllegalArgumentException | SecurityException exception) {
+			// Not a local file: nothing to look next to.
+
+		}
+		return new FileWordSource(new File(Hangman.DEFAULT_DICTIONARY_FILE_PATH));
+
+	}
+}